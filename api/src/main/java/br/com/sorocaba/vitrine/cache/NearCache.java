@@ -0,0 +1,154 @@
+package br.com.sorocaba.vitrine.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-process cache with LRU eviction, per-entry TTL and negative caching.
+ * A loader returning null is remembered as "not found" for the (shorter) negative TTL.
+ *
+ * Invalidation bumps a generation counter so that a load which raced with a commit
+ * never stores the value it read before that commit.
+ */
+public class NearCache<K, V> {
+
+    private final String nome;
+    private final int maxEntradas;
+    private final long ttlMillis;
+    private final long ttlNegativoMillis;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder hitsNegativos = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expiracoes = new LongAdder();
+
+    private long geracao;
+
+    public NearCache(String nome, int maxEntradas, Duration ttl, Duration ttlNegativo) {
+        this.nome = nome;
+        this.maxEntradas = maxEntradas;
+        this.ttlMillis = ttl.toMillis();
+        this.ttlNegativoMillis = ttlNegativo.toMillis();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > NearCache.this.maxEntradas) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key, loading it on a miss.
+     * Returns null when the loader reported the key as absent (possibly from cache).
+     */
+    public V obter(K chave, Function<K, V> carregador) {
+        long agora = System.currentTimeMillis();
+        long geracaoInicial;
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(chave);
+            if (entrada != null) {
+                if (entrada.expiraEm - agora > 0) {
+                    if (entrada.valor == null) {
+                        hitsNegativos.increment();
+                    } else {
+                        hits.increment();
+                    }
+                    return entrada.valor;
+                }
+                entradas.remove(chave);
+                expiracoes.increment();
+            }
+            geracaoInicial = geracao;
+        }
+
+        misses.increment();
+        V valor = carregador.apply(chave);
+        long ttl = valor != null ? ttlMillis : ttlNegativoMillis;
+        synchronized (this) {
+            if (geracao == geracaoInicial && ttl > 0) {
+                entradas.put(chave, new Entrada<>(valor, System.currentTimeMillis() + ttl));
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Returns the live cached value, or null when absent or expired. Does not count as a miss.
+     */
+    public V obterSePresente(K chave) {
+        long agora = System.currentTimeMillis();
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(chave);
+            if (entrada == null || entrada.expiraEm - agora <= 0 || entrada.valor == null) {
+                return null;
+            }
+            hits.increment();
+            return entrada.valor;
+        }
+    }
+
+    /**
+     * Current generation; read it before producing a value that will be stored with {@link #colocar}.
+     */
+    public synchronized long geracao() {
+        return geracao;
+    }
+
+    /**
+     * Stores a value produced outside {@link #obter}, unless an invalidation happened since
+     * {@code geracaoLida} was read. Counts as the miss that produced the value.
+     */
+    public void colocar(K chave, V valor, long geracaoLida) {
+        misses.increment();
+        synchronized (this) {
+            if (geracao == geracaoLida) {
+                entradas.put(chave, new Entrada<>(valor, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+    }
+
+    public synchronized void invalidar(K chave) {
+        geracao++;
+        entradas.remove(chave);
+    }
+
+    /**
+     * Drops every key the predicate accepts, for writes whose affected keys are not tracked.
+     */
+    public synchronized void invalidarSe(Predicate<K> chaves) {
+        geracao++;
+        entradas.keySet().removeIf(chaves);
+    }
+
+    public synchronized void invalidarTodos() {
+        geracao++;
+        entradas.clear();
+    }
+
+    public Estatisticas estatisticas() {
+        int tamanho;
+        synchronized (this) {
+            tamanho = entradas.size();
+        }
+        return new Estatisticas(nome, tamanho, maxEntradas, hits.sum(), hitsNegativos.sum(),
+                misses.sum(), evictions.sum(), expiracoes.sum());
+    }
+
+    private record Entrada<V>(V valor, long expiraEm) {}
+
+    /**
+     * Point-in-time counters of a cache, exposed on the admin API.
+     */
+    public record Estatisticas(String nome, int tamanho, int capacidade, long hits, long hitsNegativos,
+                               long misses, long evictions, long expiracoes) {}
+}
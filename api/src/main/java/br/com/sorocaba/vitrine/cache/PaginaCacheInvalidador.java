@@ -0,0 +1,55 @@
+package br.com.sorocaba.vitrine.cache;
+
+import br.com.sorocaba.vitrine.event.EstoqueBaixadoEvent;
+import br.com.sorocaba.vitrine.event.PostAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutosImportadosEvent;
+import br.com.sorocaba.vitrine.event.UsuarioAlteradoEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts rendered storefront and blog pages once an admin write has been committed
+ */
+@Component
+@RequiredArgsConstructor
+public class PaginaCacheInvalidador {
+
+    private final NearCache<String, PaginaRenderizada> paginaCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        paginaCache.invalidar("/loja");
+        paginaCache.invalidar("/loja/produto/" + event.id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEstoqueBaixado(EstoqueBaixadoEvent event) {
+        paginaCache.invalidar("/loja");
+        event.estoques().keySet().forEach(id -> paginaCache.invalidar("/loja/produto/" + id));
+    }
+
+    /**
+     * An import may touch any product page; the blog pages go too, which is cheaper than tracking keys.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutosImportados(ProdutosImportadosEvent event) {
+        paginaCache.invalidarTodos();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostAlterado(PostAlteradoEvent event) {
+        paginaCache.invalidar("/blog");
+        paginaCache.invalidar("/blog/post/" + event.id());
+    }
+
+    /**
+     * Blog pages are rendered from posts that carry their author; the author's posts are not tracked,
+     * so every blog page goes rather than outliving a rename by the page TTL.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        paginaCache.invalidarSe(chave -> chave.startsWith("/blog"));
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.sorocaba.vitrine.cache;
+
+/**
+ * A fully rendered HTML page kept by the page cache, in identity and gzip encodings, with the
+ * validators it was rendered with ({@code etag} null and {@code ultimaModificacao} -1 when it had none).
+ */
+public record PaginaRenderizada(byte[] html, byte[] gzip, String contentType, String etag, long ultimaModificacao) {}
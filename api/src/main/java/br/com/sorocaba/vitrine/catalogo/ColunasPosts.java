@@ -0,0 +1,388 @@
+package br.com.sorocaba.vitrine.catalogo;
+
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.model.Post;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable column-oriented snapshot of the published posts, newest first
+ * (dataPublicacao descending, then id descending, the order of the blog listing).
+ *
+ * Publication dates are kept as epoch microseconds and author ids as longs (0 for no author);
+ * author names are shared between all posts of the same author. Lookups by id go through a
+ * sorted copy of the ids and a permutation into the listing order. Versions and the removal log
+ * work as in {@link ColunasProdutos}.
+ */
+public final class ColunasPosts {
+
+    public static final ColunasPosts VAZIO = new Construtor(0).construir();
+
+    private static final long SEM_DATA = Long.MIN_VALUE;
+
+    private final int tamanho;
+    private final long[] ids;
+    private final String[] titulos;
+    private final String[] conteudos;
+    private final long[] autorIds;
+    private final String[] autorNomes;
+    private final long[] datasMicros;
+    private final long[] versoes;
+    private final long[] idsOrdenados;
+    private final int[] posicoes;
+    private final Remocoes remocoes;
+    private final long ultimaVersao;
+    private volatile long bytes = -1;
+
+    private ColunasPosts(Construtor construtor, Remocoes remocoes, long ultimaVersao) {
+        tamanho = construtor.tamanho;
+        int[] ordem = construtor.ordemListagem();
+        ids = new long[tamanho];
+        titulos = new String[tamanho];
+        conteudos = new String[tamanho];
+        autorIds = new long[tamanho];
+        autorNomes = new String[tamanho];
+        datasMicros = new long[tamanho];
+        versoes = new long[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            int origem = ordem[i];
+            ids[i] = construtor.ids[origem];
+            titulos[i] = construtor.titulos[origem];
+            conteudos[i] = construtor.conteudos[origem];
+            autorIds[i] = construtor.autorIds[origem];
+            autorNomes[i] = construtor.autorNomes[origem];
+            datasMicros[i] = construtor.datasMicros[origem];
+            versoes[i] = construtor.versoes[origem];
+        }
+
+        idsOrdenados = new long[tamanho];
+        posicoes = new int[tamanho];
+        Integer[] porId = new Integer[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            porId[i] = i;
+        }
+        Arrays.sort(porId, (a, b) -> Long.compare(ids[a], ids[b]));
+        for (int i = 0; i < tamanho; i++) {
+            idsOrdenados[i] = ids[porId[i]];
+            posicoes[i] = porId[i];
+        }
+        this.remocoes = remocoes;
+        this.ultimaVersao = ultimaVersao;
+    }
+
+    private ColunasPosts(ColunasPosts base, Remocoes remocoes, long ultimaVersao) {
+        tamanho = base.tamanho;
+        ids = base.ids;
+        titulos = base.titulos;
+        conteudos = base.conteudos;
+        autorIds = base.autorIds;
+        autorNomes = base.autorNomes;
+        datasMicros = base.datasMicros;
+        versoes = base.versoes;
+        idsOrdenados = base.idsOrdenados;
+        posicoes = base.posicoes;
+        this.remocoes = remocoes;
+        this.ultimaVersao = ultimaVersao;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public long id(int indice) {
+        return ids[indice];
+    }
+
+    public LocalDateTime dataPublicacao(int indice) {
+        return data(datasMicros[indice]);
+    }
+
+    /**
+     * Version of the post, or {@link Long#MIN_VALUE} when it was loaded without a dataAtualizacao.
+     */
+    public long versao(int indice) {
+        return versoes[indice];
+    }
+
+    public long ultimaVersao() {
+        return ultimaVersao;
+    }
+
+    public boolean acompanha(long versao) {
+        return versao >= remocoes.horizonte() && versao <= ultimaVersao;
+    }
+
+    /**
+     * Positions of the posts changed after {@code versao}, in listing order.
+     */
+    public int[] alteradosApos(long versao) {
+        int[] indices = new int[16];
+        int quantos = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (versoes[i] > versao) {
+                if (quantos == indices.length) {
+                    indices = Arrays.copyOf(indices, quantos * 2);
+                }
+                indices[quantos++] = i;
+            }
+        }
+        return Arrays.copyOf(indices, quantos);
+    }
+
+    /**
+     * Ids that left the published posts after {@code versao} and are not back in them.
+     */
+    public long[] removidosApos(long versao) {
+        return Arrays.stream(remocoes.apos(versao)).filter(id -> indiceDe(id) < 0).distinct().toArray();
+    }
+
+    /**
+     * Position of the post with this id in the listing order, or -1 when it is not published.
+     */
+    public int indiceDe(long id) {
+        int indice = Arrays.binarySearch(idsOrdenados, id);
+        return indice >= 0 ? posicoes[indice] : -1;
+    }
+
+    /**
+     * Position of the first post strictly after the (dataPublicacao, id) key in the listing order.
+     */
+    public int inicioApos(LocalDateTime data, long id) {
+        long micros = micros(data);
+        int baixo = 0;
+        int alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (depoisDaChave(meio, micros, id)) {
+                alto = meio;
+            } else {
+                baixo = meio + 1;
+            }
+        }
+        return baixo;
+    }
+
+    public PostDTO dto(int indice) {
+        long autorId = autorIds[indice];
+        return new PostDTO(
+                ids[indice],
+                titulos[indice],
+                conteudos[indice],
+                autorId != 0 ? autorId : null,
+                autorNomes[indice],
+                Boolean.TRUE,
+                data(datasMicros[indice])
+        );
+    }
+
+    public List<PostDTO> dtos(int inicio, int fim) {
+        List<PostDTO> dtos = new ArrayList<>(Math.max(fim - inicio, 0));
+        for (int i = inicio; i < fim; i++) {
+            dtos.add(dto(i));
+        }
+        return dtos;
+    }
+
+    /**
+     * New snapshot with the given posts inserted or replaced at {@code versao} and the given ids dropped.
+     * Unpublished posts in {@code gravados} are dropped as well, into the removal log like the others.
+     * A new post reuses the author name instance already held for that author.
+     */
+    public ColunasPosts comAlteracoes(Collection<Post> gravados, Collection<Long> removidos, long versao) {
+        long[] fora = new long[gravados.size() + removidos.size()];
+        int quantosFora = 0;
+        Set<Long> autores = new HashSet<>();
+        for (Post post : gravados) {
+            fora[quantosFora++] = post.getId();
+            if (post.getAutor() != null) {
+                autores.add(post.getAutor().getId());
+            }
+        }
+        for (Long id : removidos) {
+            fora[quantosFora++] = id;
+        }
+        Arrays.sort(fora, 0, quantosFora);
+
+        Construtor construtor = new Construtor(tamanho + gravados.size());
+        for (int i = 0; i < tamanho; i++) {
+            if (autores.contains(autorIds[i])) {
+                construtor.deduplicador.unico(autorNomes[i]);
+            }
+            if (Arrays.binarySearch(fora, 0, quantosFora, ids[i]) < 0) {
+                construtor.copiar(this, i);
+            }
+        }
+        for (Post post : gravados) {
+            construtor.adicionar(post, versao);
+        }
+
+        ColunasPosts novo = construtor.construir();
+        long[] saidos = new long[quantosFora];
+        int quantosSaidos = 0;
+        for (int i = 0; i < quantosFora; i++) {
+            if (indiceDe(fora[i]) >= 0 && novo.indiceDe(fora[i]) < 0) {
+                saidos[quantosSaidos++] = fora[i];
+            }
+        }
+        return new ColunasPosts(novo, remocoes.com(saidos, quantosSaidos, versao), versao);
+    }
+
+    /**
+     * The same posts as the start of a new history, as in {@link ColunasProdutos#comLinhaDeBase}.
+     */
+    public ColunasPosts comLinhaDeBase(long versao) {
+        long base = Math.max(versao, ultimaVersao);
+        return new ColunasPosts(this, Remocoes.desde(base), base);
+    }
+
+    /**
+     * Estimated heap retained by the columns and their strings; computed once per snapshot.
+     */
+    public long bytesEstimados() {
+        long calculado = bytes;
+        if (calculado < 0) {
+            calculado = EstimativaMemoria.longs(ids) + EstimativaMemoria.longs(autorIds)
+                    + EstimativaMemoria.longs(datasMicros) + EstimativaMemoria.longs(versoes)
+                    + EstimativaMemoria.longs(idsOrdenados)
+                    + EstimativaMemoria.ints(posicoes) + remocoes.bytesEstimados()
+                    + EstimativaMemoria.strings(titulos, conteudos, autorNomes);
+            bytes = calculado;
+        }
+        return calculado;
+    }
+
+    private boolean depoisDaChave(int indice, long micros, long id) {
+        return datasMicros[indice] < micros || (datasMicros[indice] == micros && ids[indice] < id);
+    }
+
+    static long micros(LocalDateTime data) {
+        if (data == null) {
+            return SEM_DATA;
+        }
+        return data.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + data.getNano() / 1_000;
+    }
+
+    /**
+     * dataAtualizacao is set from the server clock, so unlike the listing keys it is read in the
+     * server's zone: versions are real epoch microseconds, comparable with HTTP dates.
+     */
+    static long versao(LocalDateTime dataAtualizacao) {
+        if (dataAtualizacao == null) {
+            return SEM_DATA;
+        }
+        Instant instante = dataAtualizacao.atZone(ZoneId.systemDefault()).toInstant();
+        return instante.getEpochSecond() * 1_000_000L + instante.getNano() / 1_000;
+    }
+
+    static LocalDateTime data(long micros) {
+        if (micros == SEM_DATA) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Appends posts in any order; {@link #construir()} sorts them into the listing order.
+     */
+    public static final class Construtor {
+
+        private final Deduplicador deduplicador = new Deduplicador();
+        private int tamanho;
+        private long[] ids;
+        private String[] titulos;
+        private String[] conteudos;
+        private long[] autorIds;
+        private String[] autorNomes;
+        private long[] datasMicros;
+        private long[] versoes;
+
+        public Construtor(int capacidade) {
+            int inicial = Math.max(capacidade, 16);
+            ids = new long[inicial];
+            titulos = new String[inicial];
+            conteudos = new String[inicial];
+            autorIds = new long[inicial];
+            autorNomes = new String[inicial];
+            datasMicros = new long[inicial];
+            versoes = new long[inicial];
+        }
+
+        /**
+         * Adds the post if it is published; drafts are not part of the public blog.
+         */
+        public void adicionar(Post post) {
+            // The author's name is part of the post, so renaming the author is a change of the post
+            adicionar(post, post.getAutor() != null
+                    ? Math.max(versao(post.getDataAtualizacao()), versao(post.getAutor().getDataAtualizacao()))
+                    : versao(post.getDataAtualizacao()));
+        }
+
+        void adicionar(Post post, long versao) {
+            if (!Boolean.TRUE.equals(post.getPublicado())) {
+                return;
+            }
+            int i = proximo();
+            ids[i] = post.getId();
+            titulos[i] = deduplicador.unico(post.getTitulo());
+            conteudos[i] = deduplicador.unico(post.getConteudo());
+            autorIds[i] = post.getAutor() != null ? post.getAutor().getId() : 0L;
+            autorNomes[i] = post.getAutor() != null ? deduplicador.unico(post.getAutor().getNome()) : null;
+            datasMicros[i] = micros(post.getDataPublicacao());
+            versoes[i] = versao;
+        }
+
+        void copiar(ColunasPosts origem, int indice) {
+            int i = proximo();
+            ids[i] = origem.ids[indice];
+            titulos[i] = origem.titulos[indice];
+            conteudos[i] = origem.conteudos[indice];
+            autorIds[i] = origem.autorIds[indice];
+            autorNomes[i] = origem.autorNomes[indice];
+            datasMicros[i] = origem.datasMicros[indice];
+            versoes[i] = origem.versoes[indice];
+        }
+
+        public ColunasPosts construir() {
+            long ultima = Long.MIN_VALUE;
+            for (int i = 0; i < tamanho; i++) {
+                ultima = Math.max(ultima, versoes[i]);
+            }
+            return new ColunasPosts(this, Remocoes.desde(ultima), ultima);
+        }
+
+        private int[] ordemListagem() {
+            Integer[] ordem = new Integer[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, (a, b) -> datasMicros[a] != datasMicros[b]
+                    ? Long.compare(datasMicros[b], datasMicros[a])
+                    : Long.compare(ids[b], ids[a]));
+            return Arrays.stream(ordem).mapToInt(Integer::intValue).toArray();
+        }
+
+        private int proximo() {
+            if (tamanho == ids.length) {
+                int capacidade = tamanho + (tamanho >> 1);
+                ids = Arrays.copyOf(ids, capacidade);
+                titulos = Arrays.copyOf(titulos, capacidade);
+                conteudos = Arrays.copyOf(conteudos, capacidade);
+                autorIds = Arrays.copyOf(autorIds, capacidade);
+                autorNomes = Arrays.copyOf(autorNomes, capacidade);
+                datasMicros = Arrays.copyOf(datasMicros, capacidade);
+                versoes = Arrays.copyOf(versoes, capacidade);
+            }
+            return tamanho++;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package br.com.sorocaba.vitrine.catalogo;
+
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.imagem.VarianteImagem;
+import br.com.sorocaba.vitrine.model.Produto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable column-oriented snapshot of the active products, sorted by id.
+ *
+ * One array per field instead of one object per row: ids, prices (in cents) and stock are
+ * primitives, and repeated strings share a single instance. A snapshot is never modified;
+ * {@link #comAlteracoes} merges changed rows into a new one, so readers need no locking.
+ *
+ * Each row also keeps a version in epoch microseconds: its dataAtualizacao when the catalog was loaded,
+ * and the version handed in with each later change. The snapshot carries the log of the rows that left
+ * it as well, so {@link #alteradosApos} and {@link #removidosApos} tell a client everything that
+ * changed since the version it last saw.
+ */
+public final class ColunasProdutos {
+
+    public static final ColunasProdutos VAZIO = new Construtor(0).construir();
+
+    private final int tamanho;
+    private final long[] ids;
+    private final String[] nomes;
+    private final String[] descricoes;
+    private final long[] precosCentavos;
+    private final int[] estoques;
+    private final String[] imagemChaves;
+    private final String[] imagemUrls;
+    private final long[] versoes;
+    private final Remocoes remocoes;
+    private final long ultimaVersao;
+    private volatile long bytes = -1;
+
+    private ColunasProdutos(Construtor construtor, Remocoes remocoes, long ultimaVersao) {
+        tamanho = construtor.tamanho;
+        ids = Arrays.copyOf(construtor.ids, tamanho);
+        nomes = Arrays.copyOf(construtor.nomes, tamanho);
+        descricoes = Arrays.copyOf(construtor.descricoes, tamanho);
+        precosCentavos = Arrays.copyOf(construtor.precosCentavos, tamanho);
+        estoques = Arrays.copyOf(construtor.estoques, tamanho);
+        imagemChaves = Arrays.copyOf(construtor.imagemChaves, tamanho);
+        imagemUrls = Arrays.copyOf(construtor.imagemUrls, tamanho);
+        versoes = Arrays.copyOf(construtor.versoes, tamanho);
+        this.remocoes = remocoes;
+        this.ultimaVersao = ultimaVersao;
+    }
+
+    private ColunasProdutos(ColunasProdutos base, int[] estoques, long[] versoes, Remocoes remocoes, long ultimaVersao) {
+        tamanho = base.tamanho;
+        ids = base.ids;
+        nomes = base.nomes;
+        descricoes = base.descricoes;
+        precosCentavos = base.precosCentavos;
+        this.estoques = estoques;
+        imagemChaves = base.imagemChaves;
+        imagemUrls = base.imagemUrls;
+        this.versoes = versoes;
+        this.remocoes = remocoes;
+        this.ultimaVersao = ultimaVersao;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public long id(int indice) {
+        return ids[indice];
+    }
+
+    public BigDecimal preco(int indice) {
+        return BigDecimal.valueOf(precosCentavos[indice], 2);
+    }
+
+    /**
+     * Version of the row, or {@link Long#MIN_VALUE} when it was loaded without a dataAtualizacao.
+     */
+    public long versao(int indice) {
+        return versoes[indice];
+    }
+
+    /**
+     * Version of the latest change in this snapshot, the sync token it answers up to.
+     */
+    public long ultimaVersao() {
+        return ultimaVersao;
+    }
+
+    /**
+     * Whether a client that last synced at {@code versao} can be brought up to date from this
+     * snapshot; otherwise it may have missed a removal and needs every row again.
+     */
+    public boolean acompanha(long versao) {
+        return versao >= remocoes.horizonte() && versao <= ultimaVersao;
+    }
+
+    /**
+     * Positions of the rows changed after {@code versao}, in id order.
+     */
+    public int[] alteradosApos(long versao) {
+        int[] indices = new int[16];
+        int quantos = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (versoes[i] > versao) {
+                if (quantos == indices.length) {
+                    indices = Arrays.copyOf(indices, quantos * 2);
+                }
+                indices[quantos++] = i;
+            }
+        }
+        return Arrays.copyOf(indices, quantos);
+    }
+
+    /**
+     * Ids that left the active catalog after {@code versao} and are not back in it.
+     */
+    public long[] removidosApos(long versao) {
+        return Arrays.stream(remocoes.apos(versao)).filter(id -> indiceDe(id) < 0).distinct().toArray();
+    }
+
+    /**
+     * Position of the product with this id, or -1 when it is not active.
+     */
+    public int indiceDe(long id) {
+        int indice = Arrays.binarySearch(ids, 0, tamanho, id);
+        return indice >= 0 ? indice : -1;
+    }
+
+    /**
+     * Position of the first product with an id greater than the given one.
+     */
+    public int inicioApos(long id) {
+        int indice = Arrays.binarySearch(ids, 0, tamanho, id);
+        return indice >= 0 ? indice + 1 : -indice - 1;
+    }
+
+    public ProdutoDTO dto(int indice) {
+        String chave = imagemChaves[indice];
+        String url = imagemUrls[indice];
+        return new ProdutoDTO(
+                ids[indice],
+                nomes[indice],
+                descricoes[indice],
+                preco(indice),
+                VarianteImagem.DETALHE.url(chave, url),
+                estoques[indice],
+                Boolean.TRUE,
+                VarianteImagem.CARD.url(chave, url),
+                VarianteImagem.THUMB.url(chave, url)
+        );
+    }
+
+    public List<ProdutoDTO> dtos(int inicio, int fim) {
+        List<ProdutoDTO> dtos = new ArrayList<>(Math.max(fim - inicio, 0));
+        for (int i = inicio; i < fim; i++) {
+            dtos.add(dto(i));
+        }
+        return dtos;
+    }
+
+    /**
+     * New snapshot with the given rows inserted or replaced at {@code versao} and the given ids dropped.
+     * Inactive rows in {@code gravados} are dropped as well, and every dropped row that was here goes
+     * into the removal log. Unchanged rows keep their string instances, but every column is rebuilt:
+     * even a single-row change costs two O(n) passes per column, one filling the builder and one
+     * trimming its arrays to size.
+     */
+    public ColunasProdutos comAlteracoes(Collection<Produto> gravados, Collection<Long> removidos, long versao) {
+        List<Produto> novos = new ArrayList<>(gravados);
+        novos.sort(Comparator.comparing(Produto::getId));
+        long[] fora = new long[novos.size() + removidos.size()];
+        int quantosFora = 0;
+        for (Produto produto : novos) {
+            fora[quantosFora++] = produto.getId();
+        }
+        for (Long id : removidos) {
+            fora[quantosFora++] = id;
+        }
+        Arrays.sort(fora, 0, quantosFora);
+
+        Construtor construtor = new Construtor(tamanho + novos.size());
+        int j = 0;
+        for (int i = 0; i < tamanho; i++) {
+            for (; j < novos.size() && novos.get(j).getId() < ids[i]; j++) {
+                construtor.adicionar(novos.get(j), versao);
+            }
+            if (Arrays.binarySearch(fora, 0, quantosFora, ids[i]) < 0) {
+                construtor.copiar(this, i);
+            }
+        }
+        for (; j < novos.size(); j++) {
+            construtor.adicionar(novos.get(j), versao);
+        }
+
+        ColunasProdutos novo = construtor.construir();
+        long[] saidos = new long[quantosFora];
+        int quantosSaidos = 0;
+        for (int i = 0; i < quantosFora; i++) {
+            if (indiceDe(fora[i]) >= 0 && novo.indiceDe(fora[i]) < 0) {
+                saidos[quantosSaidos++] = fora[i];
+            }
+        }
+        return new ColunasProdutos(novo, novo.estoques, novo.versoes, remocoes.com(saidos, quantosSaidos, versao), versao);
+    }
+
+    /**
+     * New snapshot with only the stock of the given products changed, at {@code versao}; every other
+     * column is shared with this one. Ids that are not active here are ignored.
+     */
+    public ColunasProdutos comEstoques(Map<Long, Integer> novosEstoques, long versao) {
+        int[] copiaEstoques = estoques.clone();
+        long[] copiaVersoes = versoes.clone();
+        novosEstoques.forEach((id, estoque) -> {
+            int indice = indiceDe(id);
+            if (indice >= 0) {
+                copiaEstoques[indice] = estoque;
+                copiaVersoes[indice] = versao;
+            }
+        });
+        return new ColunasProdutos(this, copiaEstoques, copiaVersoes, remocoes, versao);
+    }
+
+    /**
+     * The same rows as the start of a new history at {@code versao} (or this snapshot's latest version,
+     * if newer), with an empty removal log: clients that synced before it start over.
+     */
+    public ColunasProdutos comLinhaDeBase(long versao) {
+        long base = Math.max(versao, ultimaVersao);
+        return new ColunasProdutos(this, estoques, versoes, Remocoes.desde(base), base);
+    }
+
+    /**
+     * Estimated heap retained by the columns and their strings; computed once per snapshot.
+     */
+    public long bytesEstimados() {
+        long calculado = bytes;
+        if (calculado < 0) {
+            calculado = EstimativaMemoria.longs(ids) + EstimativaMemoria.longs(precosCentavos)
+                    + EstimativaMemoria.longs(versoes) + EstimativaMemoria.ints(estoques) + remocoes.bytesEstimados()
+                    + EstimativaMemoria.strings(nomes, descricoes, imagemChaves, imagemUrls);
+            bytes = calculado;
+        }
+        return calculado;
+    }
+
+    static long centavos(BigDecimal preco) {
+        return preco.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Appends rows in id order; the caller is responsible for the ordering.
+     */
+    public static final class Construtor {
+
+        private final Deduplicador deduplicador = new Deduplicador();
+        private int tamanho;
+        private long[] ids;
+        private String[] nomes;
+        private String[] descricoes;
+        private long[] precosCentavos;
+        private int[] estoques;
+        private String[] imagemChaves;
+        private String[] imagemUrls;
+        private long[] versoes;
+
+        public Construtor(int capacidade) {
+            int inicial = Math.max(capacidade, 16);
+            ids = new long[inicial];
+            nomes = new String[inicial];
+            descricoes = new String[inicial];
+            precosCentavos = new long[inicial];
+            estoques = new int[inicial];
+            imagemChaves = new String[inicial];
+            imagemUrls = new String[inicial];
+            versoes = new long[inicial];
+        }
+
+        /**
+         * Adds the product if it is active; inactive products are not part of the public catalog.
+         */
+        public void adicionar(Produto produto) {
+            adicionar(produto, ColunasPosts.versao(produto.getDataAtualizacao()));
+        }
+
+        void adicionar(Produto produto, long versao) {
+            if (!Boolean.TRUE.equals(produto.getAtivo())) {
+                return;
+            }
+            int i = proximo();
+            ids[i] = produto.getId();
+            nomes[i] = deduplicador.unico(produto.getNome());
+            descricoes[i] = deduplicador.unico(produto.getDescricao());
+            precosCentavos[i] = centavos(produto.getPreco());
+            estoques[i] = produto.getEstoque() != null ? produto.getEstoque() : 0;
+            imagemChaves[i] = produto.getImagemChave();
+            imagemUrls[i] = deduplicador.unico(produto.getImagemUrl());
+            versoes[i] = versao;
+        }
+
+        void copiar(ColunasProdutos origem, int indice) {
+            int i = proximo();
+            ids[i] = origem.ids[indice];
+            nomes[i] = origem.nomes[indice];
+            descricoes[i] = origem.descricoes[indice];
+            precosCentavos[i] = origem.precosCentavos[indice];
+            estoques[i] = origem.estoques[indice];
+            imagemChaves[i] = origem.imagemChaves[indice];
+            imagemUrls[i] = origem.imagemUrls[indice];
+            versoes[i] = origem.versoes[indice];
+        }
+
+        /**
+         * The snapshot of the rows added so far, as of the newest of their versions.
+         */
+        public ColunasProdutos construir() {
+            long ultima = Long.MIN_VALUE;
+            for (int i = 0; i < tamanho; i++) {
+                ultima = Math.max(ultima, versoes[i]);
+            }
+            return new ColunasProdutos(this, Remocoes.desde(ultima), ultima);
+        }
+
+        private int proximo() {
+            if (tamanho == ids.length) {
+                int capacidade = tamanho + (tamanho >> 1);
+                ids = Arrays.copyOf(ids, capacidade);
+                nomes = Arrays.copyOf(nomes, capacidade);
+                descricoes = Arrays.copyOf(descricoes, capacidade);
+                precosCentavos = Arrays.copyOf(precosCentavos, capacidade);
+                estoques = Arrays.copyOf(estoques, capacidade);
+                imagemChaves = Arrays.copyOf(imagemChaves, capacidade);
+                imagemUrls = Arrays.copyOf(imagemUrls, capacidade);
+                versoes = Arrays.copyOf(versoes, capacidade);
+            }
+            return tamanho++;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.sorocaba.vitrine.catalogo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collapses equal strings into one instance while a snapshot is being built.
+ * Scoped to one build, so nothing outlives the strings the snapshot actually keeps.
+ */
+final class Deduplicador {
+
+    private final Map<String, String> vistos = new HashMap<>();
+
+    String unico(String valor) {
+        if (valor == null || valor.isEmpty()) {
+            return valor == null ? null : "";
+        }
+        String existente = vistos.putIfAbsent(valor, valor);
+        return existente != null ? existente : valor;
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.sorocaba.vitrine.catalogo;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Shallow heap sizes of the snapshot columns, assuming a 64-bit JVM with compressed oops
+ * (12-byte headers, 4-byte references, 8-byte alignment) and compact strings.
+ * Each distinct String instance is counted once, so deduplicated values are not double-counted.
+ */
+final class EstimativaMemoria {
+
+    private static final int CABECALHO_ARRAY = 16;
+    private static final int OBJETO_STRING = 24;
+
+    private EstimativaMemoria() {
+    }
+
+    static long longs(long[] coluna) {
+        return alinhar(CABECALHO_ARRAY + 8L * coluna.length);
+    }
+
+    static long ints(int[] coluna) {
+        return alinhar(CABECALHO_ARRAY + 4L * coluna.length);
+    }
+
+    /**
+     * The reference arrays plus every distinct string they point to.
+     */
+    static long strings(String[]... colunas) {
+        Set<String> contadas = Collections.newSetFromMap(new IdentityHashMap<>());
+        long total = 0;
+        for (String[] coluna : colunas) {
+            total += alinhar(CABECALHO_ARRAY + 4L * coluna.length);
+            for (String valor : coluna) {
+                if (valor != null && contadas.add(valor)) {
+                    total += OBJETO_STRING + alinhar(CABECALHO_ARRAY + (long) valor.length() * (latin1(valor) ? 1 : 2));
+                }
+            }
+        }
+        return total;
+    }
+
+    private static boolean latin1(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            if (valor.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long alinhar(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
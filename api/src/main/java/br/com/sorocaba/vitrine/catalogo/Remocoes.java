@@ -0,0 +1,81 @@
+package br.com.sorocaba.vitrine.catalogo;
+
+import java.util.Arrays;
+
+/**
+ * Immutable log of the ids that left a snapshot, with the version they left at, oldest first.
+ *
+ * The log keeps at most {@link #CAPACIDADE} entries. Dropping the oldest ones raises the horizon:
+ * a client that last synced before it may have missed a removal and has to start over.
+ */
+final class Remocoes {
+
+    static final int CAPACIDADE = 10_000;
+
+    private final long[] ids;
+    private final long[] versoes;
+    private final long horizonte;
+
+    private Remocoes(long[] ids, long[] versoes, long horizonte) {
+        this.ids = ids;
+        this.versoes = versoes;
+        this.horizonte = horizonte;
+    }
+
+    /**
+     * An empty log for a catalog that was loaded whole at the given version.
+     */
+    static Remocoes desde(long horizonte) {
+        return new Remocoes(new long[0], new long[0], horizonte);
+    }
+
+    long horizonte() {
+        return horizonte;
+    }
+
+    /**
+     * New log with the given ids appended at {@code versao}, which is newer than every entry.
+     */
+    Remocoes com(long[] removidos, int quantos, long versao) {
+        if (quantos == 0) {
+            return this;
+        }
+        int total = ids.length + quantos;
+        int descartados = Math.max(total - CAPACIDADE, 0);
+        long[] novosIds = new long[total - descartados];
+        long[] novasVersoes = new long[total - descartados];
+        int mantidos = Math.max(ids.length - descartados, 0);
+        System.arraycopy(ids, ids.length - mantidos, novosIds, 0, mantidos);
+        System.arraycopy(versoes, versoes.length - mantidos, novasVersoes, 0, mantidos);
+        int inicio = quantos - (novosIds.length - mantidos);
+        System.arraycopy(removidos, inicio, novosIds, mantidos, quantos - inicio);
+        Arrays.fill(novasVersoes, mantidos, novasVersoes.length, versao);
+        long novoHorizonte = horizonte;
+        if (descartados > 0) {
+            novoHorizonte = descartados <= ids.length ? versoes[descartados - 1] : versao;
+        }
+        return new Remocoes(novosIds, novasVersoes, novoHorizonte);
+    }
+
+    /**
+     * Ids removed after {@code versao}, in the order they were removed; an id may appear more than once.
+     */
+    long[] apos(long versao) {
+        // First entry newer than versao; several ids can share a version
+        int baixo = 0;
+        int alto = versoes.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (versoes[meio] > versao) {
+                alto = meio;
+            } else {
+                baixo = meio + 1;
+            }
+        }
+        return Arrays.copyOfRange(ids, baixo, ids.length);
+    }
+
+    long bytesEstimados() {
+        return EstimativaMemoria.longs(ids) + EstimativaMemoria.longs(versoes);
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.db.LimitadorRepositorioInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+
+import java.time.Duration;
+
+/**
+ * Database Configuration
+ * Bounds concurrent database work so virtual-thread request handling cannot flood H2
+ */
+@Configuration
+public class BancoConfig {
+
+    /**
+     * With virtual threads, permits default to the number of CPUs (at least 2). H2 does its I/O
+     * inside synchronized blocks, which pins the carrier of a virtual thread, so letting more threads
+     * in than there are carriers would stall unrelated requests. On platform threads the container
+     * already bounds concurrency, and permits default to the connection pool size, so the limiter
+     * admits whoever could get a connection and only turns long waits into 503s.
+     */
+    @Bean
+    public LimitadorBanco limitadorBanco(
+            @Value("${app.banco.limitador.permissoes:0}") int permissoes,
+            @Value("${app.banco.limitador.espera-maxima:5s}") Duration esperaMaxima,
+            @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanhoPool) {
+        int padrao = threadsVirtuais ? Math.max(2, Runtime.getRuntime().availableProcessors()) : tamanhoPool;
+        return new LimitadorBanco(permissoes > 0 ? permissoes : padrao, esperaMaxima);
+    }
+
+    /**
+     * Adds the limiter in front of every Spring Data repository proxy.
+     */
+    @Bean
+    public static BeanPostProcessor limitadorRepositoriosPostProcessor(ObjectProvider<LimitadorBanco> limitador) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof Repository<?, ?> && bean instanceof Advised advised) {
+                    advised.addAdvice(0, new LimitadorRepositorioInterceptor(limitador.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
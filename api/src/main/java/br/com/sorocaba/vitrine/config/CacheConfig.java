@@ -0,0 +1,33 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.cache.PaginaRenderizada;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+/**
+ * Cache Configuration
+ * Declares the in-process caches used by the rendered-page cache and login
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public NearCache<String, PaginaRenderizada> paginaCache(
+            @Value("${app.cache.paginas.max-entradas:500}") int maxEntradas,
+            @Value("${app.cache.paginas.ttl:10m}") Duration ttl) {
+        return new NearCache<>("paginas", maxEntradas, ttl, Duration.ZERO);
+    }
+
+    @Bean
+    public NearCache<String, UserDetails> usuarioDetalhesCache(
+            @Value("${app.cache.usuarios.max-entradas:1000}") int maxEntradas,
+            @Value("${app.cache.usuarios.ttl:60s}") Duration ttl,
+            @Value("${app.cache.usuarios.ttl-negativo:10s}") Duration ttlNegativo) {
+        return new NearCache<>("usuario-detalhes", maxEntradas, ttl, ttlNegativo);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.imagem.ArmazemImagens;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Image Configuration
+ * Declares the product image store on the local data volume and its resize pool
+ */
+@Configuration
+public class ImagemConfig {
+
+    /**
+     * Resizing is CPU-bound; by default it gets a quarter of the CPUs so it never competes
+     * with request handling for all of them.
+     */
+    @Bean
+    public ArmazemImagens armazemImagens(
+            @Value("${app.imagens.diretorio:./data/imagens}") String diretorio,
+            @Value("${app.imagens.tamanho-maximo:10MB}") DataSize tamanhoMaximo,
+            @Value("${app.imagens.threads:0}") int threads,
+            @Value("${app.imagens.fila:256}") int fila,
+            @Value("${app.imagens.espera-maxima:10s}") Duration esperaMaxima) {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        return new ArmazemImagens(Path.of(diretorio), tamanhoMaximo.toBytes(), tamanho, fila, esperaMaxima);
+    }
+}
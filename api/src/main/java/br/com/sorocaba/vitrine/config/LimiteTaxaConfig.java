@@ -0,0 +1,58 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.limite.LimitadorTaxa;
+import br.com.sorocaba.vitrine.limite.OrcamentoRota;
+import br.com.sorocaba.vitrine.web.LimiteTaxaFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate Limit Configuration
+ * Declares the per-client and global request budgets of the public API and the filter that enforces them
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.limite-taxa.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimiteTaxaConfig {
+
+    /**
+     * Routes are read as a list from app.limite-taxa.rotas; the first one that matches a request applies.
+     */
+    @Bean
+    public LimitadorTaxa limitadorTaxa(
+            Environment environment,
+            @Value("${app.limite-taxa.global.taxa:500}") double taxaGlobal,
+            @Value("${app.limite-taxa.global.rajada:1000}") int rajadaGlobal,
+            @Value("${app.limite-taxa.maximo-clientes:50000}") int maximoClientes,
+            @Value("${app.limite-taxa.limpeza:1m}") Duration limpeza) {
+        List<OrcamentoRota> rotas = Binder.get(environment)
+                .bind("app.limite-taxa.rotas", Bindable.listOf(OrcamentoRota.class))
+                .orElse(List.of());
+        return new LimitadorTaxa(rotas, taxaGlobal, rajadaGlobal, maximoClientes, limpeza);
+    }
+
+    /**
+     * Ordered right after the Spring Security chain, whose CORS filter then puts its headers on the
+     * 429s too, so the SPA dev server can read them.
+     */
+    @Bean
+    public FilterRegistrationBean<LimiteTaxaFilter> limiteTaxaFilter(LimitadorTaxa limitadorTaxa,
+                                                                     ObjectMapper objectMapper) throws IOException {
+        FilterRegistrationBean<LimiteTaxaFilter> registro =
+                new FilterRegistrationBean<>(new LimiteTaxaFilter(limitadorTaxa, objectMapper));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registro;
+    }
+}
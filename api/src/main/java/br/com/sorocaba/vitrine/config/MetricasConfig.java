@@ -0,0 +1,219 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.limite.LimitadorTaxa;
+import br.com.sorocaba.vitrine.metrics.SqlEscopoInterceptor;
+import br.com.sorocaba.vitrine.metrics.SqlExecucaoListener;
+import br.com.sorocaba.vitrine.security.BoundedPasswordEncoder;
+import br.com.sorocaba.vitrine.service.CatalogoLeituraService;
+import br.com.sorocaba.vitrine.service.EstoqueService;
+import br.com.sorocaba.vitrine.service.PedidoService;
+import br.com.sorocaba.vitrine.service.VisualizacaoService;
+import br.com.sorocaba.vitrine.sse.CentralSse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics Configuration
+ * Application meters on top of what Actuator already binds (HTTP server, repositories, Hikari, Hibernate, JVM)
+ */
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Routes every JDBC statement through SqlExecucaoListener, which feeds the ContadorSql scopes.
+     */
+    @Bean
+    public static BeanPostProcessor contadorSqlDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlExecucaoListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Statements and SQL time of every Spring Data repository call, tagged with the repository interface.
+     */
+    @Bean
+    public static BeanPostProcessor sqlRepositoriosPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof Repository<?, ?> && bean instanceof Advised advised) {
+                    Class<?>[] interfaces = advised.getProxiedInterfaces();
+                    String nome = interfaces.length > 0 ? interfaces[0].getSimpleName() : beanName;
+                    advised.addAdvice(0, new SqlEscopoInterceptor("vitrine.repositorio", "repository", nome, registry));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Statements and SQL time of every {@code @Transactional} method of a {@code @Service}.
+     * Ordered ahead of the transaction advisor so the commit flush is inside the scope.
+     */
+    @Bean
+    public static Advisor sqlTransacoesAdvisor(ObjectProvider<MeterRegistry> registry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Service.class, Transactional.class, true),
+                new SqlEscopoInterceptor("vitrine.transacao", "service", null, registry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public MeterBinder limitadorBancoMetricas(LimitadorBanco limitador) {
+        return registry -> {
+            gauge(registry, "vitrine.banco.limitador.permissoes", limitador, l -> l.estatisticas().permissoes());
+            gauge(registry, "vitrine.banco.limitador.em.uso", limitador, l -> l.estatisticas().emUso());
+            gauge(registry, "vitrine.banco.limitador.fila", limitador, l -> l.estatisticas().naFila());
+            FunctionCounter.builder("vitrine.banco.limitador.aquisicoes.com.espera", limitador,
+                    l -> l.estatisticas().aquisicoesComEspera()).register(registry);
+            FunctionCounter.builder("vitrine.banco.limitador.rejeicoes", limitador,
+                    l -> l.estatisticas().rejeicoes()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cachesMetricas(List<NearCache<?, ?>> caches) {
+        return registry -> caches.forEach(cache -> {
+            String nome = cache.estatisticas().nome();
+            gauge(registry, "vitrine.cache.tamanho", cache, c -> c.estatisticas().tamanho(), "cache", nome);
+            FunctionCounter.builder("vitrine.cache.acessos", cache, c -> c.estatisticas().hits())
+                    .tags("cache", nome, "resultado", "hit").register(registry);
+            FunctionCounter.builder("vitrine.cache.acessos", cache, c -> c.estatisticas().hitsNegativos())
+                    .tags("cache", nome, "resultado", "hit-negativo").register(registry);
+            FunctionCounter.builder("vitrine.cache.acessos", cache, c -> c.estatisticas().misses())
+                    .tags("cache", nome, "resultado", "miss").register(registry);
+            FunctionCounter.builder("vitrine.cache.evictions", cache, c -> c.estatisticas().evictions())
+                    .tags("cache", nome).register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder catalogoMetricas(CatalogoLeituraService catalogo) {
+        return registry -> {
+            gauge(registry, "vitrine.catalogo.linhas", catalogo, c -> c.estatisticas().produtos(), "tipo", "produto");
+            gauge(registry, "vitrine.catalogo.linhas", catalogo, c -> c.estatisticas().posts(), "tipo", "post");
+            Gauge.builder("vitrine.catalogo.memoria", catalogo, c -> c.estatisticas().bytesProdutos())
+                    .tags("tipo", "produto").baseUnit("bytes").register(registry);
+            Gauge.builder("vitrine.catalogo.memoria", catalogo, c -> c.estatisticas().bytesPosts())
+                    .tags("tipo", "post").baseUnit("bytes").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder estoqueMetricas(EstoqueService estoque) {
+        return registry -> {
+            gauge(registry, "vitrine.estoque.reservas.abertas", estoque, e -> e.estatisticas().reservasAbertas());
+            FunctionCounter.builder("vitrine.estoque.reservas", estoque, e -> e.estatisticas().reservadas())
+                    .tags("resultado", "reservada").register(registry);
+            FunctionCounter.builder("vitrine.estoque.reservas", estoque, e -> e.estatisticas().recusadas())
+                    .tags("resultado", "recusada").register(registry);
+            FunctionCounter.builder("vitrine.estoque.reservas", estoque, e -> e.estatisticas().expiradas())
+                    .tags("resultado", "expirada").register(registry);
+            FunctionCounter.builder("vitrine.estoque.conflitos", estoque, e -> e.estatisticas().conflitos())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder pedidoMetricas(PedidoService pedidos) {
+        return registry -> {
+            gauge(registry, "vitrine.pedidos.fila", pedidos, p -> p.estatisticas().pendentes());
+            FunctionCounter.builder("vitrine.pedidos.gravados", pedidos, p -> p.estatisticas().gravados())
+                    .register(registry);
+            FunctionCounter.builder("vitrine.pedidos.lotes", pedidos, p -> p.estatisticas().lotes())
+                    .register(registry);
+            FunctionCounter.builder("vitrine.pedidos.repeticoes", pedidos, p -> p.estatisticas().repeticoes())
+                    .register(registry);
+            FunctionCounter.builder("vitrine.pedidos.descartados", pedidos, p -> p.estatisticas().descartados())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder visualizacaoMetricas(VisualizacaoService visualizacoes) {
+        return registry -> {
+            gauge(registry, "vitrine.visualizacoes.pendentes", visualizacoes, v -> v.estatisticas().pendentes());
+            FunctionCounter.builder("vitrine.visualizacoes.registradas", visualizacoes, v -> v.estatisticas().registradas())
+                    .register(registry);
+            FunctionCounter.builder("vitrine.visualizacoes.lotes", visualizacoes, v -> v.estatisticas().lotes())
+                    .register(registry);
+        };
+    }
+
+    /**
+     * The limiter is off in some profiles.
+     */
+    @Bean
+    public MeterBinder limiteTaxaMetricas(ObjectProvider<LimitadorTaxa> limitadores) {
+        return registry -> limitadores.ifAvailable(limitador -> {
+            gauge(registry, "vitrine.limite.clientes", limitador, l -> l.estatisticas().clientes());
+            FunctionCounter.builder("vitrine.limite.requisicoes", limitador, l -> l.estatisticas().admitidas())
+                    .tags("resultado", "admitida").register(registry);
+            FunctionCounter.builder("vitrine.limite.requisicoes", limitador, l -> l.estatisticas().recusadas())
+                    .tags("resultado", "recusada").register(registry);
+            FunctionCounter.builder("vitrine.limite.requisicoes", limitador, l -> l.estatisticas().recusadasGlobal())
+                    .tags("resultado", "recusada-global").register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder sseMetricas(CentralSse central) {
+        return registry -> {
+            gauge(registry, "vitrine.sse.conexoes", central, c -> c.estatisticas().abertas());
+            FunctionCounter.builder("vitrine.sse.aberturas", central, c -> c.estatisticas().aceitas())
+                    .tags("resultado", "aceita").register(registry);
+            FunctionCounter.builder("vitrine.sse.aberturas", central, c -> c.estatisticas().recusadas())
+                    .tags("resultado", "recusada").register(registry);
+            FunctionCounter.builder("vitrine.sse.eventos", central, c -> c.estatisticas().publicados())
+                    .register(registry);
+            FunctionCounter.builder("vitrine.sse.descartados", central, c -> c.estatisticas().descartados())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder senhaMetricas(BoundedPasswordEncoder encoder) {
+        return registry -> {
+            gauge(registry, "vitrine.senha.ativas", encoder, BoundedPasswordEncoder::ativas);
+            gauge(registry, "vitrine.senha.fila", encoder, BoundedPasswordEncoder::naFila);
+            FunctionCounter.builder("vitrine.senha.rejeicoes", encoder, BoundedPasswordEncoder::rejeicoes)
+                    .register(registry);
+        };
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String nome, T objeto, ToDoubleFunction<T> valor, String... tags) {
+        Gauge.builder(nome, objeto, valor).tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.pedido.DiarioPedidos;
+import br.com.sorocaba.vitrine.pedido.FilaGravacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Order Configuration
+ * Declares the order journal on the local data volume and the queue its group-commit writer drains
+ */
+@Configuration
+public class PedidoConfig {
+
+    @Bean
+    public DiarioPedidos diarioPedidos(
+            @Value("${app.pedidos.diretorio:./data/pedidos}") String diretorio,
+            @Value("${app.pedidos.segmento:8MB}") DataSize segmento,
+            ObjectMapper objectMapper) throws IOException {
+        return new DiarioPedidos(Path.of(diretorio), segmento.toBytes(), objectMapper);
+    }
+
+    /**
+     * A larger batch amortizes the commit's fsync over more orders; the latency bounds how long
+     * the first order of a quiet period waits for company.
+     */
+    @Bean
+    public FilaGravacao<DiarioPedidos.Registro> filaPedidos(
+            @Value("${app.pedidos.capacidade:10000}") int capacidade,
+            @Value("${app.pedidos.lote:200}") int lote,
+            @Value("${app.pedidos.latencia:5ms}") Duration latencia,
+            @Value("${app.pedidos.espera-maxima:1s}") Duration esperaMaxima) {
+        return new FilaGravacao<>("pedidos", capacidade, lote, latencia, esperaMaxima);
+    }
+}
@@ -1,9 +1,13 @@
 package br.com.sorocaba.vitrine.config;
 
+import br.com.sorocaba.vitrine.security.BoundedPasswordEncoder;
 import br.com.sorocaba.vitrine.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,6 +15,10 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import java.time.Duration;
 
 /**
  * Security Configuration for VitrineSorocabana
@@ -23,16 +31,39 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
 
+    /**
+     * Metrics scrapers authenticate with HTTP Basic, and only here: anywhere else a stray
+     * Authorization header would cost a BCrypt run on the password pool before the rate limiter.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .authenticationProvider(authenticationProvider)
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(2)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider) throws Exception {
         http
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .cors(Customizer.withDefaults())
             .authorizeHttpRequests(auth -> auth
                 // Public access
                 .requestMatchers("/", "/portal", "/loja/**", "/blog/**").permitAll()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                // Orders reserve their own stock; direct reservations would let anyone hold or sell it out
+                .requestMatchers("/api/estoque/reservas/**").hasRole("ADMIN")
                 .requestMatchers("/api/**", "/spa/**", "/app/**").permitAll()
-                .requestMatchers("/css/**", "/js/**", "/images/**", "/h2-console/**").permitAll()
+                .requestMatchers("/css/**", "/js/**", "/images/**", "/imagens/**", "/h2-console/**").permitAll()
                 // Admin requires authentication
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
@@ -42,6 +73,11 @@ public class SecurityConfig {
                 .defaultSuccessUrl("/admin", true)
                 .permitAll()
             )
+            // The API answers 401 instead of redirecting to the login page
+            .exceptionHandling(exceptions -> exceptions
+                .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                        new AntPathRequestMatcher("/api/**"))
+            )
             .logout(logout -> logout
                 .logoutSuccessUrl("/")
                 .permitAll()
@@ -56,16 +92,24 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * BCrypt on its own bounded pool, so login bursts queue there (or are rejected) instead of
+     * occupying Tomcat threads. Threads default to half the CPUs.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.seguranca.senha.threads:0}") int threads,
+            @Value("${app.seguranca.senha.fila:32}") int fila,
+            @Value("${app.seguranca.senha.espera-maxima:5s}") Duration esperaMaxima) {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), tamanho, fila, esperaMaxima);
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 }
@@ -0,0 +1,27 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.sse.CentralSse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Event Stream Configuration
+ * Declares the hub that holds the open /api/stream connections
+ */
+@Configuration
+public class SseConfig {
+
+    /**
+     * Streams still open at shutdown are ended, so their clients reconnect instead of waiting on a dead socket.
+     */
+    @Bean(destroyMethod = "fecharTodas")
+    public CentralSse centralSse(
+            @Value("${app.sse.maximo-conexoes:5000}") int maximoConexoes,
+            @Value("${app.sse.buffer:32}") int buffer,
+            @Value("${app.sse.duracao-maxima:30m}") Duration duracaoMaxima) {
+        return new CentralSse(maximoConexoes, buffer, duracaoMaxima);
+    }
+}
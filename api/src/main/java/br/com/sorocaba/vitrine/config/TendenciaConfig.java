@@ -0,0 +1,34 @@
+package br.com.sorocaba.vitrine.config;
+
+import br.com.sorocaba.vitrine.visualizacao.JanelaTendencias;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Trending Configuration
+ * Declares the sliding windows that track recently viewed products and posts
+ */
+@Configuration
+public class TendenciaConfig {
+
+    @Bean
+    public JanelaTendencias tendenciasProdutos(
+            @Value("${app.tendencias.janela:1h}") Duration janela,
+            @Value("${app.tendencias.baldes:12}") int baldes,
+            @Value("${app.tendencias.meia-vida:15m}") Duration meiaVida,
+            @Value("${app.tendencias.capacidade:1000}") int capacidade) {
+        return new JanelaTendencias(janela, baldes, meiaVida, capacidade);
+    }
+
+    @Bean
+    public JanelaTendencias tendenciasPosts(
+            @Value("${app.tendencias.janela:1h}") Duration janela,
+            @Value("${app.tendencias.baldes:12}") int baldes,
+            @Value("${app.tendencias.meia-vida:15m}") Duration meiaVida,
+            @Value("${app.tendencias.capacidade:1000}") int capacidade) {
+        return new JanelaTendencias(janela, baldes, meiaVida, capacidade);
+    }
+}
@@ -1,9 +1,29 @@
 package br.com.sorocaba.vitrine.config;
 
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.cache.PaginaRenderizada;
+import br.com.sorocaba.vitrine.service.TendenciaService;
+import br.com.sorocaba.vitrine.service.VisualizacaoService;
+import br.com.sorocaba.vitrine.web.PaginaCacheFilter;
+import br.com.sorocaba.vitrine.web.SqlRequisicaoFilter;
+import br.com.sorocaba.vitrine.web.VisualizacaoFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
 
 /**
  * Web MVC Configuration
@@ -12,6 +32,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final CacheControl IMUTAVEL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         // Simple view mappings without controller logic
@@ -21,6 +43,83 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addViewController("/500").setViewName("error/500");
     }
 
+    /**
+     * Static files are served from their precompressed .br/.gz copies when the client accepts them
+     * (see frontend/scripts/precompress.mjs). URLs carrying a content hash are cached for a year;
+     * the SPA's index.html and other fixed names are revalidated on every load.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Vite puts a content hash in every file name under assets/
+        registry.addResourceHandler("/spa/assets/**")
+                .addResourceLocations("classpath:/static/spa/assets/")
+                .setCacheControl(IMUTAVEL)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+        // Templates link /css/style-<md5>.css through the ResourceUrlEncodingFilter below
+        registry.addResourceHandler("/css/**")
+                .addResourceLocations("classpath:/static/css/")
+                .setCacheControl(IMUTAVEL)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        registry.addResourceHandler("/spa/**")
+                .addResourceLocations("classpath:/static/spa/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+
+    /**
+     * Rewrites @{/css/...} links in rendered templates to their content-hashed URLs.
+     */
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        FilterRegistrationBean<ResourceUrlEncodingFilter> registro =
+                new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+        registro.addUrlPatterns("/*");
+        return registro;
+    }
+
+    /**
+     * Rendered-page cache for anonymous storefront and blog GETs.
+     * Ordered right after the Spring Security chain so the principal is already resolved.
+     */
+    @Bean
+    public FilterRegistrationBean<PaginaCacheFilter> paginaCacheFilter(NearCache<String, PaginaRenderizada> paginaCache) {
+        FilterRegistrationBean<PaginaCacheFilter> registro = new FilterRegistrationBean<>(new PaginaCacheFilter(paginaCache));
+        registro.addUrlPatterns("/loja", "/loja/produto/*", "/blog", "/blog/post/*");
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registro;
+    }
+
+    /**
+     * View counting and trending for product and post details.
+     * Ordered ahead of the rendered-page cache, which answers hits without calling the rest of the chain.
+     */
+    @Bean
+    public FilterRegistrationBean<VisualizacaoFilter> visualizacaoFilter(VisualizacaoService visualizacaoService,
+                                                                         TendenciaService tendenciaService) {
+        FilterRegistrationBean<VisualizacaoFilter> registro =
+                new FilterRegistrationBean<>(new VisualizacaoFilter(visualizacaoService, tendenciaService));
+        registro.addUrlPatterns("/loja/produto/*", "/blog/post/*", "/api/produtos/*", "/api/posts/*");
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registro;
+    }
+
+    /**
+     * Per-request SQL statement count and slow-request log.
+     * Ordered ahead of Spring Security so the login's user lookup is counted too.
+     */
+    @Bean
+    public FilterRegistrationBean<SqlRequisicaoFilter> sqlRequisicaoFilter(
+            @Value("${app.sql.requisicao-lenta:500ms}") Duration requisicaoLenta, MeterRegistry registry) {
+        FilterRegistrationBean<SqlRequisicaoFilter> registro =
+                new FilterRegistrationBean<>(new SqlRequisicaoFilter(requisicaoLenta, registry));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
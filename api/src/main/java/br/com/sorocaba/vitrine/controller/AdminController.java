@@ -1,19 +1,33 @@
 package br.com.sorocaba.vitrine.controller;
 
+import br.com.sorocaba.vitrine.exception.InvalidImageException;
+import br.com.sorocaba.vitrine.exception.InvalidImportException;
+import br.com.sorocaba.vitrine.imagem.ArmazemImagens;
+import br.com.sorocaba.vitrine.importacao.FormatoImportacao;
 import br.com.sorocaba.vitrine.model.Produto;
 import br.com.sorocaba.vitrine.model.Post;
 import br.com.sorocaba.vitrine.model.Usuario;
 import br.com.sorocaba.vitrine.service.ProdutoService;
 import br.com.sorocaba.vitrine.service.PostService;
+import br.com.sorocaba.vitrine.service.ImportacaoProdutoService;
+import br.com.sorocaba.vitrine.service.MetricasPainelService;
+import br.com.sorocaba.vitrine.service.ResumoAdminService;
 import br.com.sorocaba.vitrine.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Controller for the Admin panel
  * Handles administrative operations for users, products, and posts
@@ -26,13 +40,16 @@ public class AdminController {
     private final UsuarioService usuarioService;
     private final ProdutoService produtoService;
     private final PostService postService;
+    private final ResumoAdminService resumoAdminService;
+    private final ImportacaoProdutoService importacaoProdutoService;
+    private final MetricasPainelService metricasPainelService;
+    private final ArmazemImagens armazemImagens;
 
     @GetMapping
     public String dashboard(Model model) {
         model.addAttribute("title", "Admin — VitrineSorocabana");
-        model.addAttribute("totalUsuarios", usuarioService.contarTodos());
-        model.addAttribute("totalProdutos", produtoService.contarTodos());
-        model.addAttribute("totalPosts", postService.contarTodos());
+        model.addAttribute("resumo", resumoAdminService.obterResumo());
+        model.addAttribute("metricas", metricasPainelService.obterMetricas());
         return "admin/dashboard";
     }
 
@@ -86,10 +103,20 @@ public class AdminController {
     }
     
     @PostMapping("/produtos")
-    public String salvarProduto(@Valid @ModelAttribute Produto produto, BindingResult result, Model model) {
+    public String salvarProduto(@Valid @ModelAttribute Produto produto, BindingResult result,
+                                @RequestParam(value = "imagem", required = false) MultipartFile imagem,
+                                Model model) throws IOException {
         if (result.hasErrors()) {
             return "admin/produtos/form";
         }
+        if (imagem != null && !imagem.isEmpty()) {
+            try (InputStream entrada = imagem.getInputStream()) {
+                produto.setImagemChave(armazemImagens.armazenar(entrada));
+            } catch (InvalidImageException ex) {
+                result.rejectValue("imagemChave", "imagem.invalida", ex.getMessage());
+                return "admin/produtos/form";
+            }
+        }
         produtoService.salvar(produto);
         return "redirect:/admin/produtos";
     }
@@ -106,6 +133,26 @@ public class AdminController {
         return "redirect:/admin/produtos";
     }
 
+    @GetMapping("/produtos/importacao")
+    public String importacaoForm() {
+        return "admin/produtos/importacao";
+    }
+
+    @PostMapping("/produtos/importacao")
+    public String importarProdutos(@RequestParam("arquivo") MultipartFile arquivo, Model model) throws IOException {
+        if (arquivo.isEmpty()) {
+            model.addAttribute("erro", "Selecione um arquivo CSV ou NDJSON.");
+            return "admin/produtos/importacao";
+        }
+        try (Reader entrada = new InputStreamReader(arquivo.getInputStream(), StandardCharsets.UTF_8)) {
+            model.addAttribute("relatorio", importacaoProdutoService.importar(entrada,
+                    FormatoImportacao.detectar(arquivo.getOriginalFilename()), progresso -> { }));
+        } catch (InvalidImportException ex) {
+            model.addAttribute("erro", ex.getMessage());
+        }
+        return "admin/produtos/importacao";
+    }
+
     // ========== POSTS ==========
     
     @GetMapping("/posts")
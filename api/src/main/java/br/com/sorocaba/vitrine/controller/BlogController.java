@@ -1,13 +1,15 @@
 package br.com.sorocaba.vitrine.controller;
 
-import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.dto.PostDTO;
 import br.com.sorocaba.vitrine.service.PostService;
+import br.com.sorocaba.vitrine.web.ValidacaoCondicional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -24,15 +26,18 @@ public class BlogController {
 
     @GetMapping
     public String index(Model model) {
-        List<Post> posts = postService.listarTodos();
+        List<PostDTO> posts = postService.listarPublicadosDTO();
         model.addAttribute("title", "Blog — VitrineSorocabana");
         model.addAttribute("posts", posts);
         return "blog/index";
     }
     
     @GetMapping("/post/{id}")
-    public String detalhesPost(@PathVariable Long id, Model model) {
-        Post post = postService.buscarPorId(id);
+    public String detalhesPost(@PathVariable Long id, ServletWebRequest request, Model model) {
+        if (ValidacaoCondicional.paginaNaoModificada(request, id, postService.versaoPorId(id))) {
+            return null;
+        }
+        PostDTO post = postService.buscarDtoPorId(id);
         model.addAttribute("title", post.getTitulo() + " — Blog");
         model.addAttribute("post", post);
         return "blog/post-detalhes";
@@ -0,0 +1,88 @@
+package br.com.sorocaba.vitrine.controller;
+
+import br.com.sorocaba.vitrine.imagem.ArmazemImagens;
+import br.com.sorocaba.vitrine.imagem.VarianteImagem;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Controller serving the stored product image variants
+ * Keys are content hashes, so a URL always means the same bytes and is cached for a year
+ */
+@Controller
+@RequiredArgsConstructor
+public class ImagemController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImagemController.class);
+
+    private static final String CACHE_IMUTAVEL = "public, max-age=31536000, immutable";
+
+    // Tomcat sends the file with sendfile(2) after the servlet returns when these are set
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    private final ArmazemImagens armazemImagens;
+
+    @GetMapping("/imagens/{chave}/{variante}.jpg")
+    public void servir(@PathVariable String chave, @PathVariable String variante,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        VarianteImagem tipo = VarianteImagem.de(variante);
+        Path arquivo;
+        try {
+            arquivo = tipo != null ? armazemImagens.obterVariante(chave, tipo) : null;
+        } catch (IOException ex) {
+            LOGGER.warn(ex.getMessage());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        // Plain statuses without an error page: the /error dispatch would answer 401 to anonymous clients
+        if (arquivo == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_IMUTAVEL);
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + chave + "-" + tipo.nome() + "\"")) {
+            return;
+        }
+        long tamanho = Files.size(arquivo);
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLengthLong(tamanho);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+            request.setAttribute(SENDFILE_ARQUIVO, arquivo.toString());
+            request.setAttribute(SENDFILE_INICIO, 0L);
+            request.setAttribute(SENDFILE_FIM, tamanho);
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            WritableByteChannel destino = Channels.newChannel(response.getOutputStream());
+            long enviados = 0;
+            while (enviados < tamanho) {
+                enviados += canal.transferTo(enviados, tamanho - enviados, destino);
+            }
+        }
+    }
+}
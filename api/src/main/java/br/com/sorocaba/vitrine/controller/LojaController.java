@@ -1,15 +1,27 @@
 package br.com.sorocaba.vitrine.controller;
 
-import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.dto.PedidoDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoPedidoDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoReservaDTO;
+import br.com.sorocaba.vitrine.exception.InsufficientStockException;
+import br.com.sorocaba.vitrine.service.PedidoService;
 import br.com.sorocaba.vitrine.service.ProdutoService;
+import br.com.sorocaba.vitrine.web.ValidacaoCondicional;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Controller for the Shop (Loja) module
@@ -21,21 +33,70 @@ import java.util.List;
 public class LojaController {
 
     private final ProdutoService produtoService;
+    private final PedidoService pedidoService;
 
     @GetMapping
     public String index(Model model) {
-        List<Produto> produtos = produtoService.listarTodos();
+        List<ProdutoDTO> produtos = produtoService.listarAtivosDTO();
         model.addAttribute("title", "Loja — VitrineSorocabana");
         model.addAttribute("produtos", produtos);
         return "loja/index";
     }
     
+    /**
+     * A revalidation that still matches ends in a 304 before the page is rendered.
+     */
     @GetMapping("/produto/{id}")
-    public String detalhesProduto(@PathVariable Long id, Model model) {
-        Produto produto = produtoService.buscarPorId(id);
+    public String detalhesProduto(@PathVariable Long id, ServletWebRequest request, Model model) {
+        if (ValidacaoCondicional.paginaNaoModificada(request, id, produtoService.versaoPorId(id))) {
+            return null;
+        }
+        ProdutoDTO produto = produtoService.buscarDtoPorId(id);
         model.addAttribute("title", produto.getNome() + " — Loja");
         model.addAttribute("produto", produto);
         return "loja/produto-detalhes";
     }
-}
 
+    /**
+     * Checkout lives on its own page so the product page carries no CSRF token and stays cacheable.
+     */
+    @GetMapping("/produto/{id}/comprar")
+    public String comprarForm(@PathVariable Long id, Model model) {
+        SolicitacaoPedidoDTO solicitacao = new SolicitacaoPedidoDTO();
+        solicitacao.getItens().add(new SolicitacaoReservaDTO(id, 1));
+        return comprar(produtoService.buscarDtoPorId(id), solicitacao, model);
+    }
+
+    @PostMapping("/produto/{id}/comprar")
+    public String comprar(@PathVariable Long id, @Valid @ModelAttribute("solicitacao") SolicitacaoPedidoDTO solicitacao,
+                          BindingResult result, Model model) {
+        ProdutoDTO produto = produtoService.buscarDtoPorId(id);
+        if (result.hasErrors()) {
+            return comprar(produto, solicitacao, model);
+        }
+        // One product per checkout: whatever item the form posted, it is this product
+        Integer quantidade = solicitacao.getItens().get(0).getQuantidade();
+        solicitacao.setItens(List.of(new SolicitacaoReservaDTO(id, quantidade)));
+        try {
+            PedidoDTO pedido = pedidoService.receber(solicitacao);
+            return "redirect:/loja/pedido/" + pedido.getId();
+        } catch (InsufficientStockException ex) {
+            result.reject("estoque.insuficiente", ex.getMessage());
+            return comprar(produto, solicitacao, model);
+        }
+    }
+
+    @GetMapping("/pedido/{id}")
+    public String pedido(@PathVariable UUID id, Model model) {
+        model.addAttribute("title", "Pedido — Loja");
+        model.addAttribute("pedido", pedidoService.buscarPorId(id));
+        return "loja/pedido";
+    }
+
+    private static String comprar(ProdutoDTO produto, SolicitacaoPedidoDTO solicitacao, Model model) {
+        model.addAttribute("title", "Comprar " + produto.getNome() + " — Loja");
+        model.addAttribute("produto", produto);
+        model.addAttribute("solicitacao", solicitacao);
+        return "loja/comprar";
+    }
+}
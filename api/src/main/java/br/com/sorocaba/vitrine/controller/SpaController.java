@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @Controller
 public class SpaController {
 
-    @RequestMapping({"/app", "/app/", "/app/{path:[^\\.]*}", "/app/**/{path:[^\\.]*}"})
+    @RequestMapping({"/app", "/app/{*path}"})
     public String forwardSpa() {
         return "forward:/spa/index.html";
     }
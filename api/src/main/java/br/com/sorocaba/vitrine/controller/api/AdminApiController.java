@@ -1,13 +1,38 @@
 package br.com.sorocaba.vitrine.controller.api;
 
-import br.com.sorocaba.vitrine.service.PostService;
-import br.com.sorocaba.vitrine.service.ProdutoService;
-import br.com.sorocaba.vitrine.service.UsuarioService;
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.dto.AdminSummaryDTO;
+import br.com.sorocaba.vitrine.dto.MetricasPainelDTO;
+import br.com.sorocaba.vitrine.dto.RelatorioImportacaoDTO;
+import br.com.sorocaba.vitrine.exportacao.FormatoExportacao;
+import br.com.sorocaba.vitrine.importacao.FormatoImportacao;
+import br.com.sorocaba.vitrine.service.ExportacaoService;
+import br.com.sorocaba.vitrine.service.ImportacaoProdutoService;
+import br.com.sorocaba.vitrine.service.MetricasPainelService;
+import br.com.sorocaba.vitrine.service.ResumoAdminService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
 /**
  * REST controller exposing administrative metrics for the SPA dashboard.
  */
@@ -16,20 +41,105 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AdminApiController {
 
-    private final UsuarioService usuarioService;
-    private final ProdutoService produtoService;
-    private final PostService postService;
+    private final ResumoAdminService resumoAdminService;
+    private final List<NearCache<?, ?>> caches;
+    private final LimitadorBanco limitadorBanco;
+    private final MetricasPainelService metricasPainelService;
+    private final ImportacaoProdutoService importacaoProdutoService;
+    private final ExportacaoService exportacaoService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/summary")
     public AdminSummaryDTO obterResumo() {
-        return new AdminSummaryDTO(
-                usuarioService.contarTodos(),
-                produtoService.contarTodos(),
-                postService.contarTodos()
-        );
+        return resumoAdminService.obterResumo();
+    }
+
+    @GetMapping("/caches")
+    public List<NearCache.Estatisticas> obterEstatisticasCaches() {
+        return caches.stream()
+                .map(NearCache::estatisticas)
+                .toList();
+    }
+
+    @GetMapping("/banco")
+    public LimitadorBanco.Estatisticas obterEstatisticasBanco() {
+        return limitadorBanco.estatisticas();
+    }
+
+    @GetMapping("/metricas")
+    public MetricasPainelDTO obterMetricas() {
+        return metricasPainelService.obterMetricas();
+    }
+
+    /**
+     * Streams the request body (text/csv or application/x-ndjson) into the product import and answers
+     * with NDJSON: one progress line per committed chunk, then the final report. ADMIN only.
+     */
+    @PostMapping(value = "/produtos/importacao", consumes = {"text/csv", "application/x-ndjson"})
+    public void importarProdutos(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FormatoImportacao formato = FormatoImportacao.detectar(request.getContentType());
+        Reader entrada = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        RelatorioImportacaoDTO relatorio = importacaoProdutoService.importar(entrada, formato,
+                progresso -> escreverLinha(response, progresso));
+        escreverLinha(response, relatorio);
+    }
+
+    /**
+     * Streams every product as NDJSON, or CSV with {@code formato=csv}; gzip when the client accepts it. ADMIN only.
+     */
+    @GetMapping("/produtos/exportacao")
+    public void exportarProdutos(@RequestParam(required = false) String formato, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        try (OutputStream saida = abrirExportacao("produtos", formatoExportacao, request, response)) {
+            exportacaoService.exportarProdutos(saida, formatoExportacao);
+        }
+    }
+
+    /**
+     * Streams every post, same formats as the product export. ADMIN only.
+     */
+    @GetMapping("/posts/exportacao")
+    public void exportarPosts(@RequestParam(required = false) String formato, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        try (OutputStream saida = abrirExportacao("posts", formatoExportacao, request, response)) {
+            exportacaoService.exportarPosts(saida, formatoExportacao);
+        }
+    }
+
+    private OutputStream abrirExportacao(String nome, FormatoExportacao formato, HttpServletRequest request,
+                                         HttpServletResponse response) throws IOException {
+        response.setContentType(formato.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(nome + "." + formato.extensao()).build().toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!SnapshotResponses.aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.getOutputStream();
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
     }
 
-    public record AdminSummaryDTO(long totalUsuarios, long totalProdutos, long totalPosts) {}
+    /**
+     * The content type is only set with the first line, so a header rejected before any chunk
+     * still reaches the exception handler as a plain JSON 400.
+     */
+    private void escreverLinha(HttpServletResponse response, Object valor) {
+        try {
+            if (response.getContentType() == null) {
+                response.setContentType("application/x-ndjson");
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            }
+            Writer saida = response.getWriter();
+            saida.write(objectMapper.writeValueAsString(valor));
+            saida.write('\n');
+            saida.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
 
 
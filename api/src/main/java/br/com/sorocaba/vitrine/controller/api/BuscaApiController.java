@@ -0,0 +1,30 @@
+package br.com.sorocaba.vitrine.controller.api;
+
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
+import br.com.sorocaba.vitrine.dto.ResultadoBuscaDTO;
+import br.com.sorocaba.vitrine.search.TipoDocumento;
+import br.com.sorocaba.vitrine.service.BuscaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing full-text search over products and posts.
+ */
+@RestController
+@RequestMapping("/api/busca")
+@RequiredArgsConstructor
+public class BuscaApiController {
+
+    private final BuscaService buscaService;
+
+    @GetMapping
+    public ResultadoBuscaDTO buscar(@RequestParam(name = "q", defaultValue = "") String consulta,
+                                    @RequestParam(required = false) TipoDocumento tipo,
+                                    @RequestParam(defaultValue = "0") int pagina,
+                                    @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_PADRAO) int tamanho) {
+        return buscaService.buscar(consulta, tipo, pagina, tamanho);
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.sorocaba.vitrine.controller.api;
+
+import br.com.sorocaba.vitrine.dto.EstoqueDTO;
+import br.com.sorocaba.vitrine.dto.ReservaEstoqueDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoReservaDTO;
+import br.com.sorocaba.vitrine.estoque.ReservaEstoque;
+import br.com.sorocaba.vitrine.service.EstoqueService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * REST controller for stock reservations: reserve units, then confirm or release them
+ * before the reservation expires. Reservations are ADMIN only; the stock lookup is public.
+ */
+@RestController
+@RequestMapping("/api/estoque")
+@RequiredArgsConstructor
+public class EstoqueApiController {
+
+    private final EstoqueService estoqueService;
+
+    @PostMapping("/reservas")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservaEstoqueDTO reservar(@Valid @RequestBody SolicitacaoReservaDTO solicitacao) {
+        ReservaEstoque reserva = estoqueService.reservar(solicitacao.getProdutoId(), solicitacao.getQuantidade());
+        return new ReservaEstoqueDTO(reserva.id(), reserva.produtoId(), reserva.quantidade(), reserva.expiraEm());
+    }
+
+    @PostMapping("/reservas/{id}/confirmacao")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void confirmar(@PathVariable UUID id) {
+        estoqueService.confirmar(id);
+    }
+
+    @DeleteMapping("/reservas/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void liberar(@PathVariable UUID id) {
+        estoqueService.liberar(id);
+    }
+
+    @GetMapping("/produtos/{produtoId}")
+    public EstoqueDTO consultar(@PathVariable Long produtoId) {
+        return estoqueService.consultar(produtoId);
+    }
+}
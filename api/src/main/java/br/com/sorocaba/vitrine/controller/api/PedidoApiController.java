@@ -0,0 +1,42 @@
+package br.com.sorocaba.vitrine.controller.api;
+
+import br.com.sorocaba.vitrine.dto.PedidoDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoPedidoDTO;
+import br.com.sorocaba.vitrine.service.PedidoService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * REST controller for checkout. An order is answered with 202 as soon as it is accepted;
+ * its status turns from PENDENTE to RECEBIDO once the group commit writes it.
+ */
+@RestController
+@RequestMapping("/api/pedidos")
+@RequiredArgsConstructor
+public class PedidoApiController {
+
+    private final PedidoService pedidoService;
+
+    @PostMapping
+    public ResponseEntity<PedidoDTO> receber(@Valid @RequestBody SolicitacaoPedidoDTO solicitacao) {
+        PedidoDTO pedido = pedidoService.receber(solicitacao);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/pedidos/" + pedido.getId()))
+                .body(pedido);
+    }
+
+    @GetMapping("/{id}")
+    public PedidoDTO buscarPorId(@PathVariable UUID id) {
+        return pedidoService.buscarPorId(id);
+    }
+}
@@ -1,12 +1,23 @@
 package br.com.sorocaba.vitrine.controller.api;
 
+import br.com.sorocaba.vitrine.dto.AlteracoesDTO;
+import br.com.sorocaba.vitrine.dto.ItemRankingDTO;
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
 import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.service.CatalogoSnapshotService;
 import br.com.sorocaba.vitrine.service.PostService;
+import br.com.sorocaba.vitrine.service.VisualizacaoService;
+import br.com.sorocaba.vitrine.web.ValidacaoCondicional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -19,14 +30,47 @@ import java.util.List;
 public class PostApiController {
 
     private final PostService postService;
+    private final CatalogoSnapshotService catalogoSnapshotService;
+    private final VisualizacaoService visualizacaoService;
 
+    /**
+     * The default first page is served from the pre-serialized snapshot with ETag revalidation;
+     * cursor pages are queried on demand.
+     */
     @GetMapping
-    public List<PostDTO> listarPublicados() {
-        return postService.listarPublicadosDTO();
+    public ResponseEntity<?> listarPublicados(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_PADRAO) int limite,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (cursor == null && limite == PaginaDTO.LIMITE_PADRAO) {
+            return SnapshotResponses.responder(catalogoSnapshotService.posts(), ifNoneMatch, acceptEncoding);
+        }
+        PaginaDTO<PostDTO> pagina = postService.listarPublicadosPagina(cursor, limite);
+        return ResponseEntity.ok(pagina);
     }
 
+    @GetMapping("/mais-lidos")
+    public List<ItemRankingDTO<PostDTO>> maisLidos(@RequestParam(defaultValue = "10") int limite) {
+        return visualizacaoService.maisLidos(limite);
+    }
+
+    /**
+     * Delta sync: without {@code since}, or with a token too old to follow, every item comes back
+     * with {@code completo} set.
+     */
+    @GetMapping("/changes")
+    public AlteracoesDTO<PostDTO> alteracoes(@RequestParam(required = false) String since) {
+        return postService.alteracoesDesde(since);
+    }
+
+    /**
+     * Revalidated against the in-memory version; a match is a 304 without building the DTO.
+     */
     @GetMapping("/{id}")
-    public PostDTO buscarPorId(@PathVariable Long id) {
+    public PostDTO buscarPorId(@PathVariable Long id, ServletWebRequest request) {
+        if (ValidacaoCondicional.naoModificado(request, id, postService.versaoPorId(id))) {
+            return null;
+        }
         return postService.buscarDtoPorId(id);
     }
 }
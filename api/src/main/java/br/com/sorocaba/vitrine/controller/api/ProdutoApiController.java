@@ -1,12 +1,23 @@
 package br.com.sorocaba.vitrine.controller.api;
 
+import br.com.sorocaba.vitrine.dto.AlteracoesDTO;
+import br.com.sorocaba.vitrine.dto.ItemRankingDTO;
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
 import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.service.CatalogoSnapshotService;
 import br.com.sorocaba.vitrine.service.ProdutoService;
+import br.com.sorocaba.vitrine.service.VisualizacaoService;
+import br.com.sorocaba.vitrine.web.ValidacaoCondicional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -19,14 +30,50 @@ import java.util.List;
 public class ProdutoApiController {
 
     private final ProdutoService produtoService;
+    private final CatalogoSnapshotService catalogoSnapshotService;
+    private final VisualizacaoService visualizacaoService;
 
+    /**
+     * The default first page is served from the pre-serialized snapshot with ETag revalidation;
+     * cursor pages are queried on demand.
+     */
     @GetMapping
-    public List<ProdutoDTO> listarAtivos() {
-        return produtoService.listarAtivosDTO();
+    public ResponseEntity<?> listarAtivos(@RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "" + PaginaDTO.LIMITE_PADRAO) int limite,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (cursor == null && limite == PaginaDTO.LIMITE_PADRAO) {
+            return SnapshotResponses.responder(catalogoSnapshotService.produtos(), ifNoneMatch, acceptEncoding);
+        }
+        PaginaDTO<ProdutoDTO> pagina = produtoService.listarAtivosPagina(cursor, limite);
+        return ResponseEntity.ok(pagina);
     }
 
+    /**
+     * Served from the in-memory ranking; totals trail the pages by at most one counter flush.
+     */
+    @GetMapping("/mais-vistos")
+    public List<ItemRankingDTO<ProdutoDTO>> maisVistos(@RequestParam(defaultValue = "10") int limite) {
+        return visualizacaoService.maisVistos(limite);
+    }
+
+    /**
+     * Delta sync: without {@code since}, or with a token too old to follow, every item comes back
+     * with {@code completo} set.
+     */
+    @GetMapping("/changes")
+    public AlteracoesDTO<ProdutoDTO> alteracoes(@RequestParam(required = false) String since) {
+        return produtoService.alteracoesDesde(since);
+    }
+
+    /**
+     * Revalidated against the in-memory version; a match is a 304 without building the DTO.
+     */
     @GetMapping("/{id}")
-    public ProdutoDTO buscarPorId(@PathVariable Long id) {
+    public ProdutoDTO buscarPorId(@PathVariable Long id, ServletWebRequest request) {
+        if (ValidacaoCondicional.naoModificado(request, id, produtoService.versaoPorId(id))) {
+            return null;
+        }
         return produtoService.buscarDtoPorId(id);
     }
 }
@@ -0,0 +1,102 @@
+package br.com.sorocaba.vitrine.controller.api;
+
+import br.com.sorocaba.vitrine.service.CatalogoSnapshotService.Snapshot;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Builds HTTP responses for pre-serialized snapshots.
+ * Each encoding gets its own strong ETag; either one validates the same content.
+ */
+public final class SnapshotResponses {
+
+    private SnapshotResponses() {
+    }
+
+    static ResponseEntity<byte[]> responder(Snapshot snapshot, String ifNoneMatch, String acceptEncoding) {
+        boolean usarGzip = aceitaGzip(acceptEncoding);
+        String etag = "\"" + snapshot.hash() + (usarGzip ? "-gz" : "") + "\"";
+
+        if (ifNoneMatch != null && corresponde(ifNoneMatch, snapshot.hash())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (usarGzip) {
+            return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return resposta.body(snapshot.json());
+    }
+
+    /**
+     * Whether the Accept-Encoding header takes gzip: listed by name, or through {@code *}, with a
+     * q-value above zero. A name takes precedence over the wildcard.
+     */
+    public static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double qGzip = -1;
+        double qCuringa = -1;
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.split(";");
+            String codificacao = partes[0].trim();
+            if (codificacao.equalsIgnoreCase("gzip") || codificacao.equalsIgnoreCase("x-gzip")) {
+                qGzip = Math.max(qGzip, qualidade(partes));
+            } else if (codificacao.equals("*")) {
+                qCuringa = qualidade(partes);
+            }
+        }
+        return qGzip >= 0 ? qGzip > 0 : qCuringa > 0;
+    }
+
+    /**
+     * Weak comparison of each entity tag in If-None-Match against either encoding's tag.
+     */
+    private static boolean corresponde(String ifNoneMatch, String hash) {
+        String identidade = "\"" + hash + "\"";
+        String gzip = "\"" + hash + "-gz\"";
+        for (String item : ifNoneMatch.split(",")) {
+            String tag = item.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(identidade) || tag.equals(gzip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The q parameter of one Accept-Encoding item; 1 when absent, 0 when malformed.
+     */
+    private static double qualidade(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.length() > 2 && (parametro.charAt(0) == 'q' || parametro.charAt(0) == 'Q')
+                    && parametro.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
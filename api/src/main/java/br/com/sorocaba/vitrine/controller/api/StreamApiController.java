@@ -0,0 +1,66 @@
+package br.com.sorocaba.vitrine.controller.api;
+
+import br.com.sorocaba.vitrine.service.TransmissaoAlteracoesService;
+import br.com.sorocaba.vitrine.sse.CentralSse;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST controller streaming catalog and blog changes to the SPA as Server-Sent Events.
+ * The stream runs on the raw async request with a non-blocking writer, so an idle client holds no thread.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+public class StreamApiController {
+
+    private static final String SEM_CACHE = CacheControl.noCache().getHeaderValue();
+
+    private final CentralSse centralSse;
+    private final TransmissaoAlteracoesService transmissaoAlteracoesService;
+
+    /**
+     * EventSource sends Last-Event-ID by itself when it reconnects. A full hub answers a plain 503,
+     * since an error body in JSON could not be sent as text/event-stream.
+     */
+    @GetMapping
+    public void stream(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoId,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!centralSse.reservar()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, SEM_CACHE);
+        // Keeps nginx from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        AsyncContext contexto;
+        try {
+            contexto = request.startAsync(request, response);
+        } catch (IllegalStateException ex) {
+            centralSse.liberar();
+            throw ex;
+        }
+        try {
+            transmissaoAlteracoesService.conectar(contexto, ultimoId);
+        } catch (IOException | RuntimeException ex) {
+            centralSse.liberar();
+            contexto.complete();
+            throw ex;
+        }
+    }
+}
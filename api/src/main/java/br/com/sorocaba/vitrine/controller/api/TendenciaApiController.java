@@ -0,0 +1,25 @@
+package br.com.sorocaba.vitrine.controller.api;
+
+import br.com.sorocaba.vitrine.dto.TendenciasDTO;
+import br.com.sorocaba.vitrine.service.TendenciaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the "trending now" rails for the SPA storefront and blog.
+ */
+@RestController
+@RequestMapping("/api/trending")
+@RequiredArgsConstructor
+public class TendenciaApiController {
+
+    private final TendenciaService tendenciaService;
+
+    @GetMapping
+    public TendenciasDTO tendencias(@RequestParam(defaultValue = "0") int limite) {
+        return tendenciaService.tendencias(limite);
+    }
+}
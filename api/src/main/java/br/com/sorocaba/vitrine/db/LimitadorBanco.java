@@ -0,0 +1,85 @@
+package br.com.sorocaba.vitrine.db;
+
+import br.com.sorocaba.vitrine.exception.DatabaseBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fair semaphore that bounds how many threads work against the database at once.
+ *
+ * With virtual threads the servlet container no longer caps concurrency, so without this every
+ * request would pile onto the connection pool and the H2 file lock at the same time. Callers that
+ * cannot get a permit within {@code esperaMaxima} fail with DatabaseBusyException instead of
+ * waiting indefinitely.
+ */
+public class LimitadorBanco {
+
+    private final Semaphore permissoes;
+    private final int total;
+    private final long esperaMaximaNanos;
+
+    private final AtomicInteger naFila = new AtomicInteger();
+    private final LongAdder aquisicoes = new LongAdder();
+    private final LongAdder aquisicoesComEspera = new LongAdder();
+    private final LongAdder rejeicoes = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaximaObservadaNanos = new AtomicLong();
+
+    public LimitadorBanco(int total, Duration esperaMaxima) {
+        this.total = total;
+        this.permissoes = new Semaphore(total, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    public void adquirir() {
+        if (permissoes.tryAcquire()) {
+            aquisicoes.increment();
+            return;
+        }
+        naFila.incrementAndGet();
+        long inicio = System.nanoTime();
+        boolean obtida;
+        try {
+            obtida = permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            obtida = false;
+        } finally {
+            naFila.decrementAndGet();
+        }
+        long espera = System.nanoTime() - inicio;
+        esperaTotalNanos.add(espera);
+        esperaMaximaObservadaNanos.accumulateAndGet(espera, Math::max);
+        if (!obtida) {
+            rejeicoes.increment();
+            throw new DatabaseBusyException("Banco de dados ocupado, tente novamente em instantes");
+        }
+        aquisicoes.increment();
+        aquisicoesComEspera.increment();
+    }
+
+    public void liberar() {
+        permissoes.release();
+    }
+
+    public Estatisticas estatisticas() {
+        long adquiridas = aquisicoes.sum();
+        long esperas = aquisicoesComEspera.sum() + rejeicoes.sum();
+        long esperaTotal = esperaTotalNanos.sum();
+        return new Estatisticas(total, total - permissoes.availablePermits(), naFila.get(), adquiridas,
+                aquisicoesComEspera.sum(), rejeicoes.sum(),
+                esperas == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(esperaTotal / esperas),
+                TimeUnit.NANOSECONDS.toMicros(esperaMaximaObservadaNanos.get()));
+    }
+
+    /**
+     * Point-in-time state of the limiter, exposed on the admin API. Wait times only cover callers that had to wait.
+     */
+    public record Estatisticas(int permissoes, int emUso, int naFila, long aquisicoes, long aquisicoesComEspera,
+                               long rejeicoes, long esperaMediaMicros, long esperaMaximaMicros) {}
+}
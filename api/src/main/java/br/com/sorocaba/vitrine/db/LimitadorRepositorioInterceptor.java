@@ -0,0 +1,48 @@
+package br.com.sorocaba.vitrine.db;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Puts every repository call behind the LimitadorBanco.
+ *
+ * Inside a transaction the permit is taken by the first repository call and held until the
+ * transaction completes, because that is how long the connection stays checked out. Later calls
+ * in the same transaction, including ones in a nested REQUIRES_NEW, reuse it; taking a second
+ * permit there could deadlock once all permits are held by threads waiting for one more.
+ */
+public class LimitadorRepositorioInterceptor implements MethodInterceptor {
+
+    private final LimitadorBanco limitador;
+
+    public LimitadorRepositorioInterceptor(LimitadorBanco limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.hasResource(limitador)) {
+            return invocation.proceed();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            limitador.adquirir();
+            TransactionSynchronizationManager.bindResource(limitador, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(limitador);
+                    limitador.liberar();
+                }
+            });
+            return invocation.proceed();
+        }
+        limitador.adquirir();
+        try {
+            return invocation.proceed();
+        } finally {
+            limitador.liberar();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.sorocaba.vitrine.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Aggregates shown on the admin dashboard and returned by GET /api/admin/summary.
+ * Stock units and catalog value (preço × estoque) cover active products only.
+ */
+public record AdminSummaryDTO(
+        long totalUsuarios,
+        long totalProdutos,
+        long produtosAtivos,
+        long produtosInativos,
+        long unidadesEmEstoque,
+        BigDecimal valorCatalogo,
+        long totalPosts,
+        long postsPublicados,
+        long postsRascunho,
+        Instant reconciliadoEm
+) {}
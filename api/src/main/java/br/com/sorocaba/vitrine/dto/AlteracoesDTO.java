@@ -0,0 +1,23 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a delta sync
+ * Carries the items changed and the ids removed since the client's token, and the token to send next;
+ * when completo is set, the items are the whole set and replace whatever the client holds
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracoesDTO<T> {
+
+    private List<T> alterados;
+    private List<Long> removidos;
+    private String token;
+    private boolean completo;
+}
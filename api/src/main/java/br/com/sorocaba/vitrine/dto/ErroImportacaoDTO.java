@@ -0,0 +1,18 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a rejected import record
+ * Line where the record starts in the input, its SKU when known, and why it was rejected
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+    private long linha;
+    private String sku;
+    private String mensagem;
+}
@@ -0,0 +1,19 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the live stock of a product
+ * {@code pendenteGravacao} counts confirmed units not yet written to the database
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstoqueDTO {
+    private Long produtoId;
+    private long disponivel;
+    private long reservado;
+    private long pendenteGravacao;
+}
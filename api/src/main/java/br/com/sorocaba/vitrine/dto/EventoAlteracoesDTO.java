@@ -0,0 +1,22 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a change event on the /api/stream event stream
+ * Carries the delta of each kind that changed since the event whose id is desde; a kind that did not
+ * change is null, and a delta whose alterados and removidos are null was too large to push or could
+ * not be followed, so the client syncs that kind from /changes with the token it already holds.
+ * A client whose last event id is not desde has missed an event and syncs both kinds
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoAlteracoesDTO {
+
+    private String desde;
+    private AlteracoesDTO<ProdutoDTO> produtos;
+    private AlteracoesDTO<PostDTO> posts;
+}
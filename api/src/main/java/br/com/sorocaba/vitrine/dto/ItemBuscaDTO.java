@@ -0,0 +1,20 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a single search hit
+ * Used for API responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBuscaDTO {
+    private String tipo;
+    private Long id;
+    private String titulo;
+    private String resumo;
+    private float relevancia;
+}
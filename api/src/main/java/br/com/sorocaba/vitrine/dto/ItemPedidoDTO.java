@@ -0,0 +1,20 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for an order line, with the name and price taken at checkout
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPedidoDTO {
+    private Long produtoId;
+    private String nomeProduto;
+    private BigDecimal precoUnitario;
+    private Integer quantidade;
+}
@@ -0,0 +1,18 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for one entry of a "most viewed" or trending ranking
+ * Carries the product or post and its views: the total as of the last counter flush, or for
+ * trending the recent views with older ones discounted
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRankingDTO<T> {
+    private T item;
+    private long visualizacoes;
+}
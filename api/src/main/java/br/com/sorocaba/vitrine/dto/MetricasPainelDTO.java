@@ -0,0 +1,36 @@
+package br.com.sorocaba.vitrine.dto;
+
+import java.util.List;
+
+/**
+ * Hot-path metrics shown on the admin dashboard and returned by GET /api/admin/metricas.
+ * Times are in milliseconds; percentiles are computed in-process over a sliding window.
+ * The same meters are scrapeable from /actuator/prometheus.
+ */
+public record MetricasPainelDTO(
+        List<Rota> rotas,
+        List<Repositorio> repositorios,
+        List<Transacao> transacoes,
+        Hibernate hibernate,
+        Pool pool,
+        Jvm jvm
+) {
+
+    public record Rota(String metodo, String uri, String status, long requisicoes,
+                       double mediaMs, double p50Ms, double p90Ms, double p99Ms, double maximoMs) {}
+
+    public record Repositorio(String repositorio, String metodo, long chamadas,
+                              double mediaMs, double p99Ms, double statementsPorChamada, double sqlMsPorChamada) {}
+
+    public record Transacao(String servico, String metodo, long chamadas, double statementsPorChamada,
+                            double maximoStatements, double sqlMsPorChamada) {}
+
+    public record Hibernate(long sessoesAbertas, long entidadesCarregadas, long entidadesBuscadas,
+                            long colecoesCarregadas, long consultasExecutadas, long statementsPreparados,
+                            long consultaMaisLentaMs) {}
+
+    public record Pool(int ativas, int ociosas, int pendentes, int maximo) {}
+
+    public record Jvm(long heapUsadoBytes, long heapMaximoBytes, double alocacaoBytesPorSegundo,
+                      long pausasGc, double pausasGcMs) {}
+}
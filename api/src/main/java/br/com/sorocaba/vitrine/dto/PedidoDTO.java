@@ -0,0 +1,27 @@
+package br.com.sorocaba.vitrine.dto;
+
+import br.com.sorocaba.vitrine.model.StatusPedido;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for Pedido
+ * {@code status} is PENDENTE while the order waits in the queue for its group commit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoDTO {
+    private UUID id;
+    private StatusPedido status;
+    private String nomeCliente;
+    private BigDecimal total;
+    private LocalDateTime dataCriacao;
+    private List<ItemPedidoDTO> itens;
+}
@@ -21,5 +21,8 @@ public class ProdutoDTO {
     private String imagemUrl;
     private Integer estoque;
     private Boolean ativo;
+    // imagemUrl is the detail-size image; external URLs are used as is for every size
+    private String imagemCardUrl;
+    private String imagemThumbUrl;
 }
 
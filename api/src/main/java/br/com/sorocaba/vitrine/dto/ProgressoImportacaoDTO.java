@@ -0,0 +1,23 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the progress of a running import, reported after each committed chunk
+ * {@code novosErros} holds only the rejections found since the previous report
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressoImportacaoDTO {
+    private long linhasLidas;
+    private long inseridos;
+    private long atualizados;
+    private long rejeitados;
+    private double linhasPorSegundo;
+    private List<ErroImportacaoDTO> novosErros;
+}
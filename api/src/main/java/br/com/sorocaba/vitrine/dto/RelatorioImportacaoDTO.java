@@ -0,0 +1,25 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the outcome of a product import
+ * {@code erros} keeps the first rejections only; {@code errosOmitidos} counts the ones left out
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioImportacaoDTO {
+    private long linhasLidas;
+    private long inseridos;
+    private long atualizados;
+    private long rejeitados;
+    private long duracaoMs;
+    private double linhasPorSegundo;
+    private List<ErroImportacaoDTO> erros;
+    private long errosOmitidos;
+}
@@ -0,0 +1,22 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for a stock reservation
+ * The id is what confirms or releases it; unconfirmed reservations are released at {@code expiraEm}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaEstoqueDTO {
+    private UUID id;
+    private Long produtoId;
+    private Integer quantidade;
+    private Instant expiraEm;
+}
@@ -0,0 +1,22 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a page of search results
+ * Used for API responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBuscaDTO {
+    private String consulta;
+    private List<ItemBuscaDTO> itens;
+    private long total;
+    private int pagina;
+    private int tamanho;
+}
@@ -0,0 +1,36 @@
+package br.com.sorocaba.vitrine.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for a checkout
+ * Each item is a product and quantity, reserved and confirmed when the order is accepted
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitacaoPedidoDTO {
+    @NotBlank(message = "Nome é obrigatório")
+    @Size(max = 120, message = "Nome deve ter no máximo 120 caracteres")
+    private String nomeCliente;
+
+    @NotBlank(message = "E-mail é obrigatório")
+    @Email(message = "E-mail inválido")
+    @Size(max = 160, message = "E-mail deve ter no máximo 160 caracteres")
+    private String emailCliente;
+
+    @NotEmpty(message = "O pedido precisa de pelo menos um item")
+    @Size(max = 50, message = "O pedido pode ter no máximo 50 itens")
+    @Valid
+    private List<SolicitacaoReservaDTO> itens = new ArrayList<>();
+}
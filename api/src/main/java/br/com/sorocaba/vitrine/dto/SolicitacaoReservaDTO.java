@@ -0,0 +1,24 @@
+package br.com.sorocaba.vitrine.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a stock reservation request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitacaoReservaDTO {
+    @NotNull(message = "Produto é obrigatório")
+    private Long produtoId;
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Positive(message = "Quantidade deve ser positiva")
+    @Max(value = 1000, message = "Quantidade deve ser no máximo 1000")
+    private Integer quantidade;
+}
@@ -0,0 +1,21 @@
+package br.com.sorocaba.vitrine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the "trending now" rails
+ * Carries the products and posts with the most recent views, weighted towards the latest ones
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TendenciasDTO {
+    private List<ItemRankingDTO<ProdutoDTO>> produtos;
+    private List<ItemRankingDTO<PostDTO>> posts;
+    private LocalDateTime atualizadoEm;
+}
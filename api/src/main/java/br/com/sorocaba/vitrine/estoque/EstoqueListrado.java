@@ -0,0 +1,145 @@
+package br.com.sorocaba.vitrine.estoque;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Available units of one product, split across striped atomic cells so concurrent reservations
+ * of the same product rarely CAS the same memory.
+ *
+ * A reservation first tries the caller's home cell, then the others; a cell never goes below zero,
+ * so the sum of the cells can never be oversold. Only when no single cell holds enough does the
+ * caller take the lock, drain every cell and decide on the total, so a reservation is refused only
+ * when the product as a whole is short. Cells sit 128 bytes apart to keep them on separate cache lines.
+ *
+ * {@link #ajustar} moves the total by a delta (an admin edit of the stock). When the delta exceeds
+ * what is available, the shortfall becomes a debt that returned units pay off first.
+ */
+public final class EstoqueListrado {
+
+    private static final int ESPACAMENTO = 16;
+
+    private final AtomicLongArray celulas;
+    private final int mascara;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long divida;
+    private volatile boolean emDivida;
+
+    /**
+     * @param listras number of cells, rounded up to a power of two
+     */
+    public EstoqueListrado(long inicial, int listras) {
+        int tamanho = listras <= 1 ? 1 : Integer.highestOneBit(listras - 1) << 1;
+        this.celulas = new AtomicLongArray(tamanho * ESPACAMENTO);
+        this.mascara = tamanho - 1;
+        distribuir(Math.max(inicial, 0));
+        if (inicial < 0) {
+            divida = -inicial;
+            emDivida = true;
+        }
+    }
+
+    public boolean reservar(int quantidade) {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser positiva");
+        }
+        int casa = casa();
+        for (int i = 0; i <= mascara; i++) {
+            if (retirar((casa + i) & mascara, quantidade)) {
+                return true;
+            }
+        }
+        return reservarConsolidando(quantidade);
+    }
+
+    /**
+     * Returns units of a released reservation.
+     */
+    public void devolver(int quantidade) {
+        if (emDivida) {
+            ajustar(quantidade);
+            return;
+        }
+        celulas.addAndGet(casa() * ESPACAMENTO, quantidade);
+    }
+
+    /**
+     * Moves the total by {@code delta}, paying or creating debt as needed.
+     */
+    public void ajustar(long delta) {
+        lock.lock();
+        try {
+            long total = drenar() + delta - divida;
+            divida = Math.max(-total, 0);
+            emDivida = divida > 0;
+            distribuir(Math.max(total, 0));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Units that can currently be reserved; a moving snapshot while reservations run.
+     */
+    public long disponivel() {
+        long soma = 0;
+        for (int i = 0; i <= mascara; i++) {
+            soma += celulas.get(i * ESPACAMENTO);
+        }
+        return soma - (emDivida ? divida : 0);
+    }
+
+    public int listras() {
+        return mascara + 1;
+    }
+
+    private boolean retirar(int celula, int quantidade) {
+        int indice = celula * ESPACAMENTO;
+        long atual = celulas.get(indice);
+        while (atual >= quantidade) {
+            if (celulas.compareAndSet(indice, atual, atual - quantidade)) {
+                return true;
+            }
+            atual = celulas.get(indice);
+        }
+        return false;
+    }
+
+    private boolean reservarConsolidando(int quantidade) {
+        lock.lock();
+        try {
+            long total = drenar();
+            boolean reservado = total >= quantidade;
+            distribuir(reservado ? total - quantidade : total);
+            return reservado;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long drenar() {
+        long total = 0;
+        for (int i = 0; i <= mascara; i++) {
+            total += celulas.getAndSet(i * ESPACAMENTO, 0);
+        }
+        return total;
+    }
+
+    /**
+     * Spreads units evenly, so every home cell has some to take before anyone needs the lock.
+     */
+    private void distribuir(long total) {
+        int listras = mascara + 1;
+        long parte = total / listras;
+        long resto = total % listras;
+        for (int i = 0; i < listras; i++) {
+            celulas.addAndGet(i * ESPACAMENTO, parte + (i < resto ? 1 : 0));
+        }
+    }
+
+    private int casa() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
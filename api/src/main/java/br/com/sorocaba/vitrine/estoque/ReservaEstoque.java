@@ -0,0 +1,9 @@
+package br.com.sorocaba.vitrine.estoque;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Units of one product held for a buyer until confirmed, released or expired.
+ */
+public record ReservaEstoque(UUID id, long produtoId, int quantidade, Instant expiraEm) {}
@@ -0,0 +1,10 @@
+package br.com.sorocaba.vitrine.event;
+
+import java.util.Map;
+
+/**
+ * Published by EstoqueService after each batch of confirmed sales or of orders is written, with the new stock
+ * of every product in the batch and the units its row lost. Nothing else about those products changed,
+ * so listeners patch the stock they hold instead of reloading the rows.
+ */
+public record EstoqueBaixadoEvent(Map<Long, Integer> estoques, Map<Long, Integer> baixas) {}
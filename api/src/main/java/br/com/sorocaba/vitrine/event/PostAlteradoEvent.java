@@ -0,0 +1,7 @@
+package br.com.sorocaba.vitrine.event;
+
+/**
+ * Published by PostService whenever a blog post is saved or deleted.
+ * Listeners that keep derived state should react after the transaction commits.
+ */
+public record PostAlteradoEvent(Long id, boolean removido) {}
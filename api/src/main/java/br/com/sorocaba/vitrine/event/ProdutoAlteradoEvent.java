@@ -0,0 +1,7 @@
+package br.com.sorocaba.vitrine.event;
+
+/**
+ * Published by ProdutoService whenever a product is saved or deleted.
+ * Listeners that keep derived state should react after the transaction commits.
+ */
+public record ProdutoAlteradoEvent(Long id, boolean removido) {}
@@ -0,0 +1,10 @@
+package br.com.sorocaba.vitrine.event;
+
+import java.util.Set;
+
+/**
+ * Published once by ImportacaoProdutoService after a bulk import wrote any rows.
+ * Imported rows do not get a ProdutoAlteradoEvent each; listeners refresh their derived state
+ * wholesale, or only for the written SKUs.
+ */
+public record ProdutosImportadosEvent(long inseridos, long atualizados, Set<String> skus) {}
@@ -0,0 +1,7 @@
+package br.com.sorocaba.vitrine.event;
+
+/**
+ * Published by UsuarioService whenever a user is saved or deleted.
+ * Listeners that keep derived state should react after the transaction commits.
+ */
+public record UsuarioAlteradoEvent(Long id, boolean removido) {}
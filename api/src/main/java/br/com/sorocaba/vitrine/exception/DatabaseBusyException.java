@@ -0,0 +1,12 @@
+package br.com.sorocaba.vitrine.exception;
+
+/**
+ * Exception thrown when a request waited too long for a database permit
+ * Stackless: it is expected under overload and only ever turned into a 503
+ */
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,8 +1,10 @@
 package br.com.sorocaba.vitrine.exception;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
 /**
@@ -26,6 +28,14 @@ public class GlobalExceptionHandler {
         return "error/404";
     }
 
+    @ExceptionHandler(DatabaseBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handleDatabaseBusyException(DatabaseBusyException ex, Model model) {
+        model.addAttribute("error", ex.getMessage());
+        model.addAttribute("title", "Erro 503 - Serviço Indisponível");
+        return "error/500";
+    }
+
     @ExceptionHandler(Exception.class)
     public String handleGenericException(Exception ex, Model model) {
         model.addAttribute("error", "Ocorreu um erro inesperado: " + ex.getMessage());
@@ -0,0 +1,13 @@
+package br.com.sorocaba.vitrine.exception;
+
+/**
+ * Exception thrown when a reservation asks for more units than are available
+ * Stackless: during a sale it is an expected outcome, mapped straight to a 409
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(long produtoId, int quantidade) {
+        super(String.format("Estoque insuficiente para reservar %d unidade(s) do produto %d", quantidade, produtoId),
+                null, false, false);
+    }
+}
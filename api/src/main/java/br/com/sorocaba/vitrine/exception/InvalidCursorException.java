@@ -0,0 +1,11 @@
+package br.com.sorocaba.vitrine.exception;
+
+/**
+ * Exception thrown when a pagination cursor cannot be decoded
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Cursor de paginação inválido: " + cursor);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.sorocaba.vitrine.exception;
+
+/**
+ * Exception thrown when an uploaded file is not an image we can decode, or is too large
+ */
+public class InvalidImageException extends RuntimeException {
+
+    public InvalidImageException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.sorocaba.vitrine.exception;
+
+/**
+ * Exception thrown when an import file cannot be read at all (as opposed to individual bad rows)
+ */
+public class InvalidImportException extends RuntimeException {
+
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.sorocaba.vitrine.exception;
+
+/**
+ * Exception thrown when a requested page lies beyond the results a listing can serve
+ */
+public class InvalidPageException extends RuntimeException {
+
+    public InvalidPageException(int pagina) {
+        super("Página fora do intervalo de resultados: " + pagina);
+    }
+}
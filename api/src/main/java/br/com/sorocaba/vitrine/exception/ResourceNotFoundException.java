@@ -2,15 +2,16 @@ package br.com.sorocaba.vitrine.exception;
 
 /**
  * Exception thrown when a requested resource is not found
+ * Carries no stack trace: it is an expected outcome mapped straight to a 404
  */
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public ResourceNotFoundException(String resource, Long id) {
-        super(String.format("%s não encontrado(a) com ID: %d", resource, id));
+        this(String.format("%s não encontrado(a) com ID: %d", resource, id));
     }
 }
 
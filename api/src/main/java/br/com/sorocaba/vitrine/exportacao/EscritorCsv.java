@@ -0,0 +1,71 @@
+package br.com.sorocaba.vitrine.exportacao;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * ',' separated records after a header row. Fields holding a separator, quote or line break are
+ * quoted with doubled quotes; decimals are written with '.' so LeitorCsv reads them back.
+ */
+class EscritorCsv extends EscritorExportacao {
+
+    private final Writer writer;
+
+    EscritorCsv(Writer writer, List<String> colunas) throws IOException {
+        super(colunas);
+        this.writer = writer;
+        escreverRegistro(colunas.toArray());
+    }
+
+    @Override
+    public void escrever(Object... valores) throws IOException {
+        escreverRegistro(valores);
+    }
+
+    private void escreverRegistro(Object[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            escreverCampo(valores[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void escreverCampo(Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        String texto = valor instanceof BigDecimal decimal ? decimal.toPlainString() : valor.toString();
+        if (!precisaAspas(texto)) {
+            writer.write(texto);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean precisaAspas(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.sorocaba.vitrine.exportacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes export records one at a time to a byte stream. Nothing is kept per record, so memory
+ * use does not depend on the number of rows. Closing flushes but leaves the stream open.
+ */
+public abstract class EscritorExportacao implements Closeable {
+
+    private static final int BUFFER = 64 * 1024;
+
+    protected final List<String> colunas;
+
+    protected EscritorExportacao(List<String> colunas) {
+        this.colunas = colunas;
+    }
+
+    public static EscritorExportacao abrir(OutputStream saida, FormatoExportacao formato, List<String> colunas,
+                                           ObjectMapper objectMapper) throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), BUFFER);
+            return new EscritorCsv(writer, colunas);
+        }
+        return new EscritorNdjson(saida, colunas, objectMapper);
+    }
+
+    /**
+     * Writes one record; values are in the order of the columns.
+     */
+    public abstract void escrever(Object... valores) throws IOException;
+}
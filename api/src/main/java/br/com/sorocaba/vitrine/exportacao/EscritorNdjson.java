@@ -0,0 +1,41 @@
+package br.com.sorocaba.vitrine.exportacao;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One JSON object per line, with the columns as fields. Values go through the application
+ * ObjectMapper, so dates and decimals look the same as in the REST API.
+ */
+class EscritorNdjson extends EscritorExportacao {
+
+    private final JsonGenerator gerador;
+
+    EscritorNdjson(OutputStream saida, List<String> colunas, ObjectMapper objectMapper) throws IOException {
+        super(colunas);
+        this.gerador = objectMapper.createGenerator(saida, JsonEncoding.UTF8);
+        this.gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Records are ended with '\n' explicitly, instead of the default ' ' between root values
+        this.gerador.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void escrever(Object... valores) throws IOException {
+        gerador.writeStartObject();
+        for (int i = 0; i < valores.length; i++) {
+            gerador.writeObjectField(colunas.get(i), valores[i]);
+        }
+        gerador.writeEndObject();
+        gerador.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        gerador.close();
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.sorocaba.vitrine.exportacao;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the catalog export.
+ */
+public enum FormatoExportacao {
+
+    /** Header row plus one record per line, ',' separated with RFC 4180 quoting; re-importable. */
+    CSV("text/csv", "csv"),
+
+    /** One JSON object per line. */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extensao() {
+        return extensao;
+    }
+
+    /**
+     * Format named by a request parameter; anything other than "csv" is NDJSON.
+     */
+    public static FormatoExportacao de(String nome) {
+        return nome != null && nome.toLowerCase(Locale.ROOT).equals("csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,325 @@
+package br.com.sorocaba.vitrine.imagem;
+
+import br.com.sorocaba.vitrine.exception.InvalidImageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store of uploaded product images on the local data volume.
+ *
+ * An upload is kept as {@code <dir>/<ab>/<chave>/original}, where the key is the first 128 bits of
+ * its SHA-256, and the JPEG variants are generated next to it once, on a small dedicated pool.
+ * Files are only ever written through an atomic rename, so a variant that exists is complete and
+ * never changes; that is what lets them be served with year-long cache headers.
+ */
+public class ArmazemImagens implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArmazemImagens.class);
+    private static final Pattern CHAVE = Pattern.compile("[0-9a-f]{32}");
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final float QUALIDADE_JPEG = 0.85f;
+
+    private final Path diretorio;
+    private final long tamanhoMaximo;
+    private final long esperaMaximaNanos;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> emGeracao = new ConcurrentHashMap<>();
+
+    public ArmazemImagens(Path diretorio, long tamanhoMaximo, int threads, int fila, Duration esperaMaxima) {
+        this.diretorio = diretorio.toAbsolutePath().normalize();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), new NomeadorThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Stores an upload and queues the generation of its variants. Returns the image key;
+     * uploading the same bytes again returns the same key without storing a second copy.
+     */
+    public String armazenar(InputStream entrada) throws IOException {
+        Files.createDirectories(diretorio);
+        Path temporario = Files.createTempFile(diretorio, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream origem = new DigestInputStream(entrada, digest);
+                 OutputStream destino = Files.newOutputStream(temporario)) {
+                copiar(origem, destino);
+            }
+            validar(temporario);
+            String chave = HexFormat.of().formatHex(digest.digest(), 0, 16);
+            Path original = original(chave);
+            if (!Files.exists(original)) {
+                Files.createDirectories(original.getParent());
+                Files.move(temporario, original, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            gerar(chave);
+            return chave;
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /**
+     * File of a variant, or null when there is no such image. A variant that is still missing
+     * (queue full at upload time, or uploaded before a restart) is generated first, waiting at
+     * most the configured time; an IOException reports that it could not be produced in time.
+     */
+    public Path obterVariante(String chave, VarianteImagem variante) throws IOException {
+        if (chave == null || !CHAVE.matcher(chave).matches()) {
+            return null;
+        }
+        Path arquivo = arquivo(chave, variante);
+        if (Files.exists(arquivo)) {
+            return arquivo;
+        }
+        if (!Files.exists(original(chave))) {
+            return null;
+        }
+        try {
+            gerar(chave).get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando a imagem " + chave);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IOException("Variante " + variante.nome() + " da imagem " + chave + " indisponível", ex);
+        }
+        return arquivo;
+    }
+
+    /**
+     * Generation of the variants of a stored image; at most one runs per key.
+     */
+    CompletableFuture<Void> gerar(String chave) {
+        CompletableFuture<Void> futuro = new CompletableFuture<>();
+        CompletableFuture<Void> emAndamento = emGeracao.putIfAbsent(chave, futuro);
+        if (emAndamento != null) {
+            return emAndamento;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    gerarVariantes(chave);
+                    futuro.complete(null);
+                } catch (Exception | OutOfMemoryError ex) {
+                    LOGGER.warn("Falha ao gerar as variantes da imagem {}: {}", chave, ex.toString());
+                    futuro.completeExceptionally(ex);
+                } finally {
+                    emGeracao.remove(chave, futuro);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Retried by the first request for a missing variant
+            emGeracao.remove(chave, futuro);
+            futuro.completeExceptionally(ex);
+        }
+        return futuro;
+    }
+
+    /**
+     * Decodes the original once and scales down from the largest variant to the smallest.
+     */
+    private void gerarVariantes(String chave) throws IOException {
+        VarianteImagem[] variantes = VarianteImagem.values();
+        BufferedImage atual = null;
+        for (int i = variantes.length - 1; i >= 0; i--) {
+            Path destino = arquivo(chave, variantes[i]);
+            if (Files.exists(destino)) {
+                continue;
+            }
+            if (atual == null) {
+                BufferedImage lida = ImageIO.read(original(chave).toFile());
+                if (lida == null) {
+                    throw new IOException("Original ilegível");
+                }
+                atual = paraRgb(lida);
+            }
+            atual = reduzir(atual, variantes[i].lado());
+            escreverJpeg(atual, destino);
+        }
+    }
+
+    /**
+     * Fits the image in a square of the given side, halving first so bilinear filtering never
+     * skips source pixels. Images that already fit are not enlarged.
+     */
+    private static BufferedImage reduzir(BufferedImage imagem, int lado) {
+        int largura = imagem.getWidth();
+        int altura = imagem.getHeight();
+        if (Math.max(largura, altura) <= lado) {
+            return imagem;
+        }
+        double escala = (double) lado / Math.max(largura, altura);
+        int larguraFinal = Math.max(1, (int) Math.round(largura * escala));
+        int alturaFinal = Math.max(1, (int) Math.round(altura * escala));
+        BufferedImage atual = imagem;
+        do {
+            largura = Math.max(larguraFinal, largura / 2);
+            altura = Math.max(alturaFinal, altura / 2);
+            atual = desenhar(atual, largura, altura);
+        } while (largura != larguraFinal || altura != alturaFinal);
+        return atual;
+    }
+
+    private static BufferedImage desenhar(BufferedImage origem, int largura, int altura) {
+        BufferedImage destino = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = destino.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(origem, 0, 0, largura, altura, null);
+        } finally {
+            g.dispose();
+        }
+        return destino;
+    }
+
+    /**
+     * JPEG has no alpha channel: transparent areas become white instead of black.
+     */
+    private static BufferedImage paraRgb(BufferedImage imagem) {
+        if (imagem.getType() == BufferedImage.TYPE_INT_RGB) {
+            return imagem;
+        }
+        BufferedImage rgb = new BufferedImage(imagem.getWidth(), imagem.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, imagem.getWidth(), imagem.getHeight());
+            g.drawImage(imagem, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    private static void escreverJpeg(BufferedImage imagem, Path destino) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temporario = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+        try {
+            ImageWriteParam parametros = writer.getDefaultWriteParam();
+            parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametros.setCompressionQuality(QUALIDADE_JPEG);
+            try (ImageOutputStream saida = ImageIO.createImageOutputStream(temporario.toFile())) {
+                writer.setOutput(saida);
+                writer.write(null, new IIOImage(imagem, null, null), parametros);
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    /**
+     * Rejects anything ImageIO cannot decode, and images whose pixel count would not fit in memory,
+     * reading only the header.
+     */
+    private static void validar(Path arquivo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(arquivo.toFile())) {
+            Iterator<ImageReader> readers = entrada != null ? ImageIO.getImageReaders(entrada) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new InvalidImageException("Formato de imagem não suportado (use JPEG, PNG, GIF ou BMP)");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(entrada, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    throw new InvalidImageException("Imagem com dimensões grandes demais");
+                }
+            } catch (IOException ex) {
+                throw new InvalidImageException("Imagem corrompida ou ilegível");
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void copiar(InputStream origem, OutputStream destino) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        int lidos;
+        while ((lidos = origem.read(buffer)) != -1) {
+            total += lidos;
+            if (total > tamanhoMaximo) {
+                throw new InvalidImageException("Imagem maior que " + tamanhoMaximo / (1024 * 1024) + " MB");
+            }
+            destino.write(buffer, 0, lidos);
+        }
+    }
+
+    private Path original(String chave) {
+        return pasta(chave).resolve("original");
+    }
+
+    private Path arquivo(String chave, VarianteImagem variante) {
+        return pasta(chave).resolve(variante.nome() + ".jpg");
+    }
+
+    private Path pasta(String chave) {
+        return diretorio.resolve(chave.substring(0, 2)).resolve(chave);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static final class NomeadorThreads implements ThreadFactory {
+
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "imagens-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
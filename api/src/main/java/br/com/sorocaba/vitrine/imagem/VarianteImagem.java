@@ -0,0 +1,51 @@
+package br.com.sorocaba.vitrine.imagem;
+
+import java.util.Locale;
+
+/**
+ * Pre-generated sizes of an uploaded product image; each fits in a square of {@code lado} pixels.
+ */
+public enum VarianteImagem {
+
+    /** Admin lists. */
+    THUMB(160),
+
+    /** Storefront and SPA catalog cards. */
+    CARD(480),
+
+    /** Product detail page. */
+    DETALHE(1200);
+
+    private final int lado;
+
+    VarianteImagem(int lado) {
+        this.lado = lado;
+    }
+
+    public int lado() {
+        return lado;
+    }
+
+    public String nome() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Public URL of this variant for a stored image, or the external URL when there is none.
+     */
+    public String url(String chave, String urlExterna) {
+        return chave != null ? "/imagens/" + chave + "/" + nome() + ".jpg" : urlExterna;
+    }
+
+    /**
+     * Variant named in a URL, or null.
+     */
+    public static VarianteImagem de(String nome) {
+        for (VarianteImagem variante : values()) {
+            if (variante.nome().equals(nome)) {
+                return variante;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.sorocaba.vitrine.importacao;
+
+import java.util.Locale;
+
+/**
+ * Input formats accepted by the product import.
+ */
+public enum FormatoImportacao {
+
+    /** Header row plus one product per record; ',' or ';' separated, RFC 4180 quoting. */
+    CSV,
+
+    /** One JSON object per line. */
+    NDJSON;
+
+    /**
+     * Picks the format from a file name or content type; anything JSON-like is NDJSON, the rest CSV.
+     */
+    public static FormatoImportacao detectar(String nomeOuTipo) {
+        String valor = nomeOuTipo == null ? "" : nomeOuTipo.toLowerCase(Locale.ROOT);
+        return valor.contains("json") || valor.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.sorocaba.vitrine.importacao;
+
+import br.com.sorocaba.vitrine.dto.RelatorioImportacaoDTO;
+import br.com.sorocaba.vitrine.service.ImportacaoProdutoService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line import: imports the file, prints the report and exits (status 1 if any row was rejected).
+ * The H2 file is opened exclusively, so stop the running server first:
+ *
+ * <pre>
+ * java -jar vitrine-sorocabana.jar --spring.main.web-application-type=none --importar.produtos=catalogo.csv
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty("importar.produtos")
+@RequiredArgsConstructor
+public class ImportacaoProdutosRunner implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportacaoProdutosRunner.class);
+
+    private final ImportacaoProdutoService importacaoProdutoService;
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path arquivo = Path.of(environment.getRequiredProperty("importar.produtos"));
+        RelatorioImportacaoDTO relatorio;
+        try (Reader entrada = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            relatorio = importacaoProdutoService.importar(entrada, FormatoImportacao.detectar(arquivo.toString()),
+                    progresso -> LOGGER.info("{} linhas lidas, {} inseridos, {} atualizados, {} rejeitados ({} linhas/s)",
+                            progresso.getLinhasLidas(), progresso.getInseridos(), progresso.getAtualizados(),
+                            progresso.getRejeitados(), Math.round(progresso.getLinhasPorSegundo())));
+        }
+        relatorio.getErros().forEach(erro ->
+                LOGGER.warn("Linha {} ({}): {}", erro.getLinha(), erro.getSku() != null ? erro.getSku() : "sem SKU", erro.getMensagem()));
+        if (relatorio.getErrosOmitidos() > 0) {
+            LOGGER.warn("... mais {} linhas rejeitadas", relatorio.getErrosOmitidos());
+        }
+        int status = relatorio.getRejeitados() > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.sorocaba.vitrine.importacao;
+
+import br.com.sorocaba.vitrine.exception.InvalidImportException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV records with a header row. The separator (',' or ';', as spreadsheets export it in pt-BR)
+ * is taken from the header; quoted fields may contain separators, doubled quotes and line breaks.
+ * Columns are matched by name, ignoring case, '_' and spaces; unknown columns are ignored.
+ */
+class LeitorCsv extends LeitorImportacao {
+
+    private static final int MAX_CABECALHO = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final char separador;
+    private final Map<String, Integer> colunas = new HashMap<>();
+    private final int totalColunas;
+    private long linha;
+    private boolean aspasAbertas;
+
+    LeitorCsv(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        reader.mark(MAX_CABECALHO);
+        String primeira = reader.readLine();
+        reader.reset();
+        this.separador = primeira != null && contar(primeira, ';') > contar(primeira, ',') ? ';' : ',';
+
+        List<String> cabecalho = lerRegistro();
+        if (cabecalho == null) {
+            throw new InvalidImportException("Arquivo CSV vazio");
+        }
+        for (int i = 0; i < cabecalho.size(); i++) {
+            String nome = cabecalho.get(i).replace("\uFEFF", "").replace("_", "").replace(" ", "")
+                    .trim().toLowerCase(Locale.ROOT);
+            colunas.putIfAbsent(nome, i);
+        }
+        for (String obrigatoria : List.of("sku", "nome", "preco")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new InvalidImportException("Cabeçalho CSV sem a coluna obrigatória '" + obrigatoria + "'");
+            }
+        }
+        this.totalColunas = cabecalho.size();
+    }
+
+    @Override
+    public LinhaImportacao proxima() throws IOException {
+        List<String> campos;
+        long inicio;
+        do {
+            inicio = linha + 1;
+            campos = lerRegistro();
+            if (campos == null) {
+                return null;
+            }
+        } while (campos.size() == 1 && campos.get(0).isBlank());
+
+        if (aspasAbertas) {
+            return LinhaImportacao.invalida(inicio, "Aspas não fechadas até o fim do arquivo");
+        }
+        if (campos.size() > totalColunas) {
+            return LinhaImportacao.invalida(inicio,
+                    "Registro com " + campos.size() + " colunas; o cabeçalho tem " + totalColunas);
+        }
+        return new LinhaImportacao(inicio, campo(campos, "sku"), campo(campos, "nome"), campo(campos, "descricao"),
+                campo(campos, "preco"), campo(campos, "imagemurl"), campo(campos, "estoque"),
+                campo(campos, "ativo"), null);
+    }
+
+    private String campo(List<String> campos, String coluna) {
+        Integer indice = colunas.get(coluna);
+        return indice != null && indice < campos.size() ? campos.get(indice) : null;
+    }
+
+    /**
+     * Reads one logical record, which spans several physical lines when a quoted field contains line breaks.
+     */
+    private List<String> lerRegistro() throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        boolean leuAlgo = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            leuAlgo = true;
+            char ch = (char) c;
+            if (aspas) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        aspas = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (ch == '\n') {
+                        linha++;
+                    }
+                    campo.append(ch);
+                }
+            } else if (ch == '"' && campo.isEmpty()) {
+                aspas = true;
+            } else if (ch == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (ch == '\n') {
+                linha++;
+                campos.add(campo.toString());
+                return campos;
+            } else if (ch != '\r') {
+                campo.append(ch);
+            }
+        }
+        if (!leuAlgo) {
+            return null;
+        }
+        aspasAbertas = aspas;
+        linha++;
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static int contar(String texto, char alvo) {
+        int total = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == alvo) {
+                total++;
+            }
+        }
+        return total;
+    }
+}
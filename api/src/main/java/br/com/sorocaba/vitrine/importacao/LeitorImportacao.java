@@ -0,0 +1,25 @@
+package br.com.sorocaba.vitrine.importacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pulls import records one at a time from a character stream, so memory use does not depend
+ * on the size of the file.
+ */
+public abstract class LeitorImportacao {
+
+    public static LeitorImportacao abrir(Reader entrada, FormatoImportacao formato, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader = entrada instanceof BufferedReader buffered ? buffered : new BufferedReader(entrada, 64 * 1024);
+        return formato == FormatoImportacao.NDJSON ? new LeitorNdjson(reader, objectMapper) : new LeitorCsv(reader);
+    }
+
+    /**
+     * Next record, or null at the end of the input.
+     */
+    public abstract LinhaImportacao proxima() throws IOException;
+}
@@ -0,0 +1,54 @@
+package br.com.sorocaba.vitrine.importacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * NDJSON records: one object per line, blank lines skipped. A malformed line only fails that record.
+ */
+class LeitorNdjson extends LeitorImportacao {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long linha;
+
+    LeitorNdjson(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public LinhaImportacao proxima() throws IOException {
+        String texto;
+        do {
+            texto = reader.readLine();
+            if (texto == null) {
+                return null;
+            }
+            linha++;
+        } while (texto.isBlank());
+
+        JsonNode no;
+        try {
+            no = objectMapper.readTree(texto);
+        } catch (JsonProcessingException ex) {
+            return LinhaImportacao.invalida(linha, "JSON inválido: " + ex.getOriginalMessage());
+        }
+        if (!no.isObject()) {
+            return LinhaImportacao.invalida(linha, "Esperava um objeto JSON por linha");
+        }
+        String imagemUrl = texto(no, "imagemUrl");
+        return new LinhaImportacao(linha, texto(no, "sku"), texto(no, "nome"), texto(no, "descricao"),
+                texto(no, "preco"), imagemUrl != null ? imagemUrl : texto(no, "imagem_url"),
+                texto(no, "estoque"), texto(no, "ativo"), null);
+    }
+
+    private static String texto(JsonNode no, String campo) {
+        JsonNode valor = no.get(campo);
+        return valor == null || valor.isNull() ? null : valor.asText();
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.sorocaba.vitrine.importacao;
+
+/**
+ * One input record as read, before conversion and validation. Values are the raw text of each
+ * field (null when the column or property is missing); {@code erro} is set when the record
+ * itself could not be parsed.
+ */
+public record LinhaImportacao(long numero, String sku, String nome, String descricao, String preco,
+                              String imagemUrl, String estoque, String ativo, String erro) {
+
+    static LinhaImportacao invalida(long numero, String erro) {
+        return new LinhaImportacao(numero, null, null, null, null, null, null, null, erro);
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.sorocaba.vitrine.limite;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single CAS-updated timestamp (the generic cell rate algorithm).
+ *
+ * Instead of a token count and a refill time, the bucket stores the theoretical arrival time: when
+ * the bucket would be empty if every admitted request had arrived exactly on schedule. A request is
+ * admitted while that time is no more than the burst ahead of now, and pushes it one interval
+ * further. One long is the whole state, so taking a token is a single compare-and-set and never
+ * needs a lock or a refill thread.
+ */
+public final class BaldeTaxa {
+
+    private final long intervalo;
+    private final long tolerancia;
+    private final AtomicLong chegadaTeorica;
+
+    /**
+     * @param taxa   tokens per second, sustained
+     * @param rajada tokens a full bucket holds
+     * @param agora  current {@link System#nanoTime()}; the bucket starts full
+     */
+    public BaldeTaxa(double taxa, int rajada, long agora) {
+        if (taxa <= 0 || rajada <= 0) {
+            throw new IllegalArgumentException("Taxa e rajada devem ser positivas");
+        }
+        this.intervalo = Math.max(1L, Math.round(1_000_000_000d / taxa));
+        this.tolerancia = intervalo * (rajada - 1L);
+        this.chegadaTeorica = new AtomicLong(agora);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 when admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tentar(long agora) {
+        while (true) {
+            long atual = chegadaTeorica.get();
+            long inicio = Math.max(atual, agora);
+            long espera = inicio - agora - tolerancia;
+            if (espera > 0) {
+                return espera;
+            }
+            if (chegadaTeorica.compareAndSet(atual, inicio + intervalo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken for a request that was refused further on.
+     */
+    public void devolver() {
+        chegadaTeorica.addAndGet(-intervalo);
+    }
+
+    /**
+     * Whether the bucket has refilled completely: dropping it and starting a new one changes nothing.
+     */
+    public boolean cheio(long agora) {
+        return chegadaTeorica.get() <= agora;
+    }
+}
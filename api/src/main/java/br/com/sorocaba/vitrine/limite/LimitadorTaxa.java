@@ -0,0 +1,138 @@
+package br.com.sorocaba.vitrine.limite;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client request budgets by route, under one global budget for the whole surface.
+ *
+ * A request takes a token from its client's bucket for the first route that matches it, then one
+ * from the global bucket; when the global bucket refuses, the client's token is given back. Client
+ * buckets live in a ConcurrentHashMap, so looking one up takes no lock, and taking a token is one CAS.
+ *
+ * The map is bounded. Buckets that have refilled completely are swept out at most once per
+ * {@code intervaloLimpeza}, piggybacked on a request; since a full bucket is exactly what a new one
+ * would be, the sweep loses nothing. While the map is full, new clients share a few buckets per route
+ * instead of getting their own, so a flood of distinct clients cannot grow the heap.
+ */
+public final class LimitadorTaxa {
+
+    private static final int BALDES_COMPARTILHADOS = 64;
+
+    private final List<Regra> regras;
+    private final BaldeTaxa global;
+    private final Map<Chave, BaldeTaxa> clientes = new ConcurrentHashMap<>();
+    private final int maximoClientes;
+    private final long intervaloLimpeza;
+    private final AtomicLong proximaLimpeza;
+    private final LongSupplier relogio;
+
+    private final LongAdder admitidas = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder recusadasGlobal = new LongAdder();
+
+    public LimitadorTaxa(List<OrcamentoRota> rotas, double taxaGlobal, int rajadaGlobal,
+                         int maximoClientes, Duration intervaloLimpeza) {
+        this(rotas, taxaGlobal, rajadaGlobal, maximoClientes, intervaloLimpeza, System::nanoTime);
+    }
+
+    LimitadorTaxa(List<OrcamentoRota> rotas, double taxaGlobal, int rajadaGlobal,
+                  int maximoClientes, Duration intervaloLimpeza, LongSupplier relogio) {
+        long agora = relogio.getAsLong();
+        this.regras = new ArrayList<>(rotas.size());
+        for (OrcamentoRota rota : rotas) {
+            BaldeTaxa[] compartilhados = new BaldeTaxa[BALDES_COMPARTILHADOS];
+            for (int i = 0; i < compartilhados.length; i++) {
+                compartilhados[i] = new BaldeTaxa(rota.taxa(), rota.rajada(), agora);
+            }
+            regras.add(new Regra(regras.size(),
+                    rota.metodo() != null ? rota.metodo().toUpperCase(Locale.ROOT) : null,
+                    PadraoCaminho.compilar(rota.caminho()), rota.taxa(), rota.rajada(), compartilhados));
+        }
+        this.global = new BaldeTaxa(taxaGlobal, rajadaGlobal, agora);
+        this.maximoClientes = maximoClientes;
+        this.intervaloLimpeza = intervaloLimpeza.toNanos();
+        this.proximaLimpeza = new AtomicLong(agora + this.intervaloLimpeza);
+        this.relogio = relogio;
+    }
+
+    /**
+     * Takes a token for the request.
+     *
+     * @return 0 when admitted, otherwise the nanoseconds until the client may try again
+     */
+    public long tentar(String metodo, String caminho, String cliente) {
+        long agora = relogio.getAsLong();
+        Regra regra = regra(metodo, caminho);
+        BaldeTaxa balde = regra != null ? balde(regra, cliente, agora) : null;
+        if (balde != null) {
+            long espera = balde.tentar(agora);
+            if (espera > 0) {
+                recusadas.increment();
+                return espera;
+            }
+        }
+        long espera = global.tentar(agora);
+        if (espera > 0) {
+            if (balde != null) {
+                balde.devolver();
+            }
+            recusadasGlobal.increment();
+            return espera;
+        }
+        admitidas.increment();
+        return 0;
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(clientes.size(), admitidas.sum(), recusadas.sum(), recusadasGlobal.sum());
+    }
+
+    private Regra regra(String metodo, String caminho) {
+        for (Regra regra : regras) {
+            if ((regra.metodo() == null || regra.metodo().equals(metodo)) && regra.padrao().corresponde(caminho)) {
+                return regra;
+            }
+        }
+        return null;
+    }
+
+    private BaldeTaxa balde(Regra regra, String cliente, long agora) {
+        Chave chave = new Chave(regra.indice(), cliente);
+        BaldeTaxa balde = clientes.get(chave);
+        if (balde != null) {
+            return balde;
+        }
+        limparSeDevido(agora);
+        if (clientes.size() >= maximoClientes) {
+            int espalhado = chave.hashCode() * 0x9E3779B9;
+            return regra.compartilhados()[(espalhado >>> 16) % BALDES_COMPARTILHADOS];
+        }
+        return clientes.computeIfAbsent(chave, c -> new BaldeTaxa(regra.taxa(), regra.rajada(), agora));
+    }
+
+    private void limparSeDevido(long agora) {
+        long prevista = proximaLimpeza.get();
+        if (agora - prevista >= 0 && proximaLimpeza.compareAndSet(prevista, agora + intervaloLimpeza)) {
+            clientes.values().removeIf(balde -> balde.cheio(agora));
+        }
+    }
+
+    private record Regra(int indice, String metodo, PadraoCaminho padrao, double taxa, int rajada,
+                         BaldeTaxa[] compartilhados) {}
+
+    private record Chave(int regra, String cliente) {}
+
+    /**
+     * Clients tracked one by one, requests admitted, refused by their client's budget and refused
+     * by the global budget.
+     */
+    public record Estatisticas(int clientes, long admitidas, long recusadas, long recusadasGlobal) {}
+}
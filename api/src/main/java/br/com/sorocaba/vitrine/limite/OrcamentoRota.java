@@ -0,0 +1,11 @@
+package br.com.sorocaba.vitrine.limite;
+
+/**
+ * Per-client budget of the requests whose path matches {@code caminho} and, when set, whose method
+ * is {@code metodo}. The pattern takes literal segments, {@code *} or {@code {nome}} for one segment
+ * and a trailing {@code /**}.
+ *
+ * @param taxa   requests per second each client may sustain
+ * @param rajada requests a client may make at once after being idle
+ */
+public record OrcamentoRota(String metodo, String caminho, double taxa, int rajada) {}
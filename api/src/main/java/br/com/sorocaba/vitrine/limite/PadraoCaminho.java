@@ -0,0 +1,63 @@
+package br.com.sorocaba.vitrine.limite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The part of Spring's path patterns that route budgets need: literal segments, {@code *} or
+ * {@code {nome}} for exactly one segment, and an optional trailing {@code /**} for any rest.
+ *
+ * Matches the path string in place. Spring's PathPattern first parses the path into a PathContainer,
+ * which alone costs more than the rest of the limiter; see LimiteTaxaBenchmark.
+ */
+final class PadraoCaminho {
+
+    // A null segment matches any single segment
+    private final String[] segmentos;
+    private final boolean resto;
+
+    private PadraoCaminho(String[] segmentos, boolean resto) {
+        this.segmentos = segmentos;
+        this.resto = resto;
+    }
+
+    static PadraoCaminho compilar(String padrao) {
+        if (padrao == null || !padrao.startsWith("/")) {
+            throw new IllegalArgumentException("Padrão de caminho deve começar com '/': " + padrao);
+        }
+        String[] partes = padrao.substring(1).split("/", -1);
+        boolean resto = partes[partes.length - 1].equals("**");
+        List<String> segmentos = new ArrayList<>(partes.length);
+        for (int i = 0; i < partes.length - (resto ? 1 : 0); i++) {
+            String parte = partes[i];
+            if (parte.isEmpty() || parte.contains("**")) {
+                throw new IllegalArgumentException("Padrão de caminho não suportado: " + padrao);
+            }
+            boolean coringa = parte.equals("*") || (parte.startsWith("{") && parte.endsWith("}"));
+            segmentos.add(coringa ? null : parte);
+        }
+        return new PadraoCaminho(segmentos.toArray(new String[0]), resto);
+    }
+
+    boolean corresponde(String caminho) {
+        int posicao = 0;
+        for (String segmento : segmentos) {
+            if (posicao >= caminho.length() || caminho.charAt(posicao) != '/') {
+                return false;
+            }
+            int inicio = posicao + 1;
+            int fim = caminho.indexOf('/', inicio);
+            if (fim < 0) {
+                fim = caminho.length();
+            }
+            if (fim == inicio) {
+                return false;
+            }
+            if (segmento != null && (fim - inicio != segmento.length() || !caminho.startsWith(segmento, inicio))) {
+                return false;
+            }
+            posicao = fim;
+        }
+        return posicao == caminho.length() || (resto && caminho.charAt(posicao) == '/');
+    }
+}
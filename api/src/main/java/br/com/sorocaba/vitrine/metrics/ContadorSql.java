@@ -0,0 +1,118 @@
+package br.com.sorocaba.vitrine.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * Per-thread ledger of the JDBC statements executed while a scope is open.
+ *
+ * Scopes nest: the HTTP request, each @Transactional service call and each repository call open
+ * one, and a statement counts towards every scope open on the thread when it runs. Statements
+ * reach the ledger from SqlExecucaoListener, which sits on the DataSource, so lazy loads and
+ * flushes at commit are counted like any other query.
+ */
+public final class ContadorSql {
+
+    private static final ThreadLocal<Escopo> ATUAL = new ThreadLocal<>();
+
+    /** Distinct SQL texts kept per detailed scope; the rest are folded into one line. */
+    private static final int MAX_CONSULTAS = 100;
+    private static final String OUTRAS = "(outras)";
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private ContadorSql() {
+    }
+
+    /**
+     * Opens a scope on the current thread. Detailed scopes also keep the per-SQL breakdown.
+     * Must be closed with {@link Escopo#fechar()} on the same thread, innermost first.
+     */
+    public static Escopo abrir(String nome, boolean detalhado) {
+        Escopo escopo = new Escopo(nome, detalhado, ATUAL.get());
+        ATUAL.set(escopo);
+        return escopo;
+    }
+
+    /**
+     * Runs the task inside a detailed scope and returns what it executed; used by tests
+     * to assert on the statements of a request or service call.
+     */
+    public static RegistroSql medir(String nome, Callable<?> tarefa) throws Exception {
+        Escopo escopo = abrir(nome, true);
+        try {
+            tarefa.call();
+        } finally {
+            escopo.fechar();
+        }
+        return escopo.registro();
+    }
+
+    static void registrar(String sql, long nanos) {
+        for (Escopo escopo = ATUAL.get(); escopo != null; escopo = escopo.pai) {
+            escopo.registrar(sql, nanos);
+        }
+    }
+
+    public static final class Escopo {
+
+        private final String nome;
+        private final Escopo pai;
+        private final Map<String, long[]> consultas;
+        private int statements;
+        private long nanos;
+
+        private Escopo(String nome, boolean detalhado, Escopo pai) {
+            this.nome = nome;
+            this.pai = pai;
+            this.consultas = detalhado ? new LinkedHashMap<>() : null;
+        }
+
+        private void registrar(String sql, long duracao) {
+            statements++;
+            nanos += duracao;
+            if (consultas != null) {
+                String chave = consultas.size() < MAX_CONSULTAS || consultas.containsKey(sql) ? sql : OUTRAS;
+                long[] totais = consultas.computeIfAbsent(chave, k -> new long[2]);
+                totais[0]++;
+                totais[1] += duracao;
+            }
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        /**
+         * Closes the scope and makes its parent current again.
+         */
+        public RegistroSql fechar() {
+            if (ATUAL.get() == this) {
+                if (pai == null) {
+                    ATUAL.remove();
+                } else {
+                    ATUAL.set(pai);
+                }
+            }
+            return registro();
+        }
+
+        public RegistroSql registro() {
+            List<RegistroSql.Consulta> lista = new ArrayList<>();
+            if (consultas != null) {
+                consultas.forEach((sql, totais) -> lista.add(
+                        new RegistroSql.Consulta(ESPACOS.matcher(sql).replaceAll(" ").trim(), (int) totais[0], totais[1])));
+                lista.sort(Comparator.comparingLong(RegistroSql.Consulta::nanos).reversed());
+            }
+            return new RegistroSql(nome, statements, nanos, lista);
+        }
+    }
+}
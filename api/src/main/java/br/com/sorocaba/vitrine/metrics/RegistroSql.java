@@ -0,0 +1,35 @@
+package br.com.sorocaba.vitrine.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What a ContadorSql scope executed: the statement count, the time spent in JDBC and, for
+ * detailed scopes, one line per distinct SQL text ordered by time.
+ */
+public record RegistroSql(String nome, int statements, long nanos, List<Consulta> consultas) {
+
+    public record Consulta(String sql, int execucoes, long nanos) {}
+
+    public double milissegundos() {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Multi-line breakdown for logs and assertion messages, at most {@code maxLinhas} SQL lines.
+     */
+    public String detalhamento(int maxLinhas) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%s: %d statements, %.1f ms em SQL", nome, statements, milissegundos()));
+        consultas.stream().limit(maxLinhas).forEach(c -> sb.append(String.format(Locale.ROOT,
+                "%n  %4dx %8.1f ms  %s", c.execucoes(), c.nanos() / 1_000_000.0, abreviar(c.sql()))));
+        if (consultas.size() > maxLinhas) {
+            sb.append(String.format("%n  ... mais %d consultas distintas", consultas.size() - maxLinhas));
+        }
+        return sb.toString();
+    }
+
+    private static String abreviar(String sql) {
+        return sql.length() <= 160 ? sql : sql.substring(0, 157) + "...";
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.sorocaba.vitrine.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a ContadorSql scope around each intercepted call and records what it executed as
+ * {@code <prefixo>.statements} (statements per call) and {@code <prefixo>.sql} (JDBC time per call),
+ * tagged with the owning class and the method.
+ *
+ * Used for Spring Data repositories (prefix vitrine.repositorio, tag repository) and for
+ * {@code @Transactional} service methods (prefix vitrine.transacao, tag service). Placed outside
+ * the transaction interceptor, so statements flushed at commit count for the call that committed.
+ */
+public class SqlEscopoInterceptor implements MethodInterceptor {
+
+    private final String prefixo;
+    private final String tag;
+    private final String classe;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final ConcurrentMap<Method, Medidores> medidores = new ConcurrentHashMap<>();
+
+    /**
+     * @param classe tag value; null to use the simple name of the invoked bean's class
+     */
+    public SqlEscopoInterceptor(String prefixo, String tag, String classe, ObjectProvider<MeterRegistry> registry) {
+        this.prefixo = prefixo;
+        this.tag = tag;
+        this.classe = classe;
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ContadorSql.Escopo escopo = ContadorSql.abrir(invocation.getMethod().getName(), false);
+        try {
+            return invocation.proceed();
+        } finally {
+            escopo.fechar();
+            Medidores m = medidores.computeIfAbsent(invocation.getMethod(), metodo -> registrar(invocation, metodo));
+            m.statements.record(escopo.statements());
+            m.sql.record(escopo.nanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Medidores registrar(MethodInvocation invocation, Method metodo) {
+        String dono = classe != null ? classe
+                : ClassUtils.getUserClass(invocation.getThis() != null ? invocation.getThis().getClass()
+                        : metodo.getDeclaringClass()).getSimpleName();
+        MeterRegistry meterRegistry = registry.getObject();
+        return new Medidores(
+                DistributionSummary.builder(prefixo + ".statements")
+                        .description("JDBC statements executed per call")
+                        .baseUnit("statements")
+                        .tags(tag, dono, "method", metodo.getName())
+                        .register(meterRegistry),
+                Timer.builder(prefixo + ".sql")
+                        .description("Time spent executing JDBC statements per call")
+                        .tags(tag, dono, "method", metodo.getName())
+                        .register(meterRegistry));
+    }
+
+    private record Medidores(DistributionSummary statements, Timer sql) {}
+}
@@ -0,0 +1,29 @@
+package br.com.sorocaba.vitrine.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * datasource-proxy listener that feeds every executed statement, with its wall time, into
+ * ContadorSql. A batch counts as one statement under the text of its first query.
+ */
+public class SqlExecucaoListener implements QueryExecutionListener {
+
+    private static final String INICIO = "vitrine.inicio";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long inicio = execInfo.getCustomValue(INICIO, Long.class);
+        long nanos = inicio != null ? System.nanoTime() - inicio : execInfo.getElapsedTime() * 1_000_000;
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        ContadorSql.registrar(sql, nanos);
+    }
+}
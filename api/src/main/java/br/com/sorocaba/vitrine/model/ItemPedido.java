@@ -0,0 +1,47 @@
+package br.com.sorocaba.vitrine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity class for Order Item (ItemPedido)
+ * Keeps the product's name and price as they were at checkout, so later edits or a deleted
+ * product never change a placed order
+ */
+@Entity
+@Table(name = "itens_pedido", indexes = {
+        @Index(name = "idx_itens_pedido_pedido", columnList = "pedido_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "pedido_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Pedido pedido;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(name = "nome_produto", nullable = false)
+    private String nomeProduto;
+
+    @Column(name = "preco_unitario", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precoUnitario;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+}
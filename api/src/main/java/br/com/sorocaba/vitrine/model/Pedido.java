@@ -0,0 +1,54 @@
+package br.com.sorocaba.vitrine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entity class for Order (Pedido)
+ * Represents a shop order; the id is assigned when the order is accepted, before it is written
+ */
+@Entity
+@Table(name = "pedidos", indexes = {
+        @Index(name = "idx_pedidos_data_criacao", columnList = "data_criacao")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Pedido {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "nome_cliente", nullable = false, length = 120)
+    private String nomeCliente;
+
+    @Column(name = "email_cliente", nullable = false, length = 160)
+    private String emailCliente;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StatusPedido status;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "data_criacao", nullable = false, updatable = false)
+    private LocalDateTime dataCriacao;
+
+    // Excluded from toString/equals/hashCode so logging or comparing an order never triggers a lazy load
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<ItemPedido> itens = new ArrayList<>();
+}
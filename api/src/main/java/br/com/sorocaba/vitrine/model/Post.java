@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -13,7 +15,9 @@ import java.time.LocalDateTime;
  * Represents blog articles and news
  */
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_publicado_data", columnList = "publicado, data_publicacao, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,8 +34,11 @@ public class Post {
     @Column(columnDefinition = "TEXT")
     private String conteudo;
 
+    // Excluded from toString/equals/hashCode so logging or comparing a post never triggers a lazy load
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "autor_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Usuario autor;
 
     @Column(nullable = false)
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,7 +17,11 @@ import java.time.LocalDateTime;
  * Represents products available in the shop
  */
 @Entity
-@Table(name = "produtos")
+@Table(name = "produtos", indexes = {
+        @Index(name = "idx_produtos_ativo_id", columnList = "ativo, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_produtos_sku", columnNames = "sku")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,7 +31,15 @@ public class Produto {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Supplier code; optional, but it is the key bulk imports upsert on.
+     */
+    @Size(max = 64, message = "SKU deve ter no máximo 64 caracteres")
+    @Column(length = 64)
+    private String sku;
+
     @NotBlank(message = "Nome do produto é obrigatório")
+    @Size(max = 255, message = "Nome deve ter no máximo 255 caracteres")
     @Column(nullable = false)
     private String nome;
 
@@ -38,12 +51,27 @@ public class Produto {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal preco;
 
+    @Size(max = 255, message = "URL da imagem deve ter no máximo 255 caracteres")
     @Column(name = "imagem_url")
     private String imagemUrl;
 
+    /**
+     * Key of an uploaded image in the ArmazemImagens; takes precedence over imagemUrl.
+     */
+    @Size(max = 32)
+    @Column(name = "imagem_chave", length = 32)
+    private String imagemChave;
+
     @Column(nullable = false)
     private Integer estoque = 0;
 
+    /**
+     * Stock the admin form was rendered with; lets a save apply the edit as a delta
+     * instead of overwriting units sold in the meantime.
+     */
+    @Transient
+    private Integer estoqueOriginal;
+
     @Column(nullable = false)
     private Boolean ativo = true;
 
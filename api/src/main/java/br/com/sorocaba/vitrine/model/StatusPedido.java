@@ -0,0 +1,10 @@
+package br.com.sorocaba.vitrine.model;
+
+/**
+ * Lifecycle of an order. PENDENTE is never stored: it is what an accepted order reports while
+ * it is still queued for the next group commit.
+ */
+public enum StatusPedido {
+    PENDENTE,
+    RECEBIDO
+}
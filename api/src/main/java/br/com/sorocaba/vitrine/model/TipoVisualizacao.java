@@ -0,0 +1,9 @@
+package br.com.sorocaba.vitrine.model;
+
+/**
+ * What a view counter counts: a product page or a blog post
+ */
+public enum TipoVisualizacao {
+    PRODUTO,
+    POST
+}
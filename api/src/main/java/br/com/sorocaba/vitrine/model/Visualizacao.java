@@ -0,0 +1,42 @@
+package br.com.sorocaba.vitrine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Entity class for a view counter (Visualizacao)
+ * Total views of one product or post; rows are only ever accumulated by VisualizacaoService's batches
+ */
+@Entity
+@Table(name = "visualizacoes")
+@IdClass(Visualizacao.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Visualizacao {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private TipoVisualizacao tipo;
+
+    // No foreign key: one table counts both products and posts
+    @Id
+    @Column(name = "referencia_id")
+    private Long referenciaId;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private TipoVisualizacao tipo;
+        private Long referenciaId;
+    }
+}
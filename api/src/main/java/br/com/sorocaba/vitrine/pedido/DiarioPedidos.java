@@ -0,0 +1,183 @@
+package br.com.sorocaba.vitrine.pedido;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of the orders accepted but not yet in the database, one JSON line each.
+ *
+ * Lines go to numbered segment files ({@code pedidos-00000001.log}); a segment is deleted once it is
+ * closed and every order in it has been committed. On startup the surviving segments are read back
+ * and their orders handed out once through {@link #recuperados()}; a torn last line from a crash
+ * is skipped. Commits are not journaled, so after a crash the replay may include orders that were
+ * already written; the caller filters those out. Appends are not fsynced one by one: they survive a
+ * process crash or restart, and the group commit that follows makes them durable.
+ */
+public class DiarioPedidos implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiarioPedidos.class);
+    private static final Pattern SEGMENTO = Pattern.compile("pedidos-(\\d{8})\\.log");
+
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final ObjectMapper objectMapper;
+    // Orders not yet committed, per segment; guarded by this
+    private final Map<Long, Integer> pendentes = new HashMap<>();
+    private List<Registro> recuperados = new ArrayList<>();
+    private long segmentoAtual;
+    private FileChannel canal;
+    private long tamanhoAtual;
+
+    public DiarioPedidos(Path diretorio, long tamanhoSegmento, ObjectMapper objectMapper) throws IOException {
+        this.diretorio = diretorio.toAbsolutePath().normalize();
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(this.diretorio);
+        long ultimo = 0;
+        for (long segmento : segmentosExistentes()) {
+            ler(segmento);
+            ultimo = segmento;
+        }
+        abrir(ultimo + 1);
+    }
+
+    /**
+     * Orders found in the journal at startup; returned once, then the list is released.
+     */
+    public synchronized List<Registro> recuperados() {
+        List<Registro> lista = recuperados;
+        recuperados = List.of();
+        return lista;
+    }
+
+    /**
+     * Appends the order and returns the handle to pass to {@link #concluir} once it is committed.
+     */
+    public Registro registrar(PedidoRecebido pedido) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(pedido);
+        ByteBuffer linha = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        synchronized (this) {
+            if (tamanhoAtual > 0 && tamanhoAtual + linha.remaining() > tamanhoSegmento) {
+                rotacionar();
+            }
+            try {
+                while (linha.hasRemaining()) {
+                    canal.write(linha);
+                }
+            } catch (IOException ex) {
+                // A torn line would swallow the next append; cut back to the last whole one
+                canal.truncate(tamanhoAtual);
+                throw ex;
+            }
+            tamanhoAtual = canal.position();
+            pendentes.merge(segmentoAtual, 1, Integer::sum);
+            return new Registro(segmentoAtual, pedido);
+        }
+    }
+
+    /**
+     * Marks orders as committed; closed segments left without pending orders are deleted.
+     */
+    public synchronized void concluir(Collection<Registro> registros) {
+        for (Registro registro : registros) {
+            Integer restantes = pendentes.computeIfPresent(registro.segmento(), (s, n) -> n > 1 ? n - 1 : null);
+            if (restantes == null && registro.segmento() != segmentoAtual) {
+                apagar(registro.segmento());
+            }
+        }
+    }
+
+    /**
+     * Closes the journal; after a clean drain nothing is pending and the last segment goes too.
+     */
+    @Override
+    public synchronized void destroy() throws IOException {
+        canal.close();
+        if (!pendentes.containsKey(segmentoAtual)) {
+            apagar(segmentoAtual);
+        }
+    }
+
+    private void rotacionar() throws IOException {
+        long anterior = segmentoAtual;
+        canal.close();
+        abrir(anterior + 1);
+        if (!pendentes.containsKey(anterior)) {
+            apagar(anterior);
+        }
+    }
+
+    private void abrir(long segmento) throws IOException {
+        segmentoAtual = segmento;
+        canal = FileChannel.open(arquivo(segmento), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        tamanhoAtual = canal.size();
+    }
+
+    private void ler(long segmento) throws IOException {
+        int lidos = 0;
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo(segmento), StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                try {
+                    recuperados.add(new Registro(segmento, objectMapper.readValue(linha, PedidoRecebido.class)));
+                    lidos++;
+                } catch (JsonProcessingException ex) {
+                    LOGGER.warn("Linha ilegível ignorada no diário de pedidos {}: {}", arquivo(segmento), ex.getOriginalMessage());
+                }
+            }
+        }
+        if (lidos > 0) {
+            pendentes.put(segmento, lidos);
+        } else {
+            apagar(segmento);
+        }
+    }
+
+    private List<Long> segmentosExistentes() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(arquivo -> SEGMENTO.matcher(arquivo.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(nome -> Long.parseLong(nome.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void apagar(long segmento) {
+        try {
+            Files.deleteIfExists(arquivo(segmento));
+        } catch (IOException ex) {
+            LOGGER.warn("Não foi possível apagar o segmento {} do diário de pedidos", arquivo(segmento), ex);
+        }
+    }
+
+    private Path arquivo(long segmento) {
+        return diretorio.resolve(String.format("pedidos-%08d.log", segmento));
+    }
+
+    public record Registro(long segmento, PedidoRecebido pedido) {}
+}
@@ -0,0 +1,190 @@
+package br.com.sorocaba.vitrine.pedido;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue drained by a single writer thread in group commits.
+ *
+ * Producers first take one of {@code capacidade} slots, waiting at most {@code esperaMaxima};
+ * a producer that gets none is turned away, which is the backpressure. The writer takes whatever
+ * is queued, waits up to {@code latencia} for the batch to fill to {@code tamanhoLote}, and hands
+ * it to the {@link Gravador}. A batch that throws is retried whole after a pause, so nothing is
+ * lost while the database is unavailable; slots are only given back once a batch is written.
+ */
+public class FilaGravacao<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilaGravacao.class);
+    private static final long PAUSA_APOS_FALHA_MS = 1000;
+
+    private final String nome;
+    private final int tamanhoLote;
+    private final long latenciaNanos;
+    private final long esperaMaximaNanos;
+    private final Semaphore vagas;
+    private final LinkedBlockingQueue<Entrada<T>> fila = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder gravados = new LongAdder();
+    private final LongAdder repeticoes = new LongAdder();
+    private volatile boolean parado;
+    private Thread escritor;
+
+    public FilaGravacao(String nome, int capacidade, int tamanhoLote, Duration latencia, Duration esperaMaxima) {
+        this.nome = nome;
+        this.tamanhoLote = tamanhoLote;
+        this.latenciaNanos = latencia.toNanos();
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.vagas = new Semaphore(capacidade);
+    }
+
+    /**
+     * Takes a slot for one item, waiting at most the configured time. Returns false when the queue
+     * stayed full or is shutting down; on true the caller must either {@link #adicionar} or
+     * {@link #devolverVaga}.
+     */
+    public boolean obterVaga() {
+        if (parado) {
+            return false;
+        }
+        try {
+            return vagas.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void devolverVaga() {
+        vagas.release();
+    }
+
+    /**
+     * Queues an item for which a slot was obtained.
+     */
+    public void adicionar(T item) {
+        pendentes.incrementAndGet();
+        fila.add(new Entrada<>(item, true));
+    }
+
+    /**
+     * Queues an item without a slot; for work recovered at startup, which must not be turned away.
+     */
+    public void recolocar(T item) {
+        pendentes.incrementAndGet();
+        fila.add(new Entrada<>(item, false));
+    }
+
+    public synchronized void iniciar(Gravador<T> gravador) {
+        if (escritor != null) {
+            return;
+        }
+        escritor = new Thread(() -> executar(gravador), "gravacao-" + nome);
+        // Daemon: what is still queued at exit is in the producer's journal, not only in this queue
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Stops accepting items and lets the writer drain the queue, waiting at most {@code espera};
+     * a writer still busy after that is interrupted.
+     */
+    public void parar(Duration espera) throws InterruptedException {
+        parado = true;
+        Thread thread;
+        synchronized (this) {
+            thread = escritor;
+        }
+        if (thread != null) {
+            thread.join(espera.toMillis());
+            if (thread.isAlive()) {
+                LOGGER.warn("Fila {} parada com {} item(ns) ainda não gravados", nome, pendentes.get());
+                thread.interrupt();
+            }
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(pendentes.get(), lotes.sum(), gravados.sum(), repeticoes.sum());
+    }
+
+    private void executar(Gravador<T> gravador) {
+        List<Entrada<T>> lote = new ArrayList<>(tamanhoLote);
+        List<T> itens = new ArrayList<>(tamanhoLote);
+        try {
+            while (!(parado && lote.isEmpty() && fila.isEmpty())) {
+                if (lote.isEmpty() && !encher(lote)) {
+                    continue;
+                }
+                itens.clear();
+                lote.forEach(entrada -> itens.add(entrada.item()));
+                try {
+                    gravador.gravar(itens);
+                } catch (InterruptedException ex) {
+                    throw ex;
+                } catch (Exception ex) {
+                    repeticoes.increment();
+                    LOGGER.warn("Lote de {} item(ns) da fila {} falhou; nova tentativa em {} ms: {}",
+                            lote.size(), nome, PAUSA_APOS_FALHA_MS, ex.toString());
+                    Thread.sleep(PAUSA_APOS_FALHA_MS);
+                    continue;
+                }
+                int comVaga = (int) lote.stream().filter(Entrada::comVaga).count();
+                vagas.release(comVaga);
+                pendentes.addAndGet(-lote.size());
+                lotes.increment();
+                gravados.add(lote.size());
+                lote.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocks briefly for a first item, then gathers more until the batch is full or the latency
+     * budget runs out. Returns false when nothing arrived.
+     */
+    private boolean encher(List<Entrada<T>> lote) throws InterruptedException {
+        Entrada<T> primeira = fila.poll(100, TimeUnit.MILLISECONDS);
+        if (primeira == null) {
+            return false;
+        }
+        lote.add(primeira);
+        long prazo = System.nanoTime() + latenciaNanos;
+        while (lote.size() < tamanhoLote) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = prazo - System.nanoTime();
+            if (lote.size() >= tamanhoLote || restante <= 0 || parado) {
+                break;
+            }
+            Entrada<T> proxima = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proxima == null) {
+                break;
+            }
+            lote.add(proxima);
+        }
+        return true;
+    }
+
+    /**
+     * Writes one batch; throwing makes the queue retry the same batch later.
+     */
+    @FunctionalInterface
+    public interface Gravador<T> {
+        void gravar(List<T> lote) throws Exception;
+    }
+
+    public record Estatisticas(int pendentes, long lotes, long gravados, long repeticoes) {}
+
+    private record Entrada<T>(T item, boolean comVaga) {}
+}
@@ -0,0 +1,24 @@
+package br.com.sorocaba.vitrine.pedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An accepted order as it travels from the request to the group commit: the line written to the
+ * journal and the element of the writer's queue. Item names and prices are taken at checkout.
+ */
+public record PedidoRecebido(UUID id, String nomeCliente, String emailCliente, LocalDateTime dataCriacao,
+                             List<Item> itens) {
+
+    public BigDecimal total() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Item item : itens) {
+            total = total.add(item.precoUnitario().multiply(BigDecimal.valueOf(item.quantidade())));
+        }
+        return total;
+    }
+
+    public record Item(long produtoId, String nomeProduto, BigDecimal precoUnitario, int quantidade) {}
+}
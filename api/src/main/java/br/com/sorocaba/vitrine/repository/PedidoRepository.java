@@ -0,0 +1,20 @@
+package br.com.sorocaba.vitrine.repository;
+
+import br.com.sorocaba.vitrine.model.Pedido;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for Pedido entity
+ * Orders are written in batches by PedidoService; this only reads them back
+ */
+@Repository
+public interface PedidoRepository extends JpaRepository<Pedido, UUID> {
+
+    @EntityGraph(attributePaths = "itens")
+    Optional<Pedido> findComItensById(UUID id);
+}
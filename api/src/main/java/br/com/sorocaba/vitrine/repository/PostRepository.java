@@ -1,20 +1,81 @@
 package br.com.sorocaba.vitrine.repository;
 
 import br.com.sorocaba.vitrine.model.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Post entity
  * Provides database operations for blog posts
+ * Every list query fetches the author in the same statement, so mapping a page never issues one query per post
  */
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    
+
+    @Override
+    @EntityGraph(attributePaths = "autor")
+    List<Post> findAll();
+
+    @EntityGraph(attributePaths = "autor")
     List<Post> findByPublicadoTrueOrderByDataPublicacaoDesc();
-    
+
+    @EntityGraph(attributePaths = "autor")
+    Optional<Post> findComAutorById(Long id);
+
+    @EntityGraph(attributePaths = "autor")
     List<Post> findByTituloContainingIgnoreCase(String titulo);
-}
 
+    @EntityGraph(attributePaths = "autor")
+    List<Post> findByAutorId(Long autorId);
+
+    /**
+     * First keyset page of published posts, newest first.
+     */
+    @EntityGraph(attributePaths = "autor")
+    List<Post> findByPublicadoTrueOrderByDataPublicacaoDescIdDesc(Limit limit);
+
+    /**
+     * Keyset page of published posts strictly after the given (dataPublicacao, id) key.
+     */
+    @EntityGraph(attributePaths = "autor")
+    @Query("SELECT p FROM Post p WHERE p.publicado = true "
+            + "AND (p.dataPublicacao < :data OR (p.dataPublicacao = :data AND p.id < :id)) "
+            + "ORDER BY p.dataPublicacao DESC, p.id DESC")
+    List<Post> findPublicadosApos(@Param("data") LocalDateTime data, @Param("id") Long id, Limit limit);
+
+    /**
+     * Every post with its author ordered by id, read through a forward-only cursor for the export.
+     * Same fetch size and read-only loading as ProdutoRepository.streamTodosPorId.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.autor ORDER BY p.id")
+    Stream<Post> streamTodosPorId();
+
+    /**
+     * Post aggregates in a single scan; used to seed and reconcile the admin counters.
+     */
+    @Query("SELECT COUNT(p) AS total, "
+            + "COALESCE(SUM(CASE WHEN p.publicado = true THEN 1 ELSE 0 END), 0) AS publicados "
+            + "FROM Post p")
+    TotaisPosts calcularTotais();
+
+    interface TotaisPosts {
+        long getTotal();
+        long getPublicados();
+    }
+}
@@ -1,10 +1,22 @@
 package br.com.sorocaba.vitrine.repository;
 
 import br.com.sorocaba.vitrine.model.Produto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Produto entity
@@ -12,9 +24,54 @@ import java.util.List;
  */
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
-    
+
     List<Produto> findByAtivoTrue();
-    
+
     List<Produto> findByNomeContainingIgnoreCase(String nome);
-}
 
+    Optional<Produto> findBySku(String sku);
+
+    /**
+     * Keyset page of active products ordered by id, starting after the given id.
+     */
+    @Query("SELECT p FROM Produto p WHERE p.ativo = true AND p.id > :aposId ORDER BY p.id ASC")
+    List<Produto> findAtivosAposId(@Param("aposId") Long aposId, Limit limit);
+
+    List<Produto> findBySkuIn(Collection<String> skus);
+
+    /**
+     * Loads the row locked for update, so stock decrements wait for the admin save to commit.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Produto p WHERE p.id = :id")
+    Optional<Produto> findParaAtualizacao(@Param("id") Long id);
+
+    /**
+     * Every product ordered by id, read through a forward-only cursor for the catalog export.
+     * Rows arrive in fetches of 500 and are loaded read-only, without dirty-checking snapshots;
+     * the caller must consume the stream inside a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Produto p ORDER BY p.id")
+    Stream<Produto> streamTodosPorId();
+
+    /**
+     * Catalog aggregates in a single scan; used to seed and reconcile the admin counters.
+     */
+    @Query("SELECT COUNT(p) AS total, "
+            + "COALESCE(SUM(CASE WHEN p.ativo = true THEN 1 ELSE 0 END), 0) AS ativos, "
+            + "COALESCE(SUM(CASE WHEN p.ativo = true THEN p.estoque ELSE 0 END), 0) AS estoque, "
+            + "COALESCE(SUM(CASE WHEN p.ativo = true THEN p.preco * p.estoque ELSE 0 END), 0) AS valor "
+            + "FROM Produto p")
+    TotaisProdutos calcularTotais();
+
+    interface TotaisProdutos {
+        long getTotal();
+        long getAtivos();
+        long getEstoque();
+        BigDecimal getValor();
+    }
+}
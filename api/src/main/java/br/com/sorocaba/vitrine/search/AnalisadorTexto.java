@@ -0,0 +1,84 @@
+package br.com.sorocaba.vitrine.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free text into index terms: strips HTML, folds accents and case,
+ * splits on anything that is not a letter or digit and drops Portuguese stop words.
+ * "Café" and "cafe" therefore produce the same term.
+ */
+public final class AnalisadorTexto {
+
+    private static final Pattern TAGS_HTML = Pattern.compile("<[^>]*>");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos",
+            "um", "uma", "para", "por", "com", "que", "ao", "aos", "se", "ou"
+    );
+
+    private AnalisadorTexto() {
+    }
+
+    public static List<String> tokenizar(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return termos;
+        }
+        String normalizado = dobrar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean letra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                String termo = normalizado.substring(inicio, i);
+                if (!STOP_WORDS.contains(termo)) {
+                    termos.add(termo);
+                }
+                inicio = -1;
+            }
+        }
+        return termos;
+    }
+
+    public static String removerHtml(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return ESPACOS.matcher(TAGS_HTML.matcher(texto).replaceAll(" ")).replaceAll(" ").trim();
+    }
+
+    /**
+     * Lower-cases and removes diacritics. Plain ASCII input skips the Unicode decomposition.
+     */
+    static String dobrar(String texto) {
+        String minusculo = texto.toLowerCase(Locale.ROOT);
+        if (ehAscii(minusculo)) {
+            return minusculo;
+        }
+        String decomposto = Normalizer.normalize(minusculo, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposto.length());
+        for (int i = 0; i < decomposto.length(); i++) {
+            char c = decomposto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean ehAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.sorocaba.vitrine.search;
+
+/**
+ * A searchable document. The title is weighted above the body when ranking;
+ * the summary is what search results display.
+ */
+public record Documento(TipoDocumento tipo, long id, String titulo, String corpo, String resumo) {
+
+    private static final int TAMANHO_RESUMO = 160;
+
+    public static Documento of(TipoDocumento tipo, long id, String titulo, String corpo) {
+        String texto = AnalisadorTexto.removerHtml(corpo);
+        String resumo = texto.length() <= TAMANHO_RESUMO ? texto : texto.substring(0, TAMANHO_RESUMO) + "…";
+        return new Documento(tipo, id, titulo, texto, resumo);
+    }
+
+    long chave() {
+        return chave(tipo, id);
+    }
+
+    static long chave(TipoDocumento tipo, long id) {
+        return (id << 1) | tipo.ordinal();
+    }
+
+    static TipoDocumento tipo(long chave) {
+        return TipoDocumento.values()[(int) (chave & 1)];
+    }
+
+    static long id(long chave) {
+        return chave >>> 1;
+    }
+}
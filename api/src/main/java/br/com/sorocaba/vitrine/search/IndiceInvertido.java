@@ -0,0 +1,285 @@
+package br.com.sorocaba.vitrine.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with BM25 ranking.
+ *
+ * Documents get dense int ids in insertion order, so every posting list stays sorted by
+ * simply appending. Updates remove the old version (a bit in {@code removidos}) and append
+ * a new one; the index compacts itself once a quarter of the ids are dead.
+ * All terms of a query must match; the last one also matches as a prefix ("caf" finds "cafe").
+ */
+public class IndiceInvertido {
+
+    static final int PESO_TITULO = 3;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_TERMOS_CONSULTA = 8;
+    private static final int MAX_EXPANSOES_PREFIXO = 64;
+    private static final int MIN_PREFIXO = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> termos = new TreeMap<>();
+    private final Map<Long, Integer> docPorChave = new HashMap<>();
+    private final BitSet removidos = new BitSet();
+
+    private long[] chaves = new long[1024];
+    private int[] comprimentos = new int[1024];
+    private String[] titulos = new String[1024];
+    private String[] resumos = new String[1024];
+    private int proximoDoc;
+    private long somaComprimentos;
+
+    /**
+     * Adds the document, replacing any previous version with the same type and id.
+     */
+    public void indexar(Documento documento) {
+        Map<String, Integer> frequencias = new HashMap<>();
+        int comprimento = 0;
+        for (String termo : AnalisadorTexto.tokenizar(documento.titulo())) {
+            frequencias.merge(termo, PESO_TITULO, Integer::sum);
+            comprimento += PESO_TITULO;
+        }
+        for (String termo : AnalisadorTexto.tokenizar(documento.corpo())) {
+            frequencias.merge(termo, 1, Integer::sum);
+            comprimento++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removerInterno(documento.chave());
+            int doc = proximoDoc++;
+            garantirCapacidade(doc + 1);
+            chaves[doc] = documento.chave();
+            comprimentos[doc] = comprimento;
+            titulos[doc] = documento.titulo();
+            resumos[doc] = documento.resumo();
+            somaComprimentos += comprimento;
+            docPorChave.put(documento.chave(), doc);
+            for (Map.Entry<String, Integer> entrada : frequencias.entrySet()) {
+                termos.computeIfAbsent(entrada.getKey(), t -> new Postings()).adicionar(doc, entrada.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(TipoDocumento tipo, long id) {
+        lock.writeLock().lock();
+        try {
+            removerInterno(Documento.chave(tipo, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return docPorChave.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query and returns the requested slice of the ranked hits plus the total hit count.
+     *
+     * @param tipo restricts hits to one document type, or null for all
+     */
+    public Resultado buscar(String consulta, TipoDocumento tipo, int offset, int limite) {
+        List<String> termosConsulta = AnalisadorTexto.tokenizar(consulta);
+        if (termosConsulta.isEmpty() || limite <= 0) {
+            return new Resultado(Collections.emptyList(), 0);
+        }
+        if (termosConsulta.size() > MAX_TERMOS_CONSULTA) {
+            termosConsulta = termosConsulta.subList(0, MAX_TERMOS_CONSULTA);
+        }
+
+        lock.readLock().lock();
+        try {
+            int totalDocs = docPorChave.size();
+            if (totalDocs == 0) {
+                return new Resultado(Collections.emptyList(), 0);
+            }
+            float comprimentoMedio = (float) somaComprimentos / totalDocs;
+            float[] scores = new float[proximoDoc];
+            int[] casados = new int[proximoDoc];
+            int mascaraCompleta = (1 << termosConsulta.size()) - 1;
+
+            for (int slot = 0; slot < termosConsulta.size(); slot++) {
+                String termo = termosConsulta.get(slot);
+                boolean ultimo = slot == termosConsulta.size() - 1;
+                for (Postings postings : postingsPara(termo, ultimo)) {
+                    float idf = idf(totalDocs, postings.tamanho);
+                    int bit = 1 << slot;
+                    for (int i = 0; i < postings.tamanho; i++) {
+                        int doc = postings.docs[i];
+                        float tf = postings.frequencias[i];
+                        float norma = K1 * (1 - B + B * comprimentos[doc] / comprimentoMedio);
+                        scores[doc] += idf * (tf * (K1 + 1)) / (tf + norma);
+                        casados[doc] |= bit;
+                    }
+                }
+            }
+
+            int janela = offset + limite;
+            PriorityQueue<Integer> melhores = new PriorityQueue<>(janela + 1,
+                    (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(b, a));
+            long total = 0;
+            for (int doc = 0; doc < proximoDoc; doc++) {
+                if (casados[doc] != mascaraCompleta || removidos.get(doc)) {
+                    continue;
+                }
+                if (tipo != null && Documento.tipo(chaves[doc]) != tipo) {
+                    continue;
+                }
+                total++;
+                melhores.add(doc);
+                if (melhores.size() > janela) {
+                    melhores.poll();
+                }
+            }
+
+            List<Acerto> ordenados = new ArrayList<>(melhores.size());
+            while (!melhores.isEmpty()) {
+                int doc = melhores.poll();
+                ordenados.add(new Acerto(Documento.tipo(chaves[doc]), Documento.id(chaves[doc]),
+                        titulos[doc], resumos[doc], scores[doc]));
+            }
+            Collections.reverse(ordenados);
+            List<Acerto> pagina = offset >= ordenados.size()
+                    ? Collections.emptyList()
+                    : ordenados.subList(offset, ordenados.size());
+            return new Resultado(pagina, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Postings> postingsPara(String termo, boolean prefixo) {
+        if (!prefixo || termo.length() < MIN_PREFIXO) {
+            Postings exato = termos.get(termo);
+            return exato != null ? List.of(exato) : List.of();
+        }
+        NavigableMap<String, Postings> expansoes = termos.subMap(termo, true, termo + Character.MAX_VALUE, true);
+        List<Postings> resultado = new ArrayList<>(Math.min(expansoes.size(), MAX_EXPANSOES_PREFIXO));
+        for (Postings postings : expansoes.values()) {
+            if (resultado.size() == MAX_EXPANSOES_PREFIXO) {
+                break;
+            }
+            resultado.add(postings);
+        }
+        return resultado;
+    }
+
+    private static float idf(int totalDocs, int frequenciaDocumento) {
+        return (float) Math.log(1 + (totalDocs - frequenciaDocumento + 0.5) / (frequenciaDocumento + 0.5));
+    }
+
+    private void removerInterno(long chave) {
+        Integer doc = docPorChave.remove(chave);
+        if (doc == null) {
+            return;
+        }
+        removidos.set(doc);
+        somaComprimentos -= comprimentos[doc];
+        titulos[doc] = null;
+        resumos[doc] = null;
+        if (removidos.cardinality() > Math.max(1024, proximoDoc / 4)) {
+            compactar();
+        }
+    }
+
+    /**
+     * Renumbers live documents densely and drops dead postings and empty terms.
+     */
+    private void compactar() {
+        int[] novoId = new int[proximoDoc];
+        int vivos = 0;
+        for (int doc = 0; doc < proximoDoc; doc++) {
+            if (removidos.get(doc)) {
+                novoId[doc] = -1;
+            } else {
+                novoId[doc] = vivos;
+                chaves[vivos] = chaves[doc];
+                comprimentos[vivos] = comprimentos[doc];
+                titulos[vivos] = titulos[doc];
+                resumos[vivos] = resumos[doc];
+                vivos++;
+            }
+        }
+        Arrays.fill(titulos, vivos, proximoDoc, null);
+        Arrays.fill(resumos, vivos, proximoDoc, null);
+        termos.values().removeIf(postings -> postings.renumerar(novoId) == 0);
+        docPorChave.replaceAll((chave, doc) -> novoId[doc]);
+        removidos.clear();
+        proximoDoc = vivos;
+    }
+
+    private void garantirCapacidade(int capacidade) {
+        if (capacidade <= chaves.length) {
+            return;
+        }
+        int nova = Math.max(capacidade, chaves.length * 2);
+        chaves = Arrays.copyOf(chaves, nova);
+        comprimentos = Arrays.copyOf(comprimentos, nova);
+        titulos = Arrays.copyOf(titulos, nova);
+        resumos = Arrays.copyOf(resumos, nova);
+    }
+
+    /**
+     * Posting list of one term: parallel, docId-sorted arrays of documents and weighted frequencies.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] frequencias = new int[4];
+        private int tamanho;
+
+        void adicionar(int doc, int frequencia) {
+            if (tamanho == docs.length) {
+                docs = Arrays.copyOf(docs, tamanho * 2);
+                frequencias = Arrays.copyOf(frequencias, tamanho * 2);
+            }
+            docs[tamanho] = doc;
+            frequencias[tamanho] = frequencia;
+            tamanho++;
+        }
+
+        int renumerar(int[] novoId) {
+            int escrito = 0;
+            for (int i = 0; i < tamanho; i++) {
+                int doc = novoId[docs[i]];
+                if (doc >= 0) {
+                    docs[escrito] = doc;
+                    frequencias[escrito] = frequencias[i];
+                    escrito++;
+                }
+            }
+            tamanho = escrito;
+            return escrito;
+        }
+    }
+
+    /**
+     * One ranked hit.
+     */
+    public record Acerto(TipoDocumento tipo, long id, String titulo, String resumo, float score) {}
+
+    /**
+     * A page of hits and the total number of matching documents.
+     */
+    public record Resultado(List<Acerto> acertos, long total) {}
+}
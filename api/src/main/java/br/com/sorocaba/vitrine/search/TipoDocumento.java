@@ -0,0 +1,9 @@
+package br.com.sorocaba.vitrine.search;
+
+/**
+ * Kinds of documents held in the search index
+ */
+public enum TipoDocumento {
+    PRODUTO,
+    POST
+}
@@ -0,0 +1,122 @@
+package br.com.sorocaba.vitrine.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the hashing of another PasswordEncoder on a small dedicated pool with a bounded queue.
+ *
+ * At most {@code threads} hashes run at once and at most {@code fila} wait; anything beyond that
+ * fails immediately with an AuthenticationServiceException instead of holding a request thread,
+ * so a burst of logins cannot take the CPU and the servlet pool away from the storefront.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaNanos;
+    private final LongAdder rejeicoes = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int fila, Duration esperaMaxima) {
+        this.delegate = delegate;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), new NomeadorThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public long rejeicoes() {
+        return rejeicoes.sum();
+    }
+
+    public int ativas() {
+        return executor.getActiveCount();
+    }
+
+    public int naFila() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarefa);
+        } catch (RejectedExecutionException ex) {
+            rejeitado("fila de verificação de senha cheia");
+            throw new AuthenticationServiceException("Serviço de autenticação sobrecarregado, tente novamente");
+        }
+        try {
+            return futuro.get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            futuro.cancel(true);
+            rejeitado("tempo de espera esgotado");
+            throw new AuthenticationServiceException("Serviço de autenticação sobrecarregado, tente novamente");
+        } catch (InterruptedException ex) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Verificação de senha interrompida", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new AuthenticationServiceException("Falha na verificação de senha", ex.getCause());
+        }
+    }
+
+    private void rejeitado(String motivo) {
+        rejeicoes.increment();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Verificação de senha rejeitada: {} (ativas={}, na fila={})",
+                    motivo, ativas(), naFila());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static final class NomeadorThreads implements ThreadFactory {
+
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.ItemBuscaDTO;
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
+import br.com.sorocaba.vitrine.dto.ResultadoBuscaDTO;
+import br.com.sorocaba.vitrine.event.PostAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutosImportadosEvent;
+import br.com.sorocaba.vitrine.exception.InvalidPageException;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.repository.PostRepository;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import br.com.sorocaba.vitrine.search.Documento;
+import br.com.sorocaba.vitrine.search.IndiceInvertido;
+import br.com.sorocaba.vitrine.search.TipoDocumento;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for full-text search over active products and published posts
+ * Keeps an in-memory inverted index that is built at startup and updated after each commit
+ */
+@Service
+@RequiredArgsConstructor
+public class BuscaService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuscaService.class);
+    private static final int LOTE_INDEXACAO = 1000;
+    private static final int MAX_RESULTADOS = 1000;
+
+    private final ProdutoRepository produtoRepository;
+    private final PostRepository postRepository;
+    private final IndiceInvertido indice = new IndiceInvertido();
+
+    /**
+     * Loads the index in keyset batches, each in its own short read transaction,
+     * so the persistence context never holds the whole catalog.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndice() {
+        long inicio = System.nanoTime();
+        long aposId = 0L;
+        List<Produto> lote;
+        do {
+            lote = produtoRepository.findAtivosAposId(aposId, Limit.of(LOTE_INDEXACAO));
+            for (Produto produto : lote) {
+                indice.indexar(documento(produto));
+                aposId = produto.getId();
+            }
+        } while (lote.size() == LOTE_INDEXACAO);
+
+        List<Post> posts = postRepository.findByPublicadoTrueOrderByDataPublicacaoDescIdDesc(Limit.of(LOTE_INDEXACAO));
+        while (!posts.isEmpty()) {
+            Post ultimo = null;
+            for (Post post : posts) {
+                indice.indexar(documento(post));
+                ultimo = post;
+            }
+            if (posts.size() < LOTE_INDEXACAO) {
+                break;
+            }
+            posts = postRepository.findPublicadosApos(ultimo.getDataPublicacao(), ultimo.getId(), Limit.of(LOTE_INDEXACAO));
+        }
+        LOGGER.info("Índice de busca construído: {} documentos em {} ms",
+                indice.tamanho(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        produtoRepository.findById(event.id())
+                .filter(produto -> Boolean.TRUE.equals(produto.getAtivo()))
+                .ifPresentOrElse(
+                        produto -> indice.indexar(documento(produto)),
+                        () -> indice.remover(TipoDocumento.PRODUTO, event.id()));
+    }
+
+    /**
+     * Re-reads only the imported SKUs, in batches: active rows are indexed, deactivated ones dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutosImportados(ProdutosImportadosEvent event) {
+        List<String> skus = new ArrayList<>(event.skus());
+        for (int inicio = 0; inicio < skus.size(); inicio += LOTE_INDEXACAO) {
+            List<String> lote = skus.subList(inicio, Math.min(inicio + LOTE_INDEXACAO, skus.size()));
+            for (Produto produto : produtoRepository.findBySkuIn(lote)) {
+                if (Boolean.TRUE.equals(produto.getAtivo())) {
+                    indice.indexar(documento(produto));
+                } else {
+                    indice.remover(TipoDocumento.PRODUTO, produto.getId());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPostAlterado(PostAlteradoEvent event) {
+        postRepository.findById(event.id())
+                .filter(post -> Boolean.TRUE.equals(post.getPublicado()))
+                .ifPresentOrElse(
+                        post -> indice.indexar(documento(post)),
+                        () -> indice.remover(TipoDocumento.POST, event.id()));
+    }
+
+    public ResultadoBuscaDTO buscar(String consulta, TipoDocumento tipo, int pagina, int tamanho) {
+        int limite = CursorCodec.normalizarLimite(tamanho);
+        // Long math: a large pagina times limite must not wrap around past the cap
+        long janela = ((long) Math.max(pagina, 0) + 1) * limite;
+        if (janela > MAX_RESULTADOS) {
+            throw new InvalidPageException(pagina);
+        }
+        int offset = (int) janela - limite;
+        IndiceInvertido.Resultado resultado = indice.buscar(consulta, tipo, offset, limite);
+        List<ItemBuscaDTO> itens = resultado.acertos().stream()
+                .map(acerto -> new ItemBuscaDTO(acerto.tipo().name(), acerto.id(), acerto.titulo(),
+                        acerto.resumo(), acerto.score()))
+                .collect(Collectors.toList());
+        return new ResultadoBuscaDTO(consulta, itens, resultado.total(), pagina, limite);
+    }
+
+    private static Documento documento(Produto produto) {
+        return Documento.of(TipoDocumento.PRODUTO, produto.getId(), produto.getNome(), produto.getDescricao());
+    }
+
+    private static Documento documento(Post post) {
+        return Documento.of(TipoDocumento.POST, post.getId(), post.getTitulo(), post.getConteudo());
+    }
+}
@@ -0,0 +1,261 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.catalogo.ColunasPosts;
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.event.EstoqueBaixadoEvent;
+import br.com.sorocaba.vitrine.event.PostAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutosImportadosEvent;
+import br.com.sorocaba.vitrine.event.UsuarioAlteradoEvent;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.repository.PostRepository;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for the in-memory read model of the public catalog and blog
+ * Serves every public product and post read from immutable column snapshots that are built at
+ * startup and replaced after each committed admin write
+ *
+ * The after-commit listeners run ahead of every other one, so the snapshot and page caches
+ * that are rebuilt from this model never see it stale.
+ *
+ * Every change is applied at a new version: the current time in microseconds, or one past the previous
+ * version if the clock has not moved on. Changes are applied one at a time and after their commit,
+ * so a client that has seen a version has seen every change up to it.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogoLeituraService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogoLeituraService.class);
+    private static final int LOTE = 1000;
+
+    private final ProdutoRepository produtoRepository;
+    private final PostRepository postRepository;
+
+    // Readers take the current snapshot without locking; writers are serialized
+    private final ReentrantLock escrita = new ReentrantLock();
+    private volatile ColunasProdutos produtos;
+    private volatile ColunasPosts posts;
+    // Guarded by escrita
+    private long ultimaVersao = Long.MIN_VALUE;
+
+    public ColunasProdutos produtos() {
+        ColunasProdutos atual = produtos;
+        if (atual == null) {
+            construir();
+            atual = produtos;
+        }
+        return atual;
+    }
+
+    public ColunasPosts posts() {
+        ColunasPosts atual = posts;
+        if (atual == null) {
+            construir();
+            atual = posts;
+        }
+        return atual;
+    }
+
+    public Estatisticas estatisticas() {
+        ColunasProdutos p = produtos != null ? produtos : ColunasProdutos.VAZIO;
+        ColunasPosts q = posts != null ? posts : ColunasPosts.VAZIO;
+        return new Estatisticas(p.tamanho(), p.bytesEstimados(), q.tamanho(), q.bytesEstimados());
+    }
+
+    /**
+     * Builds the model unless a request already did.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        escrita.lock();
+        try {
+            if (produtos == null || posts == null) {
+                recarregar();
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Reloads both tables in keyset batches, each in its own short read transaction,
+     * so the persistence context never holds the whole catalog.
+     */
+    public void recarregar() {
+        escrita.lock();
+        try {
+            long inicio = System.nanoTime();
+            // A reload may have missed removals, so both histories start over
+            long versao = proximaVersao();
+            produtos = carregarProdutos().comLinhaDeBase(versao);
+            posts = carregarPosts().comLinhaDeBase(versao);
+            ultimaVersao = Math.max(produtos.ultimaVersao(), posts.ultimaVersao());
+            Estatisticas estatisticas = estatisticas();
+            LOGGER.info("Catálogo em memória: {} produtos (~{} bytes/produto), {} posts (~{} bytes/post) em {} ms",
+                    estatisticas.produtos(), estatisticas.bytesPorProduto(),
+                    estatisticas.posts(), estatisticas.bytesPorPost(), (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        escrita.lock();
+        try {
+            if (produtos != null) {
+                List<Produto> gravados = produtoRepository.findById(event.id()).map(List::of).orElse(List.of());
+                produtos = produtos.comAlteracoes(gravados, List.of(event.id()), proximaVersao());
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Re-reads only the imported SKUs and merges them in one pass.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutosImportados(ProdutosImportadosEvent event) {
+        escrita.lock();
+        try {
+            if (produtos != null) {
+                List<String> skus = new ArrayList<>(event.skus());
+                List<Produto> gravados = new ArrayList<>(skus.size());
+                for (int inicio = 0; inicio < skus.size(); inicio += LOTE) {
+                    gravados.addAll(produtoRepository.findBySkuIn(skus.subList(inicio, Math.min(inicio + LOTE, skus.size()))));
+                }
+                produtos = produtos.comAlteracoes(gravados, Set.of(), proximaVersao());
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Sales only move stock: the new values are patched in without reading the rows back.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEstoqueBaixado(EstoqueBaixadoEvent event) {
+        escrita.lock();
+        try {
+            if (produtos != null) {
+                produtos = produtos.comEstoques(event.estoques(), proximaVersao());
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPostAlterado(PostAlteradoEvent event) {
+        escrita.lock();
+        try {
+            if (posts != null) {
+                List<Post> gravados = postRepository.findComAutorById(event.id()).map(List::of).orElse(List.of());
+                posts = posts.comAlteracoes(gravados, List.of(event.id()), proximaVersao());
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Posts carry their author's name, so the author's posts are read again. A user with posts cannot
+     * be deleted, so a removal leaves the posts as they are.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        escrita.lock();
+        try {
+            if (posts != null && !event.removido()) {
+                List<Post> gravados = postRepository.findByAutorId(event.id());
+                if (!gravados.isEmpty()) {
+                    posts = posts.comAlteracoes(gravados, Set.of(), proximaVersao());
+                }
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Caller holds escrita.
+     */
+    private long proximaVersao() {
+        Instant agora = Instant.now();
+        ultimaVersao = Math.max(agora.getEpochSecond() * 1_000_000L + agora.getNano() / 1_000, ultimaVersao + 1);
+        return ultimaVersao;
+    }
+
+    private ColunasProdutos carregarProdutos() {
+        ColunasProdutos.Construtor construtor = new ColunasProdutos.Construtor(LOTE);
+        long aposId = 0L;
+        List<Produto> lote;
+        do {
+            lote = produtoRepository.findAtivosAposId(aposId, Limit.of(LOTE));
+            for (Produto produto : lote) {
+                construtor.adicionar(produto);
+                aposId = produto.getId();
+            }
+        } while (lote.size() == LOTE);
+        return construtor.construir();
+    }
+
+    private ColunasPosts carregarPosts() {
+        ColunasPosts.Construtor construtor = new ColunasPosts.Construtor(LOTE);
+        List<Post> lote = postRepository.findByPublicadoTrueOrderByDataPublicacaoDescIdDesc(Limit.of(LOTE));
+        while (!lote.isEmpty()) {
+            lote.forEach(construtor::adicionar);
+            if (lote.size() < LOTE) {
+                break;
+            }
+            Post ultimo = lote.get(lote.size() - 1);
+            lote = postRepository.findPublicadosApos(ultimo.getDataPublicacao(), ultimo.getId(), Limit.of(LOTE));
+        }
+        return construtor.construir();
+    }
+
+    /**
+     * Row counts and estimated heap of the current snapshots.
+     */
+    public record Estatisticas(int produtos, long bytesProdutos, int posts, long bytesPosts) {
+
+        public long bytesPorProduto() {
+            return produtos > 0 ? bytesProdutos / produtos : 0;
+        }
+
+        public long bytesPorPost() {
+            return posts > 0 ? bytesPosts / posts : 0;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
+import br.com.sorocaba.vitrine.event.EstoqueBaixadoEvent;
+import br.com.sorocaba.vitrine.event.PostAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutosImportadosEvent;
+import br.com.sorocaba.vitrine.event.UsuarioAlteradoEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the serialized first page of the public catalog and blog listings.
+ * The SPA polls these pages; they are serialized once per admin change instead of once per request,
+ * and served with a content-hash ETag so unchanged polls end in a 304.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogoSnapshotService {
+
+    private final ProdutoService produtoService;
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+
+    private final Slot produtos = new Slot();
+    private final Slot posts = new Slot();
+
+    public Snapshot produtos() {
+        return produtos.obter(() -> produtoService.listarAtivosPagina(null, PaginaDTO.LIMITE_PADRAO));
+    }
+
+    public Snapshot posts() {
+        return posts.obter(() -> postService.listarPublicadosPagina(null, PaginaDTO.LIMITE_PADRAO));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        produtos.invalidar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEstoqueBaixado(EstoqueBaixadoEvent event) {
+        produtos.invalidar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutosImportados(ProdutosImportadosEvent event) {
+        produtos.invalidar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostAlterado(PostAlteradoEvent event) {
+        posts.invalidar();
+    }
+
+    /**
+     * Posts carry their author's name, which the read model refreshes first (it listens at highest precedence).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        posts.invalidar();
+    }
+
+    private Snapshot serializar(Object pagina) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(pagina);
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16);
+            return new Snapshot(json, gzip(json), hash);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Falha ao gerar snapshot do catálogo", ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] dados) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(dados.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return saida.toByteArray();
+    }
+
+    /**
+     * One lazily rebuilt snapshot. Rebuild and invalidation share the lock,
+     * so an invalidation that arrives mid-rebuild always wins.
+     * A ReentrantLock rather than synchronized: the first rebuild may load the read model from the
+     * database, and a virtual thread blocking inside synchronized would pin its carrier.
+     */
+    private final class Slot {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Snapshot atual;
+
+        Snapshot obter(Supplier<Object> pagina) {
+            Snapshot snapshot = atual;
+            if (snapshot != null) {
+                return snapshot;
+            }
+            lock.lock();
+            try {
+                if (atual == null) {
+                    atual = serializar(pagina.get());
+                }
+                return atual;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void invalidar() {
+            lock.lock();
+            try {
+                atual = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Immutable serialized page: identity and gzip bytes plus the content hash.
+     */
+    public record Snapshot(byte[] json, byte[] gzip, String hash) {}
+}
@@ -0,0 +1,86 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
+import br.com.sorocaba.vitrine.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque keyset cursors handed out by the list APIs.
+ * A cursor is the base64url form of the sort key of the last item of a page.
+ */
+final class CursorCodec {
+
+    private static final String SEPARADOR = "|";
+
+    private CursorCodec() {
+    }
+
+    static int normalizarLimite(int limite) {
+        if (limite <= 0) {
+            return PaginaDTO.LIMITE_PADRAO;
+        }
+        return Math.min(limite, PaginaDTO.LIMITE_MAXIMO);
+    }
+
+    static String codificarId(Long id) {
+        return codificar(String.valueOf(id));
+    }
+
+    static long decodificarId(String cursor) {
+        try {
+            return Long.parseLong(decodificar(cursor));
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Sync tokens are catalog versions, encoded like the cursors.
+     */
+    static String codificarVersao(long versao) {
+        return codificar(String.valueOf(versao));
+    }
+
+    static long decodificarVersao(String token) {
+        return decodificarId(token);
+    }
+
+    static String codificarDataEId(LocalDateTime data, Long id) {
+        return codificar(data + SEPARADOR + id);
+    }
+
+    static ChaveDataId decodificarDataEId(String cursor) {
+        String valor = decodificar(cursor);
+        int separador = valor.lastIndexOf(SEPARADOR);
+        if (separador < 0) {
+            throw new InvalidCursorException(cursor);
+        }
+        try {
+            return new ChaveDataId(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1))
+            );
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificar(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    record ChaveDataId(LocalDateTime data, Long id) {}
+}
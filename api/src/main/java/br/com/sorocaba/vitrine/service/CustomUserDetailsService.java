@@ -1,62 +1,59 @@
 package br.com.sorocaba.vitrine.service;
 
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.event.UsuarioAlteradoEvent;
 import br.com.sorocaba.vitrine.model.Usuario;
 import br.com.sorocaba.vitrine.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Custom UserDetailsService implementation for Spring Security
- * Loads user data from the database for authentication
+ * Loads user data from the database for authentication, through a short-TTL cache
+ * that is cleared whenever a user is saved or deleted
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final NearCache<String, UserDetails> usuarioDetalhesCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
-
-        if (Boolean.FALSE.equals(usuario.getAtivo())) {
-            throw new UsernameNotFoundException("Usuário inativo: " + email);
+        UserDetails detalhes = usuarioDetalhesCache.obter(email, this::carregar);
+        if (detalhes == null) {
+            throw new UsernameNotFoundException("Usuário não encontrado ou inativo: " + email);
         }
+        // Spring Security erases the password of the returned instance after login; never hand out the cached one
+        return User.withUserDetails(detalhes).build();
+    }
 
-        // DEBUG: Log password hash details
-        String passwordHash = usuario.getSenha();
-        System.out.println("========================================");
-        System.out.println("🔍 DEBUG - User Authentication Details");
-        System.out.println("========================================");
-        System.out.println("Email: " + email);
-        System.out.println("Role: " + usuario.getRole());
-        System.out.println("Password Hash in DB: " + passwordHash);
-        System.out.println("Expected Hash:       $2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
-        System.out.println("Hashes Match: " + passwordHash.equals("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
-        System.out.println("========================================");
-
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority(usuario.getRole()));
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        // Keyed by email, which may itself have changed; user writes are rare enough to clear everything
+        usuarioDetalhesCache.invalidarTodos();
+    }
 
+    private UserDetails carregar(String email) {
+        Usuario usuario = usuarioRepository.findByEmail(email).orElse(null);
+        if (usuario == null || Boolean.FALSE.equals(usuario.getAtivo())) {
+            return null;
+        }
         return User.builder()
                 .username(usuario.getEmail())
                 .password(usuario.getSenha())
-                .authorities(authorities)
+                .authorities(new SimpleGrantedAuthority(usuario.getRole()))
                 .accountExpired(false)
                 .accountLocked(false)
                 .credentialsExpired(false)
-                .disabled(!usuario.getAtivo())
+                .disabled(false)
                 .build();
     }
 }
-
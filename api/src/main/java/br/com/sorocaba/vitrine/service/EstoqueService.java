@@ -0,0 +1,506 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.dto.EstoqueDTO;
+import br.com.sorocaba.vitrine.estoque.EstoqueListrado;
+import br.com.sorocaba.vitrine.estoque.ReservaEstoque;
+import br.com.sorocaba.vitrine.event.EstoqueBaixadoEvent;
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutosImportadosEvent;
+import br.com.sorocaba.vitrine.exception.InsufficientStockException;
+import br.com.sorocaba.vitrine.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for stock reservations
+ * Reserves, confirms and releases units in memory on striped counters, and writes the confirmed
+ * units to the database in batched conditional decrements
+ *
+ * Units sold to orders are not left to that batch: PedidoService writes them in the transaction
+ * that writes the order (baixarPedidos), so a crash can never keep an order and lose its stock.
+ *
+ * Only products that were ever reserved are tracked. Their database stock is read once, and from
+ * then on the service knows what the row holds: its own batches move it, and admin edits and
+ * imports are folded in as deltas when their events arrive.
+ */
+@Service
+@RequiredArgsConstructor
+public class EstoqueService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EstoqueService.class);
+
+    static final String BAIXA = "UPDATE produtos SET estoque = estoque - ?, data_atualizacao = ? "
+            + "WHERE id = ? AND estoque >= ?";
+    private static final String LEITURA = "SELECT estoque, ativo FROM produtos WHERE id = ?";
+    private static final ThreadLocal<SecureRandom> GERADOR_IDS = ThreadLocal.withInitial(EstoqueService::novoGerador);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LimitadorBanco limitadorBanco;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.estoque.listras:0}")
+    private int listras;
+
+    @Value("${app.estoque.validade-reserva:10m}")
+    private Duration validadeReserva;
+
+    private final Map<Long, EstadoProduto> estados = new ConcurrentHashMap<>();
+    private final Map<UUID, ReservaEstoque> reservas = new ConcurrentHashMap<>();
+    // Batches, order writes and resyncs all move EstadoProduto.estoqueBanco; one lock keeps them from interleaving
+    private final ReentrantLock persistencia = new ReentrantLock();
+    // Order decrements committed, and products to resync, waiting for gravandoPedidos; guarded by the lock
+    private final List<BaixaPedido> baixasPedidos = new ArrayList<>();
+    private final Set<Long> aSincronizar = new HashSet<>();
+
+    private final LongAdder reservadas = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder conflitos = new LongAdder();
+
+    public ReservaEstoque reservar(long produtoId, int quantidade) {
+        EstadoProduto estado = estado(produtoId);
+        if (!estado.ativo) {
+            throw new ResourceNotFoundException("Produto", produtoId);
+        }
+        if (!estado.disponivel.reservar(quantidade)) {
+            recusadas.increment();
+            throw new InsufficientStockException(produtoId, quantidade);
+        }
+        estado.reservado.addAndGet(quantidade);
+        ReservaEstoque reserva = new ReservaEstoque(novoId(), produtoId, quantidade, Instant.now().plus(validadeReserva));
+        reservas.put(reserva.id(), reserva);
+        reservadas.increment();
+        return reserva;
+    }
+
+    /**
+     * Turns the reservation into a sale; the units reach the database with the next batch.
+     */
+    public void confirmar(UUID id) {
+        ReservaEstoque reserva = retirar(id);
+        EstadoProduto estado = estados.get(reserva.produtoId());
+        if (estado != null) {
+            estado.reservado.addAndGet(-reserva.quantidade());
+            estado.aPersistir.addAndGet(reserva.quantidade());
+        }
+    }
+
+    /**
+     * Turns the reservation into a sale whose units are written with the order that holds them,
+     * through {@link #baixarPedidos}, instead of by the periodic batch.
+     */
+    public void confirmarPedido(UUID id) {
+        ReservaEstoque reserva = retirar(id);
+        EstadoProduto estado = estados.get(reserva.produtoId());
+        if (estado != null) {
+            estado.reservado.addAndGet(-reserva.quantidade());
+            estado.emPedidos.addAndGet(reserva.quantidade());
+        }
+    }
+
+    /**
+     * Holds the units of an order replayed from the journal after a restart: they were sold, but
+     * the row does not reflect them until the order is written.
+     */
+    public void retomarPedido(long produtoId, int quantidade) {
+        EstadoProduto estado;
+        try {
+            estado = estado(produtoId);
+        } catch (ResourceNotFoundException removido) {
+            // The order cannot be written either; nothing to hold
+            return;
+        }
+        estado.disponivel.ajustar(-quantidade);
+        estado.emPedidos.addAndGet(quantidade);
+    }
+
+    /**
+     * Runs the writing of a batch of orders with the persistence lock held, so no resync reads a
+     * row between an order's commit and the counters catching up; then moves the counters of every
+     * decrement that committed and publishes the new stock in one EstoqueBaixadoEvent.
+     */
+    public void gravandoPedidos(Runnable gravacao) {
+        persistencia.lock();
+        try {
+            gravacao.run();
+        } finally {
+            try {
+                aplicarPedidos();
+            } finally {
+                persistencia.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the units sold to orders, per product, in the caller's transaction and under its
+     * database permit: one conditional decrement each, and a row that no longer holds enough is
+     * zeroed, as in {@link #persistir}. The counters only follow if that transaction commits.
+     * Must run inside {@link #gravandoPedidos}.
+     */
+    public void baixarPedidos(Map<Long, Integer> quantidades) {
+        if (!persistencia.isHeldByCurrentThread() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Baixa de pedidos fora de gravandoPedidos ou sem transação");
+        }
+        List<Baixa> lote = new ArrayList<>(quantidades.size());
+        quantidades.forEach((produtoId, quantidade) -> lote.add(new Baixa(produtoId, estados.get(produtoId), quantidade)));
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] resultados = jdbcTemplate.batchUpdate(BAIXA, lote, lote.size(), (ps, baixa) -> {
+            ps.setLong(1, baixa.quantidade());
+            ps.setTimestamp(2, agora);
+            ps.setLong(3, baixa.produtoId());
+            ps.setLong(4, baixa.quantidade());
+        });
+        List<BaixaPedido> gravadas = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            Baixa baixa = lote.get(i);
+            if (resultados[0][i] == 0) {
+                jdbcTemplate.update("UPDATE produtos SET estoque = 0, data_atualizacao = ? WHERE id = ?",
+                        agora, baixa.produtoId());
+                LOGGER.warn("Produto {}: {} unidade(s) vendidas acima do estoque gravado; estoque zerado",
+                        baixa.produtoId(), baixa.quantidade());
+            }
+            if (baixa.estado() != null) {
+                gravadas.add(new BaixaPedido(baixa.produtoId(), baixa.estado(), baixa.quantidade(), resultados[0][i] > 0));
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                baixasPedidos.addAll(gravadas);
+            }
+        });
+    }
+
+    /**
+     * Gives back the units of an order that will not be written: dropped because it cannot be, or
+     * already written earlier with its stock, in which case the row is read again.
+     */
+    public void devolverPedido(Map<Long, Integer> quantidades, boolean jaGravado) {
+        quantidades.forEach((produtoId, quantidade) -> {
+            EstadoProduto estado = estados.get(produtoId);
+            if (estado != null) {
+                estado.emPedidos.addAndGet(-quantidade);
+                estado.disponivel.devolver(quantidade);
+                if (jaGravado) {
+                    persistencia.lock();
+                    try {
+                        aSincronizar.add(produtoId);
+                    } finally {
+                        persistencia.unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    public void liberar(UUID id) {
+        devolver(retirar(id));
+    }
+
+    public EstoqueDTO consultar(long produtoId) {
+        EstadoProduto estado = estado(produtoId);
+        if (!estado.ativo) {
+            throw new ResourceNotFoundException("Produto", produtoId);
+        }
+        return new EstoqueDTO(produtoId, estado.disponivel.disponivel(), estado.reservado.get(),
+                estado.aPersistir.get() + estado.emPedidos.get());
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(reservas.size(), estados.size(), reservadas.sum(), recusadas.sum(),
+                expiradas.sum(), conflitos.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${app.estoque.expiracao:PT5S}")
+    public void expirarReservas() {
+        Instant agora = Instant.now();
+        for (ReservaEstoque reserva : reservas.values()) {
+            if (reserva.expiraEm().isBefore(agora) && reservas.remove(reserva.id(), reserva)) {
+                expiradas.increment();
+                devolver(reserva);
+            }
+        }
+    }
+
+    /**
+     * Writes every product's confirmed units in one JDBC batch of conditional decrements.
+     * A row that no longer holds enough stock (an admin lowered it meanwhile) is not updated;
+     * it is zeroed, the oversold units are logged and the counter is resynced. The new stock of the
+     * whole batch goes out in one EstoqueBaixadoEvent.
+     */
+    @Scheduled(fixedDelayString = "${app.estoque.persistencia:PT1S}")
+    public void persistir() {
+        persistencia.lock();
+        try {
+            List<Baixa> lote = new ArrayList<>();
+            estados.forEach((produtoId, estado) -> {
+                long quantidade = estado.aPersistir.getAndSet(0);
+                if (quantidade > 0) {
+                    lote.add(new Baixa(produtoId, estado, quantidade));
+                }
+            });
+            if (lote.isEmpty()) {
+                return;
+            }
+            int[][] resultados;
+            Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+            limitadorBanco.adquirir();
+            try {
+                resultados = jdbcTemplate.batchUpdate(BAIXA, lote, lote.size(), (ps, baixa) -> {
+                    ps.setLong(1, baixa.quantidade());
+                    ps.setTimestamp(2, agora);
+                    ps.setLong(3, baixa.produtoId());
+                    ps.setLong(4, baixa.quantidade());
+                });
+            } catch (DataAccessException ex) {
+                lote.forEach(baixa -> baixa.estado().aPersistir.addAndGet(baixa.quantidade()));
+                LOGGER.warn("Baixa de estoque adiada, será tentada de novo: {}", ex.getMessage());
+                return;
+            } finally {
+                limitadorBanco.liberar();
+            }
+
+            Map<Long, Integer> estoques = new HashMap<>();
+            Map<Long, Integer> baixas = new HashMap<>();
+            for (int i = 0; i < lote.size(); i++) {
+                Baixa baixa = lote.get(i);
+                if (resultados[0][i] > 0) {
+                    baixa.estado().estoqueBanco -= baixa.quantidade();
+                    baixas.put(baixa.produtoId(), (int) baixa.quantidade());
+                } else {
+                    // Zeroed from what the row held as far as this service knew
+                    baixas.put(baixa.produtoId(), (int) baixa.estado().estoqueBanco);
+                    conflitos.increment();
+                    LOGGER.warn("Produto {}: {} unidade(s) vendidas acima do estoque gravado; estoque zerado",
+                            baixa.produtoId(), baixa.quantidade());
+                    zerar(baixa.produtoId(), agora);
+                    sincronizar(baixa.produtoId(), baixa.estado());
+                }
+                estoques.put(baixa.produtoId(), (int) baixa.estado().estoqueBanco);
+            }
+            // One event per batch: a hot sale must not rebuild the catalog once per product
+            eventPublisher.publishEvent(new EstoqueBaixadoEvent(estoques, baixas));
+        } finally {
+            persistencia.unlock();
+        }
+    }
+
+    /**
+     * Folds an admin edit into the counter.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        EstadoProduto estado = estados.get(event.id());
+        if (estado != null) {
+            persistencia.lock();
+            try {
+                sincronizar(event.id(), estado);
+            } finally {
+                persistencia.unlock();
+            }
+        }
+    }
+
+    /**
+     * The event carries SKUs, not ids; the few tracked products are simply all resynced.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutosImportados(ProdutosImportadosEvent event) {
+        persistencia.lock();
+        try {
+            estados.forEach(this::sincronizar);
+        } finally {
+            persistencia.unlock();
+        }
+    }
+
+    /**
+     * Moves the counters of the order decrements that committed, and resyncs the products whose
+     * row was short or already held an order's decrement.
+     */
+    private void aplicarPedidos() {
+        if (baixasPedidos.isEmpty() && aSincronizar.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> estoques = new HashMap<>();
+        Map<Long, Integer> baixas = new HashMap<>();
+        for (BaixaPedido baixa : baixasPedidos) {
+            EstadoProduto estado = baixa.estado();
+            estado.emPedidos.addAndGet(-baixa.quantidade());
+            if (baixa.gravada()) {
+                estado.estoqueBanco -= baixa.quantidade();
+                baixas.merge(baixa.produtoId(), (int) baixa.quantidade(), Integer::sum);
+            } else {
+                baixas.merge(baixa.produtoId(), (int) estado.estoqueBanco, Integer::sum);
+                conflitos.increment();
+                sincronizar(baixa.produtoId(), estado);
+            }
+            estoques.put(baixa.produtoId(), (int) estado.estoqueBanco);
+        }
+        baixasPedidos.clear();
+        for (Long produtoId : aSincronizar) {
+            EstadoProduto estado = estados.get(produtoId);
+            sincronizar(produtoId, estado);
+            estoques.put(produtoId, (int) estado.estoqueBanco);
+        }
+        aSincronizar.clear();
+        eventPublisher.publishEvent(new EstoqueBaixadoEvent(estoques, baixas));
+    }
+
+    private EstadoProduto estado(long produtoId) {
+        EstadoProduto estado = estados.get(produtoId);
+        if (estado != null) {
+            return estado;
+        }
+        // Read outside the map: the read may wait for a permit, and computeIfAbsent would hold the
+        // bin, and every other product hashed to it, for that long. A first burst may read more than once.
+        Linha linha = ler(produtoId);
+        if (linha == null) {
+            throw new ResourceNotFoundException("Produto", produtoId);
+        }
+        EstadoProduto novo = new EstadoProduto(new EstoqueListrado(linha.estoque(), numeroListras()), linha.estoque());
+        novo.ativo = linha.ativo();
+        estado = estados.putIfAbsent(produtoId, novo);
+        return estado != null ? estado : novo;
+    }
+
+    private void sincronizar(long produtoId, EstadoProduto estado) {
+        Linha linha = ler(produtoId);
+        long banco = linha != null ? linha.estoque() : 0;
+        long delta = banco - estado.estoqueBanco;
+        estado.estoqueBanco = banco;
+        estado.ativo = linha != null && linha.ativo();
+        if (delta != 0) {
+            estado.disponivel.ajustar(delta);
+        }
+    }
+
+    private void zerar(long produtoId, Timestamp agora) {
+        limitadorBanco.adquirir();
+        try {
+            jdbcTemplate.update("UPDATE produtos SET estoque = 0, data_atualizacao = ? WHERE id = ?", agora, produtoId);
+        } finally {
+            limitadorBanco.liberar();
+        }
+    }
+
+    /**
+     * An event listener can run on the committing thread before its transaction's permit is returned
+     * (LimitadorRepositorioInterceptor); it then reads on that permit instead of waiting for a
+     * second one, which could deadlock the thread on itself.
+     */
+    private Linha ler(long produtoId) {
+        boolean permissaoPropria = !TransactionSynchronizationManager.hasResource(limitadorBanco);
+        if (permissaoPropria) {
+            limitadorBanco.adquirir();
+        }
+        try {
+            List<Linha> linhas = jdbcTemplate.query(LEITURA,
+                    (rs, n) -> new Linha(rs.getLong("estoque"), rs.getBoolean("ativo")), produtoId);
+            return linhas.isEmpty() ? null : linhas.get(0);
+        } finally {
+            if (permissaoPropria) {
+                limitadorBanco.liberar();
+            }
+        }
+    }
+
+    private ReservaEstoque retirar(UUID id) {
+        ReservaEstoque reserva = reservas.remove(id);
+        if (reserva == null) {
+            throw new ResourceNotFoundException("Reserva não encontrada ou expirada: " + id);
+        }
+        return reserva;
+    }
+
+    private void devolver(ReservaEstoque reserva) {
+        EstadoProduto estado = estados.get(reserva.produtoId());
+        if (estado != null) {
+            estado.reservado.addAndGet(-reserva.quantidade());
+            estado.disponivel.devolver(reserva.quantidade());
+        }
+    }
+
+    /**
+     * Random version 4 id. Ids are the only credential to confirm or release a reservation, so they come from
+     * a SecureRandom, but one per thread: UUID.randomUUID() shares a single instance behind one lock.
+     */
+    private static UUID novoId() {
+        SecureRandom random = GERADOR_IDS.get();
+        long alto = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long baixo = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(alto, baixo);
+    }
+
+    private static SecureRandom novoGerador() {
+        try {
+            // DRBG instances lock only themselves; the default NativePRNG funnels every instance through one lock
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException ex) {
+            return new SecureRandom();
+        }
+    }
+
+    private int numeroListras() {
+        return listras > 0 ? listras : Math.min(Runtime.getRuntime().availableProcessors(), 32);
+    }
+
+    /**
+     * Live counters of one tracked product. {@code estoqueBanco} is what the row holds as far as
+     * this service knows; it only moves under the persistence lock.
+     */
+    private static final class EstadoProduto {
+
+        final EstoqueListrado disponivel;
+        final AtomicLong reservado = new AtomicLong();
+        final AtomicLong aPersistir = new AtomicLong();
+        // Sold to acknowledged orders, written with the order rather than by the batch
+        final AtomicLong emPedidos = new AtomicLong();
+        long estoqueBanco;
+        volatile boolean ativo;
+
+        EstadoProduto(EstoqueListrado disponivel, long estoqueBanco) {
+            this.disponivel = disponivel;
+            this.estoqueBanco = estoqueBanco;
+        }
+    }
+
+    private record Linha(long estoque, boolean ativo) {}
+
+    private record Baixa(long produtoId, EstadoProduto estado, long quantidade) {}
+
+    private record BaixaPedido(long produtoId, EstadoProduto estado, long quantidade, boolean gravada) {}
+
+    public record Estatisticas(int reservasAbertas, int produtosAcompanhados, long reservadas, long recusadas,
+                               long expiradas, long conflitos) {}
+}
@@ -0,0 +1,108 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.exportacao.EscritorExportacao;
+import br.com.sorocaba.vitrine.exportacao.FormatoExportacao;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.model.Usuario;
+import br.com.sorocaba.vitrine.repository.PostRepository;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service class for the full catalog export
+ * Streams products and posts from a database cursor straight into the output, detaching each entity
+ * once it is written, so heap use stays flat whatever the number of rows.
+ *
+ * The cursor's transaction holds its connection, and with it a LimitadorBanco permit, until the
+ * last row reaches the client; a slow download keeps one permit for its whole duration.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportacaoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExportacaoService.class);
+
+    /**
+     * sku, nome, descricao, preco, imagemUrl, estoque and ativo match the import columns,
+     * so an exported CSV can be imported back as is.
+     */
+    private static final List<String> COLUNAS_PRODUTO = List.of("id", "sku", "nome", "descricao", "preco",
+            "imagemUrl", "estoque", "ativo", "dataCriacao", "dataAtualizacao");
+
+    private static final List<String> COLUNAS_POST = List.of("id", "titulo", "conteudo", "autorId", "autorNome",
+            "publicado", "dataPublicacao", "dataCriacao", "dataAtualizacao");
+
+    private final ProdutoRepository produtoRepository;
+    private final PostRepository postRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every product, active or not, ordered by id. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportarProdutos(OutputStream saida, FormatoExportacao formato) throws IOException {
+        long inicio = System.nanoTime();
+        long linhas = 0;
+        try (Stream<Produto> produtos = produtoRepository.streamTodosPorId();
+             EscritorExportacao escritor = EscritorExportacao.abrir(saida, formato, COLUNAS_PRODUTO, objectMapper)) {
+            Iterator<Produto> iterador = produtos.iterator();
+            while (iterador.hasNext()) {
+                Produto produto = iterador.next();
+                escritor.escrever(produto.getId(), produto.getSku(), produto.getNome(), produto.getDescricao(),
+                        produto.getPreco(), produto.getImagemUrl(), produto.getEstoque(), produto.getAtivo(),
+                        produto.getDataCriacao(), produto.getDataAtualizacao());
+                entityManager.detach(produto);
+                linhas++;
+            }
+        }
+        registrar("produtos", formato, linhas, inicio);
+        return linhas;
+    }
+
+    /**
+     * Writes every post, published or not, ordered by id. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportarPosts(OutputStream saida, FormatoExportacao formato) throws IOException {
+        long inicio = System.nanoTime();
+        long linhas = 0;
+        try (Stream<Post> posts = postRepository.streamTodosPorId();
+             EscritorExportacao escritor = EscritorExportacao.abrir(saida, formato, COLUNAS_POST, objectMapper)) {
+            Iterator<Post> iterador = posts.iterator();
+            while (iterador.hasNext()) {
+                Post post = iterador.next();
+                Usuario autor = post.getAutor();
+                escritor.escrever(post.getId(), post.getTitulo(), post.getConteudo(),
+                        autor != null ? autor.getId() : null, autor != null ? autor.getNome() : null,
+                        post.getPublicado(), post.getDataPublicacao(), post.getDataCriacao(),
+                        post.getDataAtualizacao());
+                entityManager.detach(post);
+                if (autor != null) {
+                    entityManager.detach(autor);
+                }
+                linhas++;
+            }
+        }
+        registrar("posts", formato, linhas, inicio);
+        return linhas;
+    }
+
+    private static void registrar(String tipo, FormatoExportacao formato, long linhas, long inicio) {
+        LOGGER.info("Exportação de {} ({}): {} linhas em {} ms", tipo, formato, linhas,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
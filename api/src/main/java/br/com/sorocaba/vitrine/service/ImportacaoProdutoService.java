@@ -0,0 +1,341 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.dto.ErroImportacaoDTO;
+import br.com.sorocaba.vitrine.dto.ProgressoImportacaoDTO;
+import br.com.sorocaba.vitrine.dto.RelatorioImportacaoDTO;
+import br.com.sorocaba.vitrine.event.ProdutosImportadosEvent;
+import br.com.sorocaba.vitrine.importacao.FormatoImportacao;
+import br.com.sorocaba.vitrine.importacao.LeitorImportacao;
+import br.com.sorocaba.vitrine.importacao.LinhaImportacao;
+import br.com.sorocaba.vitrine.model.Produto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for bulk product import
+ * Streams CSV/NDJSON records, validates them against the Produto constraints and upserts them by SKU
+ * with batched JDBC MERGE statements, one transaction per chunk. A bad row is reported and skipped;
+ * it never rolls back the rows around it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportacaoProdutoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportacaoProdutoService.class);
+    private static final int MAX_ERROS = 1000;
+    private static final BigDecimal PRECO_MAXIMO = new BigDecimal("99999999.99");
+
+    /**
+     * Upsert keyed by SKU. data_criacao is only written on insert.
+     */
+    private static final String MERGE = "MERGE INTO produtos p USING (SELECT "
+            + "CAST(? AS VARCHAR(64)) AS sku, CAST(? AS VARCHAR(255)) AS nome, CAST(? AS CLOB) AS descricao, "
+            + "CAST(? AS NUMERIC(10, 2)) AS preco, CAST(? AS VARCHAR(255)) AS imagem_url, "
+            + "CAST(? AS INTEGER) AS estoque, CAST(? AS BOOLEAN) AS ativo, CAST(? AS TIMESTAMP) AS agora) n "
+            + "ON p.sku = n.sku "
+            + "WHEN MATCHED THEN UPDATE SET nome = n.nome, descricao = n.descricao, preco = n.preco, "
+            + "imagem_url = n.imagem_url, estoque = n.estoque, ativo = n.ativo, data_atualizacao = n.agora "
+            + "WHEN NOT MATCHED THEN INSERT (sku, nome, descricao, preco, imagem_url, estoque, ativo, "
+            + "data_criacao, data_atualizacao) "
+            + "VALUES (n.sku, n.nome, n.descricao, n.preco, n.imagem_url, n.estoque, n.ativo, n.agora, n.agora)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final LimitadorBanco limitadorBanco;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.importacao.lote:1000}")
+    private int tamanhoLote;
+
+    /**
+     * Imports the whole input. {@code progresso} is called after every committed chunk.
+     * Rows committed before a failure stay committed, and listeners are notified either way.
+     */
+    public RelatorioImportacaoDTO importar(Reader entrada, FormatoImportacao formato,
+                                           Consumer<ProgressoImportacaoDTO> progresso) throws IOException {
+        Execucao execucao = new Execucao(System.nanoTime());
+        try {
+            LeitorImportacao leitor = LeitorImportacao.abrir(entrada, formato, objectMapper);
+            List<ProdutoImportado> lote = new ArrayList<>(tamanhoLote);
+            LinhaImportacao linha;
+            while ((linha = leitor.proxima()) != null) {
+                execucao.linhasLidas++;
+                ProdutoImportado produto = converter(linha, execucao);
+                if (produto != null) {
+                    lote.add(produto);
+                }
+                if (lote.size() >= tamanhoLote) {
+                    gravar(lote, execucao);
+                    lote.clear();
+                    progresso.accept(execucao.progresso());
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravar(lote, execucao);
+            }
+            progresso.accept(execucao.progresso());
+        } finally {
+            if (execucao.inseridos + execucao.atualizados > 0) {
+                eventPublisher.publishEvent(new ProdutosImportadosEvent(execucao.inseridos, execucao.atualizados,
+                        execucao.gravados));
+            }
+        }
+        RelatorioImportacaoDTO relatorio = execucao.relatorio();
+        LOGGER.info("Importação de produtos: {} linhas, {} inseridos, {} atualizados, {} rejeitados em {} ms ({} linhas/s)",
+                relatorio.getLinhasLidas(), relatorio.getInseridos(), relatorio.getAtualizados(), relatorio.getRejeitados(),
+                relatorio.getDuracaoMs(), Math.round(relatorio.getLinhasPorSegundo()));
+        return relatorio;
+    }
+
+    /**
+     * Parses and validates one record; returns null after reporting it when it is rejected.
+     */
+    private ProdutoImportado converter(LinhaImportacao linha, Execucao execucao) {
+        if (linha.erro() != null) {
+            execucao.rejeitar(linha.numero(), linha.sku(), linha.erro());
+            return null;
+        }
+        String sku = aparar(linha.sku());
+        if (sku == null) {
+            execucao.rejeitar(linha.numero(), null, "SKU é obrigatório na importação");
+            return null;
+        }
+
+        Produto produto = new Produto();
+        produto.setSku(sku);
+        produto.setNome(aparar(linha.nome()));
+        produto.setDescricao(linha.descricao());
+        produto.setImagemUrl(aparar(linha.imagemUrl()));
+        try {
+            produto.setPreco(preco(linha.preco()));
+            produto.setEstoque(estoque(linha.estoque()));
+            produto.setAtivo(ativo(linha.ativo()));
+        } catch (IllegalArgumentException ex) {
+            execucao.rejeitar(linha.numero(), sku, ex.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<Produto>> violacoes = validator.validate(produto);
+        if (!violacoes.isEmpty()) {
+            execucao.rejeitar(linha.numero(), sku, violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return new ProdutoImportado(linha.numero(), produto);
+    }
+
+    /**
+     * Writes one chunk in a single transaction with a JDBC batch. If the batch fails, the chunk is
+     * retried row by row so that only the offending rows are rejected.
+     */
+    private void gravar(List<ProdutoImportado> lote, Execucao execucao) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        execucao.novoLote();
+        limitadorBanco.adquirir();
+        try {
+            Set<String> existentes = existentes(lote);
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(MERGE, lote, lote.size(), (ps, item) -> preencher(ps, item.produto(), agora)));
+                lote.forEach(item -> execucao.contar(item.produto().getSku(), existentes));
+            } catch (DataAccessException ex) {
+                LOGGER.debug("Lote da importação falhou, repetindo linha a linha", ex);
+                for (ProdutoImportado item : lote) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                jdbcTemplate.update(MERGE, ps -> preencher(ps, item.produto(), agora)));
+                        execucao.contar(item.produto().getSku(), existentes);
+                    } catch (DataAccessException erro) {
+                        execucao.rejeitar(item.linha(), item.produto().getSku(), erro.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        } finally {
+            limitadorBanco.liberar();
+        }
+    }
+
+    private Set<String> existentes(List<ProdutoImportado> lote) {
+        List<String> skus = lote.stream().map(item -> item.produto().getSku()).distinct().toList();
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT sku FROM produtos WHERE sku IN (:skus)", Map.of("skus", skus), String.class));
+    }
+
+    private static void preencher(PreparedStatement ps, Produto produto, Timestamp agora) throws SQLException {
+        ps.setString(1, produto.getSku());
+        ps.setString(2, produto.getNome());
+        if (produto.getDescricao() != null) {
+            ps.setString(3, produto.getDescricao());
+        } else {
+            ps.setNull(3, Types.CLOB);
+        }
+        ps.setBigDecimal(4, produto.getPreco());
+        ps.setString(5, produto.getImagemUrl());
+        ps.setInt(6, produto.getEstoque());
+        ps.setBoolean(7, produto.getAtivo());
+        ps.setTimestamp(8, agora);
+    }
+
+    private static String aparar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String aparado = valor.trim();
+        return aparado.isEmpty() ? null : aparado;
+    }
+
+    /**
+     * Accepts "1234.56", "1234,56" and "1.234,56".
+     */
+    static BigDecimal preco(String valor) {
+        String texto = aparar(valor);
+        if (texto == null) {
+            return null;
+        }
+        if (texto.indexOf(',') >= 0) {
+            texto = texto.replace(".", "").replace(',', '.');
+        }
+        BigDecimal preco;
+        try {
+            preco = new BigDecimal(texto);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Preço inválido: " + valor);
+        }
+        if (preco.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Preço com mais de duas casas decimais: " + valor);
+        }
+        if (preco.compareTo(PRECO_MAXIMO) > 0) {
+            throw new IllegalArgumentException("Preço acima do máximo permitido: " + valor);
+        }
+        return preco;
+    }
+
+    private static Integer estoque(String valor) {
+        String texto = aparar(valor);
+        if (texto == null) {
+            return 0;
+        }
+        try {
+            int estoque = Integer.parseInt(texto);
+            if (estoque < 0) {
+                throw new IllegalArgumentException("Estoque não pode ser negativo: " + valor);
+            }
+            return estoque;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Estoque inválido: " + valor);
+        }
+    }
+
+    private static Boolean ativo(String valor) {
+        String texto = aparar(valor);
+        if (texto == null) {
+            return true;
+        }
+        return switch (texto.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "sim", "s", "yes" -> true;
+            case "false", "0", "nao", "não", "n", "no" -> false;
+            default -> throw new IllegalArgumentException("Valor inválido para ativo: " + valor);
+        };
+    }
+
+    private record ProdutoImportado(long linha, Produto produto) {}
+
+    /**
+     * Counters of one import run; confined to the importing thread.
+     */
+    private static final class Execucao {
+
+        private final long inicio;
+        private final Set<String> skusDoLote = new HashSet<>();
+        private final Set<String> gravados = new HashSet<>();
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+        private final List<ErroImportacaoDTO> novosErros = new ArrayList<>();
+        private long linhasLidas;
+        private long inseridos;
+        private long atualizados;
+        private long rejeitados;
+
+        private Execucao(long inicio) {
+            this.inicio = inicio;
+        }
+
+        private void rejeitar(long linha, String sku, String mensagem) {
+            rejeitados++;
+            ErroImportacaoDTO erro = new ErroImportacaoDTO(linha, sku, mensagem);
+            if (erros.size() < MAX_ERROS) {
+                erros.add(erro);
+            }
+            if (novosErros.size() < MAX_ERROS) {
+                novosErros.add(erro);
+            }
+        }
+
+        /**
+         * A SKU counts as inserted the first time the chunk writes it, unless it already existed.
+         */
+        private void contar(String sku, Set<String> existentes) {
+            gravados.add(sku);
+            if (existentes.contains(sku) || !skusDoLote.add(sku)) {
+                atualizados++;
+            } else {
+                inseridos++;
+            }
+        }
+
+        private double linhasPorSegundo() {
+            long nanos = System.nanoTime() - inicio;
+            return nanos > 0 ? linhasLidas * 1e9 / nanos : 0;
+        }
+
+        private void novoLote() {
+            skusDoLote.clear();
+        }
+
+        private ProgressoImportacaoDTO progresso() {
+            ProgressoImportacaoDTO progresso = new ProgressoImportacaoDTO(linhasLidas, inseridos, atualizados,
+                    rejeitados, linhasPorSegundo(), List.copyOf(novosErros));
+            novosErros.clear();
+            return progresso;
+        }
+
+        private RelatorioImportacaoDTO relatorio() {
+            return new RelatorioImportacaoDTO(linhasLidas, inseridos, atualizados, rejeitados,
+                    (System.nanoTime() - inicio) / 1_000_000, linhasPorSegundo(), List.copyOf(erros),
+                    rejeitados - erros.size());
+        }
+    }
+}
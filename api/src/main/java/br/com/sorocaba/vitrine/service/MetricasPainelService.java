@@ -0,0 +1,166 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.MetricasPainelDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for the dashboard view of the application metrics
+ * Reads the Micrometer registry and Hibernate statistics; keeps only the allocation-rate sample itself
+ */
+@Service
+@RequiredArgsConstructor
+public class MetricasPainelService {
+
+    private static final int MAX_LINHAS = 15;
+
+    private final MeterRegistry registry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private long ultimaAmostraNanos;
+    private double ultimaAlocacaoBytes = Double.NaN;
+    private volatile double alocacaoBytesPorSegundo;
+
+    public MetricasPainelDTO obterMetricas() {
+        return new MetricasPainelDTO(rotas(), repositorios(), transacoes(), hibernate(), pool(), jvm());
+    }
+
+    /**
+     * Samples jvm.gc.memory.allocated; the dashboard shows the rate over the last interval.
+     * The counter only moves when a young collection runs, so short intervals read as bursts.
+     */
+    @Scheduled(fixedRateString = "${app.metricas.amostragem:PT10S}")
+    public synchronized void amostrarAlocacao() {
+        Counter alocada = registry.find("jvm.gc.memory.allocated").counter();
+        if (alocada == null) {
+            return;
+        }
+        long agora = System.nanoTime();
+        double bytes = alocada.count();
+        if (!Double.isNaN(ultimaAlocacaoBytes) && agora > ultimaAmostraNanos) {
+            alocacaoBytesPorSegundo = (bytes - ultimaAlocacaoBytes) * 1e9 / (agora - ultimaAmostraNanos);
+        }
+        ultimaAlocacaoBytes = bytes;
+        ultimaAmostraNanos = agora;
+    }
+
+    private List<MetricasPainelDTO.Rota> rotas() {
+        return registry.find("http.server.requests").timers().stream()
+                .filter(t -> t.count() > 0)
+                .sorted(Comparator.comparingDouble((Timer t) -> t.totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .limit(MAX_LINHAS)
+                .map(t -> {
+                    Map<Double, Double> p = percentis(t);
+                    return new MetricasPainelDTO.Rota(t.getId().getTag("method"), t.getId().getTag("uri"),
+                            t.getId().getTag("status"), t.count(), t.mean(TimeUnit.MILLISECONDS),
+                            p.getOrDefault(0.5, 0.0), p.getOrDefault(0.9, 0.0),
+                            p.getOrDefault(0.99, 0.0), t.max(TimeUnit.MILLISECONDS));
+                })
+                .toList();
+    }
+
+    /**
+     * Spring Boot's repository timer joined with the per-call statement counts and SQL time.
+     */
+    private List<MetricasPainelDTO.Repositorio> repositorios() {
+        Map<String, DistributionSummary> statements = new HashMap<>();
+        registry.find("vitrine.repositorio.statements").summaries().forEach(s ->
+                statements.put(s.getId().getTag("repository") + "." + s.getId().getTag("method"), s));
+        Map<String, Timer> sql = new HashMap<>();
+        registry.find("vitrine.repositorio.sql").timers().forEach(t ->
+                sql.put(t.getId().getTag("repository") + "." + t.getId().getTag("method"), t));
+
+        return registry.find("spring.data.repository.invocations").timers().stream()
+                .filter(t -> t.count() > 0)
+                .sorted(Comparator.comparingDouble((Timer t) -> t.totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .limit(MAX_LINHAS)
+                .map(t -> {
+                    String repositorio = t.getId().getTag("repository");
+                    String metodo = t.getId().getTag("method");
+                    DistributionSummary s = statements.get(repositorio + "." + metodo);
+                    Timer q = sql.get(repositorio + "." + metodo);
+                    return new MetricasPainelDTO.Repositorio(repositorio, metodo, t.count(),
+                            t.mean(TimeUnit.MILLISECONDS), percentis(t).getOrDefault(0.99, 0.0),
+                            s != null ? s.mean() : 0, q != null ? q.mean(TimeUnit.MILLISECONDS) : 0);
+                })
+                .toList();
+    }
+
+    /**
+     * {@code @Transactional} service methods by total statements executed.
+     */
+    private List<MetricasPainelDTO.Transacao> transacoes() {
+        Map<String, Timer> sql = new HashMap<>();
+        registry.find("vitrine.transacao.sql").timers().forEach(t ->
+                sql.put(t.getId().getTag("service") + "." + t.getId().getTag("method"), t));
+
+        return registry.find("vitrine.transacao.statements").summaries().stream()
+                .filter(s -> s.count() > 0)
+                .sorted(Comparator.comparingDouble(DistributionSummary::totalAmount).reversed())
+                .limit(MAX_LINHAS)
+                .map(s -> {
+                    String servico = s.getId().getTag("service");
+                    String metodo = s.getId().getTag("method");
+                    Timer q = sql.get(servico + "." + metodo);
+                    return new MetricasPainelDTO.Transacao(servico, metodo, s.count(), s.mean(), s.max(),
+                            q != null ? q.mean(TimeUnit.MILLISECONDS) : 0);
+                })
+                .toList();
+    }
+
+    private MetricasPainelDTO.Hibernate hibernate() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return new MetricasPainelDTO.Hibernate(stats.getSessionOpenCount(), stats.getEntityLoadCount(),
+                stats.getEntityFetchCount(), stats.getCollectionLoadCount(), stats.getQueryExecutionCount(),
+                stats.getPrepareStatementCount(), stats.getQueryExecutionMaxTime());
+    }
+
+    private MetricasPainelDTO.Pool pool() {
+        return new MetricasPainelDTO.Pool((int) gauge("hikaricp.connections.active"),
+                (int) gauge("hikaricp.connections.idle"), (int) gauge("hikaricp.connections.pending"),
+                (int) gauge("hikaricp.connections.max"));
+    }
+
+    private MetricasPainelDTO.Jvm jvm() {
+        double heapUsado = registry.find("jvm.memory.used").tag("area", "heap").gauges().stream()
+                .mapToDouble(Gauge::value).sum();
+        double heapMaximo = registry.find("jvm.memory.max").tag("area", "heap").gauges().stream()
+                .mapToDouble(Gauge::value).filter(v -> v > 0).sum();
+        long pausas = 0;
+        double pausasMs = 0;
+        for (Timer pausa : registry.find("jvm.gc.pause").timers()) {
+            pausas += pausa.count();
+            pausasMs += pausa.totalTime(TimeUnit.MILLISECONDS);
+        }
+        return new MetricasPainelDTO.Jvm((long) heapUsado, (long) heapMaximo, alocacaoBytesPorSegundo, pausas, pausasMs);
+    }
+
+    private double gauge(String nome) {
+        Gauge gauge = registry.find(nome).gauge();
+        return gauge != null ? gauge.value() : 0;
+    }
+
+    private static Map<Double, Double> percentis(Timer timer) {
+        Map<Double, Double> valores = new HashMap<>();
+        for (ValueAtPercentile p : timer.takeSnapshot().percentileValues()) {
+            valores.put(p.percentile(), p.value(TimeUnit.MILLISECONDS));
+        }
+        return valores;
+    }
+}
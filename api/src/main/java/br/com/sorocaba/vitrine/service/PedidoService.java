@@ -0,0 +1,294 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.dto.ItemPedidoDTO;
+import br.com.sorocaba.vitrine.dto.PedidoDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoPedidoDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoReservaDTO;
+import br.com.sorocaba.vitrine.estoque.ReservaEstoque;
+import br.com.sorocaba.vitrine.exception.DatabaseBusyException;
+import br.com.sorocaba.vitrine.exception.ResourceNotFoundException;
+import br.com.sorocaba.vitrine.model.Pedido;
+import br.com.sorocaba.vitrine.model.StatusPedido;
+import br.com.sorocaba.vitrine.pedido.DiarioPedidos;
+import br.com.sorocaba.vitrine.pedido.FilaGravacao;
+import br.com.sorocaba.vitrine.pedido.PedidoRecebido;
+import br.com.sorocaba.vitrine.repository.PedidoRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class for Pedido (Order) operations
+ * Accepts orders into a bounded queue and acknowledges them at once; a single writer thread
+ * group-commits them to the database
+ *
+ * An order is journaled before it is acknowledged and leaves the journal only after its batch
+ * commits, so a restart replays whatever was still queued. Stock is reserved and confirmed
+ * through EstoqueService at intake, so an acknowledged order never oversells, and its decrement
+ * is written in the same transaction as the order, so the two reach the database together.
+ */
+@Service
+@RequiredArgsConstructor
+public class PedidoService implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PedidoService.class);
+
+    private static final String INSERIR_PEDIDO = "INSERT INTO pedidos "
+            + "(id, nome_cliente, email_cliente, status, total, data_criacao) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERIR_ITEM = "INSERT INTO itens_pedido "
+            + "(pedido_id, produto_id, nome_produto, preco_unitario, quantidade) VALUES (?, ?, ?, ?, ?)";
+    private static final int LOTE_CONSULTA = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LimitadorBanco limitadorBanco;
+    private final PedidoRepository pedidoRepository;
+    private final CatalogoLeituraService catalogoLeituraService;
+    private final EstoqueService estoqueService;
+    private final DiarioPedidos diarioPedidos;
+    private final FilaGravacao<DiarioPedidos.Registro> filaPedidos;
+
+    // Accepted but not yet committed, so their status can be answered without the database
+    private final Map<UUID, PedidoRecebido> pendentes = new ConcurrentHashMap<>();
+    private final LongAdder descartados = new LongAdder();
+
+    /**
+     * Accepts an order: prices it from the read model, reserves its stock, journals it and queues it.
+     * Throws DatabaseBusyException when the queue stays full, before any stock is touched.
+     */
+    public PedidoDTO receber(SolicitacaoPedidoDTO solicitacao) {
+        List<PedidoRecebido.Item> itens = precificar(solicitacao.getItens());
+        PedidoRecebido pedido = new PedidoRecebido(UUID.randomUUID(), solicitacao.getNomeCliente().trim(),
+                solicitacao.getEmailCliente().trim(), LocalDateTime.now(), itens);
+
+        if (!filaPedidos.obterVaga()) {
+            throw new DatabaseBusyException("Muitos pedidos aguardando gravação; tente novamente em instantes");
+        }
+        List<ReservaEstoque> reservas = new ArrayList<>(itens.size());
+        DiarioPedidos.Registro registro;
+        try {
+            for (PedidoRecebido.Item item : itens) {
+                reservas.add(estoqueService.reservar(item.produtoId(), item.quantidade()));
+            }
+            registro = diarioPedidos.registrar(pedido);
+        } catch (IOException ex) {
+            desfazer(reservas);
+            throw new UncheckedIOException("Não foi possível registrar o pedido", ex);
+        } catch (RuntimeException ex) {
+            desfazer(reservas);
+            throw ex;
+        }
+        reservas.forEach(reserva -> estoqueService.confirmarPedido(reserva.id()));
+        pendentes.put(pedido.id(), pedido);
+        filaPedidos.adicionar(registro);
+        return toDto(pedido);
+    }
+
+    public PedidoDTO buscarPorId(UUID id) {
+        // Checked before the database: the writer commits an order before dropping it from here
+        PedidoRecebido pendente = pendentes.get(id);
+        if (pendente != null) {
+            return toDto(pendente);
+        }
+        return pedidoRepository.findComItensById(id)
+                .map(this::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado: " + id));
+    }
+
+    public Estatisticas estatisticas() {
+        FilaGravacao.Estatisticas fila = filaPedidos.estatisticas();
+        return new Estatisticas(fila.pendentes(), fila.lotes(), fila.gravados(), fila.repeticoes(), descartados.sum());
+    }
+
+    /**
+     * Replays the orders left in the journal, ahead of new ones, and starts the writer. Their stock
+     * is held again first: the rows do not reflect it until they are written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        List<DiarioPedidos.Registro> recuperados = diarioPedidos.recuperados();
+        if (!recuperados.isEmpty()) {
+            Set<UUID> gravados = gravados(recuperados);
+            List<DiarioPedidos.Registro> jaGravados = new ArrayList<>();
+            for (DiarioPedidos.Registro registro : recuperados) {
+                if (gravados.contains(registro.pedido().id())) {
+                    jaGravados.add(registro);
+                } else {
+                    registro.pedido().itens().forEach(item ->
+                            estoqueService.retomarPedido(item.produtoId(), item.quantidade()));
+                    pendentes.put(registro.pedido().id(), registro.pedido());
+                    filaPedidos.recolocar(registro);
+                }
+            }
+            diarioPedidos.concluir(jaGravados);
+            LOGGER.info("{} pedido(s) recuperados do diário para gravação ({} já estavam gravados)",
+                    recuperados.size() - jaGravados.size(), jaGravados.size());
+        }
+        filaPedidos.iniciar(this::gravar);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        filaPedidos.parar(Duration.ofSeconds(10));
+    }
+
+    /**
+     * One group commit: every order and item of the batch, and the stock they sold, in a single
+     * transaction of three JDBC batches.
+     * If the batch violates a constraint it is retried order by order: an order already written
+     * (replayed from the journal) counts as done, and one that cannot be written is logged and dropped
+     * rather than block the queue. Any other failure propagates and the queue retries the whole batch.
+     */
+    private void gravar(List<DiarioPedidos.Registro> lote) {
+        estoqueService.gravandoPedidos(() -> {
+            limitadorBanco.adquirir();
+            try {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> inserir(lote));
+                } catch (DataIntegrityViolationException ex) {
+                    LOGGER.debug("Lote de pedidos falhou, repetindo pedido a pedido", ex);
+                    for (DiarioPedidos.Registro registro : lote) {
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> inserir(List.of(registro)));
+                        } catch (DuplicateKeyException jaGravado) {
+                            LOGGER.debug("Pedido {} já estava gravado", registro.pedido().id());
+                            estoqueService.devolverPedido(unidades(List.of(registro.pedido())), true);
+                        } catch (DataIntegrityViolationException erro) {
+                            descartados.increment();
+                            // The constraint message can echo column values, so only its type is logged
+                            LOGGER.error("Pedido {} descartado (segmento {} do diário): {}", registro.pedido().id(),
+                                    registro.segmento(), erro.getMostSpecificCause().getClass().getSimpleName());
+                            estoqueService.devolverPedido(unidades(List.of(registro.pedido())), false);
+                        }
+                    }
+                }
+            } finally {
+                limitadorBanco.liberar();
+            }
+        });
+        diarioPedidos.concluir(lote);
+        lote.forEach(registro -> pendentes.remove(registro.pedido().id()));
+    }
+
+    private void inserir(List<DiarioPedidos.Registro> lote) {
+        List<PedidoRecebido> pedidos = lote.stream().map(DiarioPedidos.Registro::pedido).toList();
+        jdbcTemplate.batchUpdate(INSERIR_PEDIDO, pedidos, pedidos.size(), (ps, pedido) -> {
+            ps.setObject(1, pedido.id());
+            ps.setString(2, pedido.nomeCliente());
+            ps.setString(3, pedido.emailCliente());
+            ps.setString(4, StatusPedido.RECEBIDO.name());
+            ps.setBigDecimal(5, pedido.total());
+            ps.setTimestamp(6, Timestamp.valueOf(pedido.dataCriacao()));
+        });
+        List<Object[]> itens = new ArrayList<>();
+        for (PedidoRecebido pedido : pedidos) {
+            for (PedidoRecebido.Item item : pedido.itens()) {
+                itens.add(new Object[]{pedido.id(), item.produtoId(), item.nomeProduto(), item.precoUnitario(), item.quantidade()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERIR_ITEM, itens);
+        estoqueService.baixarPedidos(unidades(pedidos));
+    }
+
+    /**
+     * Units per product, in id order so concurrent writers would lock the rows in the same order.
+     */
+    private static Map<Long, Integer> unidades(List<PedidoRecebido> pedidos) {
+        Map<Long, Integer> unidades = new TreeMap<>();
+        for (PedidoRecebido pedido : pedidos) {
+            for (PedidoRecebido.Item item : pedido.itens()) {
+                unidades.merge(item.produtoId(), item.quantidade(), Integer::sum);
+            }
+        }
+        return unidades;
+    }
+
+    private Set<UUID> gravados(List<DiarioPedidos.Registro> registros) {
+        Set<UUID> gravados = new HashSet<>();
+        limitadorBanco.adquirir();
+        try {
+            for (int inicio = 0; inicio < registros.size(); inicio += LOTE_CONSULTA) {
+                List<UUID> ids = registros.subList(inicio, Math.min(inicio + LOTE_CONSULTA, registros.size())).stream()
+                        .map(registro -> registro.pedido().id())
+                        .toList();
+                gravados.addAll(namedParameterJdbcTemplate.query("SELECT id FROM pedidos WHERE id IN (:ids)",
+                        Map.of("ids", ids), (rs, n) -> rs.getObject(1, UUID.class)));
+            }
+        } finally {
+            limitadorBanco.liberar();
+        }
+        return gravados;
+    }
+
+    /**
+     * Names and prices come from the in-memory read model; inactive or unknown products are not found.
+     */
+    private List<PedidoRecebido.Item> precificar(List<SolicitacaoReservaDTO> solicitados) {
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        List<PedidoRecebido.Item> itens = new ArrayList<>(solicitados.size());
+        for (SolicitacaoReservaDTO solicitado : solicitados) {
+            int indice = produtos.indiceDe(solicitado.getProdutoId());
+            if (indice < 0) {
+                throw new ResourceNotFoundException("Produto", solicitado.getProdutoId());
+            }
+            ProdutoDTO produto = produtos.dto(indice);
+            itens.add(new PedidoRecebido.Item(produto.getId(), produto.getNome(), produto.getPreco(),
+                    solicitado.getQuantidade()));
+        }
+        return itens;
+    }
+
+    private void desfazer(List<ReservaEstoque> reservas) {
+        reservas.forEach(reserva -> estoqueService.liberar(reserva.id()));
+        filaPedidos.devolverVaga();
+    }
+
+    private PedidoDTO toDto(PedidoRecebido pedido) {
+        List<ItemPedidoDTO> itens = pedido.itens().stream()
+                .map(item -> new ItemPedidoDTO(item.produtoId(), item.nomeProduto(), item.precoUnitario(), item.quantidade()))
+                .toList();
+        return new PedidoDTO(pedido.id(), StatusPedido.PENDENTE, pedido.nomeCliente(), pedido.total(),
+                pedido.dataCriacao(), itens);
+    }
+
+    private PedidoDTO toDto(Pedido pedido) {
+        List<ItemPedidoDTO> itens = pedido.getItens().stream()
+                .map(item -> new ItemPedidoDTO(item.getProdutoId(), item.getNomeProduto(), item.getPrecoUnitario(), item.getQuantidade()))
+                .toList();
+        return new PedidoDTO(pedido.getId(), pedido.getStatus(), pedido.getNomeCliente(), pedido.getTotal(),
+                pedido.getDataCriacao(), itens);
+    }
+
+    /**
+     * Queue depth and writer counters; {@code descartados} are orders no batch could ever write.
+     */
+    public record Estatisticas(int pendentes, long lotes, long gravados, long repeticoes, long descartados) {}
+}
@@ -1,16 +1,22 @@
 package br.com.sorocaba.vitrine.service;
 
+import br.com.sorocaba.vitrine.catalogo.ColunasPosts;
+import br.com.sorocaba.vitrine.dto.AlteracoesDTO;
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
 import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.event.PostAlteradoEvent;
 import br.com.sorocaba.vitrine.exception.ResourceNotFoundException;
 import br.com.sorocaba.vitrine.model.Post;
 import br.com.sorocaba.vitrine.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service class for Post operations
@@ -21,6 +27,9 @@ import java.util.stream.Collectors;
 public class PostService {
 
     private final PostRepository postRepository;
+    private final CatalogoLeituraService catalogoLeituraService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResumoAdminService resumoAdminService;
 
     @Transactional(readOnly = true)
     public List<Post> listarTodos() {
@@ -32,12 +41,32 @@ public class PostService {
         return postRepository.findByPublicadoTrueOrderByDataPublicacaoDesc();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Every published post, newest first, from the in-memory read model.
+     */
     public List<PostDTO> listarPublicadosDTO() {
-        return postRepository.findByPublicadoTrueOrderByDataPublicacaoDesc()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        ColunasPosts posts = catalogoLeituraService.posts();
+        return posts.dtos(0, posts.tamanho());
+    }
+
+    /**
+     * Returns one keyset page of published posts, newest first, from the in-memory read model.
+     * Pages seek on (dataPublicacao, id), with the same cursors as the database queries used.
+     */
+    public PaginaDTO<PostDTO> listarPublicadosPagina(String cursor, int limite) {
+        int tamanho = CursorCodec.normalizarLimite(limite);
+        ColunasPosts posts = catalogoLeituraService.posts();
+        int inicio = 0;
+        if (cursor != null) {
+            CursorCodec.ChaveDataId chave = CursorCodec.decodificarDataEId(cursor);
+            inicio = posts.inicioApos(chave.data(), chave.id());
+        }
+        int fim = Math.min(inicio + tamanho, posts.tamanho());
+
+        String proximoCursor = fim < posts.tamanho()
+                ? CursorCodec.codificarDataEId(posts.dataPublicacao(fim - 1), posts.id(fim - 1))
+                : null;
+        return new PaginaDTO<>(posts.dtos(inicio, fim), proximoCursor, tamanho);
     }
 
     @Transactional(readOnly = true)
@@ -46,9 +75,48 @@ public class PostService {
                 .orElseThrow(() -> new ResourceNotFoundException("Post", id));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Detail lookup for public pages, from the in-memory read model; drafts are not found.
+     */
     public PostDTO buscarDtoPorId(Long id) {
-        return toDto(buscarPorId(id));
+        ColunasPosts posts = catalogoLeituraService.posts();
+        int indice = posts.indiceDe(id);
+        if (indice < 0) {
+            throw new ResourceNotFoundException("Post", id);
+        }
+        return posts.dto(indice);
+    }
+
+    /**
+     * Delta sync from the in-memory read model: the posts changed and removed after the token,
+     * or all of them when there is no token or it is older than the removals still remembered.
+     */
+    public AlteracoesDTO<PostDTO> alteracoesDesde(String token) {
+        ColunasPosts posts = catalogoLeituraService.posts();
+        String proximo = CursorCodec.codificarVersao(posts.ultimaVersao());
+        long desde = token != null ? CursorCodec.decodificarVersao(token) : Long.MIN_VALUE;
+        if (token == null || !posts.acompanha(desde)) {
+            return new AlteracoesDTO<>(posts.dtos(0, posts.tamanho()), List.of(), proximo, true);
+        }
+        int[] indices = posts.alteradosApos(desde);
+        List<PostDTO> alterados = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            alterados.add(posts.dto(indice));
+        }
+        List<Long> removidos = Arrays.stream(posts.removidosApos(desde)).boxed().toList();
+        return new AlteracoesDTO<>(alterados, removidos, proximo, false);
+    }
+
+    /**
+     * Version of the public post for HTTP validators, answered without building its DTO.
+     */
+    public long versaoPorId(Long id) {
+        ColunasPosts posts = catalogoLeituraService.posts();
+        int indice = posts.indiceDe(id);
+        if (indice < 0) {
+            throw new ResourceNotFoundException("Post", id);
+        }
+        return posts.versao(indice);
     }
 
     @Transactional(readOnly = true)
@@ -62,20 +130,27 @@ public class PostService {
         if (post.getPublicado() && post.getDataPublicacao() == null) {
             post.setDataPublicacao(LocalDateTime.now());
         }
-        return postRepository.save(post);
+        // The merge inside save() loads the row anyway; loading it first lets us read the old values
+        ResumoAdminService.Totais antes = post.getId() != null
+                ? ResumoAdminService.contribuicao(postRepository.findById(post.getId()).orElse(null))
+                : ResumoAdminService.Totais.ZERO;
+        Post salvo = postRepository.save(post);
+        resumoAdminService.registrar(antes, ResumoAdminService.contribuicao(salvo));
+        eventPublisher.publishEvent(new PostAlteradoEvent(salvo.getId(), false));
+        return salvo;
     }
 
     @Transactional
     public void deletar(Long id) {
-        postRepository.deleteById(id);
+        postRepository.findById(id).ifPresent(post -> {
+            postRepository.delete(post);
+            resumoAdminService.registrar(ResumoAdminService.contribuicao(post), ResumoAdminService.Totais.ZERO);
+        });
+        eventPublisher.publishEvent(new PostAlteradoEvent(id, true));
     }
 
-    @Transactional(readOnly = true)
-    public long contarTodos() {
-        return postRepository.count();
-    }
 
-    private PostDTO toDto(Post post) {
+    PostDTO toDto(Post post) {
         Long autorId = post.getAutor() != null ? post.getAutor().getId() : null;
         String autorNome = post.getAutor() != null ? post.getAutor().getNome() : null;
         return new PostDTO(
@@ -1,15 +1,22 @@
 package br.com.sorocaba.vitrine.service;
 
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.dto.AlteracoesDTO;
+import br.com.sorocaba.vitrine.dto.PaginaDTO;
 import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
 import br.com.sorocaba.vitrine.exception.ResourceNotFoundException;
+import br.com.sorocaba.vitrine.imagem.VarianteImagem;
 import br.com.sorocaba.vitrine.model.Produto;
 import br.com.sorocaba.vitrine.repository.ProdutoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service class for Produto (Product) operations
@@ -20,6 +27,9 @@ import java.util.stream.Collectors;
 public class ProdutoService {
 
     private final ProdutoRepository produtoRepository;
+    private final CatalogoLeituraService catalogoLeituraService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResumoAdminService resumoAdminService;
 
     @Transactional(readOnly = true)
     public List<Produto> listarTodos() {
@@ -31,12 +41,27 @@ public class ProdutoService {
         return produtoRepository.findByAtivoTrue();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Every active product, from the in-memory read model.
+     */
     public List<ProdutoDTO> listarAtivosDTO() {
-        return produtoRepository.findByAtivoTrue()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        return produtos.dtos(0, produtos.tamanho());
+    }
+
+    /**
+     * Returns one keyset page of active products ordered by id, from the in-memory read model.
+     * Cursors are the same as when pages were read from the database.
+     */
+    public PaginaDTO<ProdutoDTO> listarAtivosPagina(String cursor, int limite) {
+        int tamanho = CursorCodec.normalizarLimite(limite);
+        long aposId = cursor != null ? CursorCodec.decodificarId(cursor) : 0L;
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        int inicio = produtos.inicioApos(aposId);
+        int fim = Math.min(inicio + tamanho, produtos.tamanho());
+
+        String proximoCursor = fim < produtos.tamanho() ? CursorCodec.codificarId(produtos.id(fim - 1)) : null;
+        return new PaginaDTO<>(produtos.dtos(inicio, fim), proximoCursor, tamanho);
     }
 
     @Transactional(readOnly = true)
@@ -45,9 +70,48 @@ public class ProdutoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Produto", id));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Detail lookup for public pages, from the in-memory read model; inactive products are not found.
+     */
     public ProdutoDTO buscarDtoPorId(Long id) {
-        return toDto(buscarPorId(id));
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        int indice = produtos.indiceDe(id);
+        if (indice < 0) {
+            throw new ResourceNotFoundException("Produto", id);
+        }
+        return produtos.dto(indice);
+    }
+
+    /**
+     * Delta sync from the in-memory read model: the produtos changed and removed after the token,
+     * or all of them when there is no token or it is older than the removals still remembered.
+     */
+    public AlteracoesDTO<ProdutoDTO> alteracoesDesde(String token) {
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        String proximo = CursorCodec.codificarVersao(produtos.ultimaVersao());
+        long desde = token != null ? CursorCodec.decodificarVersao(token) : Long.MIN_VALUE;
+        if (token == null || !produtos.acompanha(desde)) {
+            return new AlteracoesDTO<>(produtos.dtos(0, produtos.tamanho()), List.of(), proximo, true);
+        }
+        int[] indices = produtos.alteradosApos(desde);
+        List<ProdutoDTO> alterados = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            alterados.add(produtos.dto(indice));
+        }
+        List<Long> removidos = Arrays.stream(produtos.removidosApos(desde)).boxed().toList();
+        return new AlteracoesDTO<>(alterados, removidos, proximo, false);
+    }
+
+    /**
+     * Version of the public produto for HTTP validators, answered without building its DTO.
+     */
+    public long versaoPorId(Long id) {
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        int indice = produtos.indiceDe(id);
+        if (indice < 0) {
+            throw new ResourceNotFoundException("Produto", id);
+        }
+        return produtos.versao(indice);
     }
 
     @Transactional(readOnly = true)
@@ -57,28 +121,46 @@ public class ProdutoService {
 
     @Transactional
     public Produto salvar(Produto produto) {
-        return produtoRepository.save(produto);
+        // An empty form field must not collide with the unique SKU of other products
+        if (produto.getSku() != null && produto.getSku().isBlank()) {
+            produto.setSku(null);
+        }
+        // The merge inside save() loads the row anyway; loading it first lets us read the old values
+        Produto atual = produto.getId() != null ? produtoRepository.findParaAtualizacao(produto.getId()).orElse(null) : null;
+        if (atual != null && produto.getEstoqueOriginal() != null && produto.getEstoque() != null) {
+            // Reservations confirmed since the form was opened keep lowering the row; apply only the admin's change
+            produto.setEstoque(Math.max(0, atual.getEstoque() + produto.getEstoque() - produto.getEstoqueOriginal()));
+        }
+        ResumoAdminService.Totais antes = atual != null
+                ? ResumoAdminService.contribuicao(atual)
+                : ResumoAdminService.Totais.ZERO;
+        Produto salvo = produtoRepository.save(produto);
+        resumoAdminService.registrar(antes, ResumoAdminService.contribuicao(salvo));
+        eventPublisher.publishEvent(new ProdutoAlteradoEvent(salvo.getId(), false));
+        return salvo;
     }
 
     @Transactional
     public void deletar(Long id) {
-        produtoRepository.deleteById(id);
+        produtoRepository.findById(id).ifPresent(produto -> {
+            produtoRepository.delete(produto);
+            resumoAdminService.registrar(ResumoAdminService.contribuicao(produto), ResumoAdminService.Totais.ZERO);
+        });
+        eventPublisher.publishEvent(new ProdutoAlteradoEvent(id, true));
     }
 
-    @Transactional(readOnly = true)
-    public long contarTodos() {
-        return produtoRepository.count();
-    }
 
-    private ProdutoDTO toDto(Produto produto) {
+    ProdutoDTO toDto(Produto produto) {
         return new ProdutoDTO(
                 produto.getId(),
                 produto.getNome(),
                 produto.getDescricao(),
                 produto.getPreco(),
-                produto.getImagemUrl(),
+                VarianteImagem.DETALHE.url(produto.getImagemChave(), produto.getImagemUrl()),
                 produto.getEstoque(),
-                produto.getAtivo()
+                produto.getAtivo(),
+                VarianteImagem.CARD.url(produto.getImagemChave(), produto.getImagemUrl()),
+                VarianteImagem.THUMB.url(produto.getImagemChave(), produto.getImagemUrl())
         );
     }
 }
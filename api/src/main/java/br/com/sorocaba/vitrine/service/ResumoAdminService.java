@@ -0,0 +1,208 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.dto.AdminSummaryDTO;
+import br.com.sorocaba.vitrine.event.EstoqueBaixadoEvent;
+import br.com.sorocaba.vitrine.event.ProdutosImportadosEvent;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.repository.PostRepository;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import br.com.sorocaba.vitrine.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service class for the admin dashboard aggregates
+ * Keeps the totals in memory: seeded at startup, moved by the salvar/deletar paths once their
+ * transaction commits and by the stock batches of sales and orders, and periodically reconciled
+ * against the database
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumoAdminService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumoAdminService.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final ProdutoRepository produtoRepository;
+    private final PostRepository postRepository;
+    private final CatalogoLeituraService catalogoLeituraService;
+
+    private final AtomicReference<Totais> totais = new AtomicReference<>();
+    private final AtomicLong deltasAplicados = new AtomicLong();
+
+    public AdminSummaryDTO obterResumo() {
+        Totais atual = totais.get();
+        if (atual == null) {
+            reconciliar();
+            atual = totais.get();
+        }
+        return atual.toDto();
+    }
+
+    /**
+     * Recomputes the totals with one aggregate query per table and replaces the in-memory values.
+     * When a delta commits while the queries run, the result is discarded and the next run retries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.resumo.reconciliacao:PT5M}", initialDelayString = "${app.resumo.reconciliacao:PT5M}")
+    @Transactional(readOnly = true)
+    public void reconciliar() {
+        recarregar(true);
+    }
+
+    /**
+     * Bulk imports do not emit per-row deltas; the totals are simply reloaded afterwards.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onProdutosImportados(ProdutosImportadosEvent event) {
+        recarregar(false);
+    }
+
+    /**
+     * Units sold leave the stock and the catalog value at the product's price. Only active products
+     * count towards either, and those are exactly the ones in the read model.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEstoqueBaixado(EstoqueBaixadoEvent event) {
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        long unidades = 0;
+        BigDecimal valor = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> baixa : event.baixas().entrySet()) {
+            int indice = produtos.indiceDe(baixa.getKey());
+            if (indice >= 0) {
+                unidades += baixa.getValue();
+                valor = valor.add(produtos.preco(indice).multiply(BigDecimal.valueOf(baixa.getValue())));
+            }
+        }
+        if (unidades != 0) {
+            registrar(new Totais(0, 0, 0, -unidades, valor.negate(), 0, 0, null));
+        }
+    }
+
+    private void recarregar(boolean avisarDivergencia) {
+        long deltasAntes = deltasAplicados.get();
+        ProdutoRepository.TotaisProdutos produtos = produtoRepository.calcularTotais();
+        PostRepository.TotaisPosts posts = postRepository.calcularTotais();
+        Totais banco = new Totais(usuarioRepository.count(), produtos.getTotal(), produtos.getAtivos(),
+                produtos.getEstoque(), produtos.getValor(), posts.getTotal(), posts.getPublicados(), Instant.now());
+
+        synchronized (this) {
+            if (deltasAplicados.get() != deltasAntes) {
+                return;
+            }
+            Totais anterior = totais.getAndSet(banco);
+            if (avisarDivergencia && anterior != null && !anterior.mesmasContagens(banco)) {
+                LOGGER.warn("Contadores do painel divergiam do banco e foram corrigidos: {} -> {}", anterior, banco);
+            }
+        }
+    }
+
+    /**
+     * Contribution of one product to the totals; {@code null} contributes nothing.
+     */
+    public static Totais contribuicao(Produto produto) {
+        if (produto == null) {
+            return Totais.ZERO;
+        }
+        boolean ativo = Boolean.TRUE.equals(produto.getAtivo());
+        long estoque = ativo && produto.getEstoque() != null ? produto.getEstoque() : 0;
+        BigDecimal valor = ativo && produto.getPreco() != null
+                ? produto.getPreco().multiply(BigDecimal.valueOf(estoque))
+                : BigDecimal.ZERO;
+        return new Totais(0, 1, ativo ? 1 : 0, estoque, valor, 0, 0, null);
+    }
+
+    /**
+     * Contribution of one post to the totals; {@code null} contributes nothing.
+     */
+    public static Totais contribuicao(Post post) {
+        if (post == null) {
+            return Totais.ZERO;
+        }
+        return new Totais(0, 0, 0, 0, BigDecimal.ZERO, 1, Boolean.TRUE.equals(post.getPublicado()) ? 1 : 0, null);
+    }
+
+    public void registrarUsuarios(long delta) {
+        registrar(new Totais(delta, 0, 0, 0, BigDecimal.ZERO, 0, 0, null));
+    }
+
+    /**
+     * Replaces the contribution {@code antes} with {@code depois} once the current transaction commits.
+     */
+    public void registrar(Totais antes, Totais depois) {
+        registrar(depois.menos(antes));
+    }
+
+    private void registrar(Totais delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicar(delta);
+            }
+        });
+    }
+
+    private synchronized void aplicar(Totais delta) {
+        deltasAplicados.incrementAndGet();
+        totais.updateAndGet(atual -> atual != null ? atual.mais(delta) : null);
+    }
+
+    /**
+     * Immutable set of totals. Also used as a delta, in which case the counts may be negative.
+     */
+    public record Totais(long usuarios, long produtos, long produtosAtivos, long unidadesEmEstoque,
+                         BigDecimal valorCatalogo, long posts, long postsPublicados, Instant reconciliadoEm) {
+
+        static final Totais ZERO = new Totais(0, 0, 0, 0, BigDecimal.ZERO, 0, 0, null);
+
+        Totais mais(Totais outro) {
+            return new Totais(usuarios + outro.usuarios, produtos + outro.produtos,
+                    produtosAtivos + outro.produtosAtivos, unidadesEmEstoque + outro.unidadesEmEstoque,
+                    valorCatalogo.add(outro.valorCatalogo), posts + outro.posts,
+                    postsPublicados + outro.postsPublicados, reconciliadoEm);
+        }
+
+        Totais menos(Totais outro) {
+            return new Totais(usuarios - outro.usuarios, produtos - outro.produtos,
+                    produtosAtivos - outro.produtosAtivos, unidadesEmEstoque - outro.unidadesEmEstoque,
+                    valorCatalogo.subtract(outro.valorCatalogo), posts - outro.posts,
+                    postsPublicados - outro.postsPublicados, reconciliadoEm);
+        }
+
+        boolean mesmasContagens(Totais outro) {
+            return usuarios == outro.usuarios && produtos == outro.produtos
+                    && produtosAtivos == outro.produtosAtivos && unidadesEmEstoque == outro.unidadesEmEstoque
+                    && valorCatalogo.compareTo(outro.valorCatalogo) == 0
+                    && posts == outro.posts && postsPublicados == outro.postsPublicados;
+        }
+
+        AdminSummaryDTO toDto() {
+            return new AdminSummaryDTO(usuarios, produtos, produtosAtivos, produtos - produtosAtivos,
+                    unidadesEmEstoque, valorCatalogo, posts, postsPublicados, posts - postsPublicados,
+                    reconciliadoEm);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.catalogo.ColunasPosts;
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.dto.ItemRankingDTO;
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.dto.TendenciasDTO;
+import br.com.sorocaba.vitrine.model.TipoVisualizacao;
+import br.com.sorocaba.vitrine.visualizacao.JanelaTendencias;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class for the "trending now" rails
+ * Feeds recent views into fixed-size sliding windows and republishes the top products and posts
+ * on a schedule, so a request only copies an already built list
+ */
+@Service
+@RequiredArgsConstructor
+public class TendenciaService {
+
+    private final JanelaTendencias tendenciasProdutos;
+    private final JanelaTendencias tendenciasPosts;
+    private final CatalogoLeituraService catalogoLeituraService;
+
+    @Value("${app.tendencias.tamanho:20}")
+    private int tamanho;
+
+    private volatile TendenciasDTO atuais = new TendenciasDTO(List.of(), List.of(), LocalDateTime.now());
+
+    public void registrar(TipoVisualizacao tipo, long id) {
+        (tipo == TipoVisualizacao.PRODUTO ? tendenciasProdutos : tendenciasPosts).registrar(id);
+    }
+
+    public TendenciasDTO tendencias(int limite) {
+        TendenciasDTO publicadas = atuais;
+        if (limite <= 0 || limite >= tamanho) {
+            return publicadas;
+        }
+        return new TendenciasDTO(primeiros(publicadas.getProdutos(), limite), primeiros(publicadas.getPosts(), limite),
+                publicadas.getAtualizadoEm());
+    }
+
+    /**
+     * Asks the windows for twice the rail size, leaving room for ids that have left the catalog.
+     */
+    @Scheduled(fixedDelayString = "${app.tendencias.atualizacao:PT5S}")
+    public void atualizar() {
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        List<ItemRankingDTO<ProdutoDTO>> rankingProdutos = new ArrayList<>(tamanho);
+        for (JanelaTendencias.Posicao posicao : tendenciasProdutos.calcular(tamanho * 2)) {
+            int indice = produtos.indiceDe(posicao.id());
+            if (indice >= 0 && rankingProdutos.size() < tamanho) {
+                rankingProdutos.add(new ItemRankingDTO<>(produtos.dto(indice), Math.round(posicao.pontos())));
+            }
+        }
+        ColunasPosts posts = catalogoLeituraService.posts();
+        List<ItemRankingDTO<PostDTO>> rankingPosts = new ArrayList<>(tamanho);
+        for (JanelaTendencias.Posicao posicao : tendenciasPosts.calcular(tamanho * 2)) {
+            int indice = posts.indiceDe(posicao.id());
+            if (indice >= 0 && rankingPosts.size() < tamanho) {
+                rankingPosts.add(new ItemRankingDTO<>(posts.dto(indice), Math.round(posicao.pontos())));
+            }
+        }
+        atuais = new TendenciasDTO(List.copyOf(rankingProdutos), List.copyOf(rankingPosts), LocalDateTime.now());
+    }
+
+    private static <T> List<T> primeiros(List<T> itens, int limite) {
+        return itens.subList(0, Math.min(limite, itens.size()));
+    }
+}
@@ -0,0 +1,199 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.catalogo.ColunasPosts;
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.dto.AlteracoesDTO;
+import br.com.sorocaba.vitrine.dto.EventoAlteracoesDTO;
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.exception.InvalidCursorException;
+import br.com.sorocaba.vitrine.sse.CentralSse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for the change event stream
+ * Pushes what changed in the public catalog and blog to the open /api/stream connections,
+ * at most one event per interval, however many writes landed in it
+ *
+ * The in-memory snapshots only move once the write that changes them has committed, so comparing
+ * their versions with the last ones sent is enough to find the changes, and a burst of admin edits
+ * reaches the clients as one event. The event id holds the sync token of each kind, which is how a
+ * reconnecting client's Last-Event-ID is brought up to date.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransmissaoAlteracoesService {
+
+    static final String EVENTO = "alteracoes";
+    private static final String SEPARADOR = ".";
+
+    private final CentralSse centralSse;
+    private final CatalogoLeituraService catalogoLeituraService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.sse.maximo-itens:200}")
+    private int maximoItens;
+
+    @Value("${app.sse.reconexao:3s}")
+    private Duration reconexao;
+
+    // Publishing and connecting take it, so a resumed stream picks up exactly where the next event starts
+    private final ReentrantLock publicacao = new ReentrantLock();
+    // Versions of the last event, guarded by the publicacao lock
+    private boolean iniciado;
+    private long produtosEnviados;
+    private long postsEnviados;
+
+    /**
+     * Publishes one event with the changes since the previous one, if there are any.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.intervalo:PT0.5S}")
+    public void publicar() {
+        publicacao.lock();
+        try {
+            ColunasProdutos produtos = catalogoLeituraService.produtos();
+            ColunasPosts posts = catalogoLeituraService.posts();
+            if (!iniciado) {
+                marcar(produtos, posts);
+                return;
+            }
+            boolean produtosMudaram = produtos.ultimaVersao() != produtosEnviados;
+            boolean postsMudaram = posts.ultimaVersao() != postsEnviados;
+            if (!produtosMudaram && !postsMudaram) {
+                return;
+            }
+            EventoAlteracoesDTO evento = new EventoAlteracoesDTO(idEnviado(),
+                    produtosMudaram ? alteracoes(produtos, produtosEnviados) : null,
+                    postsMudaram ? alteracoes(posts, postsEnviados) : null);
+            marcar(produtos, posts);
+            centralSse.publicar(CentralSse.evento(idEnviado(), EVENTO, json(evento)));
+        } finally {
+            publicacao.unlock();
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and finds the clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.manter-viva:PT25S}")
+    public void manterVivas() {
+        centralSse.manterVivas();
+    }
+
+    /**
+     * Opens a stream on an async request whose slot was reserved in the hub. Given the Last-Event-ID
+     * of an earlier stream, the first event carries what changed since it; an id that cannot be
+     * followed gets a delta without items, telling the client to sync from /changes. Without one,
+     * the stream starts at the next event.
+     */
+    public void conectar(AsyncContext contexto, String ultimoId) throws IOException {
+        publicacao.lock();
+        try {
+            ColunasProdutos produtos = catalogoLeituraService.produtos();
+            ColunasPosts posts = catalogoLeituraService.posts();
+            if (!iniciado) {
+                marcar(produtos, posts);
+            }
+            String atual = idEnviado();
+            byte[] espera = CentralSse.reconexao(reconexao);
+            if (ultimoId == null || ultimoId.isBlank()) {
+                centralSse.abrir(contexto, espera, CentralSse.marco(atual));
+                return;
+            }
+            if (ultimoId.equals(atual)) {
+                centralSse.abrir(contexto, espera);
+                return;
+            }
+            long[] versoes = versoes(ultimoId);
+            EventoAlteracoesDTO evento = new EventoAlteracoesDTO(ultimoId,
+                    versoes[0] != produtosEnviados ? alteracoes(produtos, versoes[0]) : null,
+                    versoes[1] != postsEnviados ? alteracoes(posts, versoes[1]) : null);
+            centralSse.abrir(contexto, espera, CentralSse.evento(atual, EVENTO, json(evento)));
+        } finally {
+            publicacao.unlock();
+        }
+    }
+
+    private void marcar(ColunasProdutos produtos, ColunasPosts posts) {
+        produtosEnviados = produtos.ultimaVersao();
+        postsEnviados = posts.ultimaVersao();
+        iniciado = true;
+    }
+
+    private String idEnviado() {
+        return CursorCodec.codificarVersao(produtosEnviados) + SEPARADOR + CursorCodec.codificarVersao(postsEnviados);
+    }
+
+    /**
+     * Versions of an event id; an id this server did not issue gets versions no snapshot can follow.
+     */
+    private static long[] versoes(String id) {
+        int separador = id.indexOf(SEPARADOR);
+        if (separador > 0) {
+            try {
+                return new long[]{
+                        CursorCodec.decodificarVersao(id.substring(0, separador)),
+                        CursorCodec.decodificarVersao(id.substring(separador + 1))};
+            } catch (InvalidCursorException ex) {
+                // Falls through to the versions nobody can follow
+            }
+        }
+        return new long[]{Long.MIN_VALUE, Long.MIN_VALUE};
+    }
+
+    private AlteracoesDTO<ProdutoDTO> alteracoes(ColunasProdutos produtos, long desde) {
+        String token = CursorCodec.codificarVersao(produtos.ultimaVersao());
+        if (!produtos.acompanha(desde)) {
+            return new AlteracoesDTO<>(null, null, token, false);
+        }
+        int[] indices = produtos.alteradosApos(desde);
+        long[] removidos = produtos.removidosApos(desde);
+        if (indices.length + removidos.length > maximoItens) {
+            return new AlteracoesDTO<>(null, null, token, false);
+        }
+        List<ProdutoDTO> alterados = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            alterados.add(produtos.dto(indice));
+        }
+        return new AlteracoesDTO<>(alterados, Arrays.stream(removidos).boxed().toList(), token, false);
+    }
+
+    private AlteracoesDTO<PostDTO> alteracoes(ColunasPosts posts, long desde) {
+        String token = CursorCodec.codificarVersao(posts.ultimaVersao());
+        if (!posts.acompanha(desde)) {
+            return new AlteracoesDTO<>(null, null, token, false);
+        }
+        int[] indices = posts.alteradosApos(desde);
+        long[] removidos = posts.removidosApos(desde);
+        if (indices.length + removidos.length > maximoItens) {
+            return new AlteracoesDTO<>(null, null, token, false);
+        }
+        List<PostDTO> alterados = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            alterados.add(posts.dto(indice));
+        }
+        return new AlteracoesDTO<>(alterados, Arrays.stream(removidos).boxed().toList(), token, false);
+    }
+
+    private String json(EventoAlteracoesDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
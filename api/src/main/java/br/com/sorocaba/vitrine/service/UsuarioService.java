@@ -1,9 +1,11 @@
 package br.com.sorocaba.vitrine.service;
 
+import br.com.sorocaba.vitrine.event.UsuarioAlteradoEvent;
 import br.com.sorocaba.vitrine.exception.ResourceNotFoundException;
 import br.com.sorocaba.vitrine.model.Usuario;
 import br.com.sorocaba.vitrine.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +22,8 @@ public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ResumoAdminService resumoAdminService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<Usuario> listarTodos() {
@@ -44,18 +48,24 @@ public class UsuarioService {
         if (usuario.getSenha() != null && !usuario.getSenha().startsWith("$2a$")) {
             usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
         }
-        return usuarioRepository.save(usuario);
+        boolean novo = usuario.getId() == null;
+        Usuario salvo = usuarioRepository.save(usuario);
+        if (novo) {
+            resumoAdminService.registrarUsuarios(1);
+        }
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(salvo.getId(), false));
+        return salvo;
     }
 
     @Transactional
     public void deletar(Long id) {
-        usuarioRepository.deleteById(id);
+        usuarioRepository.findById(id).ifPresent(usuario -> {
+            usuarioRepository.delete(usuario);
+            resumoAdminService.registrarUsuarios(-1);
+        });
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(id, true));
     }
 
-    @Transactional(readOnly = true)
-    public long contarTodos() {
-        return usuarioRepository.count();
-    }
 
     @Transactional(readOnly = true)
     public boolean existePorEmail(String email) {
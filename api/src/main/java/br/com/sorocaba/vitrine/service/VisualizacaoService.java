@@ -0,0 +1,295 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.catalogo.ColunasPosts;
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.dto.ItemRankingDTO;
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.event.PostAlteradoEvent;
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
+import br.com.sorocaba.vitrine.model.TipoVisualizacao;
+import br.com.sorocaba.vitrine.visualizacao.RankingTopK;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service class for product and post view counters
+ * Counts views in memory and adds them to the visualizacoes table in one batched statement per flush,
+ * keeping the "most viewed" rankings up to date from the same flush
+ *
+ * A view costs one LongAdder increment, so reading a page never takes a database lock. Totals of
+ * every counted id are held in memory from startup on, which is what lets the rankings be served
+ * without a query; they trail the pages by at most one flush interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class VisualizacaoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VisualizacaoService.class);
+
+    static final String ACUMULO = "MERGE INTO visualizacoes v "
+            + "USING (VALUES (CAST(? AS VARCHAR(16)), CAST(? AS BIGINT), CAST(? AS BIGINT))) "
+            + "AS d(tipo, referencia_id, quantidade) "
+            + "ON v.tipo = d.tipo AND v.referencia_id = d.referencia_id "
+            + "WHEN MATCHED THEN UPDATE SET total = v.total + d.quantidade "
+            + "WHEN NOT MATCHED THEN INSERT (tipo, referencia_id, total) VALUES (d.tipo, d.referencia_id, d.quantidade)";
+    private static final String LEITURA = "SELECT tipo, referencia_id, total FROM visualizacoes";
+    private static final String REMOCAO = "DELETE FROM visualizacoes WHERE tipo = ? AND referencia_id = ?";
+    private static final int LIMITE_PADRAO = 10;
+    private static final RankingTopK VAZIO = new RankingTopK(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LimitadorBanco limitadorBanco;
+    private final CatalogoLeituraService catalogoLeituraService;
+
+    @Value("${app.visualizacoes.ranking:100}")
+    private int tamanhoRanking;
+
+    private final Map<TipoVisualizacao, Contadores> contadores = new EnumMap<>(Map.of(
+            TipoVisualizacao.PRODUTO, new Contadores(),
+            TipoVisualizacao.POST, new Contadores()));
+    // Flushes, removals and the startup load all move the in-memory totals
+    private final ReentrantLock gravacao = new ReentrantLock();
+    private volatile boolean carregado;
+
+    private final LongAdder registradas = new LongAdder();
+    private final LongAdder gravadas = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+
+    /**
+     * Counts one view of a public product or post; ids that are not in the public catalog are ignored,
+     * so the counters can only grow as large as the catalog itself.
+     *
+     * @return whether the view was counted
+     */
+    public boolean registrar(TipoVisualizacao tipo, long id) {
+        boolean publico = tipo == TipoVisualizacao.PRODUTO
+                ? catalogoLeituraService.produtos().indiceDe(id) >= 0
+                : catalogoLeituraService.posts().indiceDe(id) >= 0;
+        if (!publico) {
+            return false;
+        }
+        Map<Long, LongAdder> pendentes = contadores.get(tipo).pendentes;
+        LongAdder contador = pendentes.get(id);
+        if (contador == null) {
+            contador = pendentes.computeIfAbsent(id, chave -> new LongAdder());
+        }
+        contador.increment();
+        registradas.increment();
+        return true;
+    }
+
+    /**
+     * Best first; products that have left the public catalog are skipped.
+     */
+    public List<ItemRankingDTO<ProdutoDTO>> maisVistos(int limite) {
+        int tamanho = normalizarLimite(limite);
+        ColunasProdutos produtos = catalogoLeituraService.produtos();
+        List<ItemRankingDTO<ProdutoDTO>> itens = new ArrayList<>(tamanho);
+        for (RankingTopK.Posicao posicao : contadores.get(TipoVisualizacao.PRODUTO).ranking().primeiros()) {
+            int indice = produtos.indiceDe(posicao.id());
+            if (indice >= 0) {
+                itens.add(new ItemRankingDTO<>(produtos.dto(indice), posicao.total()));
+                if (itens.size() == tamanho) {
+                    break;
+                }
+            }
+        }
+        return itens;
+    }
+
+    public List<ItemRankingDTO<PostDTO>> maisLidos(int limite) {
+        int tamanho = normalizarLimite(limite);
+        ColunasPosts posts = catalogoLeituraService.posts();
+        List<ItemRankingDTO<PostDTO>> itens = new ArrayList<>(tamanho);
+        for (RankingTopK.Posicao posicao : contadores.get(TipoVisualizacao.POST).ranking().primeiros()) {
+            int indice = posts.indiceDe(posicao.id());
+            if (indice >= 0) {
+                itens.add(new ItemRankingDTO<>(posts.dto(indice), posicao.total()));
+                if (itens.size() == tamanho) {
+                    break;
+                }
+            }
+        }
+        return itens;
+    }
+
+    public Estatisticas estatisticas() {
+        long pendentes = 0;
+        for (Contadores c : contadores.values()) {
+            for (LongAdder contador : c.pendentes.values()) {
+                pendentes += contador.sum();
+            }
+        }
+        return new Estatisticas(pendentes, registradas.sum(), gravadas.sum(), lotes.sum());
+    }
+
+    /**
+     * Reads every stored total once. Views counted before this finishes wait in their counters,
+     * since no flush runs until the totals are loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        gravacao.lock();
+        try {
+            Map<TipoVisualizacao, Map<Long, Long>> lidos = new EnumMap<>(TipoVisualizacao.class);
+            limitadorBanco.adquirir();
+            try {
+                jdbcTemplate.query(LEITURA, rs -> {
+                    lidos.computeIfAbsent(TipoVisualizacao.valueOf(rs.getString(1)), tipo -> new HashMap<>())
+                            .put(rs.getLong(2), rs.getLong(3));
+                });
+            } finally {
+                limitadorBanco.liberar();
+            }
+            contadores.forEach((tipo, c) -> {
+                c.totais.clear();
+                c.totais.putAll(lidos.getOrDefault(tipo, Map.of()));
+                RankingTopK ranking = new RankingTopK(tamanhoRanking);
+                ranking.atualizar(c.totais);
+                c.ranking = ranking;
+            });
+            carregado = true;
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    /**
+     * Adds every counter's views since the last flush to its row, all in one JDBC batch and one
+     * transaction; if the batch fails, the views go back into the counters for the next attempt.
+     */
+    @Scheduled(fixedDelayString = "${app.visualizacoes.persistencia:PT10S}")
+    public void persistir() {
+        if (!carregado) {
+            return;
+        }
+        gravacao.lock();
+        try {
+            // The permit is taken before draining, so a busy database leaves the views in their counters
+            List<Acumulo> lote = new ArrayList<>();
+            limitadorBanco.adquirir();
+            try {
+                contadores.forEach((tipo, c) -> c.pendentes.forEach((id, contador) -> {
+                    long quantidade = contador.sumThenReset();
+                    if (quantidade > 0) {
+                        lote.add(new Acumulo(tipo, id, contador, quantidade));
+                    }
+                }));
+                if (lote.isEmpty()) {
+                    return;
+                }
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(ACUMULO, lote, lote.size(), (ps, acumulo) -> {
+                            ps.setString(1, acumulo.tipo().name());
+                            ps.setLong(2, acumulo.id());
+                            ps.setLong(3, acumulo.quantidade());
+                        }));
+            } catch (DataAccessException ex) {
+                lote.forEach(acumulo -> acumulo.contador().add(acumulo.quantidade()));
+                LOGGER.warn("Gravação de {} contador(es) de visualização adiada: {}", lote.size(), ex.getMessage());
+                return;
+            } finally {
+                limitadorBanco.liberar();
+            }
+
+            Map<TipoVisualizacao, Map<Long, Long>> alterados = new EnumMap<>(TipoVisualizacao.class);
+            for (Acumulo acumulo : lote) {
+                long total = contadores.get(acumulo.tipo()).totais.merge(acumulo.id(), acumulo.quantidade(), Long::sum);
+                alterados.computeIfAbsent(acumulo.tipo(), tipo -> new HashMap<>()).put(acumulo.id(), total);
+                gravadas.add(acumulo.quantidade());
+            }
+            alterados.forEach((tipo, totais) -> contadores.get(tipo).ranking().atualizar(totais));
+            lotes.increment();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        if (event.removido()) {
+            remover(TipoVisualizacao.PRODUTO, event.id());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostAlterado(PostAlteradoEvent event) {
+        if (event.removido()) {
+            remover(TipoVisualizacao.POST, event.id());
+        }
+    }
+
+    /**
+     * A deleted product or post leaves the counters, the table and the ranking, whose gap is then
+     * filled from the remaining totals.
+     */
+    private void remover(TipoVisualizacao tipo, long id) {
+        Contadores c = contadores.get(tipo);
+        gravacao.lock();
+        try {
+            c.pendentes.remove(id);
+            if (c.totais.remove(id) == null) {
+                return;
+            }
+            limitadorBanco.adquirir();
+            try {
+                jdbcTemplate.update(REMOCAO, tipo.name(), id);
+            } finally {
+                limitadorBanco.liberar();
+            }
+            c.ranking().reconstruir(c.totais);
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    private int normalizarLimite(int limite) {
+        if (limite <= 0) {
+            return LIMITE_PADRAO;
+        }
+        return Math.min(limite, tamanhoRanking);
+    }
+
+    private static final class Contadores {
+        // Views since the last flush; an id's adder is only dropped when the id is deleted,
+        // so no increment of a live page can land on a dropped one
+        final Map<Long, LongAdder> pendentes = new ConcurrentHashMap<>();
+        // Stored total per id, guarded by the gravacao lock
+        final Map<Long, Long> totais = new HashMap<>();
+        volatile RankingTopK ranking;
+
+        RankingTopK ranking() {
+            RankingTopK atual = ranking;
+            return atual != null ? atual : VAZIO;
+        }
+    }
+
+    private record Acumulo(TipoVisualizacao tipo, long id, LongAdder contador, long quantidade) {}
+
+    /**
+     * Views waiting for the next flush, views counted and written since startup, and flushes that wrote something.
+     */
+    public record Estatisticas(long pendentes, long registradas, long gravadas, long lotes) {}
+}
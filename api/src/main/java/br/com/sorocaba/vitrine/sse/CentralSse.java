@@ -0,0 +1,164 @@
+package br.com.sorocaba.vitrine.sse;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The open Server-Sent Events streams, and the fan-out of frames to them.
+ *
+ * Each stream is an async request with a non-blocking writer, so an idle one holds a socket and a
+ * small queue but no thread. Frames are formatted once and the same bytes go to every stream.
+ * The number of streams is capped; past it, new ones are refused.
+ */
+public final class CentralSse {
+
+    private static final byte[] COMENTARIO = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Set<ConexaoSse> conexoes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger abertas = new AtomicInteger();
+    private final int maximoConexoes;
+    private final int capacidadeFila;
+    private final long duracaoMaxima;
+
+    private final LongAdder aceitas = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder publicados = new LongAdder();
+    // Frames dropped by connections that have since closed; the open ones report their own
+    private final LongAdder descartadosFechadas = new LongAdder();
+
+    public CentralSse(int maximoConexoes, int capacidadeFila, Duration duracaoMaxima) {
+        this.maximoConexoes = maximoConexoes;
+        this.capacidadeFila = capacidadeFila;
+        this.duracaoMaxima = duracaoMaxima.toMillis();
+    }
+
+    /**
+     * Takes a slot for a new stream; every true must be followed by {@link #abrir} or {@link #liberar}.
+     */
+    public boolean reservar() {
+        int atual;
+        do {
+            atual = abertas.get();
+            if (atual >= maximoConexoes) {
+                recusadas.increment();
+                return false;
+            }
+        } while (!abertas.compareAndSet(atual, atual + 1));
+        return true;
+    }
+
+    public void liberar() {
+        abertas.decrementAndGet();
+    }
+
+    /**
+     * Turns the reserved slot into a stream on an already started async request: the given frames are
+     * queued ahead of anything published afterwards, and the stream ends by itself after the
+     * configured maximum duration, leaving the client to reconnect. When this throws, the slot is
+     * still the caller's to release.
+     */
+    public void abrir(AsyncContext contexto, byte[]... primeirosFrames) throws IOException {
+        ServletOutputStream saida = contexto.getResponse().getOutputStream();
+        ConexaoSse conexao = new ConexaoSse(contexto, saida, capacidadeFila, this::fechada);
+        for (byte[] frame : primeirosFrames) {
+            conexao.enfileirar(frame);
+        }
+        contexto.setTimeout(duracaoMaxima);
+        contexto.addListener(conexao);
+        conexoes.add(conexao);
+        aceitas.increment();
+        try {
+            // The container calls onWritePossible as soon as the listener is set
+            saida.setWriteListener(conexao);
+        } catch (IllegalStateException ex) {
+            conexao.fechar();
+        }
+        // Closed before it was added, so fechada() found nothing to remove
+        if (!conexao.aberta()) {
+            conexoes.remove(conexao);
+        }
+    }
+
+    /**
+     * Queues the frame on every open stream.
+     */
+    public void publicar(byte[] frame) {
+        for (ConexaoSse conexao : conexoes) {
+            conexao.enviar(frame);
+        }
+        publicados.increment();
+    }
+
+    /**
+     * A comment on every stream that has nothing queued, so proxies keep idle streams open and
+     * clients that went away are noticed on the write.
+     */
+    public void manterVivas() {
+        for (ConexaoSse conexao : conexoes) {
+            conexao.enviarSeOciosa(COMENTARIO);
+        }
+    }
+
+    /**
+     * Ends every stream, as on shutdown; clients reconnect elsewhere with their Last-Event-ID.
+     */
+    public void fecharTodas() {
+        conexoes.forEach(ConexaoSse::fechar);
+    }
+
+    public Estatisticas estatisticas() {
+        long descartados = descartadosFechadas.sum();
+        for (ConexaoSse conexao : conexoes) {
+            descartados += conexao.descartados();
+        }
+        return new Estatisticas(conexoes.size(), aceitas.sum(), recusadas.sum(), publicados.sum(), descartados);
+    }
+
+    /**
+     * One event frame; {@code dados} must not contain line breaks, which compact JSON never does.
+     */
+    public static byte[] evento(String id, String tipo, String dados) {
+        StringBuilder frame = new StringBuilder(dados.length() + 64);
+        if (id != null) {
+            frame.append("id: ").append(id).append('\n');
+        }
+        frame.append("event: ").append(tipo).append('\n');
+        frame.append("data: ").append(dados).append("\n\n");
+        return frame.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A frame that only moves the client's last event id, without dispatching an event.
+     */
+    public static byte[] marco(String id) {
+        return ("id: " + id + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A frame that sets how long the client waits before reconnecting.
+     */
+    public static byte[] reconexao(Duration espera) {
+        return ("retry: " + espera.toMillis() + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void fechada(ConexaoSse conexao) {
+        if (conexoes.remove(conexao)) {
+            descartadosFechadas.add(conexao.descartados());
+        }
+        abertas.decrementAndGet();
+    }
+
+    /**
+     * Open streams, streams accepted and refused since startup, frames published and frames dropped
+     * for slow clients.
+     */
+    public record Estatisticas(int abertas, long aceitas, long recusadas, long publicados, long descartados) {}
+}
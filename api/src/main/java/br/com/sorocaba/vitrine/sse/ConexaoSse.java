@@ -0,0 +1,181 @@
+package br.com.sorocaba.vitrine.sse;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One open event stream, written with servlet non-blocking IO.
+ *
+ * Frames wait in a bounded queue; when a slow client lets it fill, the oldest frame is dropped for
+ * the new one, so a connection never holds more than {@code capacidade} frames. Writing only happens
+ * while the output stream is ready, so no thread ever waits on the client: publishers and the
+ * container's onWritePossible callback both just ask for a drain, and whichever gets there first
+ * writes everything the others asked for.
+ */
+final class ConexaoSse implements WriteListener, AsyncListener {
+
+    private final AsyncContext contexto;
+    private final ServletOutputStream saida;
+    private final int capacidade;
+    private final Consumer<ConexaoSse> aoFechar;
+
+    // Guarded by itself
+    private final ArrayDeque<byte[]> fila;
+    // Drain requests not yet served; only the caller that moves it from 0 writes
+    private final AtomicInteger pedidos = new AtomicInteger();
+    private final AtomicBoolean fechada = new AtomicBoolean();
+    // Only touched by the draining thread
+    private boolean escreveuSemFlush;
+    private volatile long descartados;
+
+    ConexaoSse(AsyncContext contexto, ServletOutputStream saida, int capacidade, Consumer<ConexaoSse> aoFechar) {
+        this.contexto = contexto;
+        this.saida = saida;
+        this.capacidade = capacidade;
+        this.aoFechar = aoFechar;
+        this.fila = new ArrayDeque<>(capacidade);
+    }
+
+    /**
+     * Queues the frame, dropping the oldest one when the queue is full, and writes what the client can take.
+     *
+     * @return false when the connection is already closed
+     */
+    boolean enviar(byte[] frame) {
+        if (!enfileirar(frame)) {
+            return false;
+        }
+        drenar();
+        return true;
+    }
+
+    /**
+     * Queues the frame without writing, for the first frame, before the write listener is set.
+     */
+    boolean enfileirar(byte[] frame) {
+        if (fechada.get()) {
+            return false;
+        }
+        synchronized (fila) {
+            if (fila.size() == capacidade) {
+                fila.pollFirst();
+                descartados++;
+            }
+            fila.addLast(frame);
+        }
+        return true;
+    }
+
+    /**
+     * Queues the frame only when nothing else is waiting: a connection that is already behind gets
+     * no keep-alive on top.
+     */
+    void enviarSeOciosa(byte[] frame) {
+        synchronized (fila) {
+            if (!fila.isEmpty()) {
+                return;
+            }
+        }
+        enviar(frame);
+    }
+
+    long descartados() {
+        return descartados;
+    }
+
+    boolean aberta() {
+        return !fechada.get();
+    }
+
+    void fechar() {
+        if (fechada.compareAndSet(false, true)) {
+            synchronized (fila) {
+                fila.clear();
+            }
+            try {
+                contexto.complete();
+            } catch (IllegalStateException ex) {
+                // Already completed by the container
+            }
+            aoFechar.accept(this);
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        drenar();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        fechar();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        fechar();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        // The client reconnects with its Last-Event-ID
+        fechar();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        fechar();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void drenar() {
+        if (pedidos.getAndIncrement() != 0) {
+            return;
+        }
+        int atendidos = 1;
+        do {
+            try {
+                escreverEnquantoPronta();
+            } catch (IOException | RuntimeException ex) {
+                // Client gone, or the container already completed the request
+                fechar();
+            }
+            atendidos = pedidos.addAndGet(-atendidos);
+        } while (atendidos != 0);
+    }
+
+    /**
+     * Stops as soon as isReady() says no; the container then calls onWritePossible once the client
+     * has taken what was written.
+     */
+    private void escreverEnquantoPronta() throws IOException {
+        while (!fechada.get() && saida.isReady()) {
+            byte[] frame;
+            synchronized (fila) {
+                frame = fila.pollFirst();
+            }
+            if (frame == null) {
+                if (escreveuSemFlush) {
+                    escreveuSemFlush = false;
+                    saida.flush();
+                    continue;
+                }
+                return;
+            }
+            saida.write(frame);
+            escreveuSemFlush = true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.sorocaba.vitrine.visualizacao;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving summary: approximate counts of the most frequent ids of a stream in a fixed number
+ * of counters, however many distinct ids the stream carries.
+ *
+ * A new id takes over the smallest counter and inherits its count, so a count can only be too high,
+ * by at most that inherited error, and any id seen more than {@code total / capacidade} times is
+ * guaranteed to hold a counter. The counters are kept in an indexed min-heap, so every update is
+ * O(log capacidade). Not thread-safe.
+ */
+final class ContagemFrequentes {
+
+    private final int capacidade;
+    // Heap order by contagens, smallest at 0
+    private final long[] ids;
+    private final long[] contagens;
+    private final long[] erros;
+    private final Map<Long, Integer> posicoes;
+    private int tamanho;
+
+    ContagemFrequentes(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva");
+        }
+        this.capacidade = capacidade;
+        this.ids = new long[capacidade];
+        this.contagens = new long[capacidade];
+        this.erros = new long[capacidade];
+        this.posicoes = new HashMap<>(capacidade * 4 / 3 + 1);
+    }
+
+    void incrementar(long id) {
+        Integer posicao = posicoes.get(id);
+        if (posicao != null) {
+            contagens[posicao]++;
+            descer(posicao);
+        } else if (tamanho < capacidade) {
+            int nova = tamanho++;
+            colocar(nova, id, 1, 0);
+            subir(nova);
+        } else {
+            long minimo = contagens[0];
+            posicoes.remove(ids[0]);
+            colocar(0, id, minimo + 1, minimo);
+            descer(0);
+        }
+    }
+
+    void limpar() {
+        posicoes.clear();
+        tamanho = 0;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Copies each id with its guaranteed count, the count minus what it may have inherited from
+     * evicted ids; returns how many were copied.
+     */
+    int copiar(long[] destinoIds, long[] destinoContagens) {
+        System.arraycopy(ids, 0, destinoIds, 0, tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            destinoContagens[i] = contagens[i] - erros[i];
+        }
+        return tamanho;
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (contagens[pai] <= contagens[i]) {
+                return;
+            }
+            trocar(i, pai);
+            i = pai;
+        }
+    }
+
+    private void descer(int i) {
+        while (true) {
+            int menor = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && contagens[esquerda] < contagens[menor]) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && contagens[direita] < contagens[menor]) {
+                menor = direita;
+            }
+            if (menor == i) {
+                return;
+            }
+            trocar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        long id = ids[a];
+        long contagem = contagens[a];
+        long erro = erros[a];
+        colocar(a, ids[b], contagens[b], erros[b]);
+        colocar(b, id, contagem, erro);
+    }
+
+    private void colocar(int i, long id, long contagem, long erro) {
+        ids[i] = id;
+        contagens[i] = contagem;
+        erros[i] = erro;
+        posicoes.put(id, i);
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.sorocaba.vitrine.visualizacao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Trending ids over a sliding window.
+ *
+ * The window is cut into buckets of equal length, each with its own {@link ContagemFrequentes}, and
+ * a bucket's counts weigh half as much every {@code meiaVida} of age. Memory is fixed at
+ * buckets × capacity counters whatever the traffic. A bucket that has fallen out of the window is
+ * cleared by the first view that lands on it again, so nothing has to rotate them on a schedule.
+ * Views lock only their own bucket.
+ */
+public final class JanelaTendencias {
+
+    private final Balde[] baldes;
+    private final long duracaoBalde;
+    private final double pesoPorBalde;
+    private final int capacidade;
+    private final LongSupplier relogio;
+
+    public JanelaTendencias(Duration janela, int quantidadeBaldes, Duration meiaVida, int capacidade) {
+        this(janela, quantidadeBaldes, meiaVida, capacidade, System::currentTimeMillis);
+    }
+
+    JanelaTendencias(Duration janela, int quantidadeBaldes, Duration meiaVida, int capacidade, LongSupplier relogio) {
+        if (quantidadeBaldes <= 0 || janela.toMillis() < quantidadeBaldes) {
+            throw new IllegalArgumentException("Janela deve ter ao menos 1 ms por balde");
+        }
+        this.duracaoBalde = janela.toMillis() / quantidadeBaldes;
+        this.pesoPorBalde = Math.pow(0.5, (double) duracaoBalde / meiaVida.toMillis());
+        this.capacidade = capacidade;
+        this.relogio = relogio;
+        this.baldes = new Balde[quantidadeBaldes];
+        for (int i = 0; i < quantidadeBaldes; i++) {
+            baldes[i] = new Balde(new ContagemFrequentes(capacidade));
+        }
+    }
+
+    public void registrar(long id) {
+        long epoca = relogio.getAsLong() / duracaoBalde;
+        Balde balde = baldes[(int) Math.floorMod(epoca, baldes.length)];
+        synchronized (balde) {
+            if (balde.epoca != epoca) {
+                balde.resumo.limpar();
+                balde.epoca = epoca;
+            }
+            balde.resumo.incrementar(id);
+        }
+    }
+
+    /**
+     * The {@code quantidade} ids with the highest decayed counts, best first.
+     */
+    public List<Posicao> calcular(int quantidade) {
+        long atual = relogio.getAsLong() / duracaoBalde;
+        long[] ids = new long[capacidade];
+        long[] contagens = new long[capacidade];
+        Map<Long, Double> pontos = new HashMap<>();
+        for (Balde balde : baldes) {
+            int copiados;
+            long idade;
+            // Copied under the lock, summed outside it, so views are held up only for the copy
+            synchronized (balde) {
+                idade = atual - balde.epoca;
+                copiados = idade >= 0 && idade < baldes.length ? balde.resumo.copiar(ids, contagens) : 0;
+            }
+            double peso = Math.pow(pesoPorBalde, idade);
+            for (int i = 0; i < copiados; i++) {
+                if (contagens[i] > 0) {
+                    pontos.merge(ids[i], contagens[i] * peso, Double::sum);
+                }
+            }
+        }
+
+        Comparator<Posicao> doMelhor = Comparator.comparingDouble(Posicao::pontos).reversed()
+                .thenComparingLong(Posicao::id);
+        PriorityQueue<Posicao> melhores = new PriorityQueue<>(quantidade + 1, doMelhor.reversed());
+        pontos.forEach((id, valor) -> {
+            melhores.add(new Posicao(id, valor));
+            if (melhores.size() > quantidade) {
+                melhores.poll();
+            }
+        });
+        List<Posicao> resultado = new ArrayList<>(melhores);
+        resultado.sort(doMelhor);
+        return resultado;
+    }
+
+    public record Posicao(long id, double pontos) {}
+
+    private static final class Balde {
+        final ContagemFrequentes resumo;
+        long epoca = -1;
+
+        Balde(ContagemFrequentes resumo) {
+            this.resumo = resumo;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.sorocaba.vitrine.visualizacao;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The K ids with the highest totals, for totals that only grow.
+ *
+ * Because a total never shrinks, an id outside the ranking can only get in by passing the weakest
+ * member, so each update costs O(log K) no matter how many ids are counted. Writers are serialized;
+ * readers get an immutable list, published once per {@link #atualizar} call, without locking.
+ * Ties go to the lower id.
+ */
+public final class RankingTopK {
+
+    // Weakest first, so TreeSet.first() is the member to evict
+    private static final Comparator<Posicao> DO_MAIS_FRACO = Comparator.comparingLong(Posicao::total)
+            .thenComparing(Comparator.comparingLong(Posicao::id).reversed());
+
+    private final int capacidade;
+    private final Map<Long, Long> membros = new HashMap<>();
+    private final TreeSet<Posicao> ordem = new TreeSet<>(DO_MAIS_FRACO);
+    private volatile List<Posicao> primeiros = List.of();
+
+    public RankingTopK(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva");
+        }
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Offers the new totals of the given ids and publishes the resulting ranking.
+     */
+    public synchronized void atualizar(Map<Long, Long> totais) {
+        totais.forEach(this::oferecer);
+        publicar();
+    }
+
+    /**
+     * Starts over from every total; for when an id leaves and the next best must be found.
+     */
+    public synchronized void reconstruir(Map<Long, Long> totais) {
+        membros.clear();
+        ordem.clear();
+        atualizar(totais);
+    }
+
+    /**
+     * Best first; at most {@code capacidade} entries.
+     */
+    public List<Posicao> primeiros() {
+        return primeiros;
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+
+    private void oferecer(long id, long total) {
+        Long atual = membros.get(id);
+        Posicao nova = new Posicao(id, total);
+        if (atual != null) {
+            if (total <= atual) {
+                return;
+            }
+            ordem.remove(new Posicao(id, atual));
+        } else if (membros.size() >= capacidade) {
+            Posicao maisFraca = ordem.first();
+            if (DO_MAIS_FRACO.compare(nova, maisFraca) <= 0) {
+                return;
+            }
+            ordem.pollFirst();
+            membros.remove(maisFraca.id());
+        }
+        membros.put(id, total);
+        ordem.add(nova);
+    }
+
+    private void publicar() {
+        primeiros = List.copyOf(ordem.descendingSet());
+    }
+
+    public record Posicao(long id, long total) {}
+}
@@ -0,0 +1,55 @@
+package br.com.sorocaba.vitrine.web;
+
+import br.com.sorocaba.vitrine.exception.RestExceptionHandler;
+import br.com.sorocaba.vitrine.limite.LimitadorTaxa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers 429 with Retry-After, in the API's error format, to requests over their client's or the
+ * global budget. Clients are told apart by remote address.
+ */
+public class LimiteTaxaFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private final LimitadorTaxa limitador;
+    private final byte[] corpoRecusa;
+
+    public LimiteTaxaFilter(LimitadorTaxa limitador, ObjectMapper objectMapper) throws IOException {
+        this.limitador = limitador;
+        this.corpoRecusa = objectMapper.writeValueAsBytes(
+                new RestExceptionHandler.ApiError("Muitas requisições. Tente novamente em instantes."));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Decoded and without path parameters, so /api/produt%6Fs cannot dodge the /api/produtos budget
+        String caminho = request.getPathInfo() != null
+                ? request.getServletPath() + request.getPathInfo()
+                : request.getServletPath();
+        long espera = limitador.tentar(request.getMethod(), caminho, request.getRemoteAddr());
+        if (espera == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((espera + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(corpoRecusa.length);
+        response.getOutputStream().write(corpoRecusa);
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.sorocaba.vitrine.web;
+
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.cache.PaginaRenderizada;
+import br.com.sorocaba.vitrine.controller.api.SnapshotResponses;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves anonymous GETs of the public storefront and blog pages from fully rendered HTML.
+ *
+ * Runs after the Spring Security chain. A request is only cached or served from cache when
+ * it has no principal, no session, no Authorization header and no query string; a rendered
+ * page is only stored when it is a plain 200 text/html that created no session, set no cookie
+ * and carries no CSRF token.
+ *
+ * A page stored with an ETag keeps it, so a hit revalidates like the controller would have:
+ * a matching conditional request gets a 304 without any body.
+ */
+public class PaginaCacheFilter extends OncePerRequestFilter {
+
+    private static final byte[] MARCADOR_CSRF = "_csrf".getBytes(StandardCharsets.US_ASCII);
+
+    private final NearCache<String, PaginaRenderizada> cache;
+
+    public PaginaCacheFilter(NearCache<String, PaginaRenderizada> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || request.getQueryString() != null
+                || request.getHeader(HttpHeaders.AUTHORIZATION) != null
+                || request.getUserPrincipal() != null
+                || request.getSession(false) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String chave = request.getRequestURI();
+        PaginaRenderizada pagina = cache.obterSePresente(chave);
+        if (pagina != null) {
+            escrever(pagina, request, response);
+            return;
+        }
+
+        long geracao = cache.geracao();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        byte[] corpo = wrapper.getContentAsByteArray();
+        if (cacheavel(request, wrapper, corpo)) {
+            String etag = wrapper.getHeader(HttpHeaders.ETAG);
+            String ultimaModificacao = wrapper.getHeader(HttpHeaders.LAST_MODIFIED);
+            cache.colocar(chave, new PaginaRenderizada(corpo, gzip(corpo), wrapper.getContentType(), etag,
+                    ultimaModificacao != null ? data(ultimaModificacao) : -1), geracao);
+            wrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static boolean cacheavel(HttpServletRequest request, HttpServletResponse response, byte[] corpo) {
+        String contentType = response.getContentType();
+        return response.getStatus() == HttpServletResponse.SC_OK
+                && contentType != null && contentType.startsWith("text/html")
+                && request.getSession(false) == null
+                && !response.containsHeader(HttpHeaders.SET_COOKIE)
+                && indexOf(corpo, MARCADOR_CSRF) < 0;
+    }
+
+    private static void escrever(PaginaRenderizada pagina, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (pagina.etag() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            if (new ServletWebRequest(request, response).checkNotModified(pagina.etag(), pagina.ultimaModificacao())) {
+                return;
+            }
+        }
+        boolean usarGzip = SnapshotResponses.aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] corpo = usarGzip ? pagina.gzip() : pagina.html();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(pagina.contentType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (usarGzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+
+    private static long data(String valor) {
+        return ZonedDateTime.parse(valor, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    }
+
+    private static byte[] gzip(byte[] dados) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(dados.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        }
+        return saida.toByteArray();
+    }
+
+    private static int indexOf(byte[] dados, byte[] alvo) {
+        outer:
+        for (int i = 0; i <= dados.length - alvo.length; i++) {
+            for (int j = 0; j < alvo.length; j++) {
+                if (dados[i + j] != alvo[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
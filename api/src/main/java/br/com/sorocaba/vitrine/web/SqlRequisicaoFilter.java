@@ -0,0 +1,68 @@
+package br.com.sorocaba.vitrine.web;
+
+import br.com.sorocaba.vitrine.metrics.ContadorSql;
+import br.com.sorocaba.vitrine.metrics.RegistroSql;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Counts the SQL statements each HTTP request executes, publishes them as
+ * {@code vitrine.http.statements} per route and logs a WARN with the per-statement breakdown
+ * when a request takes longer than the configured limit.
+ */
+public class SqlRequisicaoFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlRequisicaoFilter.class);
+    private static final int LINHAS_NO_LOG = 10;
+
+    private final long limiteLentoNanos;
+    private final MeterRegistry registry;
+
+    public SqlRequisicaoFilter(Duration limiteLento, MeterRegistry registry) {
+        this.limiteLentoNanos = limiteLento.toNanos();
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        ContadorSql.Escopo escopo = ContadorSql.abrir(request.getMethod() + " " + request.getRequestURI(), true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            escopo.fechar();
+            long duracao = System.nanoTime() - inicio;
+            Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("vitrine.http.statements")
+                    .description("JDBC statements executed per HTTP request")
+                    .baseUnit("statements")
+                    .tags("method", request.getMethod(), "uri", rota != null ? rota.toString() : "UNKNOWN")
+                    .register(registry)
+                    .record(escopo.statements());
+            if (duracao > limiteLentoNanos) {
+                LOGGER.warn("Requisição lenta ({} ms, status {}) — {}", duracao / 1_000_000, response.getStatus(),
+                        escopo.registro().detalhamento(LINHAS_NO_LOG));
+            }
+        }
+    }
+
+    /**
+     * Async dispatches run on other threads; the original request already covered the part that hit the database.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.sorocaba.vitrine.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Conditional GET of a single product or post, decided from the version the in-memory catalog keeps
+ * for it, before the detail is built or rendered.
+ *
+ * Validators are a weak ETag of (id, version) and the matching Last-Modified, with no-cache so clients
+ * revalidate every time. The representation also depends on the code that renders it, so a version
+ * never counts as older than the start of this process: after a deploy every client fetches once more.
+ */
+public final class ValidacaoCondicional {
+
+    private static final long INICIO_MICROS = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    private static final String SEM_CACHE = CacheControl.noCache().getHeaderValue();
+
+    private ValidacaoCondicional() {
+    }
+
+    /**
+     * Sets the validators and checks the request's conditional headers against them.
+     *
+     * @return true when the response is already a 304 and the handler must stop
+     */
+    public static boolean naoModificado(ServletWebRequest request, long id, long versao) {
+        if (versao == Long.MIN_VALUE) {
+            return false;
+        }
+        long efetiva = Math.max(versao, INICIO_MICROS);
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, SEM_CACHE);
+        return request.checkNotModified("W/\"" + id + "-" + Long.toString(efetiva, 36) + "\"", efetiva / 1_000);
+    }
+
+    /**
+     * Like {@link #naoModificado}, for HTML pages: only the anonymous, session-less requests that the
+     * page cache serves get validators, since a signed-in visitor's page carries their own header.
+     */
+    public static boolean paginaNaoModificada(ServletWebRequest request, long id, long versao) {
+        HttpServletRequest servletRequest = request.getRequest();
+        if (servletRequest.getUserPrincipal() != null || servletRequest.getSession(false) != null) {
+            return false;
+        }
+        return naoModificado(request, id, versao);
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.sorocaba.vitrine.web;
+
+import br.com.sorocaba.vitrine.model.TipoVisualizacao;
+import br.com.sorocaba.vitrine.service.TendenciaService;
+import br.com.sorocaba.vitrine.service.VisualizacaoService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts a view for every successful or revalidated GET of a product or post detail, as an HTML page or
+ * through the API, and feeds it to the trending windows.
+ *
+ * Counting here rather than in the controllers is what makes pages answered by the rendered-page
+ * cache count too: a cache hit never reaches the controller.
+ */
+public class VisualizacaoFilter extends OncePerRequestFilter {
+
+    private static final Pattern DETALHE =
+            Pattern.compile("^/(?:(loja/produto|api/produtos)|blog/post|api/posts)/(\\d{1,18})$");
+
+    private final VisualizacaoService visualizacaoService;
+    private final TendenciaService tendenciaService;
+
+    public VisualizacaoFilter(VisualizacaoService visualizacaoService, TendenciaService tendenciaService) {
+        this.visualizacaoService = visualizacaoService;
+        this.tendenciaService = tendenciaService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+
+        Matcher matcher = DETALHE.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        // A 304 is a revalidated page the visitor is looking at again, so it counts as well
+        int status = response.getStatus();
+        if ((status == HttpServletResponse.SC_OK || status == HttpServletResponse.SC_NOT_MODIFIED) && matcher.matches()) {
+            TipoVisualizacao tipo = matcher.group(1) != null ? TipoVisualizacao.PRODUTO : TipoVisualizacao.POST;
+            long id = Long.parseLong(matcher.group(2));
+            // Ids outside the public catalog stay out of the windows too, so they cannot crowd out real ones
+            if (visualizacaoService.registrar(tipo, id)) {
+                tendenciaService.registrar(tipo, id);
+            }
+        }
+    }
+}
@@ -25,3 +25,9 @@ KEY(id) VALUES
 (1, 'Post de Exemplo', '<p>Este é um post de exemplo com conteúdo demonstrativo.</p><p>Você pode adicionar mais parágrafos e conteúdo HTML aqui.</p>', 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 (2, 'Outro Post', '<p>Outro post ilustrativo para o blog.</p><p>Conteúdo rico e interessante sobre diversos temas.</p>', 1, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
+
+-- Realign identity columns after the explicit-id seed rows above,
+-- otherwise the first inserts on a fresh database collide with ids 1..3
+ALTER TABLE usuarios ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM usuarios);
+ALTER TABLE produtos ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM produtos);
+ALTER TABLE posts ALTER COLUMN id RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM posts);
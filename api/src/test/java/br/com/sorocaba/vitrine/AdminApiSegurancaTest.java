@@ -0,0 +1,66 @@
+package br.com.sorocaba.vitrine;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The /api/admin endpoints expose internals and stock reservations move stock outside any order, so both
+ * are admin-only even though the rest of /api is public.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminApiSegurancaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void estadoDoBancoExigeAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/banco")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void estatisticasDosCachesExigemAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/caches")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void reservasDeEstoqueExigemAdmin() throws Exception {
+        mockMvc.perform(post("/api/estoque/reservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"produtoId\": 1, \"quantidade\": 1000}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/estoque/reservas/" + UUID.randomUUID() + "/confirmacao"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/estoque/reservas/" + UUID.randomUUID()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminVeOEstadoDoBancoEOsCaches() throws Exception {
+        mockMvc.perform(get("/api/admin/banco")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/caches")).andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser
+    void usuarioComumNaoVeOEstadoDoBancoNemOsCaches() throws Exception {
+        mockMvc.perform(get("/api/admin/banco")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/caches")).andExpect(status().isForbidden());
+    }
+}
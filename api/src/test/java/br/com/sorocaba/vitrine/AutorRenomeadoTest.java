@@ -0,0 +1,73 @@
+package br.com.sorocaba.vitrine;
+
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.cache.PaginaRenderizada;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Usuario;
+import br.com.sorocaba.vitrine.service.PostService;
+import br.com.sorocaba.vitrine.service.UsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Renaming an author reaches the pre-serialized first page of /api/posts and the rendered blog pages.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AutorRenomeadoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private NearCache<String, PaginaRenderizada> paginaCache;
+
+    @Test
+    void renomearAutorRenovaSnapshotEPaginasDoBlog() throws Exception {
+        Usuario autor = new Usuario();
+        autor.setNome("Benedita Antiga");
+        autor.setEmail("benedita@teste.com");
+        autor.setSenha("$2a$10$hash");
+        usuarioService.salvar(autor);
+
+        Post post = new Post();
+        post.setTitulo("Quermesse de São João");
+        post.setConteudo("<p>Pamonha e quentão.</p>");
+        post.setAutor(autor);
+        post.setPublicado(true);
+        postService.salvar(post);
+
+        mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Benedita Antiga")));
+        mockMvc.perform(get("/blog/post/" + post.getId())).andExpect(status().isOk());
+        assertThat(paginaCache.obterSePresente("/blog/post/" + post.getId())).isNotNull();
+
+        autor.setNome("Benedita Nova");
+        usuarioService.salvar(autor);
+
+        mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Benedita Nova")))
+                .andExpect(content().string(not(containsString("Benedita Antiga"))));
+        assertThat(paginaCache.obterSePresente("/blog/post/" + post.getId())).isNull();
+    }
+}
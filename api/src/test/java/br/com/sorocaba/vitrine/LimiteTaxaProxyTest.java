@@ -0,0 +1,50 @@
+package br.com.sorocaba.vitrine;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behind a proxy every request comes from the proxy's address; with the forwarded headers honoured,
+ * as in prod, each client still gets its own budget.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.forward-headers-strategy=native",
+        "app.limite-taxa.habilitado=true",
+        "app.limite-taxa.rotas[0].caminho=/api/**",
+        "app.limite-taxa.rotas[0].taxa=1",
+        "app.limite-taxa.rotas[0].rajada=2"
+})
+@ActiveProfiles("test")
+class LimiteTaxaProxyTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int porta;
+
+    @Test
+    void clientesAtrasDoProxyTemOrcamentosSeparados() throws Exception {
+        assertThat(status("203.0.113.10")).isEqualTo(200);
+        assertThat(status("203.0.113.10")).isEqualTo(200);
+        assertThat(status("203.0.113.10")).isEqualTo(429);
+
+        assertThat(status("203.0.113.20")).isEqualTo(200);
+        assertThat(status("203.0.113.20")).isEqualTo(200);
+    }
+
+    private int status(String cliente) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/posts"))
+                .header("X-Forwarded-For", cliente)
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.sorocaba.vitrine;
+
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.cache.PaginaRenderizada;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.model.Usuario;
+import br.com.sorocaba.vitrine.repository.PostRepository;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import br.com.sorocaba.vitrine.repository.UsuarioRepository;
+import br.com.sorocaba.vitrine.service.CatalogoLeituraService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static br.com.sorocaba.vitrine.metrics.SqlAssert.assertThatGet;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Guards the list endpoints against N+1 queries: the number of SQL statements
+ * a list request runs must not grow with the number of rows it returns.
+ * Public lists are served from the in-memory read model and run none at all.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListagemConsultasTest {
+
+    private static final int MAX_STATEMENTS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private NearCache<String, PaginaRenderizada> paginaCache;
+
+    @Autowired
+    private CatalogoLeituraService catalogoLeituraService;
+
+    @BeforeEach
+    void setUp() {
+        // Rendered pages would otherwise be served without touching the database
+        paginaCache.invalidarTodos();
+        if (postRepository.count() < 40) {
+            LocalDateTime agora = LocalDateTime.now();
+            for (int i = 0; i < 40; i++) {
+                Usuario autor = new Usuario();
+                autor.setNome("Autor " + i);
+                autor.setEmail("autor" + i + "@teste.com");
+                autor.setSenha("$2a$10$hash");
+                usuarioRepository.save(autor);
+
+                Post post = new Post();
+                post.setTitulo("Post " + i);
+                post.setConteudo("<p>Conteúdo " + i + "</p>");
+                post.setAutor(autor);
+                post.setPublicado(true);
+                post.setDataPublicacao(agora.minusMinutes(i));
+                postRepository.save(post);
+
+                Produto produto = new Produto();
+                produto.setNome("Produto " + i);
+                produto.setPreco(BigDecimal.TEN);
+                produtoRepository.save(produto);
+            }
+            // The rows above bypass the services, so no event tells the read model about them
+            catalogoLeituraService.recarregar();
+        }
+    }
+
+    @Test
+    void listagemDePostsNaoCresceComONumeroDeLinhas() throws Exception {
+        assertThatGet(mockMvc, "/api/posts?limite=5").executaExatamente(0);
+        assertThatGet(mockMvc, "/api/posts?limite=40").executaExatamente(0);
+        assertThatGet(mockMvc, "/blog").executaExatamente(0);
+    }
+
+    @Test
+    void paginasSeguintesDePostsNaoCrescemComONumeroDeLinhas() throws Exception {
+        String resposta = mockMvc.perform(get("/api/posts?limite=3"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(resposta).get("proximoCursor").asText();
+
+        assertThatGet(mockMvc, "/api/posts?limite=30&cursor=" + cursor).executaExatamente(0);
+    }
+
+    @Test
+    void listagemDeProdutosNaoCresceComONumeroDeLinhas() throws Exception {
+        assertThatGet(mockMvc, "/api/produtos?limite=40").executaExatamente(0);
+        assertThatGet(mockMvc, "/loja").executaExatamente(0);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void listagensDoAdminNaoCrescemComONumeroDeLinhas() throws Exception {
+        assertThatGet(mockMvc, "/admin/posts").executaNoMaximo(MAX_STATEMENTS);
+        assertThatGet(mockMvc, "/admin/produtos").executaNoMaximo(MAX_STATEMENTS);
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.sorocaba.vitrine;
+
+import br.com.sorocaba.vitrine.model.Usuario;
+import br.com.sorocaba.vitrine.service.UsuarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+
+/**
+ * Form login goes through the cached UserDetails lookup; the cache must never leak an erased
+ * password into a later login and must forget a user as soon as UsuarioService changes it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Test
+    void loginsRepetidosUsamOCacheSemPerderASenha() throws Exception {
+        criarUsuario("repetido@teste.com", "senha-inicial");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(formLogin().user("repetido@teste.com").password("senha-inicial"))
+                    .andExpect(authenticated());
+        }
+    }
+
+    @Test
+    void alteracaoDeSenhaInvalidaOCache() throws Exception {
+        Usuario usuario = criarUsuario("alterado@teste.com", "senha-antiga");
+        mockMvc.perform(formLogin().user("alterado@teste.com").password("senha-antiga"))
+                .andExpect(authenticated());
+
+        usuario.setSenha("senha-nova");
+        usuarioService.salvar(usuario);
+
+        mockMvc.perform(formLogin().user("alterado@teste.com").password("senha-antiga"))
+                .andExpect(unauthenticated());
+        mockMvc.perform(formLogin().user("alterado@teste.com").password("senha-nova"))
+                .andExpect(authenticated());
+    }
+
+    @Test
+    void usuarioCriadoDepoisDeUmaTentativaFalhaConsegueEntrar() throws Exception {
+        mockMvc.perform(formLogin().user("novo@teste.com").password("qualquer"))
+                .andExpect(unauthenticated());
+
+        criarUsuario("novo@teste.com", "qualquer");
+
+        mockMvc.perform(formLogin().user("novo@teste.com").password("qualquer"))
+                .andExpect(authenticated());
+    }
+
+    private Usuario criarUsuario(String email, String senha) {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Teste");
+        usuario.setEmail(email);
+        usuario.setSenha(senha);
+        return usuarioService.salvar(usuario);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.sorocaba.vitrine;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Prometheus scrape and the dashboard metrics are admin-only, and carry the route histograms
+ * and the per-repository-method statement counts.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrapeExigeAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/metricas")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void basicSoValeNoActuator() throws Exception {
+        // Outside /actuator the header is not even checked, so it cannot spend BCrypt time
+        mockMvc.perform(get("/api/produtos").with(httpBasic("ninguem", "errada")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("ninguem", "errada")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void scrapeTrazRotasERepositorios() throws Exception {
+        mockMvc.perform(get("/api/produtos")).andExpect(status().isOk());
+
+        String texto = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(texto)
+                .contains("http_server_requests_seconds_bucket{")
+                .containsPattern("http_server_requests_seconds_count\\{.*uri=\"/api/produtos\"")
+                .containsPattern("vitrine_repositorio_statements_count\\{.*repository=\"ProdutoRepository\"")
+                .contains("hibernate_sessions_open_total")
+                .contains("hikaricp_connections_active");
+
+        mockMvc.perform(get("/api/admin/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rotas[?(@.uri == '/api/produtos')]").exists());
+    }
+}
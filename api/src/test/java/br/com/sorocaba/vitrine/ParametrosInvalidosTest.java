@@ -0,0 +1,50 @@
+package br.com.sorocaba.vitrine;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query parameters the API cannot use are the client's mistake: a 400 with an ApiError, never a 500.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ParametrosInvalidosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void limiteQueNaoEhNumeroEh400() throws Exception {
+        mockMvc.perform(get("/api/produtos?limite=abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Parâmetro inválido: limite"));
+        mockMvc.perform(get("/api/posts?limite=abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cursorInvalidoEh400() throws Exception {
+        mockMvc.perform(get("/api/produtos?cursor=%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void paginaDeBuscaAlemDoLimiteEh400() throws Exception {
+        // 107374183 * 20 wraps an int around to a negative offset
+        mockMvc.perform(get("/api/busca?q=sorocaba&pagina=107374183&tamanho=20"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/busca?q=sorocaba&pagina=50&tamanho=20"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/busca?q=sorocaba&pagina=49&tamanho=20"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.sorocaba.vitrine;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Hashed static files are served precompressed and cached for a year; fixed names are revalidated.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecursosEstaticosTest {
+
+    private static final Path ESTATICOS = Path.of("src/main/resources/static");
+    private static final String IMUTAVEL = "max-age=31536000, public, immutable";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void assetsDaSpaSaoImutaveisEServidosComprimidos() throws Exception {
+        String js = assetJs();
+
+        mockMvc.perform(get("/spa/assets/" + js).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMUTAVEL));
+        mockMvc.perform(get("/spa/assets/" + js).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/spa/assets/" + js))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void indexDaSpaERevalidadoACadaCarga() throws Exception {
+        mockMvc.perform(get("/spa/index.html").header(HttpHeaders.ACCEPT_ENCODING, "br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void templatesApontamParaOCssComHashDeConteudo() throws Exception {
+        String html = mockMvc.perform(get("/login")).andReturn().getResponse().getContentAsString();
+        Matcher link = Pattern.compile("/css/style-[0-9a-f]{32}\\.css").matcher(html);
+        assertThat(link.find()).as("link versionado em %s", html).isTrue();
+
+        mockMvc.perform(get(link.group()).header(HttpHeaders.ACCEPT_ENCODING, "br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMUTAVEL));
+    }
+
+    /**
+     * Catches a file changed without re-running {@code npm run precompress}, which would keep serving the old copy.
+     */
+    @Test
+    void copiasComprimidasCorrespondemAoArquivoOriginal() throws Exception {
+        List<Path> copias;
+        try (Stream<Path> arquivos = Files.walk(ESTATICOS)) {
+            copias = arquivos.filter(p -> p.toString().endsWith(".gz")).toList();
+        }
+        assertThat(copias).isNotEmpty();
+        for (Path gz : copias) {
+            Path original = gz.resolveSibling(gz.getFileName().toString().replaceFirst("\\.gz$", ""));
+            try (InputStream entrada = new GZIPInputStream(Files.newInputStream(gz))) {
+                assertThat(entrada.readAllBytes()).as("%s desatualizado", gz).isEqualTo(Files.readAllBytes(original));
+            }
+            assertThat(original.resolveSibling(original.getFileName() + ".br")).exists();
+        }
+    }
+
+    private static String assetJs() throws Exception {
+        try (Stream<Path> arquivos = Files.list(ESTATICOS.resolve("spa/assets"))) {
+            return arquivos.map(p -> p.getFileName().toString())
+                    .filter(nome -> nome.endsWith(".js"))
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.sorocaba.vitrine;
+
+import br.com.sorocaba.vitrine.cache.NearCache;
+import br.com.sorocaba.vitrine.cache.PaginaRenderizada;
+import br.com.sorocaba.vitrine.event.EstoqueBaixadoEvent;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.service.CatalogoLeituraService;
+import br.com.sorocaba.vitrine.service.PostService;
+import br.com.sorocaba.vitrine.service.ProdutoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static br.com.sorocaba.vitrine.metrics.SqlAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Product and post details carry validators derived from (id, dataAtualizacao); a revalidation that
+ * still matches is a 304 answered from the in-memory version, without SQL and without a body.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RevalidacaoDetalheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CatalogoLeituraService catalogoLeituraService;
+
+    @Autowired
+    private NearCache<String, PaginaRenderizada> paginaCache;
+
+    @Test
+    void detalheRevalidadoEh304SemSqlEMudaComAEscrita() throws Exception {
+        Produto produto = new Produto();
+        produto.setNome("Doce de abóbora");
+        produto.setPreco(new BigDecimal("12.50"));
+        produto.setEstoque(8);
+        produtoService.salvar(produto);
+        String url = "/api/produtos/" + produto.getId();
+
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"" + produto.getId() + "-");
+
+        assertThatSql("revalidação do detalhe", () -> mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))).executaExatamente(0);
+
+        // A sale moves the version without an admin write
+        catalogoLeituraService.onEstoqueBaixado(new EstoqueBaixadoEvent(Map.of(produto.getId(), 7), Map.of(produto.getId(), 1)));
+        String aposVenda = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(aposVenda).isNotEqualTo(etag);
+
+        produto.setPreco(new BigDecimal("13.00"));
+        produtoService.salvar(produto);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, aposVenda))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(aposVenda)));
+    }
+
+    @Test
+    void paginaEmCacheRevalidaSoParaAnonimos() throws Exception {
+        Post post = new Post();
+        post.setTitulo("Feira da Barganha");
+        post.setConteudo("<p>Domingo na praça.</p>");
+        post.setPublicado(true);
+        postService.salvar(post);
+        String url = "/blog/post/" + post.getId();
+        paginaCache.invalidar(url);
+
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        assertThat(paginaCache.obterSePresente(url)).isNotNull();
+
+        // Answered by the page cache, which kept the validators of the rendered page
+        assertThatSql("revalidação da página", () -> mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))).executaExatamente(0);
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void paginaEmCacheSoVaiComGzipQuandoAceito() throws Exception {
+        String url = "/blog";
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertThat(paginaCache.obterSePresente(url)).isNotNull();
+
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    @WithMockUser
+    void paginaDeUsuarioAutenticadoNaoTemValidadores() throws Exception {
+        long id = catalogoLeituraService.produtos().id(0);
+
+        mockMvc.perform(get("/loja/produto/" + id).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
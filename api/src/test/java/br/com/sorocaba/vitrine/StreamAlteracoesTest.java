@@ -0,0 +1,95 @@
+package br.com.sorocaba.vitrine;
+
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.service.ProdutoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /api/stream over a real socket: committed writes arrive as events, and a client that comes back
+ * with its Last-Event-ID gets what it missed in its first event.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class StreamAlteracoesTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Test
+    @Timeout(30)
+    void alteracaoChegaPeloStreamERetomaPeloUltimoId() throws Exception {
+        String idInicial;
+        Produto primeiro = produto("Cocada de forno");
+        try (Stream<String> stream = abrir(null)) {
+            Iterator<String> linhas = stream.iterator();
+            idInicial = proxima(linhas, "id: ").substring(4);
+
+            produtoService.salvar(primeiro);
+
+            String id = proxima(linhas, "id: ").substring(4);
+            assertThat(proxima(linhas, "event: ")).isEqualTo("event: alteracoes");
+            String dados = proxima(linhas, "data: ");
+            assertThat(dados).contains("\"desde\":\"" + idInicial + "\"", "Cocada de forno", "\"posts\":null");
+            assertThat(id).isNotEqualTo(idInicial);
+        }
+
+        // Missed while disconnected
+        produtoService.salvar(produto("Pé de moleque"));
+
+        try (Stream<String> stream = abrir(idInicial)) {
+            Iterator<String> linhas = stream.iterator();
+            assertThat(proxima(linhas, "retry: ")).isEqualTo("retry: 3000");
+            assertThat(proxima(linhas, "data: ")).contains("Cocada de forno", "Pé de moleque");
+        }
+    }
+
+    private Stream<String> abrir(String ultimoId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/stream"));
+        if (ultimoId != null) {
+            request.header("Last-Event-ID", ultimoId);
+        }
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(tipo ->
+                assertThat(tipo).startsWith("text/event-stream"));
+        return response.body();
+    }
+
+    private static String proxima(Iterator<String> linhas, String prefixo) {
+        while (linhas.hasNext()) {
+            String linha = linhas.next();
+            if (linha.startsWith(prefixo)) {
+                return linha;
+            }
+        }
+        throw new AssertionError("Stream ended before a line starting with " + prefixo);
+    }
+
+    private static Produto produto(String nome) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setPreco(new BigDecimal("6.00"));
+        produto.setEstoque(20);
+        return produto;
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.sorocaba.vitrine.catalogo;
+
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColunasPostsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 10, 0, 0, 123_456_000);
+
+    @Test
+    void ordenaComoAListagemEPaginaPelaChave() {
+        ColunasPosts.Construtor construtor = new ColunasPosts.Construtor(0);
+        construtor.adicionar(post(1L, BASE, true));
+        construtor.adicionar(post(2L, BASE.plusDays(1), true));
+        construtor.adicionar(post(3L, BASE, true));
+        construtor.adicionar(post(4L, BASE.plusDays(2), false));
+        construtor.adicionar(post(5L, null, true));
+        ColunasPosts posts = construtor.construir();
+
+        assertThat(posts.dtos(0, posts.tamanho())).extracting(PostDTO::getId).containsExactly(2L, 3L, 1L, 5L);
+        assertThat(posts.indiceDe(1L)).isEqualTo(2);
+        assertThat(posts.indiceDe(4L)).isEqualTo(-1);
+        assertThat(posts.dataPublicacao(1)).isEqualTo(BASE);
+        assertThat(posts.inicioApos(BASE, 3L)).isEqualTo(2);
+        assertThat(posts.inicioApos(BASE.plusDays(1), 2L)).isEqualTo(1);
+        assertThat(posts.inicioApos(BASE.plusYears(1), 1L)).isZero();
+    }
+
+    @Test
+    void alteracoesGeramNovoSnapshotSemTocarNoAnterior() {
+        ColunasPosts.Construtor construtor = new ColunasPosts.Construtor(0);
+        construtor.adicionar(post(1L, BASE, true));
+        construtor.adicionar(post(2L, BASE.plusHours(1), true));
+        ColunasPosts antes = construtor.construir();
+
+        Post editado = post(1L, BASE.plusHours(2), true);
+        editado.setTitulo("Editado");
+        ColunasPosts depois = antes.comAlteracoes(List.of(editado, post(3L, BASE, true)), List.of(2L), 100L);
+
+        assertThat(antes.dtos(0, antes.tamanho())).extracting(PostDTO::getId).containsExactly(2L, 1L);
+        assertThat(depois.dtos(0, depois.tamanho())).extracting(PostDTO::getId).containsExactly(1L, 3L);
+        assertThat(depois.dto(depois.indiceDe(1L)).getTitulo()).isEqualTo("Editado");
+        assertThat(depois.dto(0).getAutorNome()).isSameAs(depois.dto(1).getAutorNome());
+        assertThat(depois.comAlteracoes(List.of(post(3L, BASE, false)), List.of(), 101L).tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void sincronizaAlteradosERemovidosDesdeAVersaoDoCliente() {
+        ColunasPosts.Construtor construtor = new ColunasPosts.Construtor(0);
+        construtor.adicionar(post(1L, BASE, true));
+        construtor.adicionar(post(2L, BASE, true));
+        construtor.adicionar(post(3L, BASE, true));
+        ColunasPosts inicial = construtor.construir();
+        long token = inicial.ultimaVersao();
+        assertThat(token).isEqualTo(ColunasPosts.versao(BASE.plusMinutes(1)));
+
+        ColunasPosts editado = inicial.comAlteracoes(List.of(post(1L, BASE, true), post(3L, BASE, false)), List.of(2L), token + 10);
+        assertThat(editado.acompanha(token)).isTrue();
+        assertThat(editado.acompanha(token - 1)).isFalse();
+        assertThat(editado.acompanha(token + 11)).isFalse();
+        assertThat(Arrays.stream(editado.alteradosApos(token)).mapToLong(editado::id)).containsExactly(1L);
+        assertThat(editado.removidosApos(token)).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(editado.removidosApos(token + 10)).isEmpty();
+
+        // A post that comes back is a change, not a removal
+        ColunasPosts republicado = editado.comAlteracoes(List.of(post(3L, BASE, true)), List.of(), token + 20);
+        assertThat(republicado.removidosApos(token)).containsExactly(2L);
+        assertThat(Arrays.stream(republicado.alteradosApos(token + 10)).mapToLong(republicado::id)).containsExactly(3L);
+        assertThat(republicado.ultimaVersao()).isEqualTo(token + 20);
+
+        ColunasPosts recarregado = republicado.comLinhaDeBase(token + 30);
+        assertThat(recarregado.acompanha(token + 20)).isFalse();
+        assertThat(recarregado.acompanha(token + 30)).isTrue();
+    }
+
+    @Test
+    void registroDeRemocoesDescartaAsMaisAntigasEAvancaOHorizonte() {
+        long[] ids = new long[Remocoes.CAPACIDADE];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        Remocoes remocoes = Remocoes.desde(0).com(ids, ids.length, 10).com(new long[] {-1L, -2L}, 2, 20);
+
+        assertThat(remocoes.horizonte()).isEqualTo(10);
+        assertThat(remocoes.apos(10)).containsExactly(-1L, -2L);
+        assertThat(remocoes.apos(9)).hasSize(Remocoes.CAPACIDADE).startsWith(3L).endsWith(-2L);
+    }
+
+    private static Post post(Long id, LocalDateTime data, boolean publicado) {
+        Usuario autor = new Usuario();
+        autor.setId(7L);
+        autor.setNome(new String("Autora"));
+        Post post = new Post();
+        post.setId(id);
+        post.setTitulo("Post " + id);
+        post.setConteudo("<p>" + id + "</p>");
+        post.setAutor(autor);
+        post.setPublicado(publicado);
+        post.setDataPublicacao(data);
+        post.setDataAtualizacao(BASE.plusMinutes(1));
+        return post;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.sorocaba.vitrine.controller.api;
+
+import br.com.sorocaba.vitrine.service.CatalogoSnapshotService.Snapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Accept-Encoding is read with its q-values, and If-None-Match tag by tag.
+ */
+class SnapshotResponsesTest {
+
+    private static final Snapshot SNAPSHOT = new Snapshot("[]".getBytes(StandardCharsets.UTF_8),
+            new byte[]{31, -117}, "abc123");
+
+    @Test
+    void gzipSoQuandoOClienteAceita() {
+        assertThat(SnapshotResponses.aceitaGzip("gzip, deflate, br")).isTrue();
+        assertThat(SnapshotResponses.aceitaGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(SnapshotResponses.aceitaGzip("*")).isTrue();
+        assertThat(SnapshotResponses.aceitaGzip("gzip;q=0")).isFalse();
+        assertThat(SnapshotResponses.aceitaGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(SnapshotResponses.aceitaGzip("*;q=0")).isFalse();
+        assertThat(SnapshotResponses.aceitaGzip("identity")).isFalse();
+        assertThat(SnapshotResponses.aceitaGzip(null)).isFalse();
+
+        assertThat(SnapshotResponses.responder(SNAPSHOT, null, "gzip;q=0").getHeaders()
+                .containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void ifNoneMatchComparaCadaTag() {
+        assertThat(status("\"abc123\"")).isEqualTo(304);
+        assertThat(status("\"outra\", W/\"abc123-gz\"")).isEqualTo(304);
+        assertThat(status("*")).isEqualTo(304);
+        assertThat(status("\"abc1234\"")).isEqualTo(200);
+        assertThat(status("\"xabc123\", \"abc\"")).isEqualTo(200);
+    }
+
+    private static int status(String ifNoneMatch) {
+        return SnapshotResponses.responder(SNAPSHOT, ifNoneMatch, "gzip").getStatusCode().value();
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.sorocaba.vitrine.db;
+
+import br.com.sorocaba.vitrine.exception.DatabaseBusyException;
+import br.com.sorocaba.vitrine.service.ProdutoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LimitadorBancoTest {
+
+    @Autowired
+    private LimitadorBanco limitadorBanco;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int tamanhoPool;
+
+    @Test
+    void rejeitaQuemEsperaAlemDoLimite() {
+        LimitadorBanco limitador = new LimitadorBanco(1, Duration.ofMillis(50));
+        limitador.adquirir();
+
+        assertThatThrownBy(limitador::adquirir).isInstanceOf(DatabaseBusyException.class);
+        LimitadorBanco.Estatisticas estatisticas = limitador.estatisticas();
+        assertThat(estatisticas.emUso()).isEqualTo(1);
+        assertThat(estatisticas.rejeicoes()).isEqualTo(1);
+        assertThat(estatisticas.esperaMaximaMicros()).isGreaterThanOrEqualTo(50_000);
+
+        limitador.liberar();
+        limitador.adquirir();
+        assertThat(limitador.estatisticas().aquisicoes()).isEqualTo(2);
+    }
+
+    @Test
+    void semThreadsVirtuaisAsPermissoesSaoAsConexoesDoPool() {
+        assertThat(limitadorBanco.estatisticas().permissoes()).isEqualTo(tamanhoPool);
+    }
+
+    @Test
+    void transacaoSeguraUmaUnicaPermissaoAteTerminar() {
+        long antes = limitadorBanco.estatisticas().aquisicoes();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            produtoService.listarTodos();
+            produtoService.listarAtivos();
+            assertThat(limitadorBanco.estatisticas().emUso()).isEqualTo(1);
+        });
+
+        assertThat(limitadorBanco.estatisticas().emUso()).isZero();
+        assertThat(limitadorBanco.estatisticas().aquisicoes()).isEqualTo(antes + 1);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.sorocaba.vitrine.estoque;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EstoqueListradoTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void produtoDisputadoNuncaVendeAlemDoEstoque() throws Exception {
+        int inicial = 20_000;
+        EstoqueListrado estoque = new EstoqueListrado(inicial, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> vendidos = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            vendidos.add(executor.submit(() -> {
+                largada.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long vendidosAqui = 0;
+                int recusasSeguidas = 0;
+                // Each thread keeps buying until the product is sold out; one in four reservations is given back
+                while (recusasSeguidas < 100) {
+                    int quantidade = 1 + random.nextInt(3);
+                    if (!estoque.reservar(quantidade)) {
+                        recusasSeguidas++;
+                        continue;
+                    }
+                    recusasSeguidas = 0;
+                    if (random.nextInt(4) == 0) {
+                        estoque.devolver(quantidade);
+                    } else {
+                        vendidosAqui += quantidade;
+                    }
+                }
+                return vendidosAqui;
+            }));
+        }
+        largada.countDown();
+        long total = 0;
+        for (Future<Long> futuro : vendidos) {
+            total += futuro.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(total).isEqualTo(inicial - estoque.disponivel());
+        assertThat(estoque.disponivel()).isBetween(0L, 2L);
+        assertThat(estoque.reservar(3)).isFalse();
+    }
+
+    @Test
+    void reducaoAlemDoDisponivelViraDividaPagaPelasDevolucoes() {
+        EstoqueListrado estoque = new EstoqueListrado(10, 4);
+        assertThat(estoque.reservar(8)).isTrue();
+
+        estoque.ajustar(-5);
+        assertThat(estoque.disponivel()).isEqualTo(-3);
+        assertThat(estoque.reservar(1)).isFalse();
+
+        estoque.devolver(8);
+        assertThat(estoque.disponivel()).isEqualTo(5);
+        assertThat(estoque.reservar(5)).isTrue();
+        assertThat(estoque.reservar(1)).isFalse();
+        assertThat(estoque.listras()).isEqualTo(4);
+    }
+}
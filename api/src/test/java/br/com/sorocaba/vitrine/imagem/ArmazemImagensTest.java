@@ -0,0 +1,73 @@
+package br.com.sorocaba.vitrine.imagem;
+
+import br.com.sorocaba.vitrine.exception.InvalidImageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArmazemImagensTest {
+
+    @TempDir
+    Path diretorio;
+
+    private ArmazemImagens armazem;
+
+    @BeforeEach
+    void setUp() {
+        armazem = new ArmazemImagens(diretorio, 1024 * 1024, 1, 4, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        armazem.destroy();
+    }
+
+    @Test
+    void geraAsVariantesUmaVezPorConteudo() throws Exception {
+        byte[] png = png(2000, 1000);
+
+        String chave = armazem.armazenar(new ByteArrayInputStream(png));
+        armazem.gerar(chave).get();
+
+        assertThat(armazem.armazenar(new ByteArrayInputStream(png))).isEqualTo(chave);
+        assertThat(dimensoes(armazem.obterVariante(chave, VarianteImagem.THUMB))).containsExactly(160, 80);
+        assertThat(dimensoes(armazem.obterVariante(chave, VarianteImagem.CARD))).containsExactly(480, 240);
+        assertThat(dimensoes(armazem.obterVariante(chave, VarianteImagem.DETALHE))).containsExactly(1200, 600);
+        assertThat(armazem.obterVariante("0".repeat(32), VarianteImagem.CARD)).isNull();
+        assertThat(armazem.obterVariante("../../etc/passwd", VarianteImagem.CARD)).isNull();
+    }
+
+    @Test
+    void imagemPequenaNaoEAmpliadaEArquivoInvalidoERecusado() throws Exception {
+        String chave = armazem.armazenar(new ByteArrayInputStream(png(100, 50)));
+
+        assertThat(dimensoes(armazem.obterVariante(chave, VarianteImagem.DETALHE))).containsExactly(100, 50);
+        assertThatThrownBy(() -> armazem.armazenar(new ByteArrayInputStream("não é imagem".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(InvalidImageException.class);
+    }
+
+    private static byte[] png(int largura, int altura) throws Exception {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        imagem.setRGB(largura / 2, altura / 2, 0xFF336699);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", saida);
+        return saida.toByteArray();
+    }
+
+    private static int[] dimensoes(Path arquivo) throws Exception {
+        BufferedImage imagem = ImageIO.read(arquivo.toFile());
+        return new int[] {imagem.getWidth(), imagem.getHeight()};
+    }
+}
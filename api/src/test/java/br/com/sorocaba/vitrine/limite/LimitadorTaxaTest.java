@@ -0,0 +1,112 @@
+package br.com.sorocaba.vitrine.limite;
+
+import br.com.sorocaba.vitrine.web.LimiteTaxaFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitadorTaxaTest {
+
+    private static final List<OrcamentoRota> ROTAS = List.of(
+            new OrcamentoRota("GET", "/api/produtos", 1, 3),
+            new OrcamentoRota(null, "/api/**", 10, 10));
+
+    private final AtomicLong agora = new AtomicLong(0);
+
+    @Test
+    void listagemEConsultaTemOrcamentosProprios() {
+        LimitadorTaxa limitador = new LimitadorTaxa(ROTAS, 1_000, 1_000, 100, Duration.ofMinutes(1), agora::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limitador.tentar("GET", "/api/produtos", "10.0.0.1")).isZero();
+        }
+        long espera = limitador.tentar("GET", "/api/produtos", "10.0.0.1");
+        assertThat(espera).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        // The same client still has its lookup budget, and another client its own listing budget
+        assertThat(limitador.tentar("GET", "/api/produtos/7", "10.0.0.1")).isZero();
+        assertThat(limitador.tentar("GET", "/api/produtos", "10.0.0.2")).isZero();
+
+        agora.addAndGet(espera);
+        assertThat(limitador.tentar("GET", "/api/produtos", "10.0.0.1")).isZero();
+        assertThat(limitador.estatisticas().recusadas()).isEqualTo(1);
+    }
+
+    @Test
+    void recusaGlobalDevolveOTokenDoCliente() {
+        LimitadorTaxa limitador = new LimitadorTaxa(ROTAS, 1, 2, 100, Duration.ofMinutes(1), agora::get);
+
+        assertThat(limitador.tentar("GET", "/api/posts", "a")).isZero();
+        assertThat(limitador.tentar("GET", "/api/posts", "b")).isZero();
+        assertThat(limitador.tentar("GET", "/api/posts", "a")).isPositive();
+        assertThat(limitador.estatisticas().recusadasGlobal()).isEqualTo(1);
+
+        // "a" spent one of its 10 tokens, not two
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(100));
+        LimitadorTaxa.Estatisticas antes = limitador.estatisticas();
+        for (int i = 0; i < 9; i++) {
+            limitador.tentar("GET", "/api/posts", "a");
+        }
+        assertThat(limitador.estatisticas().recusadas()).isEqualTo(antes.recusadas());
+    }
+
+    @Test
+    void clientesOciososSaemEOMapaNaoPassaDoLimite() {
+        LimitadorTaxa limitador = new LimitadorTaxa(ROTAS, 1_000_000, 1_000_000, 50, Duration.ofSeconds(10), agora::get);
+
+        for (int i = 0; i < 500; i++) {
+            limitador.tentar("GET", "/api/busca", "cliente-" + i);
+        }
+        assertThat(limitador.estatisticas().clientes()).isEqualTo(50);
+
+        // Every bucket refills within a second; the next sweep drops them all
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        limitador.tentar("GET", "/api/busca", "novo");
+        assertThat(limitador.estatisticas().clientes()).isEqualTo(1);
+    }
+
+    @Test
+    void padroesDeCaminho() {
+        PadraoCaminho lista = PadraoCaminho.compilar("/api/produtos");
+        assertThat(lista.corresponde("/api/produtos")).isTrue();
+        assertThat(lista.corresponde("/api/produtos/")).isFalse();
+        assertThat(lista.corresponde("/api/produtos/1")).isFalse();
+        assertThat(lista.corresponde("/api/produtosx")).isFalse();
+
+        PadraoCaminho detalhe = PadraoCaminho.compilar("/api/{tipo}/*");
+        assertThat(detalhe.corresponde("/api/posts/7")).isTrue();
+        assertThat(detalhe.corresponde("/api/posts")).isFalse();
+        assertThat(detalhe.corresponde("/api//7")).isFalse();
+
+        PadraoCaminho tudo = PadraoCaminho.compilar("/api/**");
+        assertThat(tudo.corresponde("/api")).isTrue();
+        assertThat(tudo.corresponde("/api/a/b/c")).isTrue();
+        assertThat(tudo.corresponde("/apix")).isFalse();
+    }
+
+    @Test
+    void filtroRespondeTooManyRequestsComRetryAfter() throws Exception {
+        LimitadorTaxa limitador = new LimitadorTaxa(ROTAS, 1_000, 1_000, 100, Duration.ofMinutes(1), agora::get);
+        LimiteTaxaFilter filtro = new LimiteTaxaFilter(limitador, new ObjectMapper());
+
+        MockHttpServletResponse resposta = null;
+        for (int i = 0; i < 4; i++) {
+            resposta = new MockHttpServletResponse();
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produt%6Fs");
+            request.setServletPath("/api/produtos");
+            filtro.doFilter(request, resposta, new MockFilterChain());
+        }
+
+        assertThat(resposta.getStatus()).isEqualTo(429);
+        assertThat(resposta.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(resposta.getContentAsString()).contains("\"message\"");
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.sorocaba.vitrine.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class ContadorSqlTest {
+
+    @Test
+    void statementContaEmTodosOsEscoposAbertos() {
+        ContadorSql.Escopo requisicao = ContadorSql.abrir("GET /loja", true);
+        ContadorSql.registrar("select p from produto p", 3_000_000);
+
+        ContadorSql.Escopo transacao = ContadorSql.abrir("listarTodos", false);
+        ContadorSql.registrar("select u from usuario u", 1_000_000);
+        ContadorSql.registrar("select u from usuario u", 1_000_000);
+        RegistroSql interno = transacao.fechar();
+
+        ContadorSql.registrar("update produto set estoque=?", 500_000);
+        RegistroSql externo = requisicao.fechar();
+
+        assertThat(interno.statements()).isEqualTo(2);
+        assertThat(interno.consultas()).isEmpty();
+        assertThat(externo.statements()).isEqualTo(4);
+        assertThat(externo.nanos()).isEqualTo(5_500_000);
+        assertThat(externo.consultas()).extracting(RegistroSql.Consulta::sql, RegistroSql.Consulta::execucoes)
+                .containsExactly(
+                        tuple("select p from produto p", 1),
+                        tuple("select u from usuario u", 2),
+                        tuple("update produto set estoque=?", 1));
+    }
+
+    @Test
+    void semEscopoAbertoNadaERegistrado() throws Exception {
+        ContadorSql.registrar("select 1", 1_000);
+
+        RegistroSql registro = ContadorSql.medir("vazio", () -> null);
+
+        assertThat(registro.statements()).isZero();
+        assertThat(registro.detalhamento(5)).startsWith("vazio: 0 statements");
+    }
+}
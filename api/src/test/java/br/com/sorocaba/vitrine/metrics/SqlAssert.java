@@ -0,0 +1,65 @@
+package br.com.sorocaba.vitrine.metrics;
+
+import org.assertj.core.api.AbstractAssert;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * AssertJ entry point for the statements a request or service call executes, e.g.
+ * {@code assertThatGet(mockMvc, "/api/posts").executaNoMaximo(2)}. Failures print the
+ * per-statement breakdown.
+ */
+public final class SqlAssert extends AbstractAssert<SqlAssert, RegistroSql> {
+
+    private SqlAssert(RegistroSql registro) {
+        super(registro, SqlAssert.class);
+    }
+
+    public static SqlAssert assertThatSql(String nome, Callable<?> tarefa) throws Exception {
+        return new SqlAssert(ContadorSql.medir(nome, tarefa));
+    }
+
+    /**
+     * Performs the GET, expects a 2xx and captures what it executed.
+     */
+    public static SqlAssert assertThatGet(MockMvc mockMvc, String url) throws Exception {
+        return assertThatSql("GET " + url, () -> mockMvc.perform(get(url)).andExpect(status().is2xxSuccessful()));
+    }
+
+    public SqlAssert executaNoMaximo(int maximo) {
+        isNotNull();
+        if (actual.statements() > maximo) {
+            failWithMessage("Esperava no máximo %d statements, mas executou %s", maximo, actual.detalhamento(20));
+        }
+        return this;
+    }
+
+    public SqlAssert executaExatamente(int esperado) {
+        isNotNull();
+        if (actual.statements() != esperado) {
+            failWithMessage("Esperava %d statements, mas executou %s", esperado, actual.detalhamento(20));
+        }
+        return this;
+    }
+
+    /**
+     * Fails if any executed statement contains the fragment (case-insensitive), e.g. "insert" on a read path.
+     */
+    public SqlAssert naoExecuta(String trecho) {
+        isNotNull();
+        String procurado = trecho.toLowerCase(Locale.ROOT);
+        if (actual.consultas().stream().anyMatch(c -> c.sql().toLowerCase(Locale.ROOT).contains(procurado))) {
+            failWithMessage("Não esperava statements com \"%s\", mas executou %s", trecho, actual.detalhamento(20));
+        }
+        return this;
+    }
+
+    public int statements() {
+        return actual.statements();
+    }
+}
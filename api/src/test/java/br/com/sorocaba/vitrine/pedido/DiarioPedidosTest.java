@@ -0,0 +1,86 @@
+package br.com.sorocaba.vitrine.pedido;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiarioPedidosTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void pedidosNaoConcluidosVoltamDepoisDeReiniciar() throws Exception {
+        DiarioPedidos diario = new DiarioPedidos(diretorio, 1024 * 1024, objectMapper);
+        DiarioPedidos.Registro gravado = diario.registrar(pedido("Ana"));
+        diario.registrar(pedido("Bruno"));
+        diario.concluir(List.of(gravado));
+        diario.destroy();
+        // A crash in the middle of an append leaves a torn last line
+        Files.writeString(segmentos().get(0), "{\"id\":\"", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        DiarioPedidos reaberto = new DiarioPedidos(diretorio, 1024 * 1024, objectMapper);
+        List<DiarioPedidos.Registro> recuperados = reaberto.recuperados();
+
+        // Commits are not journaled, so the first order is replayed too; the writer treats it as a duplicate
+        assertThat(recuperados).extracting(registro -> registro.pedido().nomeCliente()).containsExactly("Ana", "Bruno");
+        assertThat(recuperados.get(1).pedido().total()).isEqualByComparingTo("25.80");
+        assertThat(reaberto.recuperados()).isEmpty();
+
+        reaberto.concluir(recuperados);
+        reaberto.destroy();
+        assertThat(new DiarioPedidos(diretorio, 1024 * 1024, objectMapper).recuperados()).isEmpty();
+    }
+
+    @Test
+    void segmentoFechadoEApagadoQuandoTodosOsPedidosForamGravados() throws Exception {
+        DiarioPedidos diario = new DiarioPedidos(diretorio, 512, objectMapper);
+        List<DiarioPedidos.Registro> registros = Stream.of("Ana", "Bruno", "Carla", "Davi", "Elisa")
+                .map(nome -> registrar(diario, nome))
+                .toList();
+        assertThat(registros).extracting(DiarioPedidos.Registro::segmento).containsExactly(1L, 1L, 2L, 2L, 3L);
+
+        diario.concluir(registros.subList(0, 3));
+        assertThat(segmentos()).extracting(arquivo -> arquivo.getFileName().toString())
+                .containsExactly("pedidos-00000002.log", "pedidos-00000003.log");
+
+        diario.concluir(registros.subList(3, 5));
+        assertThat(segmentos()).extracting(arquivo -> arquivo.getFileName().toString())
+                .containsExactly("pedidos-00000003.log");
+        diario.destroy();
+    }
+
+    private DiarioPedidos.Registro registrar(DiarioPedidos diario, String nome) {
+        try {
+            return diario.registrar(pedido(nome));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private List<Path> segmentos() throws Exception {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.sorted().toList();
+        }
+    }
+
+    private static PedidoRecebido pedido(String nome) {
+        return new PedidoRecebido(UUID.randomUUID(), nome, nome.toLowerCase() + "@exemplo.com", LocalDateTime.now(),
+                List.of(new PedidoRecebido.Item(7L, "Queijo canastra", new BigDecimal("12.90"), 2)));
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.sorocaba.vitrine.pedido;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilaGravacaoTest {
+
+    @Test
+    void filaCheiaRecusaAteOLoteSerGravado() throws Exception {
+        FilaGravacao<Integer> fila = new FilaGravacao<>("teste", 3, 10, Duration.ZERO, Duration.ofMillis(50));
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<List<Integer>> lotes = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            assertThat(fila.obterVaga()).isTrue();
+            fila.adicionar(i);
+        }
+        fila.iniciar(lote -> {
+            liberar.await();
+            lotes.add(new ArrayList<>(lote));
+        });
+
+        // All three slots are held by the batch being written: the next producer is turned away
+        assertThat(fila.obterVaga()).isFalse();
+        liberar.countDown();
+        assertThat(aguardar(() -> fila.estatisticas().pendentes() == 0)).isTrue();
+        assertThat(lotes).containsExactly(List.of(0, 1, 2));
+        assertThat(fila.obterVaga()).isTrue();
+        fila.parar(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void loteQueFalhaERepetidoInteiro() throws Exception {
+        FilaGravacao<Integer> fila = new FilaGravacao<>("teste", 100, 50, Duration.ofMillis(20), Duration.ZERO);
+        AtomicBoolean falhou = new AtomicBoolean();
+        List<List<Integer>> lotes = new CopyOnWriteArrayList<>();
+        fila.iniciar(lote -> {
+            if (falhou.compareAndSet(false, true)) {
+                throw new IllegalStateException("banco fora do ar");
+            }
+            lotes.add(new ArrayList<>(lote));
+        });
+        for (int i = 0; i < 20; i++) {
+            assertThat(fila.obterVaga()).isTrue();
+            fila.adicionar(i);
+        }
+
+        assertThat(aguardar(() -> fila.estatisticas().pendentes() == 0)).isTrue();
+        assertThat(lotes.stream().flatMap(List::stream).toList()).hasSize(20).doesNotHaveDuplicates();
+        assertThat(fila.estatisticas().repeticoes()).isEqualTo(1);
+        assertThat(fila.estatisticas().lotes()).isLessThan(20);
+        fila.parar(Duration.ofSeconds(5));
+    }
+
+    private static boolean aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < prazo) {
+            if (condicao.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.sorocaba.vitrine.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class IndiceInvertidoTest {
+
+    @Test
+    void encontraTermosIgnorandoAcentosECaixa() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(Documento.of(TipoDocumento.PRODUTO, 1, "Café Especial", "Grãos torrados em Sorocaba"));
+        indice.indexar(Documento.of(TipoDocumento.PRODUTO, 2, "Chá Mate", "Erva selecionada"));
+
+        IndiceInvertido.Resultado resultado = indice.buscar("CAFE", null, 0, 10);
+
+        assertThat(resultado.total()).isEqualTo(1);
+        assertThat(resultado.acertos()).extracting(IndiceInvertido.Acerto::id).containsExactly(1L);
+    }
+
+    @Test
+    void exigeTodosOsTermosEAceitaPrefixoNoUltimo() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(Documento.of(TipoDocumento.PRODUTO, 1, "Queijo minas", "Queijo artesanal"));
+        indice.indexar(Documento.of(TipoDocumento.POST, 1, "Feira de queijos", "<p>Minas e mais</p>"));
+        indice.indexar(Documento.of(TipoDocumento.PRODUTO, 2, "Doce de leite", "Artesanal"));
+
+        assertThat(indice.buscar("queijo arte", null, 0, 10).acertos())
+                .extracting(IndiceInvertido.Acerto::tipo, IndiceInvertido.Acerto::id)
+                .containsExactly(tuple(TipoDocumento.PRODUTO, 1L));
+        assertThat(indice.buscar("minas", TipoDocumento.POST, 0, 10).total()).isEqualTo(1);
+    }
+
+    @Test
+    void tituloPesaMaisQueCorpo() {
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.indexar(Documento.of(TipoDocumento.POST, 1, "Agenda cultural", "Mel de abelha nativa"));
+        indice.indexar(Documento.of(TipoDocumento.POST, 2, "Mel de abelha nativa", "Agenda cultural"));
+
+        assertThat(indice.buscar("mel", null, 0, 10).acertos())
+                .extracting(IndiceInvertido.Acerto::id)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void reindexarSubstituiERemoverApaga() {
+        IndiceInvertido indice = new IndiceInvertido();
+        for (long id = 1; id <= 3000; id++) {
+            indice.indexar(Documento.of(TipoDocumento.PRODUTO, id, "Produto " + id, "descricao comum"));
+        }
+        indice.indexar(Documento.of(TipoDocumento.PRODUTO, 7, "Cerveja artesanal", "Lupulo"));
+        for (long id = 100; id <= 3000; id++) {
+            indice.remover(TipoDocumento.PRODUTO, id);
+        }
+
+        assertThat(indice.tamanho()).isEqualTo(99);
+        assertThat(indice.buscar("comum", null, 0, 200).total()).isEqualTo(98);
+        assertThat(indice.buscar("cerveja", null, 0, 10).acertos())
+                .extracting(IndiceInvertido.Acerto::id)
+                .containsExactly(7L);
+        assertThat(indice.buscar("produto 7", null, 0, 10).total()).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.sorocaba.vitrine.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void delegaQuandoHaCapacidade() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new EncoderBloqueante(new CountDownLatch(0)),
+                1, 1, Duration.ofSeconds(1));
+        try {
+            assertThat(encoder.matches("segredo", "segredo")).isTrue();
+            assertThat(encoder.matches("segredo", "outro")).isFalse();
+            assertThat(encoder.rejeicoes()).isZero();
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void rejeitaImediatamenteQuandoPoolEFilaEstaoCheios() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new EncoderBloqueante(liberar),
+                1, 1, Duration.ofSeconds(5));
+        try {
+            CompletableFuture<Boolean> emExecucao = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+            CompletableFuture<Boolean> naFila = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((encoder.ativas() < 1 || encoder.naFila() < 1) && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+
+            long inicio = System.nanoTime();
+            assertThatThrownBy(() -> encoder.matches("c", "c")).isInstanceOf(AuthenticationServiceException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)).isLessThan(1000);
+            assertThat(encoder.rejeicoes()).isEqualTo(1);
+
+            liberar.countDown();
+            assertThat(emExecucao.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(naFila.get(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            liberar.countDown();
+            encoder.destroy();
+        }
+    }
+
+    /**
+     * Compares plain strings, but blocks until released so the pool can be saturated deterministically.
+     */
+    private record EncoderBloqueante(CountDownLatch liberar) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            try {
+                liberar.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
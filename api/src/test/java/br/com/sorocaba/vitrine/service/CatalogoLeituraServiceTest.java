@@ -0,0 +1,120 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.AlteracoesDTO;
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.exception.InvalidCursorException;
+import br.com.sorocaba.vitrine.exception.ResourceNotFoundException;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static br.com.sorocaba.vitrine.metrics.SqlAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Public reads come from the in-memory model, which follows committed admin writes
+ * before the caches derived from it are rebuilt.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogoLeituraServiceTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private CatalogoSnapshotService catalogoSnapshotService;
+
+    @Autowired
+    private CatalogoLeituraService catalogoLeituraService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Test
+    void escritaDoAdminApareceNasLeiturasSemConsultarOBanco() throws Exception {
+        Produto produto = new Produto();
+        produto.setNome("Rapadura de Sorocaba");
+        produto.setPreco(new BigDecimal("7.35"));
+        produto.setEstoque(12);
+        produtoService.salvar(produto);
+
+        assertThatSql("detalhe do produto", () -> produtoService.buscarDtoPorId(produto.getId())).executaExatamente(0);
+        ProdutoDTO dto = produtoService.buscarDtoPorId(produto.getId());
+        assertThat(dto.getPreco()).isEqualByComparingTo("7.35");
+        assertThat(dto.getEstoque()).isEqualTo(12);
+
+        produto.setAtivo(false);
+        produtoService.salvar(produto);
+
+        assertThatThrownBy(() -> produtoService.buscarDtoPorId(produto.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(catalogoLeituraService.produtos().indiceDe(produto.getId())).isEqualTo(-1);
+        assertThat(catalogoLeituraService.estatisticas().bytesPorProduto()).isPositive();
+    }
+
+    @Test
+    void sincronizacaoTrazSoAlteracoesERemocoesDepoisDoToken() {
+        AlteracoesDTO<ProdutoDTO> completo = produtoService.alteracoesDesde(null);
+        assertThat(completo.isCompleto()).isTrue();
+        assertThat(completo.getAlterados()).hasSize(catalogoLeituraService.produtos().tamanho());
+
+        Produto novo = new Produto();
+        novo.setNome("Cocada de forno");
+        novo.setPreco(new BigDecimal("4.00"));
+        produtoService.salvar(novo);
+        Produto removido = new Produto();
+        removido.setNome("Pé de moleque");
+        removido.setPreco(new BigDecimal("3.00"));
+        produtoService.salvar(removido);
+        String token = produtoService.alteracoesDesde(completo.getToken()).getToken();
+        produtoService.deletar(removido.getId());
+        novo.setPreco(new BigDecimal("4.50"));
+        produtoService.salvar(novo);
+
+        AlteracoesDTO<ProdutoDTO> delta = produtoService.alteracoesDesde(token);
+        assertThat(delta.isCompleto()).isFalse();
+        assertThat(delta.getAlterados()).extracting(ProdutoDTO::getId).containsExactly(novo.getId());
+        assertThat(delta.getRemovidos()).containsExactly(removido.getId());
+        assertThat(produtoService.alteracoesDesde(delta.getToken()).getAlterados()).isEmpty();
+
+        // Renaming an author changes the author's posts
+        Post post = postService.buscarPorId(catalogoLeituraService.posts().id(0));
+        Usuario autor = usuarioService.buscarPorId(post.getAutor().getId());
+        String tokenPosts = postService.alteracoesDesde(null).getToken();
+        autor.setNome(autor.getNome() + " ");
+        usuarioService.salvar(autor);
+        assertThat(postService.alteracoesDesde(tokenPosts).getAlterados()).extracting(PostDTO::getId).contains(post.getId());
+
+        assertThatThrownBy(() -> produtoService.alteracoesDesde("%%%")).isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void snapshotDaPrimeiraPaginaAcompanhaAEscrita() {
+        Produto primeiro = produtoService.buscarPorId(catalogoLeituraService.produtos().id(0));
+        int estoqueOriginal = primeiro.getEstoque();
+        catalogoSnapshotService.produtos();
+
+        primeiro.setEstoque(98765);
+        produtoService.salvar(primeiro);
+        try {
+            assertThat(new String(catalogoSnapshotService.produtos().json(), StandardCharsets.UTF_8))
+                    .contains("\"estoque\":98765");
+        } finally {
+            primeiro.setEstoque(estoqueOriginal);
+            produtoService.salvar(primeiro);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.event.ProdutoAlteradoEvent;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With a single database permit, a stock resync that runs while the committing thread still holds
+ * its transaction's permit reads on that permit instead of waiting for itself.
+ */
+@SpringBootTest(properties = {
+        "app.banco.limitador.permissoes=1",
+        "app.banco.limitador.espera-maxima=2s"
+})
+@ActiveProfiles("test")
+class EstoquePermissaoUnicaTest {
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sincronizacaoAposCommitUsaAPermissaoDaTransacao() {
+        Produto produto = new Produto();
+        produto.setNome("Pé de moleque");
+        produto.setPreco(new BigDecimal("3.00"));
+        produto.setEstoque(5);
+        long id = produtoService.salvar(produto).getId();
+        assertThat(estoqueService.consultar(id).getDisponivel()).isEqualTo(5);
+
+        // Published before the first repository call, so the listener runs before the permit is returned
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ProdutoAlteradoEvent(id, false));
+            produtoRepository.findById(id).orElseThrow();
+            jdbcTemplate.update("UPDATE produtos SET estoque = 8 WHERE id = ?", id);
+        });
+
+        assertThat(estoqueService.consultar(id).getDisponivel()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.EstoqueDTO;
+import br.com.sorocaba.vitrine.estoque.ReservaEstoque;
+import br.com.sorocaba.vitrine.exception.InsufficientStockException;
+import br.com.sorocaba.vitrine.exception.ResourceNotFoundException;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reservations of one hot product from many threads: the units confirmed never exceed the stock,
+ * and the batched decrements leave the row at exactly what was not sold.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EstoqueServiceTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Test
+    void vendaConcorrenteNaoPassaDoEstoqueEChegaAoBancoEmLote() throws Exception {
+        Produto produto = produtoService.salvar(produto("Doce de abóbora", 2_000));
+        long id = produto.getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> confirmados = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            confirmados.add(executor.submit(() -> {
+                largada.await();
+                int confirmadosAqui = 0;
+                for (int i = 0; ; i++) {
+                    ReservaEstoque reserva;
+                    try {
+                        reserva = estoqueService.reservar(id, 1 + (i + thread) % 2);
+                    } catch (InsufficientStockException esgotado) {
+                        return confirmadosAqui;
+                    }
+                    // One in five buyers gives up; their units go back to the others
+                    if (i % 5 == 4) {
+                        estoqueService.liberar(reserva.id());
+                    } else {
+                        estoqueService.confirmar(reserva.id());
+                        confirmadosAqui += reserva.quantidade();
+                    }
+                }
+            }));
+        }
+        largada.countDown();
+        int vendidos = 0;
+        for (Future<Integer> futuro : confirmados) {
+            vendidos += futuro.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        EstoqueDTO estoque = estoqueService.consultar(id);
+        assertThat(vendidos).isBetween(1_999, 2_000);
+        assertThat(estoque.getDisponivel()).isEqualTo(2_000 - vendidos);
+        assertThat(estoque.getReservado()).isZero();
+
+        estoqueService.persistir();
+        assertThat(produtoRepository.findById(id).orElseThrow().getEstoque()).isEqualTo(2_000 - vendidos);
+        assertThat(produtoService.buscarDtoPorId(id).getEstoque()).isEqualTo(2_000 - vendidos);
+        assertThat(estoqueService.consultar(id).getPendenteGravacao()).isZero();
+    }
+
+    @Test
+    void edicaoDoAdminSomaAoQueFoiVendidoEnquantoOFormularioEstavaAberto() {
+        Produto produto = produtoService.salvar(produto("Paçoca", 10));
+        Produto formulario = produtoRepository.findById(produto.getId()).orElseThrow();
+
+        estoqueService.confirmar(estoqueService.reservar(produto.getId(), 4).id());
+        estoqueService.persistir();
+
+        // The form was rendered with 10 and the admin typed 15: five more, on top of the 6 left
+        formulario.setEstoqueOriginal(10);
+        formulario.setEstoque(15);
+        produtoService.salvar(formulario);
+
+        assertThat(produtoRepository.findById(produto.getId()).orElseThrow().getEstoque()).isEqualTo(11);
+        assertThat(estoqueService.consultar(produto.getId()).getDisponivel()).isEqualTo(11);
+    }
+
+    @Test
+    void reservaConfirmadaOuLiberadaNaoPodeSerUsadaDeNovo() {
+        Produto produto = produtoService.salvar(produto("Cocada", 3));
+        ReservaEstoque reserva = estoqueService.reservar(produto.getId(), 3);
+
+        assertThatThrownBy(() -> estoqueService.reservar(produto.getId(), 1))
+                .isInstanceOf(InsufficientStockException.class);
+        estoqueService.liberar(reserva.id());
+        assertThatThrownBy(() -> estoqueService.confirmar(reserva.id()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> estoqueService.liberar(UUID.randomUUID()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(estoqueService.consultar(produto.getId()).getDisponivel()).isEqualTo(3);
+    }
+
+    private static Produto produto(String nome, int estoque) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setPreco(new BigDecimal("5.00"));
+        produto.setEstoque(estoque);
+        return produto;
+    }
+}
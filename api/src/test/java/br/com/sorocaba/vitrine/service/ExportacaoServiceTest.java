@@ -0,0 +1,81 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.RelatorioImportacaoDTO;
+import br.com.sorocaba.vitrine.exportacao.FormatoExportacao;
+import br.com.sorocaba.vitrine.importacao.FormatoImportacao;
+import br.com.sorocaba.vitrine.repository.PostRepository;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static br.com.sorocaba.vitrine.metrics.SqlAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The export reads each table with a single cursor and writes files the import reads back unchanged.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacaoServiceTest {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private ImportacaoProdutoService importacaoProdutoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void csvDeProdutosVoltaPelaImportacaoSemMudancas() throws Exception {
+        String csv = "sku,nome,descricao,preco,estoque\n"
+                + "EXP-1,Cuia,\"Porongo, \"\"tradicional\"\"\nlinha 2\",45.90,3\n"
+                + "EXP-2,Bomba;inox,,19.00,8\n";
+        importacaoProdutoService.importar(new StringReader(csv), FormatoImportacao.CSV, progresso -> { });
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        assertThatSql("exportação de produtos", () -> exportacaoService.exportarProdutos(saida, FormatoExportacao.CSV))
+                .executaExatamente(1);
+
+        String exportado = saida.toString(StandardCharsets.UTF_8);
+        assertThat(exportado).startsWith("id,sku,nome,descricao,preco,imagemUrl,estoque,ativo,");
+        RelatorioImportacaoDTO relatorio = importacaoProdutoService.importar(new StringReader(exportado),
+                FormatoImportacao.CSV, progresso -> { });
+        // Products created without a SKU are exported too, but cannot be imported
+        assertThat(relatorio.getInseridos()).isZero();
+        assertThat(relatorio.getAtualizados()).isGreaterThanOrEqualTo(2);
+        assertThat(produtoRepository.findBySku("EXP-1").orElseThrow().getDescricao())
+                .isEqualTo("Porongo, \"tradicional\"\nlinha 2");
+        assertThat(produtoRepository.findBySku("EXP-2").orElseThrow().getNome()).isEqualTo("Bomba;inox");
+    }
+
+    @Test
+    void ndjsonDePostsTrazOAutorNaMesmaConsulta() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        assertThatSql("exportação de posts", () -> exportacaoService.exportarPosts(saida, FormatoExportacao.NDJSON))
+                .executaExatamente(1);
+
+        List<String> linhas = saida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(linhas).hasSize((int) postRepository.count());
+        JsonNode primeiro = objectMapper.readTree(linhas.get(0));
+        assertThat(primeiro.get("autorNome").asText()).isNotBlank();
+        assertThat(primeiro.has("dataPublicacao")).isTrue();
+    }
+}
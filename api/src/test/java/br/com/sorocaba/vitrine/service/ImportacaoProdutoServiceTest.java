@@ -0,0 +1,95 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.ErroImportacaoDTO;
+import br.com.sorocaba.vitrine.dto.ProgressoImportacaoDTO;
+import br.com.sorocaba.vitrine.dto.RelatorioImportacaoDTO;
+import br.com.sorocaba.vitrine.importacao.FormatoImportacao;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk import upserts by SKU, rejects bad rows individually and refreshes the derived state once.
+ */
+@SpringBootTest(properties = "app.importacao.lote=3")
+@ActiveProfiles("test")
+class ImportacaoProdutoServiceTest {
+
+    @Autowired
+    private ImportacaoProdutoService importacaoProdutoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private BuscaService buscaService;
+
+    @Test
+    void csvInsereAtualizaERejeitaLinhaALinha() throws Exception {
+        String csv = "SKU;Nome;Preco;Estoque;Descricao;Ativo\n"
+                + "IMP-1;Erva-mate;12,50;10;\"Pacote; 1 kg\n\"\"moída grossa\"\"\";sim\n"
+                + "IMP-2;Cuia;30;2;;\n"
+                + ";Sem SKU;10;1;;\n"
+                + "IMP-3;Preço ruim;abc;1;;\n"
+                + "IMP-4;;5;1;;\n"
+                + "IMP-5;Bomba;-3;1;;\n"
+                + "IMP-1;Erva-mate especial;1.234,00;7;;nao\n";
+        List<ProgressoImportacaoDTO> progresso = new ArrayList<>();
+
+        RelatorioImportacaoDTO relatorio = importacaoProdutoService.importar(new StringReader(csv),
+                FormatoImportacao.CSV, progresso::add);
+
+        assertThat(relatorio.getLinhasLidas()).isEqualTo(7);
+        assertThat(relatorio.getInseridos()).isEqualTo(2);
+        assertThat(relatorio.getAtualizados()).isEqualTo(1);
+        assertThat(relatorio.getRejeitados()).isEqualTo(4);
+        assertThat(relatorio.getErros()).extracting(ErroImportacaoDTO::getLinha).containsExactly(5L, 6L, 7L, 8L);
+        assertThat(progresso).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(progresso.stream().mapToInt(p -> p.getNovosErros().size()).sum()).isEqualTo(4);
+
+        Produto erva = produtoRepository.findBySku("IMP-1").orElseThrow();
+        assertThat(erva.getNome()).isEqualTo("Erva-mate especial");
+        assertThat(erva.getPreco()).isEqualByComparingTo(new BigDecimal("1234.00"));
+        assertThat(erva.getAtivo()).isFalse();
+        assertThat(erva.getDataCriacao()).isNotNull();
+        assertThat(produtoRepository.findBySku("IMP-2").orElseThrow().getAtivo()).isTrue();
+    }
+
+    @Test
+    void ndjsonAtualizaOQueOCadastroJaConhecia() throws Exception {
+        Produto existente = new Produto();
+        existente.setSku("IMP-NDJ");
+        existente.setNome("Chimarrão antigo");
+        existente.setPreco(BigDecimal.ONE);
+        produtoService.salvar(existente);
+        // Caches the old detail, which the import must invalidate
+        produtoService.buscarDtoPorId(existente.getId());
+
+        String ndjson = "{\"sku\":\"IMP-NDJ\",\"nome\":\"Chimarrão novo\",\"preco\":19.9,\"estoque\":3}\n"
+                + "\n"
+                + "{\"sku\":\"IMP-NDJ-2\",\"nome\":\"Garrafa térmica\",\"preco\":\"89.90\"}\n"
+                + "{não é json}\n";
+
+        RelatorioImportacaoDTO relatorio = importacaoProdutoService.importar(new StringReader(ndjson),
+                FormatoImportacao.NDJSON, p -> { });
+
+        assertThat(relatorio.getInseridos()).isEqualTo(1);
+        assertThat(relatorio.getAtualizados()).isEqualTo(1);
+        assertThat(relatorio.getErros()).singleElement().extracting(ErroImportacaoDTO::getLinha).isEqualTo(4L);
+        assertThat(produtoService.buscarDtoPorId(existente.getId()).getNome()).isEqualTo("Chimarrão novo");
+        assertThat(buscaService.buscar("garrafa termica", null, 0, 10).getTotal()).isEqualTo(1);
+    }
+}
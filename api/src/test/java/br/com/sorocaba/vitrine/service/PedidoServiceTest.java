@@ -0,0 +1,156 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.db.LimitadorBanco;
+import br.com.sorocaba.vitrine.dto.EstoqueDTO;
+import br.com.sorocaba.vitrine.dto.PedidoDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoPedidoDTO;
+import br.com.sorocaba.vitrine.dto.SolicitacaoReservaDTO;
+import br.com.sorocaba.vitrine.exception.InsufficientStockException;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.model.StatusPedido;
+import br.com.sorocaba.vitrine.repository.PedidoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Orders are acknowledged before they are written, and reach the database in group commits.
+ * The periodic stock batch is pushed out of the way, so nothing but the order writer moves the rows.
+ */
+@SpringBootTest(properties = "app.estoque.persistencia=PT1H")
+@ActiveProfiles("test")
+class PedidoServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int PEDIDOS_POR_THREAD = 50;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private LimitadorBanco limitadorBanco;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pedidosConcorrentesSaoGravadosEmLotes() throws Exception {
+        Produto produto = produtoService.salvar(produto("Broa de milho", "4.50", 1_000));
+        long lotesAntes = pedidoService.estatisticas().lotes();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<UUID>>> aceitos = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            aceitos.add(executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>();
+                for (int i = 0; i < PEDIDOS_POR_THREAD; i++) {
+                    ids.add(pedidoService.receber(solicitacao(produto.getId(), 2)).getId());
+                }
+                return ids;
+            }));
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (Future<List<UUID>> futuro : aceitos) {
+            ids.addAll(futuro.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        aguardarFilaVazia();
+
+        int total = THREADS * PEDIDOS_POR_THREAD;
+        assertThat(pedidoRepository.findAllById(ids)).hasSize(total);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM itens_pedido WHERE produto_id = ?",
+                Integer.class, produto.getId())).isEqualTo(total);
+        assertThat(pedidoService.estatisticas().lotes() - lotesAntes).isLessThan(total);
+
+        PedidoDTO gravado = pedidoService.buscarPorId(ids.get(0));
+        assertThat(gravado.getStatus()).isEqualTo(StatusPedido.RECEBIDO);
+        assertThat(gravado.getTotal()).isEqualByComparingTo("9.00");
+        assertThat(gravado.getItens()).singleElement()
+                .satisfies(item -> assertThat(item.getNomeProduto()).isEqualTo("Broa de milho"));
+    }
+
+    @Test
+    void pedidoSemEstoqueNaoEAceitoENaoPrendeUnidades() {
+        Produto produto = produtoService.salvar(produto("Pamonha", "6.00", 3));
+        Produto outro = produtoService.salvar(produto("Curau", "5.00", 10));
+        SolicitacaoPedidoDTO solicitacao = solicitacao(outro.getId(), 4);
+        solicitacao.getItens().add(new SolicitacaoReservaDTO(produto.getId(), 5));
+
+        assertThatThrownBy(() -> pedidoService.receber(solicitacao)).isInstanceOf(InsufficientStockException.class);
+
+        PedidoDTO aceito = pedidoService.receber(solicitacao(outro.getId(), 10));
+        assertThat(aceito.getStatus()).isEqualTo(StatusPedido.PENDENTE);
+    }
+
+    @Test
+    void estoqueDoPedidoChegaAoBancoComOPedido() throws Exception {
+        Produto produto = produtoService.salvar(produto("Quentão", "8.00", 5));
+        UUID id = pedidoService.receber(solicitacao(produto.getId(), 3)).getId();
+        aguardarFilaVazia();
+
+        // The writer is killed here, before any stock batch: the order and its decrement are both in
+        assertThat(pedidoRepository.findById(id)).isPresent();
+        assertThat(estoqueGravado(produto.getId())).isEqualTo(2);
+
+        // A restarted process reads the row, so the three units cannot be sold again
+        EstoqueService reiniciado = new EstoqueService(jdbcTemplate, limitadorBanco, evento -> { });
+        assertThat(reiniciado.consultar(produto.getId()).getDisponivel()).isEqualTo(2);
+
+        // And the running one does not write them a second time
+        estoqueService.persistir();
+        assertThat(estoqueGravado(produto.getId())).isEqualTo(2);
+        EstoqueDTO estoque = estoqueService.consultar(produto.getId());
+        assertThat(estoque.getDisponivel()).isEqualTo(2);
+        assertThat(estoque.getPendenteGravacao()).isZero();
+    }
+
+    private int estoqueGravado(long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT estoque FROM produtos WHERE id = ?", Integer.class, produtoId);
+    }
+
+    private void aguardarFilaVazia() throws InterruptedException {
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (pedidoService.estatisticas().pendentes() > 0 && System.nanoTime() < prazo) {
+            Thread.sleep(20);
+        }
+        assertThat(pedidoService.estatisticas().pendentes()).isZero();
+    }
+
+    private static SolicitacaoPedidoDTO solicitacao(long produtoId, int quantidade) {
+        SolicitacaoPedidoDTO solicitacao = new SolicitacaoPedidoDTO();
+        solicitacao.setNomeCliente("Cliente de Teste");
+        solicitacao.setEmailCliente("cliente@exemplo.com");
+        solicitacao.getItens().add(new SolicitacaoReservaDTO(produtoId, quantidade));
+        return solicitacao;
+    }
+
+    private static Produto produto(String nome, String preco, int estoque) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setPreco(new BigDecimal(preco));
+        produto.setEstoque(estoque);
+        return produto;
+    }
+}
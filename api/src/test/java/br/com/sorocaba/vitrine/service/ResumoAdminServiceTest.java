@@ -0,0 +1,140 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.AdminSummaryDTO;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory admin counters must follow the salvar/deletar paths exactly,
+ * so that a reconciliation against the database never finds anything to correct.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumoAdminServiceTest {
+
+    @Autowired
+    private ResumoAdminService resumoAdminService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void contadoresAcompanhamEscritasSemConsultarOBanco() {
+        resumoAdminService.reconciliar();
+        AdminSummaryDTO inicial = resumoAdminService.obterResumo();
+
+        Produto produto = produtoService.salvar(produto("Cuia", "12.50", 4, true));
+        Produto inativo = produtoService.salvar(produto("Bomba", "30.00", 2, false));
+        AdminSummaryDTO aposInsercao = resumoAdminService.obterResumo();
+        assertThat(aposInsercao.totalProdutos()).isEqualTo(inicial.totalProdutos() + 2);
+        assertThat(aposInsercao.produtosInativos()).isEqualTo(inicial.produtosInativos() + 1);
+        assertThat(aposInsercao.unidadesEmEstoque()).isEqualTo(inicial.unidadesEmEstoque() + 4);
+        assertThat(aposInsercao.valorCatalogo()).isEqualByComparingTo(inicial.valorCatalogo().add(new BigDecimal("50.00")));
+
+        // Detached update, as the admin form does: deactivating removes stock and value
+        produto.setAtivo(false);
+        produtoService.salvar(produto);
+        inativo.setAtivo(true);
+        inativo.setEstoque(3);
+        produtoService.salvar(inativo);
+        produtoService.deletar(produto.getId());
+
+        Usuario autor = new Usuario();
+        autor.setNome("Contador");
+        autor.setEmail("contador@teste.com");
+        autor.setSenha("senha123");
+        autor = usuarioService.salvar(autor);
+
+        Post rascunho = new Post();
+        rascunho.setTitulo("Rascunho");
+        rascunho.setAutor(autor);
+        rascunho = postService.salvar(rascunho);
+        rascunho.setPublicado(true);
+        postService.salvar(rascunho);
+        Post outro = new Post();
+        outro.setTitulo("Outro rascunho");
+        outro.setAutor(autor);
+        postService.salvar(outro);
+
+        AdminSummaryDTO atual = resumoAdminService.obterResumo();
+        assertThat(atual.totalProdutos()).isEqualTo(inicial.totalProdutos() + 1);
+        assertThat(atual.produtosAtivos()).isEqualTo(inicial.produtosAtivos() + 1);
+        assertThat(atual.unidadesEmEstoque()).isEqualTo(inicial.unidadesEmEstoque() + 3);
+        assertThat(atual.valorCatalogo()).isEqualByComparingTo(inicial.valorCatalogo().add(new BigDecimal("90.00")));
+        assertThat(atual.totalUsuarios()).isEqualTo(inicial.totalUsuarios() + 1);
+        assertThat(atual.postsPublicados()).isEqualTo(inicial.postsPublicados() + 1);
+        assertThat(atual.postsRascunho()).isEqualTo(inicial.postsRascunho() + 1);
+
+        resumoAdminService.reconciliar();
+        assertThat(resumoAdminService.obterResumo())
+                .usingRecursiveComparison()
+                .ignoringFields("reconciliadoEm")
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(atual);
+    }
+
+    @Test
+    void vendaGravadaTiraUnidadesEValorDoPainel() {
+        Produto produto = produtoService.salvar(produto("Rapadura", "12.50", 10, true));
+        resumoAdminService.reconciliar();
+        AdminSummaryDTO inicial = resumoAdminService.obterResumo();
+
+        estoqueService.confirmar(estoqueService.reservar(produto.getId(), 3).id());
+        estoqueService.persistir();
+
+        AdminSummaryDTO aposVenda = resumoAdminService.obterResumo();
+        assertThat(aposVenda.unidadesEmEstoque()).isEqualTo(inicial.unidadesEmEstoque() - 3);
+        assertThat(aposVenda.valorCatalogo()).isEqualByComparingTo(inicial.valorCatalogo().subtract(new BigDecimal("37.50")));
+
+        resumoAdminService.reconciliar();
+        assertThat(resumoAdminService.obterResumo())
+                .usingRecursiveComparison()
+                .ignoringFields("reconciliadoEm")
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(aposVenda);
+    }
+
+    @Test
+    void escritaDesfeitaNaoAlteraContadores() {
+        resumoAdminService.reconciliar();
+        AdminSummaryDTO inicial = resumoAdminService.obterResumo();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            produtoService.salvar(produto("Descartado", "9.90", 1, true));
+            status.setRollbackOnly();
+        });
+
+        assertThat(resumoAdminService.obterResumo().totalProdutos()).isEqualTo(inicial.totalProdutos());
+    }
+
+    private static Produto produto(String nome, String preco, int estoque, boolean ativo) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setPreco(new BigDecimal(preco));
+        produto.setEstoque(estoque);
+        produto.setAtivo(ativo);
+        return produto;
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.dto.ItemRankingDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.model.TipoVisualizacao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Views are counted in memory, reach the table only through the batched flush and feed the
+ * ranking from it; cached pages and API reads count the same as rendered ones, and feed the
+ * trending rails too.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VisualizacaoServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VisualizacaoService visualizacaoService;
+
+    @Autowired
+    private TendenciaService tendenciaService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void paginasEmCacheEApiContamEORankingSaiDoFlush() throws Exception {
+        Produto queijo = produtoService.salvar(produto("Queijo canastra"));
+        Produto goiabada = produtoService.salvar(produto("Goiabada cascão"));
+        // The first GET renders the page, the others are answered by the page cache
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/loja/produto/" + queijo.getId())).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/produtos/" + queijo.getId())).andExpect(status().isOk());
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/produtos/" + goiabada.getId())).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/loja/produto/987654321"));
+        visualizacaoService.persistir();
+
+        assertThat(total(queijo.getId())).isEqualTo(4);
+        assertThat(total(goiabada.getId())).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM visualizacoes WHERE referencia_id = 987654321", Integer.class)).isZero();
+        List<Long> ranking = visualizacaoService.maisVistos(100).stream()
+                .map(ItemRankingDTO::getItem).map(ProdutoDTO::getId).toList();
+        assertThat(ranking).containsSubsequence(goiabada.getId(), queijo.getId());
+        mockMvc.perform(get("/api/produtos/mais-vistos").param("limite", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.item.id == %d)].visualizacoes", goiabada.getId()).value(5));
+        tendenciaService.atualizar();
+        List<Long> tendencias = tendenciaService.tendencias(0).getProdutos().stream()
+                .map(ItemRankingDTO::getItem).map(ProdutoDTO::getId).toList();
+        assertThat(tendencias).containsSubsequence(goiabada.getId(), queijo.getId());
+
+        produtoService.deletar(goiabada.getId());
+
+        assertThat(visualizacaoService.maisVistos(100)).extracting(item -> item.getItem().getId())
+                .doesNotContain(goiabada.getId());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM visualizacoes WHERE referencia_id = ?", Integer.class, goiabada.getId())).isZero();
+    }
+
+    @Test
+    void nenhumaVisualizacaoSePerdeComFlushDuranteAContagem() throws Exception {
+        long id = produtoService.salvar(produto("Doce de leite")).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 5_000; i++) {
+                    visualizacaoService.registrar(TipoVisualizacao.PRODUTO, id);
+                }
+                return null;
+            }));
+        }
+        Future<?> flushes = executor.submit(() -> {
+            largada.await();
+            for (int i = 0; i < 20; i++) {
+                visualizacaoService.persistir();
+            }
+            return null;
+        });
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        flushes.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+        visualizacaoService.persistir();
+
+        assertThat(total(id)).isEqualTo(THREADS * 5_000L);
+    }
+
+    private long total(long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT total FROM visualizacoes WHERE tipo = ? AND referencia_id = ?",
+                Long.class, TipoVisualizacao.PRODUTO.name(), produtoId);
+    }
+
+    private static Produto produto(String nome) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setPreco(new BigDecimal("12.00"));
+        produto.setEstoque(5);
+        return produto;
+    }
+}
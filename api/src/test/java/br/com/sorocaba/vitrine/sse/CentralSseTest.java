@@ -0,0 +1,127 @@
+package br.com.sorocaba.vitrine.sse;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CentralSseTest {
+
+    @Test
+    void clienteLentoGuardaSoOsFramesMaisRecentes() throws IOException {
+        CentralSse central = new CentralSse(10, 3, Duration.ofMinutes(1));
+        SaidaControlada saida = new SaidaControlada();
+        assertThat(central.reservar()).isTrue();
+        central.abrir(contexto(saida), frame("inicio|"));
+
+        // The client takes nothing, so only the newest frames stay queued
+        for (int i = 1; i <= 5; i++) {
+            central.publicar(frame("e" + i + "|"));
+        }
+        central.manterVivas();
+        assertThat(saida.escrito()).isEmpty();
+        assertThat(central.estatisticas().descartados()).isEqualTo(3);
+
+        saida.liberar();
+        assertThat(saida.escrito()).isEqualTo("e3|e4|e5|");
+        assertThat(saida.flushes).isEqualTo(1);
+
+        // Nothing queued any more: the keep-alive goes out
+        central.manterVivas();
+        assertThat(saida.escrito()).endsWith(":\n\n");
+    }
+
+    @Test
+    void clienteQueSaiuLiberaAVaga() throws IOException {
+        CentralSse central = new CentralSse(1, 4, Duration.ofMinutes(1));
+        SaidaControlada saida = new SaidaControlada();
+        assertThat(central.reservar()).isTrue();
+        central.abrir(contexto(saida), CentralSse.marco("1.1"));
+        saida.liberar();
+        assertThat(saida.escrito()).isEqualTo("id: 1.1\n\n");
+        assertThat(central.reservar()).isFalse();
+
+        saida.falhar = true;
+        central.publicar(CentralSse.evento("2.1", "alteracoes", "{}"));
+
+        assertThat(central.estatisticas().abertas()).isZero();
+        assertThat(central.estatisticas().recusadas()).isEqualTo(1);
+        assertThat(central.reservar()).isTrue();
+    }
+
+    @Test
+    void eventoTemIdTipoEDados() {
+        String evento = new String(CentralSse.evento("a.b", "alteracoes", "{\"x\":1}"), StandardCharsets.UTF_8);
+
+        assertThat(evento).isEqualTo("id: a.b\nevent: alteracoes\ndata: {\"x\":1}\n\n");
+    }
+
+    private static AsyncContext contexto(SaidaControlada saida) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return new MockAsyncContext(new MockHttpServletRequest(), new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return saida;
+            }
+        });
+    }
+
+    private static byte[] frame(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Non-blocking output stream that is not ready until the test lets the client read.
+     */
+    private static final class SaidaControlada extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean pronta;
+        private boolean falhar;
+        private int flushes;
+
+        void liberar() throws IOException {
+            pronta = true;
+            listener.onWritePossible();
+        }
+
+        String escrito() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isReady() {
+            return pronta;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (falhar) {
+                throw new IOException("Broken pipe");
+            }
+            bytes.write(b);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
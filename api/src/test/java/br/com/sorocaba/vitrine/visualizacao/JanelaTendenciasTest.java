@@ -0,0 +1,65 @@
+package br.com.sorocaba.vitrine.visualizacao;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JanelaTendenciasTest {
+
+    @Test
+    void encontraOsFrequentesNoMeioDeMuitosIdsUnicos() {
+        ContagemFrequentes resumo = new ContagemFrequentes(64);
+        Random random = new Random(21);
+        // 100k views: ids 1..5 get 2% each, the rest are ids seen about once
+        for (int i = 0; i < 100_000; i++) {
+            resumo.incrementar(random.nextInt(100) < 10 ? 1 + random.nextInt(5) : 1_000 + random.nextInt(1_000_000));
+        }
+
+        long[] ids = new long[64];
+        long[] contagens = new long[64];
+        int copiados = resumo.copiar(ids, contagens);
+        assertThat(copiados).isEqualTo(64);
+        for (long frequente = 1; frequente <= 5; frequente++) {
+            int indice = indiceDe(ids, copiados, frequente);
+            assertThat(indice).as("id %d", frequente).isNotNegative();
+            // The guaranteed count never overshoots the ~2000 real views
+            assertThat(contagens[indice]).isBetween(500L, 2_300L);
+        }
+    }
+
+    @Test
+    void visualizacoesAntigasPesamMenosESaemDaJanela() {
+        AtomicLong agora = new AtomicLong(0);
+        JanelaTendencias janela = new JanelaTendencias(Duration.ofMinutes(60), 6, Duration.ofMinutes(10), 16, agora::get);
+
+        views(janela, 1L, 100);
+        agora.addAndGet(Duration.ofMinutes(30).toMillis());
+        views(janela, 2L, 20);
+
+        // Three half-lives later, 100 old views weigh 12.5, less than 20 new ones
+        assertThat(janela.calcular(2)).extracting(JanelaTendencias.Posicao::id).containsExactly(2L, 1L);
+        assertThat(janela.calcular(2).get(1).pontos()).isEqualTo(12.5);
+
+        agora.addAndGet(Duration.ofMinutes(40).toMillis());
+        assertThat(janela.calcular(2)).extracting(JanelaTendencias.Posicao::id).containsExactly(2L);
+    }
+
+    private static void views(JanelaTendencias janela, long id, int vezes) {
+        for (int i = 0; i < vezes; i++) {
+            janela.registrar(id);
+        }
+    }
+
+    private static int indiceDe(long[] ids, int tamanho, long id) {
+        for (int i = 0; i < tamanho; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
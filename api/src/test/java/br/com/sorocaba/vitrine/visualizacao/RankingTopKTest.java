@@ -0,0 +1,55 @@
+package br.com.sorocaba.vitrine.visualizacao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankingTopKTest {
+
+    @Test
+    void acompanhaOsMaioresTotaisComoUmaOrdenacaoCompleta() {
+        Random random = new Random(20);
+        RankingTopK ranking = new RankingTopK(10);
+        Map<Long, Long> totais = new HashMap<>();
+        for (int rodada = 0; rodada < 500; rodada++) {
+            Map<Long, Long> alterados = new HashMap<>();
+            for (int i = 0; i < 20; i++) {
+                long id = random.nextInt(300);
+                // Skewed like real traffic: low ids get most of the views
+                long views = random.nextInt(1 + (int) (300 - id) / 10);
+                alterados.put(id, totais.merge(id, views, Long::sum));
+            }
+            ranking.atualizar(alterados);
+        }
+
+        assertThat(ranking.primeiros()).containsExactlyElementsOf(esperado(totais, 10));
+    }
+
+    @Test
+    void reconstruirPreencheOLugarDeQuemSaiu() {
+        RankingTopK ranking = new RankingTopK(2);
+        Map<Long, Long> totais = new HashMap<>(Map.of(1L, 30L, 2L, 20L, 3L, 10L));
+        ranking.atualizar(totais);
+        assertThat(ranking.primeiros()).extracting(RankingTopK.Posicao::id).containsExactly(1L, 2L);
+
+        totais.remove(1L);
+        ranking.reconstruir(totais);
+
+        assertThat(ranking.primeiros()).extracting(RankingTopK.Posicao::id).containsExactly(2L, 3L);
+    }
+
+    private static List<RankingTopK.Posicao> esperado(Map<Long, Long> totais, int k) {
+        List<RankingTopK.Posicao> todos = new ArrayList<>();
+        totais.forEach((id, total) -> todos.add(new RankingTopK.Posicao(id, total)));
+        todos.sort(Comparator.comparingLong(RankingTopK.Posicao::total).reversed()
+                .thenComparingLong(RankingTopK.Posicao::id));
+        return todos.subList(0, k);
+    }
+}
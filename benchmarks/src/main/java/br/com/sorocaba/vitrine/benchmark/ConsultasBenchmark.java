@@ -0,0 +1,98 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import br.com.sorocaba.vitrine.dto.ResultadoBuscaDTO;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.repository.PostRepository;
+import br.com.sorocaba.vitrine.repository.ProdutoRepository;
+import br.com.sorocaba.vitrine.service.BuscaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository list queries and both search paths (SQL LIKE and the in-memory index)
+ * against a seeded H2, each call in its own transaction as the services run them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsultasBenchmark {
+
+    private static final Limit PAGINA = Limit.of(21);
+
+    @Param({"10000", "100000"})
+    public int linhas;
+
+    private ContextoAplicacao contexto;
+    private ProdutoRepository produtoRepository;
+    private PostRepository postRepository;
+    private BuscaService buscaService;
+    private Post postProfundo;
+
+    @Setup
+    public void preparar() {
+        contexto = ContextoAplicacao.iniciar(linhas, linhas);
+        produtoRepository = contexto.bean(ProdutoRepository.class);
+        postRepository = contexto.bean(PostRepository.class);
+        buscaService = contexto.bean(BuscaService.class);
+        // Published posts run newest first, so a low id sits near the end of the listing
+        postProfundo = postRepository.findById(linhas / 10L).orElseThrow();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Produto> produtosPrimeiraPagina() {
+        return produtoRepository.findAtivosAposId(0L, PAGINA);
+    }
+
+    @Benchmark
+    public List<Produto> produtosPaginaProfunda() {
+        return produtoRepository.findAtivosAposId(linhas * 9L / 10, PAGINA);
+    }
+
+    @Benchmark
+    public List<Post> postsPrimeiraPagina() {
+        return postRepository.findByPublicadoTrueOrderByDataPublicacaoDescIdDesc(PAGINA);
+    }
+
+    @Benchmark
+    public List<Post> postsPaginaProfunda() {
+        return postRepository.findPublicadosApos(postProfundo.getDataPublicacao(), postProfundo.getId(), PAGINA);
+    }
+
+    @Benchmark
+    public List<Produto> produtosPorNomeLike() {
+        return produtoRepository.findByNomeContainingIgnoreCase("cerâmica mel");
+    }
+
+    @Benchmark
+    public List<Post> postsPorTituloLike() {
+        return postRepository.findByTituloContainingIgnoreCase("queijo artesanal");
+    }
+
+    @Benchmark
+    public ResultadoBuscaDTO buscaIndiceInvertido() {
+        return buscaService.buscar("queijo artesanal", null, 0, 20);
+    }
+}
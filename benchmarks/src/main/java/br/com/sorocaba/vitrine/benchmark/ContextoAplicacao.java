@@ -0,0 +1,125 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import br.com.sorocaba.vitrine.VitrineSorocabanaApplication;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.service.BuscaService;
+import org.springframework.boot.ApplicationContextFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the real application against a private in-memory H2 and seeds it with synthetic data.
+ *
+ * The context runs on a mock servlet environment (as @SpringBootTest does), so MVC, Security and
+ * Thymeleaf are fully configured but no port is opened. Settings are passed as command-line
+ * arguments so they take precedence over api/src/main/resources/application.yml.
+ */
+public final class ContextoAplicacao implements AutoCloseable {
+
+    private static final int LOTE = 1000;
+    private static final int AUTORES = 50;
+
+    private final ConfigurableApplicationContext contexto;
+    private final MockServletContext servletContext;
+
+    private ContextoAplicacao(ConfigurableApplicationContext contexto, MockServletContext servletContext) {
+        this.contexto = contexto;
+        this.servletContext = servletContext;
+    }
+
+    public static ContextoAplicacao iniciar(int produtos, int posts) {
+        MockServletContext servletContext = new MockServletContext();
+        SpringApplication aplicacao = new SpringApplication(VitrineSorocabanaApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.SERVLET);
+        aplicacao.setApplicationContextFactory(
+                ApplicationContextFactory.of(() -> new GenericWebApplicationContext(servletContext)));
+        ConfigurableApplicationContext contexto = aplicacao.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                "--spring.thymeleaf.cache=true",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.br.com.sorocaba=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, contexto);
+
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        popular(jdbc, produtos, posts);
+        contexto.getBean(BuscaService.class).construirIndice();
+        return new ContextoAplicacao(contexto, servletContext);
+    }
+
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    public WebApplicationContext webContext() {
+        return (WebApplicationContext) contexto;
+    }
+
+    public MockServletContext servletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public void close() {
+        contexto.close();
+    }
+
+    private static void popular(JdbcTemplate jdbc, int produtos, int posts) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> linhas = new ArrayList<>(AUTORES);
+        for (int i = 1; i <= AUTORES; i++) {
+            linhas.add(new Object[]{(long) i, "Autor " + i, "autor" + i + "@bench.local", "$2a$10$benchmark", agora});
+        }
+        jdbc.batchUpdate("INSERT INTO usuarios (id, nome, email, senha, role, ativo, data_criacao) "
+                + "VALUES (?, ?, ?, ?, 'ROLE_USER', TRUE, ?)", linhas);
+
+        linhas.clear();
+        for (Produto p : DadosSinteticos.produtos(produtos)) {
+            linhas.add(new Object[]{p.getId(), p.getNome(), p.getDescricao(), p.getPreco(), p.getImagemUrl(),
+                    p.getEstoque(), p.getAtivo(), agora});
+            if (linhas.size() == LOTE) {
+                inserirProdutos(jdbc, linhas);
+            }
+        }
+        inserirProdutos(jdbc, linhas);
+
+        for (Post p : DadosSinteticos.posts(posts, AUTORES)) {
+            linhas.add(new Object[]{p.getId(), p.getTitulo(), p.getConteudo(), p.getAutor().getId(), p.getPublicado(),
+                    Timestamp.valueOf(p.getDataPublicacao()), agora});
+            if (linhas.size() == LOTE) {
+                inserirPosts(jdbc, linhas);
+            }
+        }
+        inserirPosts(jdbc, linhas);
+    }
+
+    private static void inserirProdutos(JdbcTemplate jdbc, List<Object[]> linhas) {
+        jdbc.batchUpdate("INSERT INTO produtos (id, nome, descricao, preco, imagem_url, estoque, ativo, data_criacao) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", linhas);
+        linhas.clear();
+    }
+
+    private static void inserirPosts(JdbcTemplate jdbc, List<Object[]> linhas) {
+        jdbc.batchUpdate("INSERT INTO posts (id, titulo, conteudo, autor_id, publicado, data_publicacao, data_criacao) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", linhas);
+        linhas.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import br.com.sorocaba.vitrine.model.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic catalog and blog data shared by the benchmarks, so every run measures the same input.
+ */
+public final class DadosSinteticos {
+
+    static final String[] PALAVRAS = {
+            "café", "artesanal", "sorocaba", "cerâmica", "orgânico", "mel", "queijo", "doce", "leite",
+            "caneca", "tecido", "couro", "madeira", "vela", "sabonete", "chá", "geleia", "pão", "bolo", "vinho"
+    };
+
+    private static final long SEMENTE = 42L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private DadosSinteticos() {
+    }
+
+    public static List<Produto> produtos(int quantidade) {
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        List<Produto> produtos = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i);
+            produto.setNome(frase(random, 3) + " " + i);
+            produto.setDescricao(frase(random, 24));
+            produto.setPreco(BigDecimal.valueOf(random.nextInt(100, 100_000), 2));
+            produto.setImagemUrl("/images/produtos/" + i + ".jpg");
+            produto.setEstoque(random.nextInt(0, 500));
+            produto.setAtivo(random.nextInt(10) != 0);
+            produtos.add(produto);
+        }
+        return produtos;
+    }
+
+    public static List<Post> posts(int quantidade, int autores) {
+        SplittableRandom random = new SplittableRandom(SEMENTE + 1);
+        List<Usuario> usuarios = new ArrayList<>(autores);
+        for (int i = 1; i <= autores; i++) {
+            Usuario autor = new Usuario();
+            autor.setId((long) i);
+            autor.setNome("Autor " + i);
+            autor.setEmail("autor" + i + "@bench.local");
+            usuarios.add(autor);
+        }
+        List<Post> posts = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            Post post = new Post();
+            post.setId((long) i);
+            post.setTitulo(frase(random, 6));
+            post.setConteudo("<p>" + frase(random, 120) + "</p>");
+            post.setAutor(usuarios.get(random.nextInt(autores)));
+            post.setPublicado(random.nextInt(5) != 0);
+            post.setDataPublicacao(BASE.plusMinutes(i));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    public static List<ProdutoDTO> produtoDtos(int quantidade) {
+        List<ProdutoDTO> dtos = new ArrayList<>(quantidade);
+        for (Produto p : produtos(quantidade)) {
+            dtos.add(new ProdutoDTO(p.getId(), p.getNome(), p.getDescricao(), p.getPreco(),
+                    p.getImagemUrl(), p.getEstoque(), p.getAtivo(), p.getImagemUrl(), p.getImagemUrl()));
+        }
+        return dtos;
+    }
+
+    public static List<PostDTO> postDtos(int quantidade) {
+        List<PostDTO> dtos = new ArrayList<>(quantidade);
+        for (Post p : posts(quantidade, 50)) {
+            dtos.add(new PostDTO(p.getId(), p.getTitulo(), p.getConteudo(), p.getAutor().getId(),
+                    p.getAutor().getNome(), p.getPublicado(), p.getDataPublicacao()));
+        }
+        return dtos;
+    }
+
+    static String frase(SplittableRandom random, int palavras) {
+        StringBuilder sb = new StringBuilder(palavras * 8);
+        for (int i = 0; i < palavras; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+        }
+        return sb.toString();
+    }
+}
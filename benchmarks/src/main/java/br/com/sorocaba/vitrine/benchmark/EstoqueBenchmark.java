@@ -0,0 +1,51 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import br.com.sorocaba.vitrine.estoque.EstoqueListrado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservations on a single hot product from many threads: one counter cell (every thread CASes
+ * the same cache line) against the striped counter. Each operation reserves a unit and gives
+ * it back, so the stock never runs out during the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class EstoqueBenchmark {
+
+    @Param({"1", "8"})
+    public int listras;
+
+    private EstoqueListrado estoque;
+
+    @Setup
+    public void preparar() {
+        estoque = new EstoqueListrado(1_000_000, listras);
+    }
+
+    @Benchmark
+    public boolean reservarEDevolver() {
+        boolean reservado = estoque.reservar(1);
+        if (reservado) {
+            estoque.devolver(1);
+        }
+        return reservado;
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import br.com.sorocaba.vitrine.limite.LimitadorTaxa;
+import br.com.sorocaba.vitrine.limite.OrcamentoRota;
+import br.com.sorocaba.vitrine.web.LimiteTaxaFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the rate limiter adds to each /api request, with budgets so large nothing is refused:
+ * the token CAS alone, for one client shared by every thread and for a client per thread, and the
+ * whole filter against a chain that does nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LimiteTaxaBenchmark {
+
+    private static final FilterChain NADA = (request, response) -> { };
+
+    private LimitadorTaxa limitador;
+    private LimiteTaxaFilter filtro;
+
+    @Setup
+    public void preparar() throws IOException {
+        List<OrcamentoRota> rotas = List.of(
+                new OrcamentoRota("GET", "/api/produtos", 1e9, 1_000_000_000),
+                new OrcamentoRota("GET", "/api/posts", 1e9, 1_000_000_000),
+                new OrcamentoRota("POST", "/api/pedidos", 1e9, 1_000_000_000),
+                new OrcamentoRota(null, "/api/**", 1e9, 1_000_000_000));
+        limitador = new LimitadorTaxa(rotas, 1e9, 1_000_000_000, 50_000, Duration.ofMinutes(1));
+        filtro = new LimiteTaxaFilter(limitador, new ObjectMapper());
+    }
+
+    @State(Scope.Thread)
+    public static class Cliente {
+
+        private static final AtomicInteger PROXIMO = new AtomicInteger();
+
+        String endereco;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void preparar() {
+            endereco = "10.0.0." + PROXIMO.incrementAndGet();
+            request = new MockHttpServletRequest("GET", "/api/produtos/42");
+            request.setServletPath("/api/produtos/42");
+            request.setRemoteAddr(endereco);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public long tentarMesmoCliente() {
+        return limitador.tentar("GET", "/api/produtos/42", "10.0.0.1");
+    }
+
+    @Benchmark
+    public long tentarClientePorThread(Cliente cliente) {
+        return limitador.tentar("GET", "/api/produtos/42", cliente.endereco);
+    }
+
+    @Benchmark
+    public void semFiltro(Cliente cliente) throws Exception {
+        NADA.doFilter(cliente.request, cliente.response);
+    }
+
+    @Benchmark
+    public void comFiltro(Cliente cliente) throws Exception {
+        filtro.doFilter(cliente.request, cliente.response, NADA);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import br.com.sorocaba.vitrine.catalogo.ColunasPosts;
+import br.com.sorocaba.vitrine.catalogo.ColunasProdutos;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap retained per product by the ways the public catalog can be held in memory:
+ * the entities Hibernate loads, the DTOs the API used to build, and the column snapshot of the
+ * read model. Each structure is built on its own and measured as the used-heap delta after full GCs,
+ * so run it with a stop-the-world collector for stable numbers.
+ *
+ * Usage: MemoriaCatalogo [quantidade]
+ */
+public final class MemoriaCatalogo {
+
+    private static final MemoryMXBean MEMORIA = ManagementFactory.getMemoryMXBean();
+
+    private MemoriaCatalogo() {
+    }
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        System.out.printf(Locale.ROOT, "%d produtos e %d posts sintéticos%n", quantidade, quantidade / 10);
+
+        medir("List<Produto> (entidades)", quantidade, () -> comDatas(DadosSinteticos.produtos(quantidade)));
+        medir("List<ProdutoDTO>", quantidade, () -> DadosSinteticos.produtoDtos(quantidade));
+        medir("ColunasProdutos", quantidade, () -> {
+            ColunasProdutos.Construtor construtor = new ColunasProdutos.Construtor(quantidade);
+            DadosSinteticos.produtos(quantidade).forEach(produto -> {
+                produto.setAtivo(true);
+                construtor.adicionar(produto);
+            });
+            ColunasProdutos colunas = construtor.construir();
+            System.out.printf(Locale.ROOT, "  (estimativa do próprio snapshot: %d bytes/produto)%n",
+                    colunas.bytesEstimados() / colunas.tamanho());
+            return colunas;
+        });
+
+        int posts = quantidade / 10;
+        medir("List<Post> (entidades)", posts, () -> DadosSinteticos.posts(posts, 50));
+        medir("ColunasPosts", posts, () -> {
+            ColunasPosts.Construtor construtor = new ColunasPosts.Construtor(posts);
+            for (Post post : DadosSinteticos.posts(posts, 50)) {
+                post.setPublicado(true);
+                construtor.adicionar(post);
+            }
+            return construtor.construir();
+        });
+    }
+
+    /**
+     * Hibernate fills both timestamps on every loaded row; the synthetic entities leave them null.
+     */
+    private static List<Produto> comDatas(List<Produto> produtos) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (Produto produto : produtos) {
+            produto.setDataCriacao(agora.minusSeconds(produto.getId()));
+            produto.setDataAtualizacao(agora.minusSeconds(produto.getId() / 2));
+        }
+        return produtos;
+    }
+
+    private static void medir(String nome, int linhas, Supplier<Object> construir) {
+        long antes = heapUsado();
+        Object estrutura = construir.get();
+        long depois = heapUsado();
+        System.out.printf(Locale.ROOT, "%-28s %,12d bytes  %6d bytes/linha%n",
+                nome, depois - antes, (depois - antes) / linhas);
+        Reference.reachabilityFence(estrutura);
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return MEMORIA.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import br.com.sorocaba.vitrine.model.Produto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Rendering of loja/index: the Thymeleaf view alone (layout, security dialect and all) and the
+ * whole GET /loja through the security filters, the controller and the database.
+ * The rendered-page cache filter is deliberately not installed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderizacaoBenchmark {
+
+    @Param({"20", "200"})
+    public int produtos;
+
+    private ContextoAplicacao contexto;
+    private View view;
+    private Map<String, Object> modelo;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void preparar() throws Exception {
+        contexto = ContextoAplicacao.iniciar(produtos, 0);
+        view = contexto.bean(ThymeleafViewResolver.class).resolveViewName("loja/index", Locale.forLanguageTag("pt-BR"));
+        List<Produto> ativos = DadosSinteticos.produtos(produtos).stream()
+                .filter(Produto::getAtivo)
+                .toList();
+        modelo = Map.of("title", "Loja — VitrineSorocabana", "produtos", ativos);
+        mockMvc = MockMvcBuilders.webAppContextSetup(contexto.webContext())
+                .apply(springSecurity())
+                .build();
+
+        // JMH may call the benchmark from another thread than @Setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("benchmark",
+                "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] renderizarTemplate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(contexto.servletContext(), "GET", "/loja");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, contexto.webContext());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(modelo, request, response);
+        return response.getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] requisicaoCompleta() throws Exception {
+        return mockMvc.perform(get("/loja"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.sorocaba.vitrine.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform-thread and virtual-thread modes of a
+ * running instance: N clients each send requests back to back, round-robin over the given paths,
+ * for a fixed time. Throughput, latency percentiles and status counts go to stdout and carga-result.json.
+ *
+ * Usage: TesteCarga &lt;baseUrl&gt; &lt;clientes&gt; &lt;segundos&gt; &lt;caminho&gt;...
+ */
+public final class TesteCarga {
+
+    private static final String RESULTADO = "carga-result.json";
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(5);
+
+    private TesteCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("uso: TesteCarga <baseUrl> <clientes> <segundos> <caminho>...");
+            System.exit(2);
+        }
+        String base = args[0].endsWith("/") ? args[0].substring(0, args[0].length() - 1) : args[0];
+        int clientes = Integer.parseInt(args[1]);
+        Duration duracao = Duration.ofSeconds(Long.parseLong(args[2]));
+        List<URI> alvos = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            alvos.add(URI.create(base + args[i]));
+        }
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        rodar(cliente, alvos, clientes, AQUECIMENTO);
+        Resultado resultado = rodar(cliente, alvos, clientes, duracao);
+
+        String json = resultado.toJson(base, clientes, duracao, alvos);
+        System.out.println(json);
+        Files.writeString(Path.of(RESULTADO), json, StandardCharsets.UTF_8);
+    }
+
+    private static Resultado rodar(HttpClient cliente, List<URI> alvos, int clientes, Duration duracao)
+            throws Exception {
+        long fim = System.nanoTime() + duracao.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        try {
+            List<Future<Medicoes>> futuros = new ArrayList<>(clientes);
+            for (int c = 0; c < clientes; c++) {
+                int deslocamento = c;
+                futuros.add(executor.submit(() -> executarCliente(cliente, alvos, deslocamento, fim)));
+            }
+            Medicoes total = new Medicoes();
+            for (Future<Medicoes> futuro : futuros) {
+                total.somar(futuro.get());
+            }
+            return new Resultado(total, duracao);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Medicoes executarCliente(HttpClient cliente, List<URI> alvos, int deslocamento, long fim) {
+        Medicoes medicoes = new Medicoes();
+        int i = deslocamento;
+        while (System.nanoTime() < fim) {
+            HttpRequest request = HttpRequest.newBuilder(alvos.get(i++ % alvos.size()))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = cliente.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                medicoes.registrar(response.statusCode(), System.nanoTime() - inicio);
+            } catch (IOException ex) {
+                medicoes.registrar(-1, System.nanoTime() - inicio);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return medicoes;
+    }
+
+    private static final class Medicoes {
+
+        private long[] latencias = new long[1024];
+        private int tamanho;
+        private long sucesso;
+        private long servicoIndisponivel;
+        private long outros;
+
+        void registrar(int status, long latenciaNanos) {
+            if (tamanho == latencias.length) {
+                latencias = Arrays.copyOf(latencias, tamanho * 2);
+            }
+            latencias[tamanho++] = latenciaNanos;
+            if (status >= 200 && status < 400) {
+                sucesso++;
+            } else if (status == 503) {
+                servicoIndisponivel++;
+            } else {
+                outros++;
+            }
+        }
+
+        void somar(Medicoes outras) {
+            long[] juntas = Arrays.copyOf(latencias, tamanho + outras.tamanho);
+            System.arraycopy(outras.latencias, 0, juntas, tamanho, outras.tamanho);
+            latencias = juntas;
+            tamanho += outras.tamanho;
+            sucesso += outras.sucesso;
+            servicoIndisponivel += outras.servicoIndisponivel;
+            outros += outras.outros;
+        }
+    }
+
+    private record Resultado(Medicoes medicoes, Duration duracao) {
+
+        String toJson(String base, int clientes, Duration duracaoPedida, List<URI> alvos) {
+            long[] ordenadas = Arrays.copyOf(medicoes.latencias, medicoes.tamanho);
+            Arrays.sort(ordenadas);
+            double segundos = duracao.toNanos() / 1e9;
+            StringBuilder caminhos = new StringBuilder();
+            for (URI alvo : alvos) {
+                caminhos.append(caminhos.length() == 0 ? "" : ", ").append('"').append(alvo.getPath()).append('"');
+            }
+            return String.format(Locale.ROOT, """
+                    {
+                      "baseUrl": "%s",
+                      "caminhos": [%s],
+                      "clientes": %d,
+                      "segundos": %d,
+                      "requisicoes": %d,
+                      "requisicoesPorSegundo": %.1f,
+                      "sucesso": %d,
+                      "servicoIndisponivel": %d,
+                      "outros": %d,
+                      "latenciaMs": {"p50": %.2f, "p90": %.2f, "p99": %.2f, "max": %.2f}
+                    }""",
+                    base, caminhos, clientes, duracaoPedida.toSeconds(), ordenadas.length, ordenadas.length / segundos,
+                    medicoes.sucesso, medicoes.servicoIndisponivel, medicoes.outros,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.90), percentil(ordenadas, 0.99),
+                    percentil(ordenadas, 1.0));
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+            return ordenadas[Math.max(0, indice)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.sorocaba.vitrine.service;
+
+import br.com.sorocaba.vitrine.benchmark.DadosSinteticos;
+import br.com.sorocaba.vitrine.dto.PostDTO;
+import br.com.sorocaba.vitrine.dto.ProdutoDTO;
+import br.com.sorocaba.vitrine.model.Post;
+import br.com.sorocaba.vitrine.model.Produto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of ProdutoService and PostService, without any database access.
+ * Lives in the service package because toDto is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeamentoDtoBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tamanho;
+
+    private ProdutoService produtoService;
+    private PostService postService;
+    private List<Produto> produtos;
+    private List<Post> posts;
+
+    @Setup
+    public void preparar() {
+        produtoService = new ProdutoService(null, null, null, null);
+        postService = new PostService(null, null, null, null);
+        produtos = DadosSinteticos.produtos(tamanho);
+        posts = DadosSinteticos.posts(tamanho, 50);
+    }
+
+    @Benchmark
+    public List<ProdutoDTO> produtoToDto() {
+        List<ProdutoDTO> dtos = new ArrayList<>(produtos.size());
+        for (Produto produto : produtos) {
+            dtos.add(produtoService.toDto(produto));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<PostDTO> postToDto() {
+        List<PostDTO> dtos = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            dtos.add(postService.toDto(post));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,56 @@
+// Writes Brotli (.br) and gzip (.gz) copies next to every compressible file in the given
+// directories, for Spring's EncodedResourceResolver to serve according to Accept-Encoding.
+// Run after each build: a stale copy would be served instead of the changed file.
+import { readdir, readFile, rm, writeFile } from "node:fs/promises";
+import path from "node:path";
+import { brotliCompressSync, constants, gzipSync } from "node:zlib";
+
+const EXTENSIONS = new Set([".js", ".css", ".html", ".svg", ".json", ".txt", ".ico", ".map"]);
+const MIN_BYTES = 1024;
+
+async function* walk(dir) {
+  for (const entry of await readdir(dir, { withFileTypes: true })) {
+    const full = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* walk(full);
+    } else {
+      yield full;
+    }
+  }
+}
+
+async function writeIfSmaller(file, compressed, original) {
+  if (compressed.length < original.length) {
+    await writeFile(file, compressed);
+    return compressed.length;
+  }
+  await rm(file, { force: true });
+  return original.length;
+}
+
+let total = 0;
+for (const dir of process.argv.slice(2)) {
+  for await (const file of walk(dir)) {
+    if (!EXTENSIONS.has(path.extname(file))) {
+      continue;
+    }
+    const original = await readFile(file);
+    if (original.length < MIN_BYTES) {
+      await rm(`${file}.br`, { force: true });
+      await rm(`${file}.gz`, { force: true });
+      continue;
+    }
+    const br = brotliCompressSync(original, {
+      params: {
+        [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+        [constants.BROTLI_PARAM_SIZE_HINT]: original.length,
+      },
+    });
+    const gz = gzipSync(original, { level: 9 });
+    const brBytes = await writeIfSmaller(`${file}.br`, br, original);
+    const gzBytes = await writeIfSmaller(`${file}.gz`, gz, original);
+    total++;
+    console.log(`${path.relative(process.cwd(), file)}: ${original.length} -> br ${brBytes}, gz ${gzBytes}`);
+  }
+}
+console.log(`precompressed ${total} files`);
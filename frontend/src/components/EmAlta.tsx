@@ -0,0 +1,55 @@
+import { useEffect, useState } from "react";
+import { TrendingUp } from "lucide-react";
+import { Badge } from "@/components/ui/badge";
+import { fetchJson } from "@/lib/api";
+
+interface ItemRanking<T> {
+  item: T;
+  visualizacoes: number;
+}
+
+interface Tendencias {
+  produtos: ItemRanking<{ id: number; nome: string }>[];
+  posts: ItemRanking<{ id: number; titulo: string }>[];
+}
+
+interface EmAltaProps {
+  tipo: "produtos" | "posts";
+  limite?: number;
+}
+
+// Trending rail; renders nothing until something has been viewed recently
+export const EmAlta = ({ tipo, limite = 6 }: EmAltaProps) => {
+  const [nomes, setNomes] = useState<{ id: number; nome: string }[]>([]);
+
+  useEffect(() => {
+    let isMounted = true;
+    fetchJson<Tendencias>(`/api/trending?limite=${limite}`)
+      .then((data) => {
+        if (!isMounted) return;
+        setNomes(tipo === "produtos"
+          ? data.produtos.map(({ item }) => ({ id: item.id, nome: item.nome }))
+          : data.posts.map(({ item }) => ({ id: item.id, nome: item.titulo })));
+      })
+      .catch(() => {
+        // The rail is optional; the page works without it
+      });
+    return () => {
+      isMounted = false;
+    };
+  }, [tipo, limite]);
+
+  if (nomes.length === 0) return null;
+
+  return (
+    <div className="mb-8 flex flex-wrap items-center gap-2">
+      <span className="flex items-center gap-1 font-bold text-foreground">
+        <TrendingUp className="h-4 w-4" />
+        Em alta agora:
+      </span>
+      {nomes.map(({ id, nome }) => (
+        <Badge key={id} variant="secondary">{nome}</Badge>
+      ))}
+    </div>
+  );
+};
@@ -0,0 +1,65 @@
+import { useEffect, useRef } from "react";
+import { API_BASE_URL } from "@/lib/api";
+
+export interface Alteracoes<T> {
+  // Both null when the change was too large to push: reload instead
+  alterados: T[] | null;
+  removidos: number[] | null;
+  token: string;
+  completo: boolean;
+}
+
+export interface EventoAlteracoes<P, Q> {
+  desde: string | null;
+  produtos: Alteracoes<P> | null;
+  posts: Alteracoes<Q> | null;
+}
+
+// A full server answers 503, which closes the EventSource for good
+const NOVA_TENTATIVA_MS = 30_000;
+
+/**
+ * Subscribes to the catalog and blog change stream while the component is mounted. The browser
+ * reconnects by itself and resumes from the last event id; perdeuEventos tells the handler that
+ * the server dropped events for this client, so whatever it shows has to be reloaded.
+ */
+export function useAlteracoes<P = unknown, Q = unknown>(
+  aoReceber: (evento: EventoAlteracoes<P, Q>, perdeuEventos: boolean) => void,
+) {
+  const handler = useRef(aoReceber);
+
+  useEffect(() => {
+    handler.current = aoReceber;
+  });
+
+  useEffect(() => {
+    let fonte: EventSource | null = null;
+    let tentativa: ReturnType<typeof setTimeout> | undefined;
+    let ultimoId: string | null = null;
+
+    const ouvir = (mensagem: MessageEvent<string>) => {
+      const evento = JSON.parse(mensagem.data) as EventoAlteracoes<P, Q>;
+      const perdeuEventos = ultimoId !== null && evento.desde !== ultimoId;
+      ultimoId = mensagem.lastEventId;
+      handler.current(evento, perdeuEventos);
+    };
+
+    const conectar = () => {
+      fonte = new EventSource(`${API_BASE_URL}/api/stream`);
+      fonte.addEventListener("alteracoes", ouvir);
+      fonte.onerror = () => {
+        if (fonte?.readyState === EventSource.CLOSED) {
+          fonte.close();
+          tentativa = setTimeout(conectar, NOVA_TENTATIVA_MS);
+        }
+      };
+    };
+
+    conectar();
+
+    return () => {
+      clearTimeout(tentativa);
+      fonte?.close();
+    };
+  }, []);
+}
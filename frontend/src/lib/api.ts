@@ -46,6 +46,18 @@ export async function fetchJson<T>(path: string, init?: RequestInit): Promise<T>
   return response.json() as Promise<T>;
 }
 
+export interface Pagina<T> {
+  itens: T[];
+  proximoCursor: string | null;
+  limite: number;
+}
+
+// Server-relative URLs such as /imagens/... point at the API origin, not the dev server
+export const assetUrl = (url: string) => (url.startsWith("/") ? `${API_BASE_URL}${url}` : url);
+
+export const pageQuery = (cursor: string | null) =>
+  cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+
 export { API_BASE_URL };
 
 
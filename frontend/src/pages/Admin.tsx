@@ -9,9 +9,18 @@ import { fetchJson } from "@/lib/api";
 interface AdminSummary {
   totalUsuarios: number;
   totalProdutos: number;
+  produtosAtivos: number;
+  produtosInativos: number;
+  unidadesEmEstoque: number;
+  valorCatalogo: number;
   totalPosts: number;
+  postsPublicados: number;
+  postsRascunho: number;
 }
 
+const formatarMoeda = (valor: number) =>
+  valor.toLocaleString("pt-BR", { style: "currency", currency: "BRL" });
+
 const Admin = () => {
   const [summary, setSummary] = useState<AdminSummary | null>(null);
   const [isLoading, setIsLoading] = useState(true);
@@ -57,14 +66,18 @@ const Admin = () => {
       titulo: "Produtos",
       descricao: "CRUD básico de produtos da loja",
       icon: Package,
-      stats: summary ? `${summary.totalProdutos} produto(s)` : "—",
+      stats: summary
+        ? `${summary.totalProdutos} produto(s) · ${summary.produtosInativos} inativo(s)`
+        : "—",
     },
     {
       id: 3,
       titulo: "Blog",
       descricao: "Publicações e conteúdo editorial",
       icon: BarChart3,
-      stats: summary ? `${summary.totalPosts} post(s)` : "—",
+      stats: summary
+        ? `${summary.totalPosts} post(s) · ${summary.postsRascunho} rascunho(s)`
+        : "—",
     },
   ]), [summary]);
 
@@ -134,13 +147,25 @@ const Admin = () => {
               <div className="rounded-lg border-2 border-primary/20 bg-muted p-4 text-center">
                 <p className="mb-1 text-sm text-muted-foreground">Produtos Ativos</p>
                 <p className="text-2xl font-bold text-secondary">
-                  {summary ? summary.totalProdutos : "—"}
+                  {summary ? summary.produtosAtivos : "—"}
                 </p>
               </div>
               <div className="rounded-lg border-2 border-primary/20 bg-muted p-4 text-center">
                 <p className="mb-1 text-sm text-muted-foreground">Posts Publicados</p>
                 <p className="text-2xl font-bold text-secondary">
-                  {summary ? summary.totalPosts : "—"}
+                  {summary ? summary.postsPublicados : "—"}
+                </p>
+              </div>
+              <div className="rounded-lg border-2 border-primary/20 bg-muted p-4 text-center">
+                <p className="mb-1 text-sm text-muted-foreground">Unidades em Estoque</p>
+                <p className="text-2xl font-bold text-secondary">
+                  {summary ? summary.unidadesEmEstoque : "—"}
+                </p>
+              </div>
+              <div className="rounded-lg border-2 border-primary/20 bg-muted p-4 text-center">
+                <p className="mb-1 text-sm text-muted-foreground">Valor do Catálogo</p>
+                <p className="text-2xl font-bold text-secondary">
+                  {summary ? formatarMoeda(summary.valorCatalogo) : "—"}
                 </p>
               </div>
             </div>
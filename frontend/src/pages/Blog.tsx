@@ -1,9 +1,12 @@
 import { useEffect, useMemo, useState } from "react";
 import { Header } from "@/components/Header";
 import { Footer } from "@/components/Footer";
+import { EmAlta } from "@/components/EmAlta";
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card";
+import { Button } from "@/components/ui/button";
 import { Calendar } from "lucide-react";
-import { fetchJson } from "@/lib/api";
+import { fetchJson, pageQuery, type Pagina } from "@/lib/api";
+import { useAlteracoes } from "@/hooks/useAlteracoes";
 
 interface Post {
   id: number;
@@ -44,15 +47,18 @@ const Blog = () => {
   const [posts, setPosts] = useState<Post[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
 
   useEffect(() => {
     let isMounted = true;
 
     const loadPosts = async () => {
       try {
-        const data = await fetchJson<Post[]>("/api/posts");
+        const data = await fetchJson<Pagina<Post>>("/api/posts");
         if (isMounted) {
-          setPosts(data);
+          setPosts(data.itens);
+          setProximoCursor(data.proximoCursor);
         }
       } catch (err) {
         if (isMounted) {
@@ -72,6 +78,45 @@ const Blog = () => {
     };
   }, []);
 
+  const recarregar = async () => {
+    try {
+      const data = await fetchJson<Pagina<Post>>("/api/posts");
+      setPosts(data.itens);
+      setProximoCursor(data.proximoCursor);
+    } catch {
+      // keep showing what is already loaded
+    }
+  };
+
+  // Edits are applied in place; a change too large to push reloads the first page
+  useAlteracoes<unknown, Post>((evento, perdeuEventos) => {
+    const alteracoes = evento.posts;
+    if (perdeuEventos || (alteracoes && (!alteracoes.alterados || !alteracoes.removidos))) {
+      recarregar();
+      return;
+    }
+    if (!alteracoes?.alterados || !alteracoes.removidos) return;
+    const alterados = new Map<number, Post>(alteracoes.alterados.map((post) => [post.id, post]));
+    const removidos = new Set(alteracoes.removidos);
+    setPosts((atuais) => atuais
+      .filter((post) => !removidos.has(post.id))
+      .map((post) => alterados.get(post.id) ?? post));
+  });
+
+  const carregarMais = async () => {
+    if (!proximoCursor) return;
+    setIsLoadingMore(true);
+    try {
+      const data = await fetchJson<Pagina<Post>>(`/api/posts${pageQuery(proximoCursor)}`);
+      setPosts((atuais) => [...atuais, ...data.itens]);
+      setProximoCursor(data.proximoCursor);
+    } catch (err) {
+      setError(err instanceof Error ? err.message : "Não foi possível carregar mais itens.");
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   const renderedPosts = useMemo(() => posts.map((post, index) => ({
     ...post,
     image: placeholderImages[index % placeholderImages.length],
@@ -93,6 +138,8 @@ const Blog = () => {
           </p>
         </div>
 
+        <EmAlta tipo="posts" />
+
         {isLoading && (
           <div className="rounded-lg border border-dashed border-secondary/40 bg-muted/30 p-6 text-center text-muted-foreground">
             Carregando posts do blog…
@@ -147,6 +194,14 @@ const Blog = () => {
             </Card>
           ))}
         </div>
+
+        {proximoCursor && !error && (
+          <div className="mt-10 text-center">
+            <Button variant="outline" onClick={carregarMais} disabled={isLoadingMore}>
+              {isLoadingMore ? "Carregando…" : "Carregar mais"}
+            </Button>
+          </div>
+        )}
       </main>
 
       <Footer />
@@ -1,10 +1,12 @@
 import { useEffect, useMemo, useState } from "react";
 import { Header } from "@/components/Header";
 import { Footer } from "@/components/Footer";
+import { EmAlta } from "@/components/EmAlta";
 import { Card, CardContent, CardDescription, CardFooter, CardHeader, CardTitle } from "@/components/ui/card";
 import { Button } from "@/components/ui/button";
 import { ShoppingCart } from "lucide-react";
-import { fetchJson } from "@/lib/api";
+import { assetUrl, fetchJson, pageQuery, type Pagina } from "@/lib/api";
+import { useAlteracoes } from "@/hooks/useAlteracoes";
 
 interface Produto {
   id: number;
@@ -12,6 +14,7 @@ interface Produto {
   descricao: string;
   preco: number;
   imagemUrl?: string | null;
+  imagemCardUrl?: string | null;
   estoque?: number | null;
   ativo?: boolean | null;
 }
@@ -40,15 +43,18 @@ const Loja = () => {
   const [produtos, setProdutos] = useState<Produto[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
 
   useEffect(() => {
     let isMounted = true;
 
     const loadProdutos = async () => {
       try {
-        const data = await fetchJson<Produto[]>("/api/produtos");
+        const data = await fetchJson<Pagina<Produto>>("/api/produtos");
         if (isMounted) {
-          setProdutos(data);
+          setProdutos(data.itens);
+          setProximoCursor(data.proximoCursor);
         }
       } catch (err) {
         if (isMounted) {
@@ -68,10 +74,49 @@ const Loja = () => {
     };
   }, []);
 
+  const recarregar = async () => {
+    try {
+      const data = await fetchJson<Pagina<Produto>>("/api/produtos");
+      setProdutos(data.itens);
+      setProximoCursor(data.proximoCursor);
+    } catch {
+      // keep showing what is already loaded
+    }
+  };
+
+  // Price and stock changes are applied in place; a change too large to push reloads the first page
+  useAlteracoes<Produto>((evento, perdeuEventos) => {
+    const alteracoes = evento.produtos;
+    if (perdeuEventos || (alteracoes && (!alteracoes.alterados || !alteracoes.removidos))) {
+      recarregar();
+      return;
+    }
+    if (!alteracoes?.alterados || !alteracoes.removidos) return;
+    const alterados = new Map<number, Produto>(alteracoes.alterados.map((produto) => [produto.id, produto]));
+    const removidos = new Set(alteracoes.removidos);
+    setProdutos((atuais) => atuais
+      .filter((produto) => !removidos.has(produto.id))
+      .map((produto) => alterados.get(produto.id) ?? produto));
+  });
+
+  const carregarMais = async () => {
+    if (!proximoCursor) return;
+    setIsLoadingMore(true);
+    try {
+      const data = await fetchJson<Pagina<Produto>>(`/api/produtos${pageQuery(proximoCursor)}`);
+      setProdutos((atuais) => [...atuais, ...data.itens]);
+      setProximoCursor(data.proximoCursor);
+    } catch (err) {
+      setError(err instanceof Error ? err.message : "Não foi possível carregar mais itens.");
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   const renderedProdutos = useMemo(() => produtos.map((produto, index) => ({
     ...produto,
-    image: produto.imagemUrl && produto.imagemUrl.length > 0
-      ? produto.imagemUrl
+    image: produto.imagemCardUrl && produto.imagemCardUrl.length > 0
+      ? assetUrl(produto.imagemCardUrl)
       : placeholderImages[index % placeholderImages.length],
   })), [produtos]);
 
@@ -89,6 +134,8 @@ const Loja = () => {
           </p>
         </div>
 
+        <EmAlta tipo="produtos" />
+
         {isLoading && (
           <div className="rounded-lg border border-dashed border-primary/40 bg-muted/30 p-6 text-center text-muted-foreground">
             Carregando produtos…
@@ -138,6 +185,14 @@ const Loja = () => {
             </Card>
           ))}
         </div>
+
+        {proximoCursor && !error && (
+          <div className="mt-10 text-center">
+            <Button variant="outline" onClick={carregarMais} disabled={isLoadingMore}>
+              {isLoadingMore ? "Carregando…" : "Carregar mais"}
+            </Button>
+          </div>
+        )}
       </main>
 
       <Footer />